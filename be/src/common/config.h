@@ -575,6 +575,10 @@ CONF_Int32(thrift_rpc_max_body_size, "0");
 // txn commit rpc timeout
 CONF_mInt32(txn_commit_rpc_timeout_ms, "60000");
 
+// The number of rows fetched from FE by one rpc when scanning information_schema.tables, tables_config and
+// partitions_meta. 0 means fetching all the rows by one rpc.
+CONF_mInt32(information_schema_scan_batch_size, "10000");
+
 // If set to true, metric calculator will run
 CONF_Bool(enable_metric_calculator, "true");
 
@@ -14,6 +14,8 @@
 
 #include "exec/olap_scan_node.h"
 
+#include <fmt/format.h>
+
 #include <algorithm>
 #include <chrono>
 #include <functional>
@@ -763,14 +765,34 @@ StatusOr<std::vector<RowsetSharedPtr>> OlapScanNode::capture_tablet_rowsets(cons
                                                                             const TInternalScanRange* scan_range) {
     std::vector<RowsetSharedPtr> rowsets;
     if (scan_range->__isset.gtid) {
+        if (scan_range->__isset.start_version) {
+            return Status::NotSupported(fmt::format("tablet {} cannot read versions since {} at gtid {}",
+                                                    tablet->tablet_id(), scan_range->start_version, scan_range->gtid));
+        }
         std::shared_lock l(tablet->get_header_lock());
         RETURN_IF_ERROR(tablet->capture_consistent_rowsets(scan_range->gtid, &rowsets));
         Rowset::acquire_readers(rowsets);
     } else {
         int64_t version = strtoul(scan_range->version.c_str(), nullptr, 10);
+        int64_t start_version = 0;
+        if (scan_range->__isset.start_version) {
+            // Only the rows appended since start_version are read, which is incorrect if some rows are
+            // deleted or updated in the version range.
+            start_version = scan_range->start_version;
+            if (tablet->keys_type() != DUP_KEYS) {
+                return Status::NotSupported(fmt::format("tablet {} is not duplicate key, cannot read versions {}-{}",
+                                                        tablet->tablet_id(), start_version, version));
+            }
+        }
         // Capture row sets of this version tablet.
         std::shared_lock l(tablet->get_header_lock());
-        RETURN_IF_ERROR(tablet->capture_consistent_rowsets(Version(0, version), &rowsets));
+        // check the deletes under the same lock of the capture, so no delete can be added between them
+        if (scan_range->__isset.start_version &&
+            tablet->has_delete_predicates_unlocked(Version(start_version, version))) {
+            return Status::NotSupported(fmt::format("tablet {} has deletes in versions {}-{}", tablet->tablet_id(),
+                                                    start_version, version));
+        }
+        RETURN_IF_ERROR(tablet->capture_consistent_rowsets(Version(start_version, version), &rowsets));
         Rowset::acquire_readers(rowsets);
     }
     return rowsets;
@@ -794,15 +816,8 @@ Status OlapScanNode::_capture_tablet_rowsets() {
     for (int i = 0; i < _scan_ranges.size(); ++i) {
         const auto& scan_range = _scan_ranges[i];
 
-        int64_t version = strtoul(scan_range->version.c_str(), nullptr, 10);
         ASSIGN_OR_RETURN(TabletSharedPtr tablet, get_tablet(scan_range.get()));
-
-        // Capture row sets of this version tablet.
-        {
-            std::shared_lock l(tablet->get_header_lock());
-            RETURN_IF_ERROR(tablet->capture_consistent_rowsets(Version(0, version), &_tablet_rowsets[i]));
-            Rowset::acquire_readers(_tablet_rowsets[i]);
-        }
+        ASSIGN_OR_RETURN(_tablet_rowsets[i], capture_tablet_rowsets(tablet, scan_range.get()));
     }
 
     return Status::OK();
@@ -16,6 +16,7 @@
 
 #include <fmt/format.h>
 
+#include "common/config.h"
 #include "common/logging.h"
 #include "exec/schema_scanner/schema_helper.h"
 #include "runtime/runtime_state.h"
@@ -79,12 +80,18 @@ Status SchemaPartitionsMetaScanner::start(RuntimeState* state) {
             auth_info.__set_user_ip(*(_param->user_ip));
         }
     }
-    TGetPartitionsMetaRequest partitions_meta_req;
-    partitions_meta_req.__set_auth_info(auth_info);
+    _partitions_meta_request.__set_auth_info(auth_info);
+
+    if (nullptr != _param->table) {
+        _partitions_meta_request.__set_table_name(*(_param->table));
+    }
+    if (config::information_schema_scan_batch_size > 0) {
+        _partitions_meta_request.__set_batch_size(config::information_schema_scan_batch_size);
+    }
 
     // init schema scanner state
     RETURN_IF_ERROR(SchemaScanner::init_schema_scanner_state(state));
-    RETURN_IF_ERROR(SchemaHelper::get_partitions_meta(_ss_state, partitions_meta_req, &_partitions_meta_response));
+    RETURN_IF_ERROR(SchemaHelper::get_partitions_meta(_ss_state, _partitions_meta_request, &_partitions_meta_response));
     _ctz = state->timezone_obj();
     _partitions_meta_index = 0;
     return Status::OK();
@@ -97,14 +104,24 @@ Status SchemaPartitionsMetaScanner::get_next(ChunkPtr* chunk, bool* eos) {
     if (nullptr == chunk || nullptr == eos) {
         return Status::InternalError("input pointer is nullptr.");
     }
-    if (_partitions_meta_index >= _partitions_meta_response.partitions_meta_infos.size()) {
-        *eos = true;
-        return Status::OK();
+    while (_partitions_meta_index >= _partitions_meta_response.partitions_meta_infos.size()) {
+        if (!_partitions_meta_response.__isset.next_cursor) {
+            *eos = true;
+            return Status::OK();
+        }
+        RETURN_IF_ERROR(_fetch_next_batch());
     }
     *eos = false;
     return fill_chunk(chunk);
 }
 
+Status SchemaPartitionsMetaScanner::_fetch_next_batch() {
+    _partitions_meta_request.__set_start_cursor(_partitions_meta_response.next_cursor);
+    _partitions_meta_response = TGetPartitionsMetaResponse();
+    _partitions_meta_index = 0;
+    return SchemaHelper::get_partitions_meta(_ss_state, _partitions_meta_request, &_partitions_meta_response);
+}
+
 Status SchemaPartitionsMetaScanner::fill_chunk(ChunkPtr* chunk) {
     const TPartitionMetaInfo& info = _partitions_meta_response.partitions_meta_infos[_partitions_meta_index];
     const auto& slot_id_to_index_map = (*chunk)->get_slot_id_to_index_map();
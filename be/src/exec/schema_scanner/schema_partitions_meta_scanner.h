@@ -32,9 +32,12 @@ public:
 private:
     Status get_new_table();
     Status fill_chunk(ChunkPtr* chunk);
+    // fetch the next batch of rows from FE by the cursor of the last batch
+    Status _fetch_next_batch();
 
     cctz::time_zone _ctz;
     int _partitions_meta_index;
+    TGetPartitionsMetaRequest _partitions_meta_request;
     TGetPartitionsMetaResponse _partitions_meta_response;
 
     static SchemaScanner::ColumnDesc _s_columns[];
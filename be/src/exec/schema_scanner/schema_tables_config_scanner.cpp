@@ -14,6 +14,7 @@
 
 #include "exec/schema_scanner/schema_tables_config_scanner.h"
 
+#include "common/config.h"
 #include "common/logging.h"
 #include "exec/schema_scanner/schema_helper.h"
 #include "runtime/string_value.h"
@@ -61,12 +62,18 @@ Status SchemaTablesConfigScanner::start(RuntimeState* state) {
             auth_info.__set_user_ip(*(_param->user_ip));
         }
     }
-    TGetTablesConfigRequest tables_config_req;
-    tables_config_req.__set_auth_info(auth_info);
+    _tables_config_request.__set_auth_info(auth_info);
+
+    if (nullptr != _param->table) {
+        _tables_config_request.__set_table_name(*(_param->table));
+    }
+    if (config::information_schema_scan_batch_size > 0) {
+        _tables_config_request.__set_batch_size(config::information_schema_scan_batch_size);
+    }
 
     // init schema scanner state
     RETURN_IF_ERROR(SchemaScanner::init_schema_scanner_state(state));
-    RETURN_IF_ERROR(SchemaHelper::get_tables_config(_ss_state, tables_config_req, &_tables_config_response));
+    RETURN_IF_ERROR(SchemaHelper::get_tables_config(_ss_state, _tables_config_request, &_tables_config_response));
     return Status::OK();
 }
 
@@ -77,14 +84,24 @@ Status SchemaTablesConfigScanner::get_next(ChunkPtr* chunk, bool* eos) {
     if (nullptr == chunk || nullptr == eos) {
         return Status::InternalError("input pointer is nullptr.");
     }
-    if (_tables_config_index >= _tables_config_response.tables_config_infos.size()) {
-        *eos = true;
-        return Status::OK();
+    while (_tables_config_index >= _tables_config_response.tables_config_infos.size()) {
+        if (!_tables_config_response.__isset.next_cursor) {
+            *eos = true;
+            return Status::OK();
+        }
+        RETURN_IF_ERROR(_fetch_next_batch());
     }
     *eos = false;
     return fill_chunk(chunk);
 }
 
+Status SchemaTablesConfigScanner::_fetch_next_batch() {
+    _tables_config_request.__set_start_cursor(_tables_config_response.next_cursor);
+    _tables_config_response = TGetTablesConfigResponse();
+    _tables_config_index = 0;
+    return SchemaHelper::get_tables_config(_ss_state, _tables_config_request, &_tables_config_response);
+}
+
 Status SchemaTablesConfigScanner::fill_chunk(ChunkPtr* chunk) {
     const TTableConfigInfo& info = _tables_config_response.tables_config_infos[_tables_config_index];
     const auto& slot_id_to_index_map = (*chunk)->get_slot_id_to_index_map();
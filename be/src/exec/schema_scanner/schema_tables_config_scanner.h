@@ -30,8 +30,11 @@ public:
 private:
     Status get_new_table();
     Status fill_chunk(ChunkPtr* chunk);
+    // fetch the next batch of rows from FE by the cursor of the last batch
+    Status _fetch_next_batch();
 
     int _tables_config_index{0};
+    TGetTablesConfigRequest _tables_config_request;
     TGetTablesConfigResponse _tables_config_response;
     static SchemaScanner::ColumnDesc _s_table_tables_config_columns[];
 };
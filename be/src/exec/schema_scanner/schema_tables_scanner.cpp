@@ -15,6 +15,7 @@
 #include "exec/schema_scanner/schema_tables_scanner.h"
 
 #include "column/nullable_column.h"
+#include "common/config.h"
 #include "exec/schema_scanner/schema_helper.h"
 #include "runtime/runtime_state.h"
 #include "runtime/string_value.h"
@@ -73,16 +74,19 @@ Status SchemaTablesScanner::start(RuntimeState* state) {
         }
     }
 
-    TGetTablesInfoRequest get_tables_info_request;
-    get_tables_info_request.__set_auth_info(auth_info);
+    _tables_info_request.__set_auth_info(auth_info);
 
     if (nullptr != _param->table) {
-        get_tables_info_request.__set_table_name(*(_param->table));
+        _tables_info_request.__set_table_name(*(_param->table));
+    }
+
+    if (config::information_schema_scan_batch_size > 0) {
+        _tables_info_request.__set_batch_size(config::information_schema_scan_batch_size);
     }
 
     // init schema scanner state
     RETURN_IF_ERROR(SchemaScanner::init_schema_scanner_state(state));
-    RETURN_IF_ERROR(SchemaHelper::get_tables_info(_ss_state, get_tables_info_request, &_tabls_info_response));
+    RETURN_IF_ERROR(SchemaHelper::get_tables_info(_ss_state, _tables_info_request, &_tabls_info_response));
     return Status::OK();
 }
 
@@ -93,14 +97,24 @@ Status SchemaTablesScanner::get_next(ChunkPtr* chunk, bool* eos) {
     if (nullptr == chunk || nullptr == eos) {
         return Status::InternalError("input pointer is nullptr.");
     }
-    if (_tables_info_index >= _tabls_info_response.tables_infos.size()) {
-        *eos = true;
-        return Status::OK();
+    while (_tables_info_index >= _tabls_info_response.tables_infos.size()) {
+        if (!_tabls_info_response.__isset.next_cursor) {
+            *eos = true;
+            return Status::OK();
+        }
+        RETURN_IF_ERROR(_fetch_next_batch());
     }
     *eos = false;
     return fill_chunk(chunk);
 }
 
+Status SchemaTablesScanner::_fetch_next_batch() {
+    _tables_info_request.__set_start_cursor(_tabls_info_response.next_cursor);
+    _tabls_info_response = TGetTablesInfoResponse();
+    _tables_info_index = 0;
+    return SchemaHelper::get_tables_info(_ss_state, _tables_info_request, &_tabls_info_response);
+}
+
 Status SchemaTablesScanner::fill_chunk(ChunkPtr* chunk) {
     const TTableInfo& table_info = _tabls_info_response.tables_infos[_tables_info_index];
     const auto& slot_id_to_index_map = (*chunk)->get_slot_id_to_index_map();
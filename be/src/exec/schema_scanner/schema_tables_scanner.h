@@ -30,8 +30,11 @@ public:
 private:
     Status get_new_table();
     Status fill_chunk(ChunkPtr* chunk);
+    // fetch the next batch of rows from FE by the cursor of the last batch
+    Status _fetch_next_batch();
 
     int _tables_info_index{0};
+    TGetTablesInfoRequest _tables_info_request;
     TGetTablesInfoResponse _tabls_info_response;
     static SchemaScanner::ColumnDesc _s_tbls_columns[];
 };
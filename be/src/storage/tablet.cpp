@@ -912,6 +912,10 @@ bool Tablet::version_for_delete_predicate_unlocked(const Version& version) {
 
 bool Tablet::has_delete_predicates(const Version& version) {
     std::shared_lock rlock(get_header_lock());
+    return has_delete_predicates_unlocked(version);
+}
+
+bool Tablet::has_delete_predicates_unlocked(const Version& version) const {
     const auto& preds = _tablet_meta->delete_predicates();
     return std::any_of(preds.begin(), preds.end(), [&version](const auto& pred) {
         return version.first <= pred.version() && pred.version() <= version.second;
@@ -164,6 +164,8 @@ public:
     [[nodiscard]] bool version_for_delete_predicate(const Version& version);
     [[nodiscard]] bool version_for_delete_predicate_unlocked(const Version& version);
     [[nodiscard]] bool has_delete_predicates(const Version& version);
+    // REQUIRE: `obtain_header_rdlock()`ed
+    [[nodiscard]] bool has_delete_predicates_unlocked(const Version& version) const;
 
     // meta lock
     void obtain_header_rdlock() { _meta_lock.lock_shared(); }
@@ -0,0 +1,270 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+#include "exec/olap_scan_node.h"
+
+#include <fmt/format.h>
+#include <gtest/gtest.h>
+
+#include <algorithm>
+#include <memory>
+
+#include "fs/fs_util.h"
+#include "gen_cpp/PlanNodes_types.h"
+#include "runtime/mem_tracker.h"
+#include "storage/chunk_helper.h"
+#include "storage/rowset/rowset_factory.h"
+#include "storage/rowset/rowset_writer.h"
+#include "storage/rowset/rowset_writer_context.h"
+#include "storage/storage_engine.h"
+#include "storage/tablet.h"
+#include "storage/tablet_meta.h"
+#include "testutil/assert.h"
+
+namespace starrocks {
+
+class OlapScanNodeTest : public testing::Test {
+public:
+    ~OlapScanNodeTest() override {
+        if (_engine) {
+            _engine->stop();
+            delete _engine;
+            _engine = nullptr;
+        }
+    }
+
+    void SetUp() override {
+        _default_storage_root_path = config::storage_root_path;
+        config::storage_root_path = std::filesystem::current_path().string() + "/olap_scan_node_test";
+        fs::remove_all(config::storage_root_path);
+        ASSERT_TRUE(fs::create_directories(config::storage_root_path).ok());
+        std::vector<StorePath> paths;
+        paths.emplace_back(config::storage_root_path);
+
+        _compaction_mem_tracker = std::make_unique<MemTracker>(-1);
+        starrocks::EngineOptions options;
+        options.store_paths = paths;
+        options.compaction_mem_tracker = _compaction_mem_tracker.get();
+        if (_engine == nullptr) {
+            Status s = starrocks::StorageEngine::open(options, &_engine);
+            ASSERT_TRUE(s.ok()) << s.to_string();
+        }
+
+        ASSERT_OK(fs::create_directories(fmt::format("{}/data/0/12345/1111", config::storage_root_path)));
+        _rowset_id = 10000;
+    }
+
+    void TearDown() override {
+        if (fs::path_exist(config::storage_root_path)) {
+            ASSERT_TRUE(fs::remove_all(config::storage_root_path).ok());
+        }
+        config::storage_root_path = _default_storage_root_path;
+    }
+
+protected:
+    void create_tablet_schema(KeysType keys_type) {
+        TabletSchemaPB tablet_schema_pb;
+        tablet_schema_pb.set_keys_type(keys_type);
+        tablet_schema_pb.set_num_short_key_columns(1);
+        tablet_schema_pb.set_num_rows_per_row_block(1024);
+        tablet_schema_pb.set_next_column_unique_id(3);
+
+        ColumnPB* column_1 = tablet_schema_pb.add_column();
+        column_1->set_unique_id(1);
+        column_1->set_name("k1");
+        column_1->set_type("INT");
+        column_1->set_is_key(true);
+        column_1->set_length(4);
+        column_1->set_index_length(4);
+        column_1->set_is_nullable(false);
+        column_1->set_is_bf_column(false);
+
+        ColumnPB* column_2 = tablet_schema_pb.add_column();
+        column_2->set_unique_id(2);
+        column_2->set_name("v1");
+        column_2->set_type("INT");
+        column_2->set_length(4);
+        column_2->set_is_key(false);
+        column_2->set_is_nullable(false);
+        column_2->set_is_bf_column(false);
+        if (keys_type != DUP_KEYS) {
+            column_2->set_aggregation("REPLACE");
+        }
+
+        _tablet_schema = std::make_unique<TabletSchema>(tablet_schema_pb);
+    }
+
+    TabletMetaSharedPtr create_tablet_meta() {
+        TabletMetaPB tablet_meta_pb;
+        tablet_meta_pb.set_table_id(10000);
+        tablet_meta_pb.set_tablet_id(12345);
+        tablet_meta_pb.set_schema_hash(1111);
+        tablet_meta_pb.set_partition_id(10);
+        tablet_meta_pb.set_shard_id(0);
+        tablet_meta_pb.set_creation_time(1575020449);
+        tablet_meta_pb.set_tablet_state(PB_RUNNING);
+        PUniqueId* tablet_uid = tablet_meta_pb.mutable_tablet_uid();
+        tablet_uid->set_hi(10);
+        tablet_uid->set_lo(10);
+        _tablet_schema->to_schema_pb(tablet_meta_pb.mutable_schema());
+
+        auto tablet_meta = std::make_shared<TabletMeta>();
+        tablet_meta->init_from_pb(&tablet_meta_pb);
+        return tablet_meta;
+    }
+
+    RowsetSharedPtr write_version(int64_t version, int num_rows) {
+        RowsetWriterContext rowset_writer_context;
+        RowsetId rowset_id;
+        rowset_id.init(_rowset_id++);
+        rowset_writer_context.rowset_id = rowset_id;
+        rowset_writer_context.tablet_id = 12345;
+        rowset_writer_context.tablet_schema_hash = 1111;
+        rowset_writer_context.partition_id = 10;
+        rowset_writer_context.rowset_path_prefix = config::storage_root_path + "/data/0/12345/1111";
+        rowset_writer_context.rowset_state = VISIBLE;
+        rowset_writer_context.tablet_schema = _tablet_schema;
+        rowset_writer_context.version.first = version;
+        rowset_writer_context.version.second = version;
+
+        std::unique_ptr<RowsetWriter> rowset_writer;
+        CHECK_OK(RowsetFactory::create_rowset_writer(rowset_writer_context, &rowset_writer));
+        if (num_rows > 0) {
+            auto schema = ChunkHelper::convert_schema(_tablet_schema);
+            auto chunk = ChunkHelper::new_chunk(schema, num_rows);
+            for (int i = 0; i < num_rows; ++i) {
+                auto& cols = chunk->columns();
+                cols[0]->append_datum(Datum(static_cast<int32_t>(i)));
+                cols[1]->append_datum(Datum(static_cast<int32_t>(version)));
+            }
+            CHECK_OK(rowset_writer->add_chunk(*chunk));
+        }
+        CHECK_OK(rowset_writer->flush());
+        return *rowset_writer->build();
+    }
+
+    // Create a tablet with the versions [0, max_version], each version has its own rowset, and the version
+    // `delete_version` is a delete if it's positive.
+    TabletSharedPtr create_tablet(KeysType keys_type, int64_t max_version, int64_t delete_version) {
+        create_tablet_schema(keys_type);
+        TabletMetaSharedPtr tablet_meta = create_tablet_meta();
+        for (int64_t version = 0; version <= max_version; ++version) {
+            if (version == delete_version) {
+                RowsetSharedPtr rowset = write_version(version, 0);
+                auto* delete_predicate = rowset->rowset_meta()->mutable_delete_predicate();
+                delete_predicate->set_version(version);
+                delete_predicate->add_sub_predicates("k1<=10");
+                tablet_meta->add_rs_meta(rowset->rowset_meta());
+            } else {
+                tablet_meta->add_rs_meta(write_version(version, 16)->rowset_meta());
+            }
+        }
+        TabletSharedPtr tablet =
+                Tablet::create_tablet_from_meta(tablet_meta, starrocks::StorageEngine::instance()->get_stores()[0]);
+        CHECK_OK(tablet->init());
+        return tablet;
+    }
+
+    static TInternalScanRange create_scan_range(int64_t version, int64_t start_version) {
+        TInternalScanRange scan_range;
+        scan_range.__set_tablet_id(12345);
+        scan_range.__set_schema_hash("1111");
+        scan_range.__set_version(std::to_string(version));
+        if (start_version >= 0) {
+            scan_range.__set_start_version(start_version);
+        }
+        return scan_range;
+    }
+
+    static std::vector<Version> get_versions(const std::vector<RowsetSharedPtr>& rowsets) {
+        std::vector<Version> versions;
+        for (const auto& rowset : rowsets) {
+            versions.push_back(rowset->version());
+        }
+        std::sort(versions.begin(), versions.end(),
+                  [](const Version& a, const Version& b) { return a.first < b.first; });
+        return versions;
+    }
+
+    StorageEngine* _engine = nullptr;
+    std::shared_ptr<TabletSchema> _tablet_schema;
+    std::unique_ptr<MemTracker> _compaction_mem_tracker;
+    std::string _default_storage_root_path;
+    int64_t _rowset_id;
+};
+
+TEST_F(OlapScanNodeTest, test_capture_all_versions) {
+    TabletSharedPtr tablet = create_tablet(DUP_KEYS, 3, -1);
+    TInternalScanRange scan_range = create_scan_range(3, -1);
+    ASSIGN_OR_ABORT(auto rowsets, OlapScanNode::capture_tablet_rowsets(tablet, &scan_range));
+    std::vector<Version> expected{{0, 0}, {1, 1}, {2, 2}, {3, 3}};
+    ASSERT_EQ(expected, get_versions(rowsets));
+    Rowset::release_readers(rowsets);
+}
+
+TEST_F(OlapScanNodeTest, test_capture_versions_from_start_version) {
+    TabletSharedPtr tablet = create_tablet(DUP_KEYS, 4, -1);
+    {
+        TInternalScanRange scan_range = create_scan_range(3, 2);
+        ASSIGN_OR_ABORT(auto rowsets, OlapScanNode::capture_tablet_rowsets(tablet, &scan_range));
+        std::vector<Version> expected{{2, 2}, {3, 3}};
+        ASSERT_EQ(expected, get_versions(rowsets));
+        Rowset::release_readers(rowsets);
+    }
+    {
+        TInternalScanRange scan_range = create_scan_range(4, 4);
+        ASSIGN_OR_ABORT(auto rowsets, OlapScanNode::capture_tablet_rowsets(tablet, &scan_range));
+        std::vector<Version> expected{{4, 4}};
+        ASSERT_EQ(expected, get_versions(rowsets));
+        Rowset::release_readers(rowsets);
+    }
+}
+
+TEST_F(OlapScanNodeTest, test_capture_versions_from_start_version_not_dup_keys) {
+    TabletSharedPtr tablet = create_tablet(UNIQUE_KEYS, 3, -1);
+    TInternalScanRange scan_range = create_scan_range(3, 2);
+    auto res = OlapScanNode::capture_tablet_rowsets(tablet, &scan_range);
+    ASSERT_TRUE(res.status().is_not_supported()) << res.status();
+
+    // all the versions can still be read
+    scan_range = create_scan_range(3, -1);
+    ASSERT_OK(OlapScanNode::capture_tablet_rowsets(tablet, &scan_range).status());
+}
+
+TEST_F(OlapScanNodeTest, test_capture_versions_from_start_version_with_gtid) {
+    TabletSharedPtr tablet = create_tablet(DUP_KEYS, 3, -1);
+    TInternalScanRange scan_range = create_scan_range(3, 2);
+    scan_range.__set_gtid(1);
+    auto res = OlapScanNode::capture_tablet_rowsets(tablet, &scan_range);
+    ASSERT_TRUE(res.status().is_not_supported()) << res.status();
+}
+
+TEST_F(OlapScanNodeTest, test_capture_versions_from_start_version_with_delete) {
+    TabletSharedPtr tablet = create_tablet(DUP_KEYS, 4, 2);
+    {
+        TInternalScanRange scan_range = create_scan_range(4, 1);
+        auto res = OlapScanNode::capture_tablet_rowsets(tablet, &scan_range);
+        ASSERT_TRUE(res.status().is_not_supported()) << res.status();
+    }
+    {
+        // the delete before the start version doesn't matter
+        TInternalScanRange scan_range = create_scan_range(4, 3);
+        ASSIGN_OR_ABORT(auto rowsets, OlapScanNode::capture_tablet_rowsets(tablet, &scan_range));
+        std::vector<Version> expected{{3, 3}, {4, 4}};
+        ASSERT_EQ(expected, get_versions(rowsets));
+        Rowset::release_readers(rowsets);
+    }
+}
+
+} // namespace starrocks
@@ -0,0 +1,172 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.starrocks.data.load.stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import io.airlift.slice.Slice;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.CharType;
+import io.trino.spi.type.TimestampType;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.VarcharType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.starrocks.data.load.stream.StreamLoadConstants.DATETIME_FORMATTER;
+import static com.starrocks.data.load.stream.StreamLoadConstants.DATE_FORMATTER;
+import static com.starrocks.data.load.stream.StreamLoadUtils.toLocalDateTime;
+import static io.trino.spi.type.DateType.DATE;
+
+/**
+ * Encodes Trino pages into stream load JSON rows.
+ * <p>
+ * The type dispatch is resolved once per column when the encoder is created, and rows are written
+ * straight into a reused byte buffer by a streaming generator, instead of building a JSON tree and
+ * a String for every row. Varchar and char values are written from the slice bytes without decoding them,
+ * other slices like varbinary are decoded as before, since their bytes may not be valid UTF-8.
+ * <p>
+ * Not thread safe, every page sink owns its encoder.
+ */
+public class StreamLoadPageEncoder
+{
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final SerializedString[] fieldNames;
+    private final ColumnEncoder[] encoders;
+    private final Optional<SerializedString> extraFieldName;
+    private final long extraFieldValue;
+    private final ByteArrayBuilder buffer = new ByteArrayBuilder();
+
+    public StreamLoadPageEncoder(List<String> columnNames, List<Type> columnTypes)
+    {
+        this(columnNames, columnTypes, Optional.empty(), 0);
+    }
+
+    /**
+     * @param extraFieldName a constant column appended to every row, e.g. the page sink id column
+     * @param extraFieldValue the value of the constant column
+     */
+    public StreamLoadPageEncoder(List<String> columnNames, List<Type> columnTypes, Optional<String> extraFieldName, long extraFieldValue)
+    {
+        checkArgument(columnNames.size() == columnTypes.size(), "column names and types have different size");
+        this.fieldNames = new SerializedString[columnNames.size()];
+        this.encoders = new ColumnEncoder[columnTypes.size()];
+        for (int i = 0; i < columnNames.size(); i++) {
+            fieldNames[i] = new SerializedString(columnNames.get(i));
+            encoders[i] = createEncoder(columnTypes.get(i));
+        }
+        this.extraFieldName = extraFieldName.map(SerializedString::new);
+        this.extraFieldValue = extraFieldValue;
+    }
+
+    /**
+     * Encodes every position of the page into one JSON object and passes it to the row consumer.
+     */
+    public void encode(Page page, Consumer<byte[]> rowConsumer)
+    {
+        checkArgument(page.getChannelCount() == encoders.length, "page has %s channels, but %s columns are expected",
+                page.getChannelCount(), encoders.length);
+        Block[] blocks = new Block[encoders.length];
+        for (int channel = 0; channel < blocks.length; channel++) {
+            blocks[channel] = page.getBlock(channel);
+        }
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer)) {
+            generator.setRootValueSeparator(null);
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                generator.writeStartObject();
+                for (int channel = 0; channel < blocks.length; channel++) {
+                    Block block = blocks[channel];
+                    if (block.isNull(position)) {
+                        continue;
+                    }
+                    generator.writeFieldName(fieldNames[channel]);
+                    encoders[channel].encode(generator, block, position);
+                }
+                if (extraFieldName.isPresent()) {
+                    generator.writeFieldName(extraFieldName.get());
+                    generator.writeNumber(extraFieldValue);
+                }
+                generator.writeEndObject();
+                generator.flush();
+                rowConsumer.accept(buffer.toByteArray());
+                buffer.reset();
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            buffer.reset();
+        }
+    }
+
+    private static ColumnEncoder createEncoder(Type type)
+    {
+        Class<?> javaType = type.getJavaType();
+        if (javaType == boolean.class) {
+            return (generator, block, position) -> generator.writeBoolean(type.getBoolean(block, position));
+        }
+        if (javaType == long.class) {
+            if (type.equals(DATE)) {
+                return (generator, block, position) ->
+                        generator.writeString(LocalDate.ofEpochDay(type.getLong(block, position)).format(DATE_FORMATTER));
+            }
+            if (type instanceof TimestampType) {
+                TimestampType timestampType = (TimestampType) type;
+                return (generator, block, position) ->
+                        generator.writeString(toLocalDateTime(timestampType, block, position).format(DATETIME_FORMATTER));
+            }
+            return (generator, block, position) -> generator.writeNumber(type.getLong(block, position));
+        }
+        if (javaType == double.class) {
+            return (generator, block, position) -> generator.writeNumber(type.getDouble(block, position));
+        }
+        if (type instanceof VarcharType || type instanceof CharType) {
+            return (generator, block, position) -> {
+                Slice slice = type.getSlice(block, position);
+                if (slice.hasByteArray()) {
+                    generator.writeUTF8String(slice.byteArray(), slice.byteArrayOffset(), slice.length());
+                }
+                else {
+                    byte[] bytes = slice.getBytes();
+                    generator.writeUTF8String(bytes, 0, bytes.length);
+                }
+            };
+        }
+        if (javaType == Slice.class) {
+            // e.g. varbinary, which isn't valid UTF-8 in general, the decoder replaces the malformed bytes
+            return (generator, block, position) -> generator.writeString(type.getSlice(block, position).toStringUtf8());
+        }
+        return (generator, block, position) -> generator.writeString(type.getObject(block, position).toString());
+    }
+
+    @FunctionalInterface
+    private interface ColumnEncoder
+    {
+        void encode(JsonGenerator generator, Block block, int position)
+                throws IOException;
+    }
+}
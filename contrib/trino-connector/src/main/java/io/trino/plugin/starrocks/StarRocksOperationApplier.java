@@ -88,7 +88,18 @@ public final class StarRocksOperationApplier
      */
     public void applyOperationAsync(String row)
     {
-        int bytes = region.write(row.getBytes(StandardCharsets.UTF_8));
+        applyOperationAsync(row.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Not thread safe
+     * Same as {@link #applyOperationAsync(String)}, but takes the already encoded row
+     *
+     * @param row row data encoded in UTF-8
+     */
+    public void applyOperationAsync(byte[] row)
+    {
+        int bytes = region.write(row);
         if (currentCacheBytes.addAndGet(bytes) >= maxCacheBytes) {
             try {
                 if (region.commit()) {
@@ -14,114 +14,50 @@
 
 package io.trino.plugin.starrocks;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
-import io.airlift.json.ObjectMapperProvider;
+import com.starrocks.data.load.stream.StreamLoadPageEncoder;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.trino.plugin.jdbc.JdbcOutputTableHandle;
 import io.trino.spi.Page;
 import io.trino.spi.TrinoException;
-import io.trino.spi.block.Block;
 import io.trino.spi.connector.ConnectorPageSink;
 import io.trino.spi.connector.ConnectorPageSinkId;
-import io.trino.spi.type.TimestampType;
-import io.trino.spi.type.Type;
 
-import java.sql.SQLException;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.io.UncheckedIOException;
 import java.util.Collection;
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
-import static com.starrocks.data.load.stream.StreamLoadConstants.DATETIME_FORMATTER;
-import static com.starrocks.data.load.stream.StreamLoadConstants.DATE_FORMATTER;
-import static com.starrocks.data.load.stream.StreamLoadUtils.toLocalDateTime;
 import static io.trino.plugin.starrocks.StarRocksErrorCode.STAR_ROCKS_WRITE_ERROR;
-import static io.trino.spi.type.DateType.DATE;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 
 public class StarRocksPageSink
         implements ConnectorPageSink
 {
-    private final ObjectMapper objectMapper;
-    private final JdbcOutputTableHandle handle;
     private final StarRocksOperationApplier applier;
+    private final StreamLoadPageEncoder encoder;
     private final ConnectorPageSinkId pageSinkId;
 
     public StarRocksPageSink(JdbcOutputTableHandle handle, StarRocksOperationApplier applier, ConnectorPageSinkId pageSinkId)
     {
-        this.handle = handle;
         this.applier = applier;
-        this.objectMapper = new ObjectMapperProvider().get();
         this.pageSinkId = pageSinkId;
+        this.encoder = new StreamLoadPageEncoder(handle.getColumnNames(), handle.getColumnTypes(),
+                handle.getPageSinkIdColumnName(), pageSinkId.getId());
     }
 
     @Override
     public CompletableFuture<?> appendPage(Page page)
     {
         try {
-            for (int position = 0; position < page.getPositionCount(); position++) {
-                ObjectNode objectNode = objectMapper.createObjectNode();
-                for (int channel = 0; channel < page.getChannelCount(); channel++) {
-                    appendColumn(page, position, channel, objectNode);
-                }
-                if (handle.getPageSinkIdColumnName().isPresent()) {
-                    objectNode.put(handle.getPageSinkIdColumnName().get(), pageSinkId.getId());
-                }
-                String row = objectMapper.writeValueAsString(objectNode);
-                applier.applyOperationAsync(row);
-            }
+            encoder.encode(page, applier::applyOperationAsync);
         }
-        catch (SQLException | JsonProcessingException e) {
-            throw new TrinoException(STAR_ROCKS_WRITE_ERROR, e);
+        catch (UncheckedIOException e) {
+            throw new TrinoException(STAR_ROCKS_WRITE_ERROR, e.getCause());
         }
         return NOT_BLOCKED;
     }
 
-    private void appendColumn(Page page, int position, int channel, ObjectNode objectNode)
-            throws SQLException
-    {
-        Block block = page.getBlock(channel);
-        if (block.isNull(position)) {
-            return;
-        }
-
-        List<Type> columnTypes = handle.getColumnTypes();
-        List<String> columnNames = handle.getColumnNames();
-        Type type = columnTypes.get(channel);
-        String columnName = columnNames.get(channel);
-        Class<?> javaType = type.getJavaType();
-        if (javaType == boolean.class) {
-            objectNode.put(columnName, type.getBoolean(block, position));
-        }
-        else if (javaType == long.class) {
-            long value = type.getLong(block, position);
-            if (type.equals(DATE)) {
-                objectNode.put(columnName, LocalDate.ofEpochDay(value).format(DATE_FORMATTER));
-            }
-            else if (type instanceof TimestampType) {
-                LocalDateTime dateTime = toLocalDateTime(((TimestampType) type), block, position);
-                objectNode.put(columnName, dateTime.format(DATETIME_FORMATTER));
-            }
-            else {
-                objectNode.put(columnName, value);
-            }
-        }
-        else if (javaType == double.class) {
-            objectNode.put(columnName, type.getDouble(block, position));
-        }
-        else if (javaType == Slice.class) {
-            objectNode.put(columnName, type.getSlice(block, position).toStringUtf8());
-        }
-        else {
-            objectNode.put(columnName, type.getObject(block, position).toString());
-        }
-    }
-
     @Override
     public CompletableFuture<Collection<Slice>> finish()
     {
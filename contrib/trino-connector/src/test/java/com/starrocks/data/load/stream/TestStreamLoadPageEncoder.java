@@ -0,0 +1,102 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.data.load.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slices;
+import io.trino.spi.Page;
+import io.trino.spi.block.BlockBuilder;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.BooleanType.BOOLEAN;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.VarbinaryType.VARBINARY;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestStreamLoadPageEncoder
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    public void testEncode()
+            throws IOException
+    {
+        BlockBuilder ids = BIGINT.createBlockBuilder(null, 2);
+        BIGINT.writeLong(ids, 1);
+        BIGINT.writeLong(ids, 2);
+        BlockBuilder names = VARCHAR.createBlockBuilder(null, 2);
+        VARCHAR.writeSlice(names, Slices.utf8Slice("a \"quoted\"\n名字"));
+        names.appendNull();
+        BlockBuilder flags = BOOLEAN.createBlockBuilder(null, 2);
+        BOOLEAN.writeBoolean(flags, true);
+        BOOLEAN.writeBoolean(flags, false);
+        BlockBuilder dates = DATE.createBlockBuilder(null, 2);
+        DATE.writeLong(dates, LocalDate.of(2024, 1, 2).toEpochDay());
+        dates.appendNull();
+        Page page = new Page(ids.build(), names.build(), flags.build(), dates.build());
+
+        StreamLoadPageEncoder encoder = new StreamLoadPageEncoder(ImmutableList.of("id", "name", "flag", "dt"),
+                ImmutableList.of(BIGINT, VARCHAR, BOOLEAN, DATE), Optional.of("sink_id"), 7);
+        List<JsonNode> rows = encode(encoder, page);
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).toString())
+                .isEqualTo("{\"id\":1,\"name\":\"a \\\"quoted\\\"\\n名字\",\"flag\":true,\"dt\":\"2024-01-02\",\"sink_id\":7}");
+        // the null values are left out
+        assertThat(rows.get(1).toString()).isEqualTo("{\"id\":2,\"flag\":false,\"sink_id\":7}");
+    }
+
+    @Test
+    public void testEncodeVarbinary()
+            throws IOException
+    {
+        // not valid UTF-8
+        byte[] binary = new byte[] {(byte) 0xff, 'a', (byte) 0xc3, '"'};
+        BlockBuilder values = VARBINARY.createBlockBuilder(null, 2);
+        VARBINARY.writeSlice(values, Slices.wrappedBuffer(binary));
+        VARBINARY.writeSlice(values, Slices.utf8Slice("abc"));
+        Page page = new Page(values.build());
+
+        StreamLoadPageEncoder encoder = new StreamLoadPageEncoder(ImmutableList.of("bin"), ImmutableList.of(VARBINARY));
+        List<JsonNode> rows = encode(encoder, page);
+        assertThat(rows).hasSize(2);
+        // encoded like Slice#toStringUtf8, which replaces the malformed bytes
+        assertThat(rows.get(0).get("bin").asText()).isEqualTo(new String(binary, UTF_8));
+        assertThat(rows.get(1).get("bin").asText()).isEqualTo("abc");
+    }
+
+    private static List<JsonNode> encode(StreamLoadPageEncoder encoder, Page page)
+            throws IOException
+    {
+        List<byte[]> rows = new ArrayList<>();
+        encoder.encode(page, rows::add);
+        List<JsonNode> nodes = new ArrayList<>();
+        for (byte[] row : rows) {
+            // fails if the row isn't valid JSON
+            nodes.add(OBJECT_MAPPER.readTree(row));
+        }
+        return nodes;
+    }
+}
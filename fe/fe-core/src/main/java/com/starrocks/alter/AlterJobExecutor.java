@@ -750,6 +750,7 @@ public class AlterJobExecutor implements AstVisitor<Void, ConnectContext> {
                 if (partitionInfo.getType() == PartitionType.UNPARTITIONED) {
                     olapTable.setReplicationNum(newReplicationNum);
                 }
+                GlobalStateMgr.getCurrentState().getTabletChecker().markPartitionTabletsDirty(partition);
             }
             // 3. in memory
             boolean oldInMemory = partitionInfo.getIsInMemory(partition.getId());
@@ -273,6 +273,8 @@ public class SystemHandler extends AlterHandler {
                     for (Backend backend : decommissionBackends) {
                         backend.setDecommissioned(true);
                         GlobalStateMgr.getCurrentState().getEditLog().logBackendStateChange(backend);
+                        // the replicas on the decommissioned backend need to be migrated
+                        GlobalStateMgr.getCurrentState().getTabletChecker().markBackendTabletsDirty(backend.getId());
                         LOG.info("set backend {} to decommission", backend.getId());
                     }
                 }
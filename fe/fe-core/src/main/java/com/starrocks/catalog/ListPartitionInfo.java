@@ -34,6 +34,7 @@ import com.starrocks.sql.ast.SingleItemListPartitionDesc;
 import com.starrocks.sql.ast.SinglePartitionDesc;
 import com.starrocks.sql.common.MetaUtils;
 import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.rule.transformation.ListPartitionIndex;
 import com.starrocks.sql.optimizer.transformer.SqlToScalarOperatorTranslator;
 import com.starrocks.thrift.TStorageMedium;
 import org.apache.commons.collections.CollectionUtils;
@@ -53,6 +54,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static com.starrocks.common.util.PropertyAnalyzer.PROPERTIES_REPLICATION_NUM;
@@ -81,6 +84,15 @@ public class ListPartitionInfo extends PartitionInfo {
     @SerializedName(value = "automaticPartition")
     private Boolean automaticPartition = false;
 
+    // Every change of the partition values or of the temp partitions takes a new version from this
+    // counter. The versions are unique across the tables, so that an index is never mistaken for the
+    // one of a copy which has been changed in a different way.
+    private static final AtomicLong VALUES_VERSION = new AtomicLong();
+    private transient volatile long valuesVersion = 0;
+    // The partition index built for the current values. The reference is shared with the copies of this
+    // partition info made for the queries, so the index built by one query is used by the next ones.
+    private transient AtomicReference<ListPartitionIndex> partitionIndex = new AtomicReference<>();
+
     public ListPartitionInfo(PartitionType partitionType,
                              List<Column> partitionColumns) {
         super(partitionType);
@@ -205,6 +217,29 @@ public class ListPartitionInfo extends PartitionInfo {
 
     public void setIdToIsTempPartition(long partitionId, boolean isTemp) {
         this.idToIsTempPartition.put(partitionId, isTemp);
+        updateValuesVersion();
+    }
+
+    private void updateValuesVersion() {
+        valuesVersion = VALUES_VERSION.incrementAndGet();
+    }
+
+    /**
+     * Return the index of the partition values of the formal partitions, it's only rebuilt after the values change.
+     * The caller must hold the read lock of the table, or use a copy of the table.
+     */
+    public ListPartitionIndex getPartitionIndex() {
+        long version = valuesVersion;
+        if (partitionIndex == null) {
+            // not created by the constructors
+            partitionIndex = new AtomicReference<>();
+        }
+        ListPartitionIndex index = partitionIndex.get();
+        if (index == null || index.getVersion() != version) {
+            index = ListPartitionIndex.create(this, version);
+            partitionIndex.set(index);
+        }
+        return index;
     }
 
     public void setLiteralExprValues(Map<ColumnId, Column> idToColumn, long partitionId, List<String> values)
@@ -217,10 +252,12 @@ public class ListPartitionInfo extends PartitionInfo {
             partitionValues.add(partitionValue);
         }
         this.idToLiteralExprValues.put(partitionId, partitionValues);
+        updateValuesVersion();
     }
 
     public void setDirectLiteralExprValues(long partitionId, List<LiteralExpr> values) {
         this.idToLiteralExprValues.put(partitionId, values);
+        updateValuesVersion();
     }
 
     public List<Long> getPartitionIds(boolean isTemp) {
@@ -289,10 +326,12 @@ public class ListPartitionInfo extends PartitionInfo {
             multiPartitionValues.add(partitionValues);
         }
         this.idToMultiLiteralExprValues.put(partitionId, multiPartitionValues);
+        updateValuesVersion();
     }
 
     public void setDirectMultiLiteralExprValues(long partitionId, List<List<LiteralExpr>> multiValues) {
         this.idToMultiLiteralExprValues.put(partitionId, multiValues);
+        updateValuesVersion();
     }
 
     public void setBatchMultiLiteralExprValues(Map<ColumnId, Column> idToColumn,
@@ -504,6 +543,7 @@ public class ListPartitionInfo extends PartitionInfo {
                     }
                     this.idToIsTempPartition.put(partitionId, isTempPartition);
                     this.idToStorageCacheInfo.put(partitionId, partitionDesc.getDataCacheInfo());
+                    updateValuesVersion();
                 }
             }
         } catch (Exception e) {
@@ -521,6 +561,7 @@ public class ListPartitionInfo extends PartitionInfo {
         this.idToInMemory.put(partitionId, partitionPersistInfo.isInMemory());
         this.idToIsTempPartition.put(partitionId, partitionPersistInfo.isTempPartition());
         this.idToStorageCacheInfo.put(partitionId, partitionPersistInfo.getDataCacheInfo());
+        updateValuesVersion();
 
         List<List<String>> multiValues = partitionPersistInfo.getMultiValues();
         if (multiValues != null && multiValues.size() > 0) {
@@ -544,12 +585,14 @@ public class ListPartitionInfo extends PartitionInfo {
         idToMultiLiteralExprValues.remove(partitionId);
         idToIsTempPartition.remove(partitionId);
         idToStorageCacheInfo.remove(partitionId);
+        updateValuesVersion();
     }
 
     @Override
     public void moveRangeFromTempToFormal(long tempPartitionId) {
         super.moveRangeFromTempToFormal(tempPartitionId);
         idToIsTempPartition.computeIfPresent(tempPartitionId, (k, v) -> false);
+        updateValuesVersion();
     }
 
     public void addPartition(Map<ColumnId, Column> idToColumn, long partitionId, DataProperty dataProperty,
@@ -566,6 +609,7 @@ public class ListPartitionInfo extends PartitionInfo {
         }
         this.idToStorageCacheInfo.put(partitionId, dataCacheInfo);
         idToIsTempPartition.put(partitionId, false);
+        updateValuesVersion();
     }
 
     @Override
@@ -577,6 +621,7 @@ public class ListPartitionInfo extends PartitionInfo {
             idToValues.put(partitionId, Collections.emptyList());
             idToLiteralExprValues.put(partitionId, Collections.emptyList());
         }
+        updateValuesVersion();
 
         idToDataProperty.put(partitionId, new DataProperty(TStorageMedium.HDD));
         idToReplicationNum.put(partitionId, Short.valueOf(replicateNum));
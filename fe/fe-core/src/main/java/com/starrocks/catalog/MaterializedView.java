@@ -231,6 +231,13 @@ public class MaterializedView extends OlapTable implements GsonPreProcessable, G
         @SerializedName("mvPartitionNameRefBaseTablePartitionMap")
         private final Map<String, Set<String>> mvPartitionNameRefBaseTablePartitionMap;
 
+        // Materialized view partition name -> partition info (id, version) of the mv partition itself when the version
+        // map is updated, it's used to check whether the data of the mv partition is exactly the data refreshed from
+        // the base partitions in the version map, eg: a partition batch is committed but the refresh fails before the
+        // version map is updated.
+        @SerializedName("mvPartitionVisibleVersionMap")
+        private final Map<String, BasePartitionInfo> mvPartitionVisibleVersionMap;
+
         @SerializedName(value = "defineStartTime")
         private boolean defineStartTime;
 
@@ -247,6 +254,7 @@ public class MaterializedView extends OlapTable implements GsonPreProcessable, G
             this.baseTableVisibleVersionMap = Maps.newConcurrentMap();
             this.baseTableInfoVisibleVersionMap = Maps.newConcurrentMap();
             this.mvPartitionNameRefBaseTablePartitionMap = Maps.newConcurrentMap();
+            this.mvPartitionVisibleVersionMap = Maps.newConcurrentMap();
             this.defineStartTime = false;
             this.startTime = Utils.getLongFromDateTime(LocalDateTime.now());
             this.step = 0;
@@ -270,11 +278,16 @@ public class MaterializedView extends OlapTable implements GsonPreProcessable, G
             return mvPartitionNameRefBaseTablePartitionMap;
         }
 
+        public Map<String, BasePartitionInfo> getMvPartitionVisibleVersionMap() {
+            return mvPartitionVisibleVersionMap;
+        }
+
         public void clearVisibleVersionMap() {
             LOG.info("Clear materialized view's version map");
             this.baseTableInfoVisibleVersionMap.clear();
             this.baseTableVisibleVersionMap.clear();
             this.mvPartitionNameRefBaseTablePartitionMap.clear();
+            this.mvPartitionVisibleVersionMap.clear();
         }
 
         public boolean isDefineStartTime() {
@@ -326,6 +339,7 @@ public class MaterializedView extends OlapTable implements GsonPreProcessable, G
             arc.baseTableVisibleVersionMap.putAll(this.baseTableVisibleVersionMap);
             arc.baseTableInfoVisibleVersionMap.putAll(this.baseTableInfoVisibleVersionMap);
             arc.mvPartitionNameRefBaseTablePartitionMap.putAll(this.mvPartitionNameRefBaseTablePartitionMap);
+            arc.mvPartitionVisibleVersionMap.putAll(this.mvPartitionVisibleVersionMap);
             arc.defineStartTime = this.defineStartTime;
             arc.startTime = this.startTime;
             arc.step = this.step;
@@ -35,9 +35,12 @@
 package com.starrocks.catalog;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableRangeMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Range;
+import com.google.common.collect.RangeMap;
+import com.google.common.collect.TreeRangeMap;
 import com.google.gson.annotations.SerializedName;
 import com.starrocks.analysis.Expr;
 import com.starrocks.common.AnalysisException;
@@ -69,6 +72,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class RangePartitionInfo extends PartitionInfo {
@@ -98,6 +102,23 @@ public class RangePartitionInfo extends PartitionInfo {
     @SerializedName(value = "serializedIdToTempRange")
     private Map<Long, byte[]> serializedIdToTempRange;
 
+    // bumped after every change of idToRange, used to validate the cached range index
+    private AtomicLong rangeVersion = new AtomicLong();
+    // immutable interval index of idToRange for partition pruning, rebuilt on the first use after idToRange changed
+    private volatile RangeIndex rangeIndex;
+
+    private static class RangeIndex {
+        private final long version;
+        private final int size;
+        private final RangeMap<PartitionKey, Long> rangeMap;
+
+        RangeIndex(long version, int size, RangeMap<PartitionKey, Long> rangeMap) {
+            this.version = version;
+            this.size = size;
+            this.rangeMap = rangeMap;
+        }
+    }
+
     public RangePartitionInfo() {
         // for persist
         super();
@@ -134,6 +155,7 @@ public class RangePartitionInfo extends PartitionInfo {
         super.dropPartition(partitionId);
         idToRange.remove(partitionId);
         idToTempRange.remove(partitionId);
+        rangeVersion.incrementAndGet();
     }
 
     public void addPartition(long partitionId, boolean isTemp, Range<PartitionKey> range, DataProperty dataProperty,
@@ -339,6 +361,26 @@ public class RangePartitionInfo extends PartitionInfo {
         }
     }
 
+    /**
+     * Get an immutable interval index of the formal partition ranges, which maps a partition range to
+     * its partition id. The index is shared by all queries and only rebuilt after the ranges are changed.
+     */
+    public RangeMap<PartitionKey, Long> getRangeIndex() {
+        long version = rangeVersion.get();
+        RangeIndex index = rangeIndex;
+        if (index != null && index.version == version && index.size == idToRange.size()) {
+            return index.rangeMap;
+        }
+        RangeMap<PartitionKey, Long> rangeMap = TreeRangeMap.create();
+        for (Map.Entry<Long, Range<PartitionKey>> entry : idToRange.entrySet()) {
+            rangeMap.put(entry.getValue(), entry.getKey());
+        }
+        // the version is read before copying the ranges, so an index built from a changing map is never reused
+        index = new RangeIndex(version, idToRange.size(), ImmutableRangeMap.copyOf(rangeMap));
+        rangeIndex = index;
+        return index.rangeMap;
+    }
+
     public Range<PartitionKey> getRange(long partitionId) {
         Range<PartitionKey> range = idToRange.get(partitionId);
         if (range == null) {
@@ -437,6 +479,7 @@ public class RangePartitionInfo extends PartitionInfo {
             idToTempRange.put(partitionId, range);
         } else {
             idToRange.put(partitionId, range);
+            rangeVersion.incrementAndGet();
         }
     }
 
@@ -445,6 +488,7 @@ public class RangePartitionInfo extends PartitionInfo {
             idToTempRange.remove(partitionId);
         } else {
             idToRange.remove(partitionId);
+            rangeVersion.incrementAndGet();
         }
     }
 
@@ -452,6 +496,7 @@ public class RangePartitionInfo extends PartitionInfo {
         Range<PartitionKey> range = idToTempRange.remove(tempPartitionId);
         if (range != null) {
             idToRange.put(tempPartitionId, range);
+            rangeVersion.incrementAndGet();
         }
     }
 
@@ -502,6 +547,8 @@ public class RangePartitionInfo extends PartitionInfo {
             }
             serializedIdToTempRange = null;
         }
+        rangeVersion = new AtomicLong();
+        rangeIndex = null;
         if (partitionColumnIds == null || partitionColumnIds.size() <= 0) {
             partitionColumnIds = deprecatedColumns.stream().map(Column::getColumnId).collect(Collectors.toList());
         }
@@ -579,6 +626,8 @@ public class RangePartitionInfo extends PartitionInfo {
         info.partitionColumnIds = Lists.newArrayList(this.partitionColumnIds);
         info.idToRange = new ConcurrentHashMap<>(this.idToRange);
         info.idToTempRange = new ConcurrentHashMap<>(this.idToTempRange);
+        info.rangeVersion = new AtomicLong();
+        info.rangeIndex = null;
         info.isMultiColumnPartition = partitionColumnIds.size() > 1;
         return info;
     }
@@ -0,0 +1,174 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.clone;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.clone.TabletSchedCtx.Priority;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * The pending queue of {@link TabletScheduler}.
+ * <p>
+ * Tablets are kept in one ordered set per priority level, ordered by last visited time as
+ * {@link TabletSchedCtx#compareTo} does, and indexed by tablet id. So a tablet can be found or
+ * re-prioritized without scanning or rebuilding the whole queue. The queue has its own lock,
+ * which is only held for the queue operation itself.
+ * <p>
+ * The dynamic priority and the last visited time of a tablet decide its position, so they must
+ * only be changed while the tablet is not in the queue, {@link #changePriority} and
+ * {@link #adjustPriorities} take care of this.
+ */
+class PendingTabletQueue {
+    private static final Comparator<TabletSchedCtx> LEVEL_ORDER =
+            Comparator.comparingLong(TabletSchedCtx::getLastVisitedTime)
+                    .thenComparingLong(TabletSchedCtx::getTabletId);
+
+    // from the highest priority to the lowest
+    private static final Priority[] PRIORITIES_DESC = {
+            Priority.VERY_HIGH, Priority.HIGH, Priority.NORMAL, Priority.LOW
+    };
+
+    private final EnumMap<Priority, TreeSet<TabletSchedCtx>> levels = new EnumMap<>(Priority.class);
+    private final Map<Long, TabletSchedCtx> tabletIdToCtx = Maps.newHashMap();
+    private volatile int size = 0;
+
+    PendingTabletQueue() {
+        for (Priority priority : Priority.values()) {
+            levels.put(priority, new TreeSet<>(LEVEL_ORDER));
+        }
+    }
+
+    /**
+     * Add the tablet, replacing the one with the same tablet id if exists.
+     */
+    synchronized void add(TabletSchedCtx tabletCtx) {
+        TabletSchedCtx old = tabletIdToCtx.put(tabletCtx.getTabletId(), tabletCtx);
+        if (old != null) {
+            levels.get(old.getDynamicPriority()).remove(old);
+        }
+        levels.get(tabletCtx.getDynamicPriority()).add(tabletCtx);
+        size = tabletIdToCtx.size();
+    }
+
+    /**
+     * Take the tablet with the highest priority, null if the queue is empty.
+     */
+    synchronized TabletSchedCtx poll() {
+        for (Priority priority : PRIORITIES_DESC) {
+            TabletSchedCtx tabletCtx = levels.get(priority).pollFirst();
+            if (tabletCtx != null) {
+                tabletIdToCtx.remove(tabletCtx.getTabletId());
+                size = tabletIdToCtx.size();
+                return tabletCtx;
+            }
+        }
+        return null;
+    }
+
+    synchronized TabletSchedCtx get(long tabletId) {
+        return tabletIdToCtx.get(tabletId);
+    }
+
+    int size() {
+        return size;
+    }
+
+    synchronized int size(Priority priority) {
+        return levels.get(priority).size();
+    }
+
+    /**
+     * Change the original priority of the tablets matching the predicate,
+     * only the matching tablets are moved.
+     */
+    synchronized void changePriority(Predicate<TabletSchedCtx> predicate, Priority priority) {
+        List<TabletSchedCtx> matched = Lists.newArrayList();
+        for (TreeSet<TabletSchedCtx> level : levels.values()) {
+            level.removeIf(tabletCtx -> {
+                if (predicate.test(tabletCtx)) {
+                    matched.add(tabletCtx);
+                    return true;
+                }
+                return false;
+            });
+        }
+        for (TabletSchedCtx tabletCtx : matched) {
+            tabletCtx.setOrigPriority(priority);
+            levels.get(tabletCtx.getDynamicPriority()).add(tabletCtx);
+        }
+    }
+
+    /**
+     * Try to upgrade the priorities of the tablets which have not been scheduled for a long time.
+     *
+     * @return the number of tablets whose priority is changed
+     */
+    synchronized int adjustPriorities(TabletSchedulerStat stat) {
+        List<TabletSchedCtx> changed = Lists.newArrayList();
+        // the lowest level first, so that an upgraded tablet is not adjusted twice
+        for (int i = PRIORITIES_DESC.length - 1; i >= 0; i--) {
+            Priority priority = PRIORITIES_DESC[i];
+            levels.get(priority).removeIf(tabletCtx -> {
+                if (tabletCtx.adjustPriority(stat)) {
+                    changed.add(tabletCtx);
+                    return true;
+                }
+                return false;
+            });
+        }
+        for (TabletSchedCtx tabletCtx : changed) {
+            levels.get(tabletCtx.getDynamicPriority()).add(tabletCtx);
+        }
+        return changed.size();
+    }
+
+    /**
+     * Return at most limit tablets in priority order, the queue is not changed.
+     */
+    synchronized List<TabletSchedCtx> peek(int limit) {
+        List<TabletSchedCtx> result = Lists.newArrayList();
+        for (Priority priority : PRIORITIES_DESC) {
+            for (TabletSchedCtx tabletCtx : levels.get(priority)) {
+                if (result.size() >= limit) {
+                    return result;
+                }
+                result.add(tabletCtx);
+            }
+        }
+        return result;
+    }
+
+    synchronized List<TabletSchedCtx> snapshot() {
+        return Lists.newArrayList(tabletIdToCtx.values());
+    }
+
+    /**
+     * Remove all the tablets and return them.
+     */
+    synchronized List<TabletSchedCtx> clear() {
+        List<TabletSchedCtx> result = Lists.newArrayList(tabletIdToCtx.values());
+        levels.values().forEach(TreeSet::clear);
+        tabletIdToCtx.clear();
+        size = 0;
+        return result;
+    }
+}
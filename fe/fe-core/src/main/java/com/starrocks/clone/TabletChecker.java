@@ -34,8 +34,11 @@
 
 package com.starrocks.clone;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
@@ -53,6 +56,8 @@ import com.starrocks.catalog.Replica;
 import com.starrocks.catalog.Table;
 import com.starrocks.catalog.Table.TableType;
 import com.starrocks.catalog.Tablet;
+import com.starrocks.catalog.TabletInvertedIndex;
+import com.starrocks.catalog.TabletMeta;
 import com.starrocks.common.CloseableLock;
 import com.starrocks.common.Config;
 import com.starrocks.common.DdlException;
@@ -61,6 +66,7 @@ import com.starrocks.common.util.FrontendDaemon;
 import com.starrocks.common.util.concurrent.lock.LockType;
 import com.starrocks.common.util.concurrent.lock.Locker;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.server.LocalMetastore;
 import com.starrocks.server.RunMode;
 import com.starrocks.sql.analyzer.AdminStmtAnalyzer;
 import com.starrocks.sql.ast.AdminCancelRepairTableStmt;
@@ -73,6 +79,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -88,9 +95,17 @@ import java.util.stream.Collectors;
 public class TabletChecker extends FrontendDaemon {
     private static final Logger LOG = LogManager.getLogger(TabletChecker.class);
 
+    // the db lock is released and acquired again after checking this number of dirty tablets
+    private static final int DIRTY_TABLET_BATCH_NUM = 1000;
+
     private final TabletScheduler tabletScheduler;
     private final TabletSchedulerStat stat;
 
+    // tablets which may have changed their health status since the last check,
+    // only used when Config.enable_tablet_checker_dirty_check is true
+    private final Set<Long> dirtyTabletIds = Sets.newConcurrentHashSet();
+    private long lastFullCheckTimeMs = 0;
+
     // db id -> (tbl id -> PrioPart)
     // priority of replicas of partitions in this table will be set to VERY_HIGH if unhealthy
     private com.google.common.collect.Table<Long, Long, Set<PrioPart>> urgentTable = HashBasedTable.create();
@@ -195,9 +210,51 @@ public class TabletChecker extends FrontendDaemon {
 
     }
 
+    /**
+     * Mark the tablets dirty, so that they will be checked in the next round
+     * when Config.enable_tablet_checker_dirty_check is true.
+     */
+    public void markTabletsDirty(Collection<Long> tabletIds) {
+        if (Config.enable_tablet_checker_dirty_check && !tabletIds.isEmpty()) {
+            dirtyTabletIds.addAll(tabletIds);
+        }
+    }
+
+    /**
+     * Mark all the tablets which have a replica on the backend dirty, called when the backend
+     * becomes alive or dead.
+     */
+    public void markBackendTabletsDirty(long backendId) {
+        if (Config.enable_tablet_checker_dirty_check) {
+            dirtyTabletIds.addAll(GlobalStateMgr.getCurrentState().getTabletInvertedIndex()
+                    .getTabletIdsByBackendId(backendId));
+        }
+    }
+
+    /**
+     * Mark all the tablets of the partition dirty, called when the replication num of the partition changes.
+     */
+    public void markPartitionTabletsDirty(Partition partition) {
+        if (Config.enable_tablet_checker_dirty_check) {
+            for (PhysicalPartition physicalPartition : partition.getSubPartitions()) {
+                for (MaterializedIndex index : physicalPartition.getMaterializedIndices(IndexExtState.VISIBLE)) {
+                    dirtyTabletIds.addAll(index.getTabletIdsInOrder());
+                }
+            }
+        }
+    }
+
+    public int getDirtyTabletNum() {
+        return dirtyTabletIds.size();
+    }
+
     /*
      * For each cycle, TabletChecker will check all OlapTable's tablet.
      * If a tablet is not healthy, a TabletInfo will be created and sent to TabletScheduler for repairing.
+     *
+     * If Config.enable_tablet_checker_dirty_check is true, only the urgent tablets and the dirty tablets
+     * are checked in a cycle, and all the tablets are checked every
+     * Config.tablet_checker_full_check_interval_seconds in case any change is not marked.
      */
     @Override
     protected void runAfterCatalogReady() {
@@ -213,7 +270,17 @@ public class TabletChecker extends FrontendDaemon {
             return;
         }
 
-        checkAllTablets();
+        long now = System.currentTimeMillis();
+        if (!Config.enable_tablet_checker_dirty_check
+                || now - lastFullCheckTimeMs >= Config.tablet_checker_full_check_interval_seconds * 1000L) {
+            // the tablets marked during the full check will be checked again in the next round
+            dirtyTabletIds.clear();
+            checkAllTablets();
+            lastFullCheckTimeMs = now;
+        } else {
+            checkUrgentTablets();
+            checkDirtyTablets();
+        }
 
         cleanInvalidUrgentTable();
 
@@ -238,6 +305,110 @@ public class TabletChecker extends FrontendDaemon {
         doCheck(false);
     }
 
+    @VisibleForTesting
+    void checkDirtyTablets() {
+        long start = System.nanoTime();
+        TabletCheckerStat totStat = new TabletCheckerStat();
+        TabletInvertedIndex invertedIndex = GlobalStateMgr.getCurrentState().getTabletInvertedIndex();
+        LocalMetastore localMetastore = GlobalStateMgr.getCurrentState().getLocalMetastore();
+
+        // db id -> tablet ids
+        ListMultimap<Long, Long> dbToTabletIds = ArrayListMultimap.create();
+        Iterator<Long> iterator = dirtyTabletIds.iterator();
+        while (iterator.hasNext()) {
+            long tabletId = iterator.next();
+            iterator.remove();
+            TabletMeta tabletMeta = invertedIndex.getTabletMeta(tabletId);
+            if (tabletMeta == null || tabletMeta.isLakeTablet()) {
+                continue;
+            }
+            dbToTabletIds.put(tabletMeta.getDbId(), tabletId);
+        }
+
+        List<Long> needRecheckTabletIds = Lists.newArrayList();
+        for (long dbId : dbToTabletIds.keySet()) {
+            Database db = localMetastore.getDbIncludeRecycleBin(dbId);
+            if (db == null || db.isSystemDatabase()) {
+                continue;
+            }
+
+            int tabletChecked = 0;
+            Locker locker = new Locker();
+            locker.lockDatabase(db.getId(), LockType.READ);
+            try {
+                List<Long> aliveBeIdsInCluster =
+                        GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().getBackendIds(true);
+                for (long tabletId : dbToTabletIds.get(dbId)) {
+                    if (++tabletChecked % DIRTY_TABLET_BATCH_NUM == 0) {
+                        // release lock, so that lock can be acquired by other threads.
+                        locker.unLockDatabase(db.getId(), LockType.READ);
+                        locker.lockDatabase(db.getId(), LockType.READ);
+                        if (localMetastore.getDbIncludeRecycleBin(dbId) == null) {
+                            break;
+                        }
+                    }
+
+                    // the tablet may have been dropped or moved since it was marked
+                    TabletMeta tabletMeta = invertedIndex.getTabletMeta(tabletId);
+                    if (tabletMeta == null) {
+                        continue;
+                    }
+                    Table table = localMetastore.getTableIncludeRecycleBin(db, tabletMeta.getTableId());
+                    if (table == null || !table.needSchedule(false) || table.isCloudNativeTableOrMaterializedView()) {
+                        continue;
+                    }
+                    OlapTable olapTbl = (OlapTable) table;
+                    // the partitions in the recycle bin are checked as the full check does
+                    PhysicalPartition physicalPartition = localMetastore.getPhysicalPartitionIncludeRecycleBin(olapTbl,
+                            tabletMeta.getPhysicalPartitionId());
+                    if (physicalPartition == null) {
+                        continue;
+                    }
+                    Partition partition = localMetastore.getPartitionIncludeRecycleBin(olapTbl,
+                            physicalPartition.getParentId());
+                    if (partition == null || partition.getState() != PartitionState.NORMAL) {
+                        continue;
+                    }
+                    // Tablet in SHADOW index can not be repaired or balanced
+                    MaterializedIndex idx = physicalPartition.getIndex(tabletMeta.getIndexId());
+                    if (idx == null || !physicalPartition.getMaterializedIndices(IndexExtState.VISIBLE).contains(idx)) {
+                        continue;
+                    }
+                    Tablet tablet = idx.getTablet(tabletId);
+                    if (tablet == null) {
+                        continue;
+                    }
+                    short replicaNum = localMetastore.getReplicationNumIncludeRecycleBin(olapTbl.getPartitionInfo(),
+                            partition.getId());
+                    if (replicaNum == (short) -1) {
+                        continue;
+                    }
+
+                    boolean isPartitionUrgent = isPartitionUrgent(dbId, table.getId(), partition.getId());
+                    if (!checkOneTablet(db, olapTbl, partition, physicalPartition, idx, (LocalTablet) tablet,
+                            replicaNum, aliveBeIdsInCluster, isPartitionUrgent, totStat)) {
+                        needRecheckTabletIds.add(tabletId);
+                    }
+                }
+            } finally {
+                locker.unLockDatabase(db.getId(), LockType.READ);
+            }
+        }
+        // unhealthy tablets which are not scheduled yet are checked again in the next round
+        markTabletsDirty(needRecheckTabletIds);
+
+        long cost = (System.nanoTime() - start) / 1000000;
+        stat.counterTabletCheckCostMs.addAndGet(cost);
+        stat.counterTabletChecked.addAndGet(totStat.totalTabletNum);
+        stat.counterUnhealthyTabletNum.addAndGet(totStat.unhealthyTabletNum);
+        stat.counterTabletAddToBeScheduled.addAndGet(totStat.addToSchedulerTabletNum);
+
+        LOG.info("finished to check dirty tablets. unhealthy/total/added/in_sched/not_ready: {}/{}/{}/{}/{}, " +
+                        "cost: {} ms, wait time: {}ms",
+                totStat.unhealthyTabletNum, totStat.totalTabletNum, totStat.addToSchedulerTabletNum,
+                totStat.tabletInScheduler, totStat.tabletNotReady, cost, totStat.waitTotalTime);
+    }
+
     /**
      * In order to avoid meaningless repair schedule, for task that need to
      * choose a source replica to clone from, we check that whether we can
@@ -406,77 +577,95 @@ public class TabletChecker extends FrontendDaemon {
                                                   int replicaNum, List<Long> aliveBeIdsInCluster,
                                                   boolean isPartitionUrgent) {
         TabletCheckerStat partitionTabletCheckerStat = new TabletCheckerStat();
+        List<Long> needRecheckTabletIds = Lists.newArrayList();
         // Tablet in SHADOW index can not be repaired or balanced
         for (PhysicalPartition physicalPartition : partition.getSubPartitions()) {
             for (MaterializedIndex idx : physicalPartition.getMaterializedIndices(
                     IndexExtState.VISIBLE)) {
                 for (Tablet tablet : idx.getTablets()) {
-                    LocalTablet localTablet = (LocalTablet) tablet;
-                    partitionTabletCheckerStat.totalTabletNum++;
-
-                    if (tabletScheduler.containsTablet(tablet.getId())) {
-                        partitionTabletCheckerStat.tabletInScheduler++;
-                        continue;
+                    if (!checkOneTablet(db, olapTbl, partition, physicalPartition, idx, (LocalTablet) tablet,
+                            replicaNum, aliveBeIdsInCluster, isPartitionUrgent, partitionTabletCheckerStat)) {
+                        needRecheckTabletIds.add(tablet.getId());
                     }
+                }
+            } // indices
+        }
+        // unhealthy tablets which are not scheduled yet are checked again by the dirty scan
+        markTabletsDirty(needRecheckTabletIds);
 
-                    SystemInfoService systemInfoService = GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo();
-                    Pair<TabletHealthStatus, TabletSchedCtx.Priority> statusWithPrio =
-                            TabletChecker.getTabletHealthStatusWithPriority(
-                                    localTablet,
-                                    systemInfoService,
-                                    physicalPartition.getVisibleVersion(),
-                                    replicaNum,
-                                    aliveBeIdsInCluster,
-                                    olapTbl.getLocation());
-
-                    if (statusWithPrio.first == TabletHealthStatus.HEALTHY) {
-                        // Only set last status check time when status is healthy.
-                        localTablet.setLastStatusCheckTime(System.currentTimeMillis());
-                        continue;
-                    } else if (isPartitionUrgent) {
-                        statusWithPrio.second = TabletSchedCtx.Priority.VERY_HIGH;
-                        partitionTabletCheckerStat.isUrgentPartitionHealthy = false;
-                    }
+        return partitionTabletCheckerStat;
+    }
 
-                    partitionTabletCheckerStat.unhealthyTabletNum++;
+    /**
+     * Check the health of one tablet and add it to the scheduler if it needs repair.
+     *
+     * @return true if the tablet is healthy or being scheduled, false if it still needs to be checked again
+     */
+    private boolean checkOneTablet(Database db, OlapTable olapTbl, Partition partition,
+                                   PhysicalPartition physicalPartition, MaterializedIndex idx,
+                                   LocalTablet localTablet, int replicaNum, List<Long> aliveBeIdsInCluster,
+                                   boolean isPartitionUrgent, TabletCheckerStat checkerStat) {
+        checkerStat.totalTabletNum++;
+
+        if (tabletScheduler.containsTablet(localTablet.getId())) {
+            checkerStat.tabletInScheduler++;
+            return true;
+        }
 
-                    if (!localTablet.readyToBeRepaired(statusWithPrio.first, statusWithPrio.second)) {
-                        partitionTabletCheckerStat.tabletNotReady++;
-                        continue;
-                    }
+        SystemInfoService systemInfoService = GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo();
+        Pair<TabletHealthStatus, TabletSchedCtx.Priority> statusWithPrio =
+                TabletChecker.getTabletHealthStatusWithPriority(
+                        localTablet,
+                        systemInfoService,
+                        physicalPartition.getVisibleVersion(),
+                        replicaNum,
+                        aliveBeIdsInCluster,
+                        olapTbl.getLocation());
+
+        if (statusWithPrio.first == TabletHealthStatus.HEALTHY) {
+            // Only set last status check time when status is healthy.
+            localTablet.setLastStatusCheckTime(System.currentTimeMillis());
+            return true;
+        } else if (isPartitionUrgent) {
+            statusWithPrio.second = TabletSchedCtx.Priority.VERY_HIGH;
+            checkerStat.isUrgentPartitionHealthy = false;
+        }
 
-                    if (statusWithPrio.first == TabletHealthStatus.LOCATION_MISMATCH &&
-                            !preCheckEnoughLocationMatchedBackends(olapTbl.getLocation(), replicaNum)) {
-                        continue;
-                    }
+        checkerStat.unhealthyTabletNum++;
 
-                    TabletSchedCtx tabletSchedCtx = new TabletSchedCtx(
-                            TabletSchedCtx.Type.REPAIR,
-                            db.getId(), olapTbl.getId(), partition.getId(),
-                            physicalPartition.getId(), idx.getId(), tablet.getId(),
-                            System.currentTimeMillis());
-                    // the tablet status will be set again when being scheduled
-                    tabletSchedCtx.setTabletStatus(statusWithPrio.first);
-                    tabletSchedCtx.setOrigPriority(statusWithPrio.second);
-                    tabletSchedCtx.setTablet(localTablet);
-                    tabletSchedCtx.setRequiredLocation(olapTbl.getLocation());
-                    tabletSchedCtx.setReplicaNum(replicaNum);
-                    if (!tryChooseSrcBeforeSchedule(tabletSchedCtx)) {
-                        continue;
-                    }
+        if (!localTablet.readyToBeRepaired(statusWithPrio.first, statusWithPrio.second)) {
+            checkerStat.tabletNotReady++;
+            return false;
+        }
 
-                    Pair<Boolean, Long> result =
-                            tabletScheduler.blockingAddTabletCtxToScheduler(db, tabletSchedCtx,
-                                    isPartitionUrgent);
-                    partitionTabletCheckerStat.waitTotalTime += result.second;
-                    if (result.first) {
-                        partitionTabletCheckerStat.addToSchedulerTabletNum++;
-                    }
-                }
-            } // indices
+        if (statusWithPrio.first == TabletHealthStatus.LOCATION_MISMATCH &&
+                !preCheckEnoughLocationMatchedBackends(olapTbl.getLocation(), replicaNum)) {
+            return false;
         }
 
-        return partitionTabletCheckerStat;
+        TabletSchedCtx tabletSchedCtx = new TabletSchedCtx(
+                TabletSchedCtx.Type.REPAIR,
+                db.getId(), olapTbl.getId(), partition.getId(),
+                physicalPartition.getId(), idx.getId(), localTablet.getId(),
+                System.currentTimeMillis());
+        // the tablet status will be set again when being scheduled
+        tabletSchedCtx.setTabletStatus(statusWithPrio.first);
+        tabletSchedCtx.setOrigPriority(statusWithPrio.second);
+        tabletSchedCtx.setTablet(localTablet);
+        tabletSchedCtx.setRequiredLocation(olapTbl.getLocation());
+        tabletSchedCtx.setReplicaNum(replicaNum);
+        if (!tryChooseSrcBeforeSchedule(tabletSchedCtx)) {
+            return false;
+        }
+
+        Pair<Boolean, Long> result =
+                tabletScheduler.blockingAddTabletCtxToScheduler(db, tabletSchedCtx,
+                        isPartitionUrgent);
+        checkerStat.waitTotalTime += result.second;
+        if (result.first) {
+            checkerStat.addToSchedulerTabletNum++;
+        }
+        return result.first;
     }
 
     public boolean isUrgentTable(long dbId, long tblId) {
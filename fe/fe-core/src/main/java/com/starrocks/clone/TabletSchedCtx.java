@@ -303,6 +303,10 @@ public class TabletSchedCtx implements Comparable<TabletSchedCtx> {
         this.lastSchedTime = lastSchedTime;
     }
 
+    public long getLastVisitedTime() {
+        return lastVisitedTime;
+    }
+
     public void setLastVisitedTime(long lastVisitedTime) {
         this.lastVisitedTime = lastVisitedTime;
     }
@@ -98,8 +98,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -144,6 +142,10 @@ public class TabletScheduler extends FrontendDaemon {
 
     private static final int BLOCKING_ADD_SLEEP_DURATION_MS = 200;
 
+    // the min number of tablets taken from pending queue in one round, some kinds of tablets
+    // (e.g. redundant replicas) can be scheduled without taking any slot.
+    private static final int MIN_SCHEDULE_BATCH_NUM = 1000;
+
     /*
      * Tablet is added to pendingTablets as well it's id in allTabletIds.
      * TabletScheduler will take tablet from pendingTablets but will not remove its id from allTabletIds when
@@ -153,9 +155,10 @@ public class TabletScheduler extends FrontendDaemon {
      *
      * pendingTablets + runningTablets = allTabletIds
      *
-     * pendingTablets, allTabletIds, runningTablets and schedHistory are protected by 'synchronized'
+     * pendingTablets, allTabletIds, runningTablets and schedHistory are protected by 'synchronized',
+     * pendingTablets is also guarded by its own lock, so it can be read without 'synchronized'.
      */
-    private PriorityQueue<TabletSchedCtx> pendingTablets = new PriorityQueue<>();
+    private final PendingTabletQueue pendingTablets = new PendingTabletQueue();
     private final Set<Long> allTabletIds = Sets.newConcurrentHashSet();
     // contains all tabletCtxs which state are RUNNING
     private final Map<Long, TabletSchedCtx> runningTablets = Maps.newHashMap();
@@ -310,7 +313,7 @@ public class TabletScheduler extends FrontendDaemon {
         }
 
         allTabletIds.add(tablet.getTabletId());
-        pendingTablets.offer(tablet);
+        pendingTablets.add(tablet);
         return AddResult.ADDED;
     }
 
@@ -346,13 +349,13 @@ public class TabletScheduler extends FrontendDaemon {
         forceCleanSchedQ.set(true);
     }
 
-    public synchronized boolean containsTablet(long tabletId) {
+    public boolean containsTablet(long tabletId) {
         return allTabletIds.contains(tabletId);
     }
 
     public synchronized Map<GroupId, Long> getTabletsNumInScheduleForEachCG() {
         Map<GroupId, Long> result = Maps.newHashMap();
-        List<Stream<TabletSchedCtx>> streams = Lists.newArrayList(pendingTablets.stream(),
+        List<Stream<TabletSchedCtx>> streams = Lists.newArrayList(pendingTablets.snapshot().stream(),
                 runningTablets.values().stream());
         // Exclude the VERSION_INCOMPLETE tablet, because they are not added because of relocation.
         streams.forEach(s -> s.filter(t ->
@@ -365,11 +368,7 @@ public class TabletScheduler extends FrontendDaemon {
     private synchronized TabletSchedCtx getTabletSchedCtx(long tabletId) {
         TabletSchedCtx tabletSchedCtx = runningTablets.get(tabletId);
         if (tabletSchedCtx == null) {
-            Optional<TabletSchedCtx> optional =
-                    pendingTablets.stream().filter(ctx -> ctx.getTabletId() == tabletId).findFirst();
-            if (optional.isPresent()) {
-                tabletSchedCtx = optional.get();
-            }
+            tabletSchedCtx = pendingTablets.get(tabletId);
         }
         return tabletSchedCtx;
     }
@@ -409,16 +408,10 @@ public class TabletScheduler extends FrontendDaemon {
     /**
      * Iterate current tablets, change their priority to VERY_HIGH if necessary.
      */
-    public synchronized void changeTabletsPriorityToVeryHigh(long dbId, long tblId, List<Long> partitionIds) {
-        PriorityQueue<TabletSchedCtx> newPendingTablets = new PriorityQueue<>();
-        for (TabletSchedCtx tabletCtx : pendingTablets) {
-            if (tabletCtx.getDbId() == dbId && tabletCtx.getTblId() == tblId
-                    && partitionIds.contains(tabletCtx.getPartitionId())) {
-                tabletCtx.setOrigPriority(Priority.VERY_HIGH);
-            }
-            newPendingTablets.add(tabletCtx);
-        }
-        pendingTablets = newPendingTablets;
+    public void changeTabletsPriorityToVeryHigh(long dbId, long tblId, List<Long> partitionIds) {
+        Set<Long> partitionIdSet = Sets.newHashSet(partitionIds);
+        pendingTablets.changePriority(tabletCtx -> tabletCtx.getDbId() == dbId && tabletCtx.getTblId() == tblId
+                && partitionIdSet.contains(tabletCtx.getPartitionId()), Priority.VERY_HIGH);
     }
 
     /**
@@ -504,24 +497,10 @@ public class TabletScheduler extends FrontendDaemon {
     /**
      * adjust priorities of all tablet infos
      */
-    private synchronized void adjustPriorities() {
-        int size = pendingTablets.size();
-        int changedNum = 0;
-        TabletSchedCtx tabletCtx;
-        for (int i = 0; i < size; i++) {
-            tabletCtx = pendingTablets.poll();
-            if (tabletCtx == null) {
-                break;
-            }
-
-            if (tabletCtx.adjustPriority(stat)) {
-                changedNum++;
-            }
-            pendingTablets.add(tabletCtx);
-        }
-
+    private void adjustPriorities() {
+        int changedNum = pendingTablets.adjustPriorities(stat);
         if (changedNum != 0) {
-            LOG.info("adjust priority for all tablets. changed: {}, total: {}", changedNum, size);
+            LOG.info("adjust priority for all tablets. changed: {}, total: {}", changedNum, pendingTablets.size());
         }
     }
 
@@ -529,8 +508,7 @@ public class TabletScheduler extends FrontendDaemon {
         StringBuilder sb = new StringBuilder();
         for (Priority prio : Priority.values()) {
             sb.append(String.format("%s priority tablets count: %d\n",
-                    prio.name(),
-                    pendingTablets.stream().filter(t -> t.getDynamicPriority() == prio).count()));
+                    prio.name(), pendingTablets.size(prio)));
         }
         LOG.debug("pending tablets current count: {}\n{}", pendingTablets.size(), sb);
     }
@@ -666,7 +644,7 @@ public class TabletScheduler extends FrontendDaemon {
      *
      * @param tabletCtx tablet schedule context
      */
-    private synchronized void addToPendingTablets(TabletSchedCtx tabletCtx) {
+    private void addToPendingTablets(TabletSchedCtx tabletCtx) {
         pendingTablets.add(tabletCtx);
     }
 
@@ -1746,13 +1724,13 @@ public class TabletScheduler extends FrontendDaemon {
      */
     private synchronized void addBackToPendingTablets(TabletSchedCtx tabletCtx) {
         Preconditions.checkState(tabletCtx.getState() == TabletSchedCtx.State.PENDING);
-        // Since we know it's add back, corresponding tablet id is still recorded in `allTabletIds`,
-        // so we explicitly remove the id from `allTabletIds`, otherwise `addTablet()` may fail.
-        // And when adding back, we don't want it to be failed because of exceeding limit of
+        // Since we know it's add back, corresponding tablet id is normally still recorded in `allTabletIds`
+        // (unless the queues are forcefully cleaned), so we put it to `pendingTablets` directly instead of
+        // `addTablet()`. And we don't want it to be failed because of exceeding limit of
         // `Config.max_scheduling_tablets` since it's already got scheduled before, we just adjusted
-        // its priority and want it to be scheduled again, so we set force to be true here.
-        allTabletIds.remove(tabletCtx.getTabletId());
-        addTablet(tabletCtx, true /* force */);
+        // its priority and want it to be scheduled again.
+        allTabletIds.add(tabletCtx.getTabletId());
+        pendingTablets.add(tabletCtx);
     }
 
     private void finalizeTabletCtx(TabletSchedCtx tabletCtx, TabletSchedCtx.State state, String reason) {
@@ -1782,10 +1760,19 @@ public class TabletScheduler extends FrontendDaemon {
         pendingTablets.poll();
     }
 
-    // get next batch of tablets from queue.
-    private synchronized List<TabletSchedCtx> getNextTabletCtxBatch() {
+    /**
+     * Get next batch of tablets from queue.
+     * Most of the tablets need a slot on both the src and dest path to be scheduled, the ones taken
+     * beyond the available slots will only fail and be added back, so the batch size is limited by the
+     * total available slots, with at least MIN_SCHEDULE_BATCH_NUM.
+     */
+    private List<TabletSchedCtx> getNextTabletCtxBatch() {
         List<TabletSchedCtx> list = Lists.newArrayList();
-        int count = pendingTablets.size();
+        int availableSlotNum = 0;
+        for (PathSlot pathSlot : backendsWorkingSlots.values()) {
+            availableSlotNum += pathSlot.getTotalAvailableSlotNum();
+        }
+        int count = Math.min(pendingTablets.size(), Math.max(availableSlotNum, MIN_SCHEDULE_BATCH_NUM));
         while (count > 0) {
             TabletSchedCtx tablet = pendingTablets.poll();
             if (tablet == null) {
@@ -1799,6 +1786,7 @@ public class TabletScheduler extends FrontendDaemon {
             list.add(tablet);
             count--;
         }
+        stat.counterTabletTakenFromPending.addAndGet(list.size());
         return list;
     }
 
@@ -1950,9 +1938,8 @@ public class TabletScheduler extends FrontendDaemon {
             synchronized (this) {
                 LOG.info("forcefully clean all the tablets from pending and running queue for tablet scheduler," +
                         " pending queue size {}, running queue size {}", pendingTablets.size(), runningTablets.size());
-                cleanedTablets.addAll(pendingTablets);
+                cleanedTablets.addAll(pendingTablets.clear());
                 cleanedTablets.addAll(runningTablets.values());
-                pendingTablets.clear();
                 runningTablets.clear();
                 allTabletIds.clear();
             }
@@ -1962,7 +1949,7 @@ public class TabletScheduler extends FrontendDaemon {
     }
 
     public List<List<String>> getPendingTabletsInfo(int limit) {
-        List<TabletSchedCtx> tabletCtxs = getCopiedTablets(pendingTablets, limit);
+        List<TabletSchedCtx> tabletCtxs = pendingTablets.peek(limit);
         return collectTabletCtx(tabletCtxs);
     }
 
@@ -2001,7 +1988,7 @@ public class TabletScheduler extends FrontendDaemon {
         return tabletCtxs;
     }
 
-    public synchronized int getPendingNum() {
+    public int getPendingNum() {
         return pendingTablets.size();
     }
 
@@ -2018,7 +2005,7 @@ public class TabletScheduler extends FrontendDaemon {
     }
 
     public synchronized long getBalanceTabletsNumber() {
-        return pendingTablets.stream().filter(t -> t.getType() == Type.BALANCE).count()
+        return pendingTablets.snapshot().stream().filter(t -> t.getType() == Type.BALANCE).count()
                 + runningTablets.values().stream().filter(t -> t.getType() == Type.BALANCE).count();
     }
 
@@ -2037,7 +2024,7 @@ public class TabletScheduler extends FrontendDaemon {
         synchronized (this) {
             Stream<TabletSchedCtx> all;
             if (TabletSchedCtx.State.PENDING.name().equals(state)) {
-                all = pendingTablets.stream();
+                all = pendingTablets.snapshot().stream();
             } else if (TabletSchedCtx.State.RUNNING.name().equals(state)) {
                 all = runningTablets.values().stream();
             } else if (TabletSchedCtx.State.FINISHED.name().equals(state)) {
@@ -2045,7 +2032,7 @@ public class TabletScheduler extends FrontendDaemon {
             } else {
                 // running first, then history, then pending
                 all = Stream.concat(Stream.concat(runningTablets.values().stream(), schedHistory.stream()),
-                        pendingTablets.stream());
+                        pendingTablets.snapshot().stream());
                 if (state != null) {
                     all = all.filter(t -> t.getState().name().equals(state));
                 }
@@ -2205,6 +2192,15 @@ public class TabletScheduler extends FrontendDaemon {
             return slot.available;
         }
 
+        public synchronized int getTotalAvailableSlotNum() {
+            int num = 0;
+            for (Slot slot : pathSlots.values()) {
+                slot.rectify();
+                num += slot.available;
+            }
+            return num;
+        }
+
         public synchronized int getSlotTotal(long pathHash) {
             Slot slot = pathSlots.get(pathHash);
             if (slot == null) {
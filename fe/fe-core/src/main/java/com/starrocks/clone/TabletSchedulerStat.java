@@ -81,6 +81,8 @@ public class TabletSchedulerStat {
      */
     @StatField("num of tablet schedule round")
     public AtomicLong counterTabletScheduleRound = new AtomicLong(0L);
+    @StatField("num of tablet taken from pending queue")
+    public AtomicLong counterTabletTakenFromPending = new AtomicLong(0L);
     @StatField("cost of tablet schedule(ms)")
     public AtomicLong counterTabletScheduleCostMs = new AtomicLong(0L);
     @StatField("num of tablet being scheduled")
@@ -707,6 +707,39 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long query_queue_v2_cpu_costs_per_slot = 1_000_000_000;
 
+    /**
+     * Whether each FE admits the queued queries locally against the slots leased from the leader FE, instead of
+     * requiring the slot of each query from the leader FE via RPC.
+     * It's only effective for query queue v1 and the queries not limited by the group level query queue.
+     * @see com.starrocks.qe.scheduler.slot.LeasedSlotProvider
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_query_queue_slot_lease = false;
+    /**
+     * The interval of renewing the slot lease from the leader FE, and the leader rebalances the leases of all the FEs
+     * in the same interval. A lease expires if it's not renewed in 3 intervals.
+     */
+    @ConfField
+    public static long query_queue_slot_lease_renew_interval_ms = 1000;
+    /**
+     * The ratio of the idle slots which are leased to the FEs without pending queries evenly, and the others are
+     * kept for the queries requiring slots from the leader FE.
+     */
+    @ConfField(mutable = true)
+    public static double query_queue_slot_lease_idle_ratio = 0.5;
+
+    /**
+     * The max bytes of the query results cached in FE, which are used by the queries with
+     * {@code enable_query_result_cache} enabled. The least recently used results are evicted beyond it.
+     */
+    @ConfField
+    public static long query_result_cache_max_bytes = 64L * 1024 * 1024;
+    /**
+     * The result of a query is not cached if it's larger than this value.
+     */
+    @ConfField(mutable = true)
+    public static long query_result_cache_max_entry_bytes = 1024L * 1024;
+
     /**
      * Number of worker threads for http server to deal with http requests which may do
      * some I/O operations. If set with a non-positive value, it will use netty's default
@@ -1678,6 +1711,20 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static int tablet_checker_partition_batch_num = 500;
 
+    /**
+     * If true, tablet checker only checks the tablets marked dirty by tablet reports and backend
+     * alive state changes in each round, and checks all the tablets every
+     * tablet_checker_full_check_interval_seconds as a safety net.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_tablet_checker_dirty_check = false;
+
+    /**
+     * The interval of checking all the tablets when enable_tablet_checker_dirty_check is true.
+     */
+    @ConfField(mutable = true)
+    public static long tablet_checker_full_check_interval_seconds = 600;
+
     @Deprecated
     @ConfField(mutable = true)
     public static int report_queue_size = 100;
@@ -1739,6 +1786,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long routine_load_kafka_timeout_second = 12;
 
+    /**
+     * The time in ms that the kafka partitions and latest offsets fetched for a routine load job
+     * can be reused by the jobs consuming the same topic. 0 disables the cache.
+     */
+    @ConfField(mutable = true)
+    public static long routine_load_kafka_meta_cache_ttl_ms = 1000;
+
     /**
      * pulsar util request timeout
      */
@@ -2017,6 +2071,26 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long statistic_update_interval_sec = 24L * 60L * 60L;
 
+    /**
+     * Whether the FE which collects the statistics pushes them to the caches of the other FEs,
+     * so the other FEs don't need to load them from the statistics tables
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_statistic_cache_push = true;
+
+    /**
+     * Whether to save the statistic cache to a snapshot file under meta_dir periodically,
+     * and load it to warm up the cache after FE restarts
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_statistic_cache_warm_start = false;
+
+    /**
+     * The interval of saving the statistic cache snapshot file
+     */
+    @ConfField(mutable = true)
+    public static long statistic_cache_snapshot_interval_sec = 10L * 60L;
+
     @ConfField(mutable = true)
     public static long statistic_collect_too_many_version_sleep = 600000; // 10min
     /**
@@ -2073,6 +2147,14 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long statistic_sample_collect_rows = 200000;
 
+    /**
+     * If set to true, the auto sample collection only collects the statistics of the partitions updated since
+     * the last collection, and large partitions are collected by sampling their tablets. The statistics are
+     * stored by partition and merged into the table statistics, like the full collection.
+     */
+    @ConfField(mutable = true)
+    public static boolean statistic_auto_collect_incremental_sample = false;
+
     /**
      * default bucket size of histogram statistics
      */
@@ -2679,6 +2761,10 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static String lake_compaction_disable_tables = "";
 
+    @ConfField(comment = "the number of threads used to start the compaction jobs of different partitions " +
+            "in parallel in one scheduling round, 1 means starting them one by one")
+    public static int lake_compaction_dispatch_threads = 4;
+
     @ConfField(mutable = true, comment = "the max number of threads for lake table publishing version")
     public static int lake_publish_version_max_threads = 512;
 
@@ -2801,6 +2887,38 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static String profile_info_format = "default";
 
+    /**
+     * Whether to also persist the profiles of `ProfileManager` into a local append-only store, so that
+     * the profiles evicted from memory can still be retrieved by query id and listed by SHOW PROFILELIST.
+     */
+    @ConfField
+    public static boolean enable_profile_store = false;
+
+    /**
+     * The directory of the local profile store.
+     */
+    @ConfField
+    public static String profile_store_dir = StarRocksFE.STARROCKS_HOME_DIR + "/profile";
+
+    /**
+     * Max disk space used by the local profile store, the oldest segments are deleted when exceeded.
+     */
+    @ConfField(mutable = true)
+    public static long profile_store_max_size_mb = 2048;
+
+    /**
+     * Size of a single segment file of the local profile store.
+     */
+    @ConfField(mutable = true)
+    public static long profile_store_segment_size_mb = 64;
+
+    /**
+     * Max number of profiles waiting to be written into the local profile store,
+     * profiles beyond that are only kept in memory.
+     */
+    @ConfField
+    public static int profile_store_write_queue_size = 1024;
+
     /**
      * When the session variable `enable_profile` is set to `false` and `big_query_profile_threshold` is set to 0,
      * the amount of time taken by a load exceeds the default_big_load_profile_threshold_second,
@@ -3017,6 +3135,10 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true, comment = "Mv refresh fails if there is filtered data, false by default")
     public static boolean mv_refresh_fail_on_filter_data = false;
 
+    @ConfField(mutable = true, comment = "The max number of threads to refresh the partition batches of all the " +
+            "materialized views concurrently, see the session variable mv_refresh_partition_parallelism")
+    public static int mv_refresh_partition_batch_thread_num = 8;
+
     @ConfField(mutable = true, comment = "The default timeout for planner optimize when refresh materialized view, 30s by " +
             "default")
     public static int mv_refresh_default_planner_optimize_timeout = 30000; // 30s
@@ -3069,6 +3191,13 @@ public class Config extends ConfigBase {
     @ConfField(mutable = true)
     public static long mv_plan_cache_max_size = 1000;
 
+    /**
+     * The number of threads to build the plans of related materialized views which are not in the mv plan cache
+     * concurrently when preparing mv rewrite for a query. 0 means building them one by one in the query thread.
+     */
+    @ConfField
+    public static int mv_plan_cache_load_thread_num = 4;
+
     @ConfField(mutable = true, comment = "Max materialized view rewrite cache size during one query's lifecycle " +
             "so can avoid repeating compute to reduce optimizer time in materialized view rewrite, " +
             "but may occupy some extra FE's memory. It's well-done when there are many relative " +
@@ -3187,6 +3316,13 @@ public class Config extends ConfigBase {
     @ConfField
     public static boolean enable_parser_context_cache = true;
 
+    /**
+     * Parse the plain multi-row INSERT ... VALUES statements with a hand-written parser instead of ANTLR,
+     * the statements not supported by it are still parsed by ANTLR.
+     */
+    @ConfField(mutable = true)
+    public static boolean enable_insert_values_fast_parse = true;
+
     // Whether restore tables into colocate group if the
     // backuped table is colocated
     @ConfField(mutable = true)
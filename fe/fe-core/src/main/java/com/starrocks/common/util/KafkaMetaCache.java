@@ -0,0 +1,142 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A short-lived cache of kafka partitions and latest offsets shared by all the routine load jobs,
+ * keyed by broker list, topic, properties and warehouse. The jobs consuming the same topic with the
+ * same properties reuse the result fetched by each other within
+ * {@link Config#routine_load_kafka_meta_cache_ttl_ms}.
+ */
+class KafkaMetaCache {
+    // expired entries are cleaned when the number of entries exceeds this
+    private static final int CLEAN_THRESHOLD = 1024;
+
+    static final class Key {
+        private final String brokerList;
+        private final String topic;
+        private final ImmutableMap<String, String> properties;
+        private final long warehouseId;
+
+        Key(String brokerList, String topic, ImmutableMap<String, String> properties, long warehouseId) {
+            this.brokerList = brokerList;
+            this.topic = topic;
+            this.properties = properties;
+            this.warehouseId = warehouseId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return warehouseId == key.warehouseId && Objects.equals(brokerList, key.brokerList)
+                    && Objects.equals(topic, key.topic) && Objects.equals(properties, key.properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(brokerList, topic, properties, warehouseId);
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long fetchTimeMs;
+
+        Entry(V value, long fetchTimeMs) {
+            this.value = value;
+            this.fetchTimeMs = fetchTimeMs;
+        }
+
+        boolean isExpired(long now) {
+            return now - fetchTimeMs >= Config.routine_load_kafka_meta_cache_ttl_ms;
+        }
+    }
+
+    private final Map<Key, Entry<List<Integer>>> partitions = new ConcurrentHashMap<>();
+    private final Map<Key, Entry<Map<Integer, Long>>> latestOffsets = new ConcurrentHashMap<>();
+
+    static boolean isEnabled() {
+        return Config.routine_load_kafka_meta_cache_ttl_ms > 0;
+    }
+
+    /**
+     * @return the cached partitions, null if not cached or expired
+     */
+    List<Integer> getPartitions(Key key) {
+        Entry<List<Integer>> entry = partitions.get(key);
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    void putPartitions(Key key, List<Integer> partitionIds) {
+        put(partitions, key, ImmutableList.copyOf(partitionIds));
+    }
+
+    /**
+     * @return the cached latest offsets of the partitions, null if any partition is not cached or expired
+     */
+    Map<Integer, Long> getLatestOffsets(Key key, List<Integer> partitionIds) {
+        Entry<Map<Integer, Long>> entry = latestOffsets.get(key);
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        Map<Integer, Long> result = Maps.newHashMapWithExpectedSize(partitionIds.size());
+        for (Integer partitionId : partitionIds) {
+            Long offset = entry.value.get(partitionId);
+            if (offset == null) {
+                return null;
+            }
+            result.put(partitionId, offset);
+        }
+        return result;
+    }
+
+    void putLatestOffsets(Key key, Map<Integer, Long> offsets) {
+        // jobs consuming the same topic may fetch different partitions, keep the unexpired ones of the others
+        Map<Integer, Long> merged = Maps.newHashMap();
+        Entry<Map<Integer, Long>> entry = latestOffsets.get(key);
+        if (entry != null && !entry.isExpired(System.currentTimeMillis())) {
+            merged.putAll(entry.value);
+        }
+        merged.putAll(offsets);
+        put(latestOffsets, key, ImmutableMap.copyOf(merged));
+    }
+
+    private static <V> void put(Map<Key, Entry<V>> map, Key key, V value) {
+        long now = System.currentTimeMillis();
+        map.put(key, new Entry<>(value, now));
+        if (map.size() > CLEAN_THRESHOLD) {
+            map.values().removeIf(entry -> entry.isExpired(now));
+        }
+    }
+}
@@ -41,6 +41,7 @@ import com.starrocks.common.Config;
 import com.starrocks.common.ErrorReportException;
 import com.starrocks.common.LoadException;
 import com.starrocks.common.UserException;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.proto.PKafkaLoadInfo;
 import com.starrocks.proto.PKafkaMetaProxyRequest;
 import com.starrocks.proto.PKafkaOffsetBatchProxyRequest;
@@ -71,11 +72,22 @@ public class KafkaUtil {
     private static final Logger LOG = LogManager.getLogger(KafkaUtil.class);
 
     private static final ProxyAPI PROXY_API = new ProxyAPI();
+    private static final KafkaMetaCache META_CACHE = new KafkaMetaCache();
 
     public static List<Integer> getAllKafkaPartitions(String brokerList, String topic,
                                                       ImmutableMap<String, String> properties,
                                                       long warehouseId) throws UserException {
-        return PROXY_API.getAllKafkaPartitions(brokerList, topic, properties, warehouseId);
+        if (!KafkaMetaCache.isEnabled()) {
+            return PROXY_API.getAllKafkaPartitions(brokerList, topic, properties, warehouseId);
+        }
+        KafkaMetaCache.Key key = new KafkaMetaCache.Key(brokerList, topic, properties, warehouseId);
+        List<Integer> partitions = META_CACHE.getPartitions(key);
+        countCacheAccess(partitions != null);
+        if (partitions == null) {
+            partitions = PROXY_API.getAllKafkaPartitions(brokerList, topic, properties, warehouseId);
+            META_CACHE.putPartitions(key, partitions);
+        }
+        return partitions;
     }
 
     // latest offset is (the latest existing message offset + 1)
@@ -83,7 +95,42 @@ public class KafkaUtil {
                                                       ImmutableMap<String, String> properties,
                                                       List<Integer> partitions,
                                                       long warehouseId) throws UserException {
-        return PROXY_API.getLatestOffsets(brokerList, topic, properties, partitions, warehouseId);
+        Map<Integer, Long> offsets = PROXY_API.getLatestOffsets(brokerList, topic, properties, partitions, warehouseId);
+        if (KafkaMetaCache.isEnabled()) {
+            META_CACHE.putLatestOffsets(new KafkaMetaCache.Key(brokerList, topic, properties, warehouseId), offsets);
+        }
+        return offsets;
+    }
+
+    /**
+     * Same as {@link #getLatestOffsets}, but the offsets fetched by other jobs in a short time may be returned,
+     * which can be a little smaller than the real latest offsets. Callers must tolerate this, e.g. use
+     * {@link #getLatestOffsets} to check again if a consumed offset is bigger than the returned one.
+     */
+    public static Map<Integer, Long> getCachedLatestOffsets(String brokerList, String topic,
+                                                            ImmutableMap<String, String> properties,
+                                                            List<Integer> partitions,
+                                                            long warehouseId) throws UserException {
+        if (!KafkaMetaCache.isEnabled()) {
+            return PROXY_API.getLatestOffsets(brokerList, topic, properties, partitions, warehouseId);
+        }
+        Map<Integer, Long> offsets = META_CACHE.getLatestOffsets(
+                new KafkaMetaCache.Key(brokerList, topic, properties, warehouseId), partitions);
+        countCacheAccess(offsets != null);
+        if (offsets == null) {
+            offsets = getLatestOffsets(brokerList, topic, properties, partitions, warehouseId);
+        }
+        return offsets;
+    }
+
+    private static void countCacheAccess(boolean hit) {
+        if (MetricRepo.hasInit) {
+            if (hit) {
+                MetricRepo.COUNTER_ROUTINE_LOAD_KAFKA_META_CACHE_HIT.increase(1L);
+            } else {
+                MetricRepo.COUNTER_ROUTINE_LOAD_KAFKA_META_CACHE_MISS.increase(1L);
+            }
+        }
     }
 
     public static Map<Integer, Long> getBeginningOffsets(String brokerList, String topic,
@@ -95,7 +142,30 @@ public class KafkaUtil {
 
     public static List<PKafkaOffsetProxyResult> getBatchOffsets(List<PKafkaOffsetProxyRequest> requests)
             throws UserException {
-        return PROXY_API.getBatchOffsets(requests);
+        List<PKafkaOffsetProxyResult> results = PROXY_API.getBatchOffsets(requests);
+        if (KafkaMetaCache.isEnabled() && results != null && results.size() == requests.size()) {
+            // the batch is issued for all the jobs together, share the latest offsets with them
+            for (int i = 0; i < requests.size(); i++) {
+                PKafkaOffsetProxyResult result = results.get(i);
+                if (result.partitionIds == null || result.latestOffsets == null) {
+                    continue;
+                }
+                Map<Integer, Long> offsets = Maps.newHashMapWithExpectedSize(result.partitionIds.size());
+                for (int j = 0; j < result.partitionIds.size(); j++) {
+                    offsets.put(result.partitionIds.get(j), result.latestOffsets.get(j));
+                }
+                PKafkaLoadInfo kafkaInfo = requests.get(i).kafkaInfo;
+                ImmutableMap.Builder<String, String> properties = ImmutableMap.builder();
+                if (kafkaInfo.properties != null) {
+                    for (PStringPair pair : kafkaInfo.properties) {
+                        properties.put(pair.key, pair.val);
+                    }
+                }
+                META_CACHE.putLatestOffsets(new KafkaMetaCache.Key(kafkaInfo.brokers, kafkaInfo.topic,
+                        properties.build(), kafkaInfo.warehouseId), offsets);
+            }
+        }
+        return results;
     }
 
     public static PKafkaLoadInfo genPKafkaLoadInfo(String brokerList, String topic,
@@ -235,6 +305,7 @@ public class KafkaUtil {
 
             // get info
             int retryTimes = 0;
+            long startTime = System.currentTimeMillis();
             while (true) {
                 try {
                     request.timeout = Config.routine_load_kafka_timeout_second;
@@ -247,6 +318,10 @@ public class KafkaUtil {
                         throw new LoadException(
                                 String.format("%s, BE: %s", StringUtils.join(result.status.errorMsgs, ","), address));
                     }
+                    if (MetricRepo.hasInit) {
+                        MetricRepo.HISTO_ROUTINE_LOAD_KAFKA_META_FETCH_LATENCY.update(
+                                System.currentTimeMillis() - startTime);
+                    }
                     return result;
                 } catch (LoadException e) {
                     throw e;
@@ -44,6 +44,7 @@ import com.starrocks.memory.MemoryTrackable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -116,6 +117,8 @@ public class ProfileManager implements MemoryTrackable {
 
     private final LinkedHashMap<String, ProfileElement> profileMap; // from QueryId to RuntimeProfile
     private final LinkedHashMap<String, ProfileElement> loadProfileMap; // from LoadId to RuntimeProfile
+    // Keeps the profiles evicted from memory, null if the profile store is disabled
+    private final ProfileStore profileStore;
 
     public static ProfileManager getInstance() {
         if (INSTANCE == null) {
@@ -130,6 +133,7 @@ public class ProfileManager implements MemoryTrackable {
         writeLock = lock.writeLock();
         profileMap = new LinkedHashMap<>();
         loadProfileMap = new LinkedHashMap<>();
+        profileStore = Config.enable_profile_store ? new ProfileStore(new File(Config.profile_store_dir)) : null;
     }
 
     public ProfileElement createElement(RuntimeProfile summaryProfile, String profileString) {
@@ -197,20 +201,34 @@ public class ProfileManager implements MemoryTrackable {
             writeLock.unlock();
         }
 
+        if (profileStore != null) {
+            profileStore.asyncWrite(element);
+        }
+
         return profileString;
     }
 
     public boolean hasProfile(String queryId) {
         readLock.lock();
         try {
-            return profileMap.containsKey(queryId) || loadProfileMap.containsKey(queryId);
+            if (profileMap.containsKey(queryId) || loadProfileMap.containsKey(queryId)) {
+                return true;
+            }
         } finally {
             readLock.unlock();
         }
+        return profileStore != null && profileStore.contains(queryId);
     }
 
     public List<List<String>> getAllQueries() {
         List<List<String>> result = Lists.newLinkedList();
+        for (ProfileElement element : getStoredOnlyProfileElements()) {
+            List<String> row = Lists.newArrayList();
+            for (String str : PROFILE_HEADERS) {
+                row.add(element.infoStrings.get(str));
+            }
+            result.add(0, row);
+        }
         readLock.lock();
         try {
             for (ProfileElement element : profileMap.values()) {
@@ -243,6 +261,9 @@ public class ProfileManager implements MemoryTrackable {
         } finally {
             writeLock.unlock();
         }
+        if (profileStore != null) {
+            profileStore.remove(queryId);
+        }
     }
 
     public void clearProfiles() {
@@ -256,35 +277,54 @@ public class ProfileManager implements MemoryTrackable {
     }
 
     public String getProfile(String queryId) {
-        ProfileElement element = new ProfileElement();
-        readLock.lock();
+        ProfileElement element = getProfileElement(queryId);
+        if (element == null) {
+            return null;
+        }
         try {
-            element = profileMap.get(queryId) == null ? loadProfileMap.get(queryId) : profileMap.get(queryId);
-            if (element == null) {
-                return null;
-            }
-
             return CompressionUtils.gzipDecompressString(element.profileContent);
         } catch (IOException e) {
             LOG.warn("Decompress profile content failed, length: {}, reason: {}",
                     element.profileContent.length, e.getMessage());
             return null;
+        }
+    }
+
+    public ProfileElement getProfileElement(String queryId) {
+        readLock.lock();
+        try {
+            ProfileElement element =
+                    profileMap.get(queryId) == null ? loadProfileMap.get(queryId) : profileMap.get(queryId);
+            if (element != null) {
+                return element;
+            }
         } finally {
             readLock.unlock();
         }
+        return profileStore == null ? null : profileStore.getElement(queryId);
     }
 
-    public ProfileElement getProfileElement(String queryId) {
+    // Elements without content of the stored profiles which are already evicted from memory,
+    // from the oldest to the latest
+    private List<ProfileElement> getStoredOnlyProfileElements() {
+        if (profileStore == null) {
+            return Lists.newArrayList();
+        }
+        List<ProfileElement> storedElements = profileStore.getElements();
         readLock.lock();
         try {
-            return profileMap.get(queryId) == null ? loadProfileMap.get(queryId) : profileMap.get(queryId);
+            storedElements.removeIf(element -> {
+                String queryId = element.infoStrings.get(QUERY_ID);
+                return profileMap.containsKey(queryId) || loadProfileMap.containsKey(queryId);
+            });
         } finally {
             readLock.unlock();
         }
+        return storedElements;
     }
 
     public List<ProfileElement> getAllProfileElements() {
-        List<ProfileElement> result = Lists.newArrayList();
+        List<ProfileElement> result = getStoredOnlyProfileElements();
         readLock.lock();
         try {
             result.addAll(profileMap.values());
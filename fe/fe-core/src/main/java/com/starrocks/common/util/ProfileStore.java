@@ -0,0 +1,461 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.common.io.Text;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * A local append-only store of the profiles pushed into {@link ProfileManager}, so that profiles
+ * evicted from memory can still be retrieved.
+ * <p>
+ * Profiles are appended into segment files named profile_{id}.seg. A record is:
+ * | length (int) | crc32 of body (long) | body |, and the body is the header info strings followed
+ * by the gzipped profile content. Only the headers are kept in memory, indexed by query id in write
+ * order, the content is read from the segment on demand. When the total size exceeds
+ * {@link Config#profile_store_max_size_mb}, the oldest segments are deleted.
+ * <p>
+ * All the writes, including loading the existing segments at startup, are done by a single writer
+ * thread, so pushing a profile never waits for the disk.
+ */
+public class ProfileStore {
+    private static final Logger LOG = LogManager.getLogger(ProfileStore.class);
+
+    private static final String SEGMENT_PREFIX = "profile_";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("^profile_(\\d+)\\.seg$");
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    // Statements kept in memory for listing are truncated to this length,
+    // the full statement is still in the segment.
+    private static final int MAX_INDEXED_STATEMENT_LENGTH = 1024;
+
+    private static class Entry {
+        private final String queryId;
+        private final long segmentId;
+        private final long offset;
+        private final int length;
+        private final Map<String, String> infoStrings;
+
+        private Entry(String queryId, long segmentId, long offset, int length, Map<String, String> infoStrings) {
+            this.queryId = queryId;
+            this.segmentId = segmentId;
+            this.offset = offset;
+            this.length = length;
+            this.infoStrings = infoStrings;
+        }
+    }
+
+    private final File dir;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // query id -> entry, in write order
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    // segment id -> segment size
+    private final TreeMap<Long, Long> segments = new TreeMap<>();
+    private long totalSize = 0;
+
+    // only accessed by the writer thread
+    private long currentSegmentId = -1;
+    private FileOutputStream currentSegment = null;
+
+    private final ThreadPoolExecutor writer;
+
+    public ProfileStore(File dir) {
+        this.dir = dir;
+        // Reject the writes instead of blocking the caller once the queue is full, see asyncWrite.
+        this.writer = ThreadPoolManager.newDaemonThreadPool(1, 1, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Config.profile_store_write_queue_size), new ThreadPoolExecutor.AbortPolicy(),
+                "profile-store-writer", true);
+        writer.submit(this::load);
+    }
+
+    /**
+     * Asynchronously append the element, the element is dropped if too many elements are waiting
+     * to be written.
+     */
+    public void asyncWrite(ProfileManager.ProfileElement element) {
+        if (element.profileContent == null) {
+            return;
+        }
+        try {
+            writer.submit(() -> write(element));
+        } catch (RejectedExecutionException e) {
+            LOG.warn("too many profiles waiting to be written, skip storing profile of query {}",
+                    element.infoStrings.get(ProfileManager.QUERY_ID));
+        }
+    }
+
+    public boolean contains(String queryId) {
+        lock.readLock().lock();
+        try {
+            return entries.containsKey(queryId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return the element of the query with its content, or null if the query is not found.
+     * The execution plan is not stored, so {@link ProfileManager.ProfileElement#plan} is always null.
+     */
+    public ProfileManager.ProfileElement getElement(String queryId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(queryId);
+            if (entry == null) {
+                return null;
+            }
+            return readRecord(entry);
+        } catch (IOException e) {
+            LOG.warn("failed to read the stored profile of query {}", queryId, e);
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return the elements without content of all the stored queries, from the oldest to the latest.
+     */
+    public List<ProfileManager.ProfileElement> getElements() {
+        lock.readLock().lock();
+        try {
+            List<ProfileManager.ProfileElement> result = Lists.newArrayListWithCapacity(entries.size());
+            for (Entry entry : entries.values()) {
+                ProfileManager.ProfileElement element = new ProfileManager.ProfileElement();
+                element.infoStrings.putAll(entry.infoStrings);
+                result.add(element);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the query from the index, the record is dropped with its segment.
+     */
+    public void remove(String queryId) {
+        lock.writeLock().lock();
+        try {
+            entries.remove(queryId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @VisibleForTesting
+    long getTotalSize() {
+        lock.readLock().lock();
+        try {
+            return totalSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Wait until all the submitted writes are done.
+     */
+    @VisibleForTesting
+    void flush() throws Exception {
+        writer.submit(() -> { }).get();
+    }
+
+    public void close() {
+        try {
+            writer.submit(this::closeCurrentSegment);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("failed to close the current profile segment, too many profiles waiting to be written");
+        }
+        writer.shutdown();
+    }
+
+    private File segmentFile(long segmentId) {
+        return new File(dir, SEGMENT_PREFIX + segmentId + SEGMENT_SUFFIX);
+    }
+
+    private void load() {
+        if (!dir.exists() && !dir.mkdirs()) {
+            LOG.warn("failed to create profile store dir {}", dir);
+            return;
+        }
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        TreeMap<Long, File> segmentFiles = new TreeMap<>();
+        for (File file : files) {
+            Matcher matcher = SEGMENT_PATTERN.matcher(file.getName());
+            if (matcher.matches()) {
+                segmentFiles.put(Long.parseLong(matcher.group(1)), file);
+            }
+        }
+        for (Map.Entry<Long, File> segment : segmentFiles.entrySet()) {
+            try {
+                loadSegment(segment.getKey(), segment.getValue());
+            } catch (IOException e) {
+                LOG.warn("failed to load profile segment {}", segment.getValue(), e);
+            }
+            currentSegmentId = segment.getKey();
+        }
+        lock.writeLock().lock();
+        try {
+            deleteExceededSegments();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOG.info("loaded {} profiles from {} segments in {}", size(), segmentFiles.size(), dir);
+    }
+
+    private void loadSegment(long segmentId, File file) throws IOException {
+        long validLength = 0;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long fileLength = raf.length();
+            while (validLength + RECORD_HEADER_SIZE <= fileLength) {
+                raf.seek(validLength);
+                int length = raf.readInt();
+                long crc = raf.readLong();
+                if (length < 0 || validLength + RECORD_HEADER_SIZE + length > fileLength) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                raf.readFully(body);
+                if (checksum(body) != crc) {
+                    break;
+                }
+                ProfileManager.ProfileElement element = decodeBody(body, false);
+                Entry entry = new Entry(element.infoStrings.get(ProfileManager.QUERY_ID), segmentId, validLength,
+                        RECORD_HEADER_SIZE + length, indexedInfoStrings(element.infoStrings));
+                lock.writeLock().lock();
+                try {
+                    addEntry(entry);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                validLength += RECORD_HEADER_SIZE + length;
+            }
+            if (validLength < fileLength) {
+                // A torn or corrupted tail, most likely left by a crash during writing
+                LOG.warn("truncate profile segment {} from {} to {}", file, fileLength, validLength);
+                raf.setLength(validLength);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            segments.put(segmentId, validLength);
+            totalSize += validLength;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @VisibleForTesting
+    void write(ProfileManager.ProfileElement element) {
+        try {
+            byte[] body = encodeBody(element);
+            long segmentSize = Config.profile_store_segment_size_mb * 1024 * 1024;
+            if (currentSegment == null || segments.getOrDefault(currentSegmentId, 0L) >= segmentSize) {
+                rollSegment();
+            }
+            long offset = segments.get(currentSegmentId);
+            ByteArrayOutputStream record = new ByteArrayOutputStream(RECORD_HEADER_SIZE + body.length);
+            DataOutputStream out = new DataOutputStream(record);
+            out.writeInt(body.length);
+            out.writeLong(checksum(body));
+            out.write(body);
+            currentSegment.write(record.toByteArray());
+            currentSegment.flush();
+
+            lock.writeLock().lock();
+            try {
+                segments.put(currentSegmentId, offset + record.size());
+                totalSize += record.size();
+                addEntry(new Entry(element.infoStrings.get(ProfileManager.QUERY_ID), currentSegmentId, offset,
+                        record.size(), indexedInfoStrings(element.infoStrings)));
+                deleteExceededSegments();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            LOG.warn("failed to store profile of query {}", element.infoStrings.get(ProfileManager.QUERY_ID), e);
+            // start a new segment for the following writes, in case the current one is broken
+            closeCurrentSegment();
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        closeCurrentSegment();
+        long segmentId = currentSegmentId + 1;
+        currentSegment = new FileOutputStream(segmentFile(segmentId), false);
+        currentSegmentId = segmentId;
+        lock.writeLock().lock();
+        try {
+            segments.put(segmentId, 0L);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void closeCurrentSegment() {
+        if (currentSegment == null) {
+            return;
+        }
+        try {
+            currentSegment.close();
+        } catch (IOException e) {
+            LOG.warn("failed to close profile segment {}", segmentFile(currentSegmentId), e);
+        }
+        currentSegment = null;
+    }
+
+    // must hold the write lock
+    private void addEntry(Entry entry) {
+        // remove first to move the query to the tail
+        entries.remove(entry.queryId);
+        entries.put(entry.queryId, entry);
+    }
+
+    // must hold the write lock
+    private void deleteExceededSegments() {
+        long maxSize = Config.profile_store_max_size_mb * 1024 * 1024;
+        while (totalSize > maxSize && segments.size() > 1) {
+            Map.Entry<Long, Long> oldest = segments.pollFirstEntry();
+            totalSize -= oldest.getValue();
+            Iterator<Entry> iter = entries.values().iterator();
+            while (iter.hasNext()) {
+                Entry entry = iter.next();
+                if (entry.segmentId > oldest.getKey()) {
+                    break;
+                }
+                iter.remove();
+            }
+            // entries rewritten later are moved to the tail, remove the ones still left in this segment
+            entries.values().removeIf(entry -> entry.segmentId == oldest.getKey());
+            File file = segmentFile(oldest.getKey());
+            if (!file.delete()) {
+                LOG.warn("failed to delete profile segment {}", file);
+            }
+        }
+    }
+
+    // must hold the read lock
+    private ProfileManager.ProfileElement readRecord(Entry entry) throws IOException {
+        byte[] record = new byte[entry.length];
+        try (RandomAccessFile raf = new RandomAccessFile(segmentFile(entry.segmentId), "r")) {
+            raf.seek(entry.offset);
+            raf.readFully(record);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        int length = in.readInt();
+        long crc = in.readLong();
+        byte[] body = new byte[length];
+        in.readFully(body);
+        if (checksum(body) != crc) {
+            throw new IOException("checksum mismatch");
+        }
+        return decodeBody(body, true);
+    }
+
+    private static Map<String, String> indexedInfoStrings(Map<String, String> infoStrings) {
+        Map<String, String> indexed = Maps.newHashMap(infoStrings);
+        String statement = indexed.get(ProfileManager.SQL_STATEMENT);
+        if (statement != null && statement.length() > MAX_INDEXED_STATEMENT_LENGTH) {
+            indexed.put(ProfileManager.SQL_STATEMENT, statement.substring(0, MAX_INDEXED_STATEMENT_LENGTH));
+        }
+        return indexed;
+    }
+
+    private static byte[] encodeBody(ProfileManager.ProfileElement element) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeInt(element.infoStrings.size());
+        for (Map.Entry<String, String> info : element.infoStrings.entrySet()) {
+            Text.writeString(out, info.getKey());
+            out.writeBoolean(info.getValue() != null);
+            if (info.getValue() != null) {
+                Text.writeString(out, info.getValue());
+            }
+        }
+        out.writeInt(element.profileContent.length);
+        out.write(element.profileContent);
+        out.flush();
+        return body.toByteArray();
+    }
+
+    private static ProfileManager.ProfileElement decodeBody(byte[] body, boolean withContent) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        ProfileManager.ProfileElement element = new ProfileManager.ProfileElement();
+        int infoNum = in.readInt();
+        for (int i = 0; i < infoNum; i++) {
+            String key = Text.readString(in);
+            String value = in.readBoolean() ? Text.readString(in) : null;
+            element.infoStrings.put(key, value);
+        }
+        if (withContent) {
+            int contentLength = in.readInt();
+            if (contentLength < 0 || contentLength > in.available()) {
+                throw new EOFException("invalid profile content length " + contentLength);
+            }
+            element.profileContent = new byte[contentLength];
+            in.readFully(element.profileContent);
+        }
+        return element;
+    }
+
+    private static long checksum(byte[] body) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(body, 0, body.length);
+        return crc32.getValue();
+    }
+}
@@ -35,6 +35,8 @@
 package com.starrocks.common.util;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -78,16 +80,26 @@ public class RuntimeProfile {
     public static final String MERGED_INFO_PREFIX_MIN = "__MIN_OF_";
     public static final String MERGED_INFO_PREFIX_MAX = "__MAX_OF_";
 
+    private static final int INITIAL_COUNTER_CAPACITY = 4;
+
+    // Counter names, info string keys and child names reported by the backends are almost the same
+    // across all the fragment instances, and each thrift update carries its own copy of them. Share
+    // a single instance of each so that thousands of retained profiles don't hold duplicated strings.
+    private static final Interner<String> NAME_INTERNER = Interners.newWeakInterner();
+    // There are only a handful of distinct counter strategies
+    private static final Interner<TCounterStrategy> STRATEGY_INTERNER = Interners.newWeakInterner();
+
     private final Counter counterTotalTime;
 
     private final Map<String, String> infoStrings = Collections.synchronizedMap(Maps.newLinkedHashMap());
 
     // These will be hold by other thread.
-    private final Map<String, Pair<Counter, String>> counterMap = Maps.newConcurrentMap();
-    private final Map<String, RuntimeProfile> childMap = Maps.newConcurrentMap();
-
-    private final Map<String, Set<String>> childCounterMap = Maps.newConcurrentMap();
-    private final List<Pair<RuntimeProfile, Boolean>> childList = Lists.newCopyOnWriteArrayList();
+    private volatile CounterTable counterTable = new CounterTable(INITIAL_COUNTER_CAPACITY);
+    // Most of the profiles are operator profiles without any child, and many of them don't have
+    // child counters either, so these are only created when the first one is added.
+    private volatile Map<String, RuntimeProfile> childMap;
+    private volatile List<Pair<RuntimeProfile, Boolean>> childList;
+    private volatile Map<String, Set<String>> childCounterMap;
 
     private String name;
     private double localTimePercent;
@@ -103,7 +115,7 @@ public class RuntimeProfile {
     public RuntimeProfile() {
         this.counterTotalTime = new Counter(TUnit.TIME_NS, null, 0);
         this.localTimePercent = 0;
-        this.counterMap.put(TOTAL_TIME_COUNTER, Pair.create(counterTotalTime, ROOT_COUNTER));
+        this.counterTable.append(TOTAL_TIME_COUNTER, ROOT_COUNTER, counterTotalTime);
     }
 
     public Counter getCounterTotalTime() {
@@ -111,25 +123,46 @@ public class RuntimeProfile {
     }
 
     public Map<String, Counter> getCounterMap() {
-        return counterMap.entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().first));
+        CounterTable table = counterTable;
+        int size = table.size;
+        Map<String, Counter> counterMap = Maps.newLinkedHashMapWithExpectedSize(size);
+        for (int slot = 0; slot < size; slot++) {
+            counterMap.put(table.names[slot], table.counters[slot]);
+        }
+        return counterMap;
     }
 
     public List<Pair<RuntimeProfile, Boolean>> getChildList() {
-        return childList;
+        List<Pair<RuntimeProfile, Boolean>> childList = this.childList;
+        return childList == null ? Collections.emptyList() : childList;
     }
 
     public Map<String, RuntimeProfile> getChildMap() {
-        return childMap;
+        Map<String, RuntimeProfile> childMap = this.childMap;
+        return childMap == null ? Collections.emptyMap() : childMap;
     }
 
     public RuntimeProfile getChild(String childName) {
-        return childMap.get(childName);
+        return getChildMap().get(childName);
     }
 
     public void removeAllChildren() {
-        childList.clear();
-        childMap.clear();
+        if (childList != null) {
+            childList.clear();
+            childMap.clear();
+        }
+    }
+
+    private void createChildrenIfAbsent() {
+        if (childList == null) {
+            synchronized (this) {
+                if (childList == null) {
+                    // childMap is published first, so that it's never null once childList isn't
+                    childMap = Maps.newConcurrentMap();
+                    childList = Lists.newCopyOnWriteArrayList();
+                }
+            }
+        }
     }
 
     public Counter addCounter(String name, TUnit type, TCounterStrategy strategy) {
@@ -140,38 +173,51 @@ public class RuntimeProfile {
         if (strategy == null) {
             strategy = Counter.createStrategy(type);
         }
-        Pair<Counter, String> pair = this.counterMap.get(name);
-        if (pair != null) {
-            return pair.first;
-        } else {
-            Preconditions.checkState(parentName.equals(ROOT_COUNTER)
-                    || this.counterMap.containsKey(parentName));
+        Counter counter = getCounter(name);
+        if (counter != null) {
+            return counter;
+        }
+        synchronized (this) {
+            CounterTable table = counterTable;
+            int slot = table.find(name);
+            if (slot >= 0) {
+                return table.counters[slot];
+            }
+            Preconditions.checkState(parentName.equals(ROOT_COUNTER) || table.find(parentName) >= 0);
+            name = NAME_INTERNER.intern(name);
+            parentName = NAME_INTERNER.intern(parentName);
             Counter newCounter = new Counter(type, strategy, 0);
-            this.counterMap.put(name, Pair.create(newCounter, parentName));
+            if (table.size == table.capacity()) {
+                table = table.copy(table.capacity() * 2, null);
+                counterTable = table;
+            }
+            table.append(name, parentName, newCounter);
 
-            if (!childCounterMap.containsKey(parentName)) {
-                childCounterMap.putIfAbsent(parentName, Sets.newConcurrentHashSet());
+            if (childCounterMap == null) {
+                childCounterMap = Maps.newConcurrentMap();
             }
-            Set<String> childNames = childCounterMap.get(parentName);
-            childNames.add(name);
+            childCounterMap.computeIfAbsent(parentName, key -> Sets.newConcurrentHashSet()).add(name);
             return newCounter;
         }
     }
 
-    public void removeCounter(String name) {
-        if (!counterMap.containsKey(name)) {
+    public synchronized void removeCounter(String name) {
+        CounterTable table = counterTable;
+        int slot = table.find(name);
+        if (slot < 0) {
             return;
         }
 
         // Remove from its parent sub sets
-        Pair<Counter, String> pair = counterMap.get(name);
-        String parentName = pair.second;
+        String parentName = table.parentNames[slot];
+        Map<String, Set<String>> childCounterMap = getChildCounterMap();
         if (childCounterMap.containsKey(parentName)) {
             Set<String> childNames = childCounterMap.get(parentName);
             childNames.remove(name);
         }
 
         // Remove child counter recursively
+        Set<String> removedNames = Sets.newHashSet();
         Queue<String> nameQueue = Lists.newLinkedList();
         nameQueue.offer(name);
         while (!nameQueue.isEmpty()) {
@@ -182,21 +228,23 @@ public class RuntimeProfile {
                     nameQueue.offer(childName);
                 }
             }
-            counterMap.remove(topName);
+            removedNames.add(topName);
             childCounterMap.remove(topName);
         }
+        // The slots of the readers' table must not change, so compact the counters into a new one
+        counterTable = table.copy(table.capacity(), removedNames);
     }
 
     public Counter getCounter(String name) {
-        Pair<Counter, String> pair = counterMap.get(name);
-        if (pair != null) {
-            return pair.first;
-        }
-        return null;
+        CounterTable table = counterTable;
+        int slot = table.find(name);
+        return slot < 0 ? null : table.counters[slot];
     }
 
     public Pair<Counter, String> getCounterPair(String name) {
-        return counterMap.get(name);
+        CounterTable table = counterTable;
+        int slot = table.find(name);
+        return slot < 0 ? null : Pair.create(table.counters[slot], table.parentNames[slot]);
     }
 
     public Counter getMaxCounter(String name) {
@@ -223,12 +271,12 @@ public class RuntimeProfile {
             String parentName = topPair.second;
 
             if (!Objects.equals(ROOT_COUNTER, name)) {
-                Counter srcCounter = srcProfile.counterMap.get(name).first;
+                Counter srcCounter = srcProfile.getCounter(name);
                 Counter newCounter = addCounter(name, srcCounter.getType(), srcCounter.getStrategy(), parentName);
                 newCounter.setValue(srcCounter.getValue());
             }
 
-            Set<String> childNames = srcProfile.childCounterMap.get(name);
+            Set<String> childNames = srcProfile.getChildCounterMap().get(name);
             if (childNames != null) {
                 for (String childName : childNames) {
                     nameQueue.offer(Pair.create(childName, name));
@@ -280,29 +328,31 @@ public class RuntimeProfile {
                 }
             }
             // First processing counters by hierarchy
-            Map<String, TCounter> tCounterMap = node.counters.stream()
-                    .collect(Collectors.toMap(TCounter::getName, t -> t));
+            Map<String, TCounter> tCounterMap = Maps.newHashMapWithExpectedSize(node.counters.size());
+            for (TCounter tcounter : node.counters) {
+                tCounterMap.put(tcounter.name, tcounter);
+            }
             Queue<String> nameQueue = Lists.newLinkedList();
             nameQueue.offer(ROOT_COUNTER);
             while (!nameQueue.isEmpty()) {
                 String topName = nameQueue.poll();
 
                 if (!Objects.equals(ROOT_COUNTER, topName)) {
-                    Pair<Counter, String> pair = counterMap.get(topName);
+                    Counter existingCounter = getCounter(topName);
                     TCounter tcounter = tCounterMap.get(topName);
                     String parentName = child2ParentMap.get(topName);
-                    if (pair == null && tcounter != null && parentName != null) {
+                    if (existingCounter == null && tcounter != null && parentName != null) {
                         Counter counter =
                                 addCounter(topName, tcounter.type, tcounter.strategy, parentName);
                         counter.setValue(tcounter.value);
-                        counter.setStrategy(tcounter.strategy);
+                        counter.setStrategy(internStrategy(tcounter.strategy));
                         tCounterMap.remove(topName);
-                    } else if (pair != null && tcounter != null) {
-                        if (pair.first.getType() != tcounter.type) {
+                    } else if (existingCounter != null && tcounter != null) {
+                        if (existingCounter.getType() != tcounter.type) {
                             LOG.error("Cannot update counters with the same name but different types"
                                     + " type=" + tcounter.type);
                         } else {
-                            pair.first.setValue(tcounter.value);
+                            existingCounter.setValue(tcounter.value);
                         }
                         tCounterMap.remove(topName);
                     }
@@ -319,17 +369,17 @@ public class RuntimeProfile {
             }
             // Second, processing the remaining counters, set ROOT_COUNTER as it's parent
             for (TCounter tcounter : tCounterMap.values()) {
-                Pair<Counter, String> pair = counterMap.get(tcounter.name);
-                if (pair == null) {
+                Counter existingCounter = getCounter(tcounter.name);
+                if (existingCounter == null) {
                     Counter counter = addCounter(tcounter.name, tcounter.type, tcounter.strategy);
                     counter.setValue(tcounter.value);
-                    counter.setStrategy(tcounter.strategy);
+                    counter.setStrategy(internStrategy(tcounter.strategy));
                 } else {
-                    if (pair.first.getType() != tcounter.type) {
+                    if (existingCounter.getType() != tcounter.type) {
                         LOG.error("Cannot update counters with the same name but different types"
                                 + " type=" + tcounter.type);
                     } else {
-                        pair.first.setValue(tcounter.value);
+                        existingCounter.setValue(tcounter.value);
                     }
                 }
             }
@@ -349,15 +399,19 @@ public class RuntimeProfile {
         for (int i = 0; i < node.num_children; i++) {
             TRuntimeProfileNode tchild = nodes.get(idx.getRef());
             String childName = tchild.name;
-            RuntimeProfile childProfile = this.childMap.get(childName);
+            RuntimeProfile childProfile = getChild(childName);
             if (childProfile == null) {
-                childProfile = new RuntimeProfile(childName);
+                childProfile = new RuntimeProfile(NAME_INTERNER.intern(childName));
                 addChild(childProfile);
             }
             childProfile.update(nodes, idx, isNodeOld);
         }
     }
 
+    private static TCounterStrategy internStrategy(TCounterStrategy strategy) {
+        return strategy == null ? null : STRATEGY_INTERNER.intern(strategy);
+    }
+
     // Print the profile:
     //  1. Profile Name
     //  2. Info Strings
@@ -444,6 +498,7 @@ public class RuntimeProfile {
             return;
         }
 
+        createChildrenIfAbsent();
         childMap.put(child.name, child);
         Pair<RuntimeProfile, Boolean> pair = Pair.create(child, true);
         childList.add(pair);
@@ -455,6 +510,7 @@ public class RuntimeProfile {
             return;
         }
         final RuntimeProfile child = children.get(0);
+        createChildrenIfAbsent();
         childMap.put(child.name, child);
         List<Pair<RuntimeProfile, Boolean>> childList =
                 children.stream().map(c -> new Pair<>(c, true)).collect(Collectors.toList());
@@ -462,6 +518,9 @@ public class RuntimeProfile {
     }
 
     public void removeChild(String childName) {
+        if (childList == null) {
+            return;
+        }
         RuntimeProfile childProfile = childMap.remove(childName);
         if (childProfile == null) {
             return;
@@ -472,7 +531,7 @@ public class RuntimeProfile {
     // Because the profile of summary and child fragment is not a real parent-child relationship
     // Each child profile needs to calculate the time proportion consumed by itself
     public void computeTimeInChildProfile() {
-        childMap.values().forEach(RuntimeProfile::computeTimeInProfile);
+        getChildMap().values().forEach(RuntimeProfile::computeTimeInProfile);
     }
 
     public void computeTimeInProfile() {
@@ -487,7 +546,7 @@ public class RuntimeProfile {
         // Add all the total times in all the children
         long totalChildTime = 0;
 
-        for (Pair<RuntimeProfile, Boolean> pair : this.childList) {
+        for (Pair<RuntimeProfile, Boolean> pair : getChildList()) {
             totalChildTime += pair.first.getCounterTotalTime().getValue();
         }
         long localTime = this.getCounterTotalTime().getValue() - totalChildTime;
@@ -497,20 +556,23 @@ public class RuntimeProfile {
         this.localTimePercent = Math.min(1.0, this.localTimePercent) * 100;
 
         // Recurse on children
-        for (Pair<RuntimeProfile, Boolean> pair : this.childList) {
+        for (Pair<RuntimeProfile, Boolean> pair : getChildList()) {
             pair.first.computeTimeInProfile(total);
         }
     }
 
     // from bigger to smaller
     public void sortChildren() {
+        if (childList == null) {
+            return;
+        }
         this.childList.sort((profile1, profile2) ->
                 Long.compare(profile2.first.getCounterTotalTime().getValue(),
                         profile1.first.getCounterTotalTime().getValue()));
     }
 
     public void addInfoString(String key, String value) {
-        this.infoStrings.put(key, value);
+        this.infoStrings.put(NAME_INTERNER.intern(key), value);
     }
 
     public void removeInfoString(String key) {
@@ -571,7 +633,8 @@ public class RuntimeProfile {
     }
 
     public Map<String, Set<String>> getChildCounterMap() {
-        return childCounterMap;
+        Map<String, Set<String>> childCounterMap = this.childCounterMap;
+        return childCounterMap == null ? Collections.emptyMap() : childCounterMap;
     }
 
     public double getLocalTimePercent() {
@@ -602,21 +665,23 @@ public class RuntimeProfile {
         nodes.add(node);
 
         node.setName(name);
-        node.setNum_children(childMap.size());
+        node.setNum_children(getChildMap().size());
         node.setIndent(true);
         node.setVersion(version);
 
-        for (Map.Entry<String, Pair<Counter, String>> entry : counterMap.entrySet()) {
-            Counter counter = entry.getValue().first;
+        CounterTable table = counterTable;
+        int size = table.size;
+        for (int slot = 0; slot < size; slot++) {
+            Counter counter = table.counters[slot];
             TCounter tCounter = new TCounter();
-            tCounter.setName(entry.getKey());
+            tCounter.setName(table.names[slot]);
             tCounter.setValue(counter.getValue());
             tCounter.setType(counter.getType());
             tCounter.setStrategy(counter.getStrategy());
             node.addToCounters(tCounter);
         }
 
-        for (Map.Entry<String, Set<String>> entry : childCounterMap.entrySet()) {
+        for (Map.Entry<String, Set<String>> entry : getChildCounterMap().entrySet()) {
             node.putToChild_counters_map(entry.getKey(), new HashSet<>(entry.getValue()));
         }
 
@@ -625,7 +690,7 @@ public class RuntimeProfile {
             node.addToInfo_strings_display_order(entry.getKey());
         }
 
-        for (RuntimeProfile child : childMap.values()) {
+        for (RuntimeProfile child : getChildMap().values()) {
             child.toThrift(nodes);
         }
     }
@@ -657,7 +722,7 @@ public class RuntimeProfile {
                 List<String> currentNames = Lists.newArrayList(nameQueue);
                 nameQueue.clear();
                 for (String name : currentNames) {
-                    Set<String> childNames = profile.childCounterMap.get(name);
+                    Set<String> childNames = profile.getChildCounterMap().get(name);
                     if (childNames != null) {
                         for (String childName : childNames) {
                             nameQueue.offer(childName);
@@ -667,13 +732,14 @@ public class RuntimeProfile {
                     if (Objects.equals(ROOT_COUNTER, name)) {
                         continue;
                     }
-                    Pair<Counter, String> pair = profile.counterMap.get(name);
-                    if (pair == null) {
+                    CounterTable table = profile.counterTable;
+                    int slot = table.find(name);
+                    if (slot < 0) {
                         LOG.warn("missing counter, profileName={}, counterName={}", profile.name, name);
                         continue;
                     }
-                    Counter counter = pair.first;
-                    String parentName = pair.second;
+                    Counter counter = table.counters[slot];
+                    String parentName = table.parentNames[slot];
 
                     while (allLevelCounters.size() <= levelIdx) {
                         allLevelCounters.add(Maps.newHashMap());
@@ -715,7 +781,9 @@ public class RuntimeProfile {
                 continue;
             }
 
-            List<Counter> counters = Lists.newArrayList();
+            final String minName = MERGED_INFO_PREFIX_MIN + name;
+            final String maxName = MERGED_INFO_PREFIX_MAX + name;
+            List<Counter> counters = Lists.newArrayListWithCapacity(profiles.size());
             long minValue = Long.MAX_VALUE;
             long maxValue = Long.MIN_VALUE;
             boolean alreadyMerged = false;
@@ -745,14 +813,14 @@ public class RuntimeProfile {
                 }
 
                 if (!counter.isSkipMinMax()) {
-                    Counter minCounter = profile.getCounter(MERGED_INFO_PREFIX_MIN + name);
+                    Counter minCounter = profile.getCounter(minName);
                     if (minCounter != null) {
                         alreadyMerged = true;
                         if (minCounter.getValue() < minValue) {
                             minValue = minCounter.getValue();
                         }
                     }
-                    Counter maxCounter = profile.getCounter(MERGED_INFO_PREFIX_MAX + name);
+                    Counter maxCounter = profile.getCounter(maxName);
                     if (maxCounter != null) {
                         alreadyMerged = true;
                         if (maxCounter.getValue() > maxValue) {
@@ -786,11 +854,9 @@ public class RuntimeProfile {
 
                 if (!mergedCounter.isSkipMinMax()) {
                     Counter minCounter =
-                            mergedProfile.addCounter(MERGED_INFO_PREFIX_MIN + name, type, mergedCounter.getStrategy(),
-                                    name);
+                            mergedProfile.addCounter(minName, type, mergedCounter.getStrategy(), name);
                     Counter maxCounter =
-                            mergedProfile.addCounter(MERGED_INFO_PREFIX_MAX + name, type, mergedCounter.getStrategy(),
-                                    name);
+                            mergedProfile.addCounter(maxName, type, mergedCounter.getStrategy(), name);
                     minCounter.setValue(minValue);
                     maxCounter.setValue(maxValue);
                 }
@@ -835,7 +901,11 @@ public class RuntimeProfile {
     }
 
     public static void removeRedundantMinMaxMetrics(RuntimeProfile profile) {
-        for (String name : profile.counterMap.keySet()) {
+        // Removing counters replaces the table, so it's safe to go through the current one
+        CounterTable table = profile.counterTable;
+        int size = table.size;
+        for (int slot = 0; slot < size; slot++) {
+            String name = table.names[slot];
             Counter counter = profile.getCounter(name);
             Counter minCounter = profile.getCounter(MERGED_INFO_PREFIX_MIN + name);
             Counter maxCounter = profile.getCounter(MERGED_INFO_PREFIX_MAX + name);
@@ -853,6 +923,81 @@ public class RuntimeProfile {
         profile.getChildList().forEach(pair -> removeRedundantMinMaxMetrics(pair.first));
     }
 
+    // The counters of a profile, kept in parallel arrays indexed by the slot of each counter, with an open
+    // addressing index from the name to the slot. A big query retains tens of counters per operator for
+    // thousands of fragment instances, and a concurrent map spends a map entry and a Pair on every one of them.
+    //
+    // Only the writer holding the lock of the profile appends to a table, and it publishes the new slot by
+    // bumping the volatile size after filling it, so that the readers never lock: a reader only looks at the
+    // slots below the size it has read. Growing and removing counters build a new table instead of touching
+    // the slots of the current one.
+    private static final class CounterTable {
+        private final String[] names;
+        private final String[] parentNames;
+        private final Counter[] counters;
+        // The slot plus one of the counter whose name hashes to the position, 0 for an empty position.
+        // The index has at least twice as many positions as counters, so a probe always ends.
+        private final int[] index;
+        private volatile int size;
+
+        private CounterTable(int capacity) {
+            this.names = new String[capacity];
+            this.parentNames = new String[capacity];
+            this.counters = new Counter[capacity];
+            this.index = new int[Integer.highestOneBit(capacity) << 2];
+        }
+
+        private int capacity() {
+            return names.length;
+        }
+
+        private static int hash(String name) {
+            int h = name.hashCode();
+            return h ^ (h >>> 16);
+        }
+
+        // Returns the slot of the counter, or -1 if there is no such counter
+        private int find(String name) {
+            int size = this.size;
+            int mask = index.length - 1;
+            for (int pos = hash(name) & mask; ; pos = (pos + 1) & mask) {
+                int slot = index[pos] - 1;
+                if (slot < 0) {
+                    return -1;
+                }
+                // A slot which is being appended isn't published yet
+                if (slot < size && name.equals(names[slot])) {
+                    return slot;
+                }
+            }
+        }
+
+        // The caller must hold the lock of the profile and make sure that there is room for the counter
+        private void append(String name, String parentName, Counter counter) {
+            int slot = size;
+            names[slot] = name;
+            parentNames[slot] = parentName;
+            counters[slot] = counter;
+            int mask = index.length - 1;
+            int pos = hash(name) & mask;
+            while (index[pos] != 0) {
+                pos = (pos + 1) & mask;
+            }
+            index[pos] = slot + 1;
+            size = slot + 1;
+        }
+
+        private CounterTable copy(int capacity, Set<String> excludedNames) {
+            CounterTable table = new CounterTable(capacity);
+            for (int slot = 0; slot < size; slot++) {
+                if (excludedNames == null || !excludedNames.contains(names[slot])) {
+                    table.append(names[slot], parentNames[slot], counters[slot]);
+                }
+            }
+            return table;
+        }
+    }
+
     interface ProfileFormatter {
 
         // Print the profile:
@@ -890,7 +1035,7 @@ public class RuntimeProfile {
         }
 
         private void doFormat(RuntimeProfile profile, String prefix) {
-            Counter totalTimeCounter = profile.getCounterMap().get(TOTAL_TIME_COUNTER);
+            Counter totalTimeCounter = profile.getCounter(TOTAL_TIME_COUNTER);
             Preconditions.checkState(totalTimeCounter != null);
             // 1. profile name
             builder.append(prefix).append(profile.getName()).append(":");
@@ -955,7 +1100,7 @@ public class RuntimeProfile {
             reorderedChildNames.addAll(otherChildNames);
 
             for (String childName : reorderedChildNames) {
-                Counter childCounter = profile.getCounterMap().get(childName);
+                Counter childCounter = profile.getCounter(childName);
                 Preconditions.checkState(childCounter != null);
                 builder.append(prefix).append("   - ").append(childName).append(": ")
                         .append(printCounter(childCounter.getValue(), childCounter.getType())).append("\n");
@@ -985,7 +1130,7 @@ public class RuntimeProfile {
         }
 
         public void addRuntimeProfile(RuntimeProfile profile, JsonObject jsonObject) {
-            Counter totalTimeCounter = profile.getCounterMap().get(TOTAL_TIME_COUNTER);
+            Counter totalTimeCounter = profile.getCounter(TOTAL_TIME_COUNTER);
             Preconditions.checkState(totalTimeCounter != null);
             // 1. profile name
             JsonObject innerJsonObject = new JsonObject();
@@ -1046,7 +1191,7 @@ public class RuntimeProfile {
             reorderedChildNames.addAll(otherChildNames);
 
             for (String childName : reorderedChildNames) {
-                Counter childCounter = profile.getCounterMap().get(childName);
+                Counter childCounter = profile.getCounter(childName);
                 Preconditions.checkState(childCounter != null);
                 childJsonObject.addProperty(childName,
                         printCounter(childCounter.getValue(), childCounter.getType()));
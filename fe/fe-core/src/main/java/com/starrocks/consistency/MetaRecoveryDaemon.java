@@ -220,6 +220,7 @@ public class MetaRecoveryDaemon extends FrontendDaemon {
                 long originNextVersion = physicalPartition.getNextVersion();
                 physicalPartition.setVisibleVersion(version.getVersion(), recoveryInfo.getRecoverTime());
                 physicalPartition.setNextVersion(version.getVersion() + 1);
+                List<Long> badTabletIds = Lists.newArrayList();
                 for (MaterializedIndex index : physicalPartition.getMaterializedIndices(IndexExtState.VISIBLE)) {
                     for (Tablet tablet : index.getTablets()) {
                         if (!(tablet instanceof LocalTablet)) {
@@ -230,6 +231,7 @@ public class MetaRecoveryDaemon extends FrontendDaemon {
                         for (Replica replica : localTablet.getAllReplicas()) {
                             if (replica.getVersion() > version.getVersion() && localTablet.getAllReplicas().size() > 1) {
                                 replica.setBad(true);
+                                badTabletIds.add(tablet.getId());
                                 LOG.warn("set tablet: {} on backend: {} to bad, " +
                                         "because its version: {} is higher than recovery version: {}",
                                         tablet.getId(), replica.getBackendId(), replica.getVersion(), version.getVersion());
@@ -237,6 +239,7 @@ public class MetaRecoveryDaemon extends FrontendDaemon {
                         }
                     }
                 }
+                GlobalStateMgr.getCurrentState().getTabletChecker().markTabletsDirty(badTabletIds);
                 LOG.info("set partition visible version from {} to {}, " +
                         "set partition next version from {} to {}, versionInfo: {}, db name: {}, table name: {}",
                         originVisibleVersion, physicalPartition.getVisibleVersion(), originNextVersion,
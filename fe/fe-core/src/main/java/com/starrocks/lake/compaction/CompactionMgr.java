@@ -126,12 +126,22 @@ public class CompactionMgr implements MemoryTrackable {
     @NotNull
     List<PartitionIdentifier> choosePartitionsToCompact(@NotNull Set<PartitionIdentifier> excludes,
             @NotNull Set<Long> excludeTables) {
-        return choosePartitionsToCompact(excludeTables).stream().filter(p -> !excludes.contains(p)).collect(Collectors.toList());
+        // filter out the excluded (usually running) partitions before sorting, there is no need to sort them
+        List<PartitionStatistics> candidates = partitionStatisticsHashMap.values().stream()
+                .filter(p -> !excludes.contains(p.getPartition()))
+                .collect(Collectors.toList());
+        return choosePartitionsToCompact(candidates, excludeTables);
     }
 
     @NotNull
     List<PartitionIdentifier> choosePartitionsToCompact(Set<Long> excludeTables) {
-        List<PartitionStatistics> selection = sorter.sort(selector.select(partitionStatisticsHashMap.values(), excludeTables));
+        return choosePartitionsToCompact(partitionStatisticsHashMap.values(), excludeTables);
+    }
+
+    @NotNull
+    private List<PartitionIdentifier> choosePartitionsToCompact(Collection<PartitionStatistics> candidates,
+                                                                Set<Long> excludeTables) {
+        List<PartitionStatistics> selection = sorter.sort(selector.select(candidates, excludeTables));
         return selection.stream().map(PartitionStatistics::getPartition).collect(Collectors.toList());
     }
 
@@ -16,6 +16,7 @@ package com.starrocks.lake.compaction;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.MaterializedIndex;
 import com.starrocks.catalog.OlapTable;
@@ -26,11 +27,13 @@ import com.starrocks.common.Config;
 import com.starrocks.common.DuplicatedRequestException;
 import com.starrocks.common.LabelAlreadyUsedException;
 import com.starrocks.common.MetaNotFoundException;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.Daemon;
 import com.starrocks.common.util.concurrent.lock.LockType;
 import com.starrocks.common.util.concurrent.lock.Locker;
 import com.starrocks.lake.LakeTablet;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.proto.CompactRequest;
 import com.starrocks.rpc.BrpcProxy;
 import com.starrocks.rpc.LakeService;
@@ -62,7 +65,11 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import javax.validation.constraints.NotNull;
 
@@ -83,6 +90,8 @@ public class CompactionScheduler extends Daemon {
     private long waitTxnId = -1;
     private long lastPartitionCleanTime;
     private Set<Long> disabledTables; // copy-on-write
+    // used to start compaction jobs in parallel, created on first use
+    private ThreadPoolExecutor dispatchExecutor;
 
     CompactionScheduler(@NotNull CompactionMgr compactionManager, @NotNull SystemInfoService systemInfoService,
                         @NotNull GlobalTransactionMgr transactionMgr, @NotNull GlobalStateMgr stateMgr,
@@ -110,8 +119,13 @@ public class CompactionScheduler extends Daemon {
         // compaction task can be executed only after the status of the previous compaction task changes to visible or
         // canceled.
         if (stateMgr.isLeader() && stateMgr.isReady() && allCommittedCompactionsBeforeRestartHaveFinished()) {
-            schedule();
+            long startTs = System.currentTimeMillis();
+            int numNewJobs = schedule();
             history.changeMaxSize(Config.lake_compaction_history_size);
+            if (MetricRepo.hasInit) {
+                MetricRepo.HISTO_LAKE_COMPACTION_SCHEDULE_LATENCY.update(System.currentTimeMillis() - startTs);
+                MetricRepo.HISTO_LAKE_COMPACTION_SCHEDULE_NEW_JOBS.update(numNewJobs);
+            }
         }
     }
 
@@ -130,7 +144,9 @@ public class CompactionScheduler extends Daemon {
         return finishedWaiting;
     }
 
-    private void schedule() {
+    // Returns the number of new compaction jobs created.
+    @VisibleForTesting
+    int schedule() {
         // Check whether there are completed compaction jobs.
         for (Iterator<Map.Entry<PartitionIdentifier, CompactionJob>> iterator = runningCompactions.entrySet().iterator();
                 iterator.hasNext(); ) {
@@ -200,26 +216,76 @@ public class CompactionScheduler extends Daemon {
 
         // Create new compaction tasks.
         int index = 0;
+        int numNewJobs = 0;
         int compactionLimit = compactionTaskLimit();
         int numRunningTasks = runningCompactions.values().stream().mapToInt(CompactionJob::getNumTabletCompactionTasks).sum();
         if (numRunningTasks >= compactionLimit) {
-            return;
+            return numNewJobs;
         }
 
         List<PartitionIdentifier> partitions = compactionManager.choosePartitionsToCompact(runningCompactions.keySet(),
                 disabledTables);
         while (numRunningTasks < compactionLimit && index < partitions.size()) {
-            PartitionIdentifier partition = partitions.get(index++);
-            CompactionJob job = startCompaction(partition);
-            if (job == null) {
-                continue;
+            // Every job has at least one task, so a batch never starts more jobs than the remaining task quota.
+            // The jobs of a batch reserve their tasks from the shared quota, since the number of tasks of a job
+            // is unknown until its partition is locked.
+            int batchSize = Math.min(Math.max(Config.lake_compaction_dispatch_threads, 1),
+                    Math.min(partitions.size() - index, compactionLimit - numRunningTasks));
+            List<PartitionIdentifier> batch = partitions.subList(index, index + batchSize);
+            index += batchSize;
+            List<CompactionJob> jobs = startCompactions(batch, new AtomicInteger(compactionLimit - numRunningTasks));
+            for (int i = 0; i < batch.size(); i++) {
+                CompactionJob job = jobs.get(i);
+                if (job == null) {
+                    continue;
+                }
+                PartitionIdentifier partition = batch.get(i);
+                numRunningTasks += job.getNumTabletCompactionTasks();
+                numNewJobs++;
+                runningCompactions.put(partition, job);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Created new compaction job. partition={} txnId={}", partition, job.getTxnId());
+                }
             }
-            numRunningTasks += job.getNumTabletCompactionTasks();
-            runningCompactions.put(partition, job);
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Created new compaction job. partition={} txnId={}", partition, job.getTxnId());
+        }
+        return numNewJobs;
+    }
+
+    // Start compaction jobs for the partitions, the returned list has a (maybe null) job for every partition.
+    // Partitions are started in parallel, each of them only holds its own database lock and transaction.
+    @NotNull
+    private List<CompactionJob> startCompactions(List<PartitionIdentifier> partitions, AtomicInteger taskQuota) {
+        List<CompactionJob> jobs = new ArrayList<>(partitions.size());
+        if (partitions.size() == 1) {
+            jobs.add(startCompaction(partitions.get(0), taskQuota));
+            return jobs;
+        }
+
+        List<Future<CompactionJob>> futures = new ArrayList<>(partitions.size());
+        ThreadPoolExecutor executor = getDispatchExecutor();
+        for (PartitionIdentifier partition : partitions) {
+            futures.add(executor.submit(() -> startCompaction(partition, taskQuota)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            CompactionJob job = null;
+            try {
+                // the job may have begun a transaction, so wait for it anyway to keep track of it
+                job = Uninterruptibles.getUninterruptibly(futures.get(i));
+            } catch (ExecutionException e) {
+                LOG.error("Fail to start compaction of partition {}", partitions.get(i), e.getCause());
             }
+            jobs.add(job);
         }
+        return jobs;
+    }
+
+    private ThreadPoolExecutor getDispatchExecutor() {
+        if (dispatchExecutor == null) {
+            int numThreads = Math.max(Config.lake_compaction_dispatch_threads, 1);
+            dispatchExecutor = ThreadPoolManager.newDaemonFixedThreadPool(numThreads, numThreads,
+                    "lake-compaction-dispatch", true);
+        }
+        return dispatchExecutor;
     }
 
     private void abortTransactionIgnoreException(CompactionJob job, String reason) {
@@ -243,6 +309,13 @@ public class CompactionScheduler extends Daemon {
         return aliveComputeNodes.size() * 16;
     }
 
+    // Reserve the tasks of a job from the quota. Like the serial check of the running tasks, a job is started as
+    // long as the quota is not used up, even if its tasks exceed the left quota, so a large partition is never starved.
+    @VisibleForTesting
+    static boolean reserveTaskQuota(AtomicInteger taskQuota, int numTasks) {
+        return taskQuota.getAndUpdate(quota -> quota > 0 ? quota - numTasks : quota) > 0;
+    }
+
     private void cleanPartition() {
         long now = System.currentTimeMillis();
         if (now - lastPartitionCleanTime >= PARTITION_CLEAN_INTERVAL_SECOND * 1000L) {
@@ -255,7 +328,9 @@ public class CompactionScheduler extends Daemon {
         }
     }
 
-    private CompactionJob startCompaction(PartitionIdentifier partitionIdentifier) {
+    // Returns null if the job is not started, e.g. the task quota is used up by the other jobs started in parallel.
+    @VisibleForTesting
+    protected CompactionJob startCompaction(PartitionIdentifier partitionIdentifier, AtomicInteger taskQuota) {
         Database db = stateMgr.getLocalMetastore().getDb(partitionIdentifier.getDbId());
         if (db == null) {
             compactionManager.removePartition(partitionIdentifier);
@@ -294,6 +369,11 @@ public class CompactionScheduler extends Daemon {
                 compactionManager.enableCompactionAfter(partitionIdentifier, MIN_COMPACTION_INTERVAL_MS_ON_FAILURE);
                 return null;
             }
+            int numTasks = beToTablets.values().stream().mapToInt(List::size).sum();
+            if (!reserveTaskQuota(taskQuota, numTasks)) {
+                // Try again in the next round.
+                return null;
+            }
 
             // Note: call `beginTransaction()` in the scope of database reader lock to make sure no shadow index will
             // be added to this table(i.e., no schema change) before calling `beginTransaction()`.
@@ -27,7 +27,13 @@ public class ScoreSorter implements Sorter {
         return partitionStatistics.stream()
                 .filter(p -> p.getCompactionScore() != null)
                 .sorted(Comparator.comparingInt((PartitionStatistics stats) -> stats.getPriority().getValue()).reversed()
-                        .thenComparing(Comparator.comparing(PartitionStatistics::getCompactionScore).reversed()))
+                        .thenComparing(Comparator.comparing(PartitionStatistics::getCompactionScore).reversed())
+                        // with the same score, the partition ingesting more versions goes first
+                        .thenComparing(Comparator.comparingLong(ScoreSorter::getPendingVersions).reversed()))
                 .collect(Collectors.toList());
     }
+
+    private static long getPendingVersions(PartitionStatistics statistics) {
+        return statistics.getCurrentVersion() == null ? 0 : statistics.getDeltaVersions();
+    }
 }
\ No newline at end of file
@@ -519,6 +519,14 @@ public class ReportHandler extends Daemon implements MemoryTrackable {
         // 8. send recover request to be
         handleRecoverTablet(tabletRecoveryMap, backendTablets, backendId);
 
+        // mark the tablets whose replicas are changed by this report, so that tablet checker checks them
+        if (Config.enable_tablet_checker_dirty_check) {
+            TabletChecker tabletChecker = GlobalStateMgr.getCurrentState().getTabletChecker();
+            tabletChecker.markTabletsDirty(tabletSyncMap.values());
+            tabletChecker.markTabletsDirty(tabletDeleteFromMeta.values());
+            tabletChecker.markTabletsDirty(tabletRecoveryMap.values());
+        }
+
         // 9. send set tablet partition info to be
         handleSetTabletPartitionId(backendId, tabletWithoutPartitionId);
 
@@ -117,10 +117,15 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         }
 
         KafkaRoutineLoadJob kafkaRoutineLoadJob = (KafkaRoutineLoadJob) job;
-        Map<Integer, Long> latestOffsets = KafkaUtil.getLatestOffsets(kafkaRoutineLoadJob.getBrokerList(),
-                kafkaRoutineLoadJob.getTopic(),
-                ImmutableMap.copyOf(kafkaRoutineLoadJob.getConvertedCustomProperties()),
-                new ArrayList<>(partitionIdToOffset.keySet()), warehouseId);
+        ImmutableMap<String, String> properties = ImmutableMap.copyOf(kafkaRoutineLoadJob.getConvertedCustomProperties());
+        List<Integer> partitions = new ArrayList<>(partitionIdToOffset.keySet());
+        Map<Integer, Long> latestOffsets = KafkaUtil.getCachedLatestOffsets(kafkaRoutineLoadJob.getBrokerList(),
+                kafkaRoutineLoadJob.getTopic(), properties, partitions, warehouseId);
+        if (isAnyOffsetBehind(latestOffsets)) {
+            // the cached offsets may be out of date, check again with the real latest offsets
+            latestOffsets = KafkaUtil.getLatestOffsets(kafkaRoutineLoadJob.getBrokerList(),
+                    kafkaRoutineLoadJob.getTopic(), properties, partitions, warehouseId);
+        }
         for (Map.Entry<Integer, Long> entry : latestOffsets.entrySet()) {
             kafkaRoutineLoadJob.setPartitionOffset(entry.getKey(), entry.getValue());
         }
@@ -143,6 +148,16 @@ public class KafkaTaskInfo extends RoutineLoadTaskInfo {
         return false;
     }
 
+    private boolean isAnyOffsetBehind(Map<Integer, Long> latestOffsets) {
+        for (Map.Entry<Integer, Long> entry : partitionIdToOffset.entrySet()) {
+            Long latestOffset = latestOffsets.get(entry.getKey());
+            if (latestOffset != null && latestOffset < entry.getValue()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public boolean isProgressKeepUp(RoutineLoadProgress progress) {
         KafkaProgress kProgress = (KafkaProgress) progress;
@@ -88,6 +88,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
@@ -99,6 +101,10 @@ public class RoutineLoadMgr implements Writable, MemoryTrackable {
     // warehouse ==> {be : running tasks num}
     private Map<Long, Map<Long, Integer>> warehouseNodeTasksNum = Maps.newHashMap();
     private ReentrantLock slotLock = new ReentrantLock();
+    // signaled when slots may become available, i.e. a slot is released or the nodes are updated
+    private final Condition slotAvailable = slotLock.newCondition();
+    // increased every time slotAvailable is signaled, protected by slotLock
+    private long slotReleaseVersion = 0;
 
     // warehouse ==> {nodeId : {jobId}}
     private Map<Long, Map<Long, Set<Long>>> warehouseNodeToJobs = Maps.newHashMap();
@@ -209,6 +215,47 @@ public class RoutineLoadMgr implements Writable, MemoryTrackable {
                 Set<Long> jobs = nodeToJobs.get(nodeId);
                 jobs.remove(jobId);
             }
+            signalSlotAvailable();
+        } finally {
+            slotLock.unlock();
+        }
+    }
+
+    // REQUIRE: slotLock is held
+    private void signalSlotAvailable() {
+        slotReleaseVersion++;
+        slotAvailable.signalAll();
+    }
+
+    /**
+     * Wait until there is any idle slot in the cluster, or the timeout elapses.
+     *
+     * @return true if there is idle slot
+     */
+    public boolean waitForIdleSlot(long timeoutMs) throws InterruptedException {
+        slotLock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (getClusterIdleSlotNum() <= 0) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = slotAvailable.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            slotLock.unlock();
+        }
+    }
+
+    /**
+     * The version is increased every time slots may become available,
+     * so callers can tell whether there is any slot released since they last checked.
+     */
+    public long getSlotReleaseVersion() {
+        slotLock.lock();
+        try {
+            return slotReleaseVersion;
         } finally {
             slotLock.unlock();
         }
@@ -273,6 +320,7 @@ public class RoutineLoadMgr implements Writable, MemoryTrackable {
             for (Map<Long, Set<Long>> nodeToJobs : warehouseNodeToJobs.values()) {
                 nodeToJobs.keySet().removeIf(nodeId -> !finalAliveNodeIds.contains(nodeId));
             }
+            signalSlotAvailable();
         } finally {
             slotLock.unlock();
         }
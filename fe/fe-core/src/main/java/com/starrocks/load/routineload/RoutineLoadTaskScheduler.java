@@ -41,12 +41,14 @@ import com.starrocks.common.Config;
 import com.starrocks.common.InternalErrorCode;
 import com.starrocks.common.LoadException;
 import com.starrocks.common.MetaNotFoundException;
+import com.starrocks.common.Pair;
 import com.starrocks.common.UserException;
 import com.starrocks.common.util.DebugUtil;
 import com.starrocks.common.util.FrontendDaemon;
 import com.starrocks.common.util.LogBuilder;
 import com.starrocks.common.util.LogKey;
 import com.starrocks.load.routineload.RoutineLoadJob.JobState;
+import com.starrocks.metric.MetricRepo;
 import com.starrocks.rpc.ThriftConnectionPool;
 import com.starrocks.rpc.ThriftRPCRequestExecutor;
 import com.starrocks.server.GlobalStateMgr;
@@ -59,6 +61,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -71,7 +75,9 @@ import java.util.concurrent.TimeUnit;
  * Step2: submit beIdToBatchTask when queue is empty
  * Step3: take a task from queue and schedule this task
  * <p>
- * The scheduler will be blocked in step3 till the queue receive a new task
+ * The scheduler will be blocked in step3 till the queue receive a new task.
+ * When there is no idle slot, the scheduler waits until a slot is released instead of sleeping,
+ * and the tasks failed to allocate a slot are parked until a slot is released.
  */
 public class RoutineLoadTaskScheduler extends FrontendDaemon {
 
@@ -80,9 +86,13 @@ public class RoutineLoadTaskScheduler extends FrontendDaemon {
     private static final long BACKEND_SLOT_UPDATE_INTERVAL_MS = 10000; // 10s
     private static final long SLOT_FULL_SLEEP_MS = 10000; // 10s
     private static final long POLL_TIMEOUT_SEC = 10; // 10s
+    private static final long MIN_DELAY_MS = 1000; // 1s
 
     private final RoutineLoadMgr routineLoadManager;
     private final LinkedBlockingQueue<RoutineLoadTaskInfo> needScheduleTasksQueue = Queues.newLinkedBlockingQueue();
+    // tasks failed to allocate a slot, with the time they are parked
+    private final Queue<Pair<RoutineLoadTaskInfo, Long>> slotWaitingTasks = new ConcurrentLinkedQueue<>();
+    private long lastSlotReleaseVersion = -1;
     private final ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
     private final ExecutorService threadPool = Executors.newCachedThreadPool();
 
@@ -111,16 +121,16 @@ public class RoutineLoadTaskScheduler extends FrontendDaemon {
     private void process() throws InterruptedException {
         updateBackendSlotIfNecessary();
 
-        int idleSlotNum = routineLoadManager.getClusterIdleSlotNum();
-        // scheduler will be blocked when there is no slot for task in cluster
-        if (idleSlotNum <= 0) {
-            LOG.warn("no available be slot to scheduler tasks, wait for {} seconds to scheduler again, " +
+        // scheduler will be blocked when there is no slot for task in cluster, until any slot is released
+        if (!routineLoadManager.waitForIdleSlot(SLOT_FULL_SLEEP_MS)) {
+            LOG.warn("no available be slot to scheduler tasks in {} seconds, " +
                             "you can set max_routine_load_task_num_per_be bigger in fe.conf, current value is {}",
                     SLOT_FULL_SLEEP_MS / 1000, Config.max_routine_load_task_num_per_be);
-            Thread.sleep(SLOT_FULL_SLEEP_MS);
             return;
         }
 
+        scheduleSlotWaitingTasks();
+
         try {
             // This step will be blocked until timeout when queue is empty
             RoutineLoadTaskInfo routineLoadTaskInfo = needScheduleTasksQueue.poll(POLL_TIMEOUT_SEC, TimeUnit.SECONDS);
@@ -128,17 +138,11 @@ public class RoutineLoadTaskScheduler extends FrontendDaemon {
                 return;
             }
 
-            if (routineLoadTaskInfo.getTimeToExecuteMs() > System.currentTimeMillis()) {
-                // delay adding to queue to avoid endless loop
-                delayPutToQueue(routineLoadTaskInfo, null);
-                return;
-            }
-
-            // try to delay scheduling this task for scheduleInterval, to void too many failure
-            if (System.currentTimeMillis() - routineLoadTaskInfo.getLastScheduledTime() <
-                    routineLoadTaskInfo.getTaskScheduleIntervalMs()) {
-                // delay adding to queue to avoid endless loop
-                delayPutToQueue(routineLoadTaskInfo, null);
+            // the task is not to be executed yet, or is scheduled within scheduleInterval (to avoid too many
+            // failure), delay adding to queue until it can be scheduled to avoid endless loop
+            long delayMs = getScheduleDelayMs(routineLoadTaskInfo);
+            if (delayMs > 0) {
+                delayPutToQueue(routineLoadTaskInfo, null, delayMs);
                 return;
             }
 
@@ -149,7 +153,18 @@ public class RoutineLoadTaskScheduler extends FrontendDaemon {
         }
     }
 
-    private synchronized void delayPutToQueue(RoutineLoadTaskInfo routineLoadTaskInfo, String msg) {
+    // the time to wait before the task can be scheduled
+    private static long getScheduleDelayMs(RoutineLoadTaskInfo routineLoadTaskInfo) {
+        long now = System.currentTimeMillis();
+        return Math.max(routineLoadTaskInfo.getTimeToExecuteMs() - now,
+                routineLoadTaskInfo.getLastScheduledTime() + routineLoadTaskInfo.getTaskScheduleIntervalMs() - now);
+    }
+
+    private void delayPutToQueue(RoutineLoadTaskInfo routineLoadTaskInfo, String msg) {
+        delayPutToQueue(routineLoadTaskInfo, msg, Math.max(getScheduleDelayMs(routineLoadTaskInfo), MIN_DELAY_MS));
+    }
+
+    private synchronized void delayPutToQueue(RoutineLoadTaskInfo routineLoadTaskInfo, String msg, long delayMs) {
         if (msg != null) {
             routineLoadTaskInfo.setMsg(msg, true);
         }
@@ -159,7 +174,42 @@ public class RoutineLoadTaskScheduler extends FrontendDaemon {
             } catch (InterruptedException exception) {
                 LOG.warn("put task to queue failed", exception);
             }
-        }, 1L, TimeUnit.SECONDS);
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Reschedule the tasks waiting for slot if any slot is released since the last time, at most as many as
+    // the idle slots, the others keep waiting for the next release.
+    // They are scheduled immediately without waiting for scheduleInterval.
+    // The tasks of the jobs which are not running any more are dropped without taking the idle slots.
+    @VisibleForTesting
+    void scheduleSlotWaitingTasks() {
+        long slotReleaseVersion = routineLoadManager.getSlotReleaseVersion();
+        if (slotReleaseVersion == lastSlotReleaseVersion) {
+            return;
+        }
+        lastSlotReleaseVersion = slotReleaseVersion;
+
+        int num = Math.min(slotWaitingTasks.size(), routineLoadManager.getClusterIdleSlotNum());
+        long now = System.currentTimeMillis();
+        while (num > 0) {
+            Pair<RoutineLoadTaskInfo, Long> waitingTask = slotWaitingTasks.poll();
+            if (waitingTask == null) {
+                break;
+            }
+            RoutineLoadJob job = routineLoadManager.getJob(waitingTask.first.getJobId());
+            if (job == null || job.getState() != JobState.RUNNING) {
+                LOG.info(new LogBuilder(LogKey.ROUTINE_LOAD_TASK, waitingTask.first.getId())
+                        .add("job_id", waitingTask.first.getJobId())
+                        .add("msg", "drop the task waiting for slot because the job is not running")
+                        .build());
+                continue;
+            }
+            num--;
+            if (MetricRepo.hasInit) {
+                MetricRepo.HISTO_ROUTINE_LOAD_TASK_SLOT_WAIT.update(now - waitingTask.second);
+            }
+            submitToSchedule(waitingTask.first);
+        }
     }
 
     private void submitToSchedule(RoutineLoadTaskInfo routineLoadTaskInfo) {
@@ -173,7 +223,8 @@ public class RoutineLoadTaskScheduler extends FrontendDaemon {
     }
 
     private void scheduleOneTask(RoutineLoadTaskInfo routineLoadTaskInfo) throws Exception {
-        routineLoadTaskInfo.setLastScheduledTime(System.currentTimeMillis());
+        long scheduleStartTime = System.currentTimeMillis();
+        routineLoadTaskInfo.setLastScheduledTime(scheduleStartTime);
         // check if task has been abandoned
         if (!routineLoadManager.checkTaskInJob(routineLoadTaskInfo.getId())) {
             // task has been abandoned while renew task has been added in queue
@@ -214,13 +265,11 @@ public class RoutineLoadTaskScheduler extends FrontendDaemon {
         // allocate BE slot for this task.
         // this should be done before txn begin, or the txn may be begun successfully but failed to be allocated.
         if (!allocateTaskToBe(routineLoadTaskInfo)) {
-            // allocate failed, push it back to the queue to wait next scheduling
-            delayPutToQueue(routineLoadTaskInfo,
-                    String.format("failed to allocate be slot, wait for %s second to schedule again, " +
-                                    "you can set max_routine_load_task_num_per_be bigger in fe.conf, " +
-                                    "current value is %d",
-                            routineLoadTaskInfo.getTaskScheduleIntervalMs() / 1000,
-                            Config.max_routine_load_task_num_per_be));
+            // allocate failed, park it until any slot is released
+            routineLoadTaskInfo.setMsg(String.format("failed to allocate be slot, wait for any slot to be released, " +
+                            "you can set max_routine_load_task_num_per_be bigger in fe.conf, current value is %d",
+                    Config.max_routine_load_task_num_per_be), true);
+            slotWaitingTasks.add(new Pair<>(routineLoadTaskInfo, System.currentTimeMillis()));
             return;
         }
 
@@ -293,6 +342,9 @@ public class RoutineLoadTaskScheduler extends FrontendDaemon {
         // set the executeStartTimeMs of task
         routineLoadTaskInfo.setExecuteStartTimeMs(System.currentTimeMillis());
         routineLoadTaskInfo.setMsg("task submitted to execute", false);
+        if (MetricRepo.hasInit) {
+            MetricRepo.HISTO_ROUTINE_LOAD_TASK_DISPATCH_LATENCY.update(System.currentTimeMillis() - scheduleStartTime);
+        }
     }
 
     private void releaseBeSlot(RoutineLoadTaskInfo routineLoadTaskInfo) {
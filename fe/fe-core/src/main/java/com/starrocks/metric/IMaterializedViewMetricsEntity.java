@@ -68,6 +68,12 @@ public interface IMaterializedViewMetricsEntity {
      */
     void increaseRefreshRetryMetaCount(Long retryNum);
 
+    /**
+     * Increase the refreshed partition count
+     * @param count: the count of the refreshed partitions
+     */
+    void increaseRefreshedPartitionCount(long count);
+
     /**
      * Increase the refresh duration
      * @param duration: mv refresh duration
@@ -60,6 +60,11 @@ public class MaterializedViewMetricsBlackHoleEntity implements IMaterializedView
 
     }
 
+    @Override
+    public void increaseRefreshedPartitionCount(long count) {
+
+    }
+
     @Override
     public void updateRefreshDuration(long duration) {
 
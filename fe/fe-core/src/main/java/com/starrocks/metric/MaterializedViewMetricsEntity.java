@@ -54,6 +54,8 @@ public final class MaterializedViewMetricsEntity implements IMaterializedViewMet
     public LongCounterMetric counterRefreshJobEmptyTotal;
     // increased once the materialized view's refresh job checks whether the base table is changed or not.
     public LongCounterMetric counterRefreshJobRetryCheckChangedTotal;
+    // increased by the count of the refreshed partitions once the materialized view's partitions are refreshed.
+    public LongCounterMetric counterRefreshedPartitionsTotal;
 
     // query
     // increased if the materialized view is considered in the preprocess for one query.
@@ -138,6 +140,9 @@ public final class MaterializedViewMetricsEntity implements IMaterializedViewMet
         counterRefreshJobRetryCheckChangedTotal = new LongCounterMetric("mv_refresh_total_retry_meta_count", MetricUnit.REQUESTS,
                     "total materialized view's retry to check table change count");
         metrics.add(counterRefreshJobRetryCheckChangedTotal);
+        counterRefreshedPartitionsTotal = new LongCounterMetric("mv_refresh_total_refreshed_partitions", MetricUnit.REQUESTS,
+                    "total materialized view's refreshed partitions");
+        metrics.add(counterRefreshedPartitionsTotal);
 
         // query metrics
         counterQueryMaterializedViewTotal = new LongCounterMetric("mv_query_total_count", MetricUnit.REQUESTS,
@@ -355,6 +360,11 @@ public final class MaterializedViewMetricsEntity implements IMaterializedViewMet
         this.counterRefreshJobRetryCheckChangedTotal.increase(retryNum);
     }
 
+    @Override
+    public void increaseRefreshedPartitionCount(long count) {
+        this.counterRefreshedPartitionsTotal.increase(count);
+    }
+
     @Override
     public void updateRefreshDuration(long duration) {
         this.histRefreshJobDuration.update(duration);
@@ -70,6 +70,7 @@ import com.starrocks.monitor.jvm.JvmStatCollector;
 import com.starrocks.monitor.jvm.JvmStats;
 import com.starrocks.proto.PKafkaOffsetProxyRequest;
 import com.starrocks.proto.PKafkaOffsetProxyResult;
+import com.starrocks.qe.QueryResultCache;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.service.ExecuteEnv;
 import com.starrocks.staros.StarMgrServer;
@@ -103,11 +104,14 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_QUERY_ERR;
     public static LongCounterMetric COUNTER_QUERY_TIMEOUT;
     public static LongCounterMetric COUNTER_QUERY_SUCCESS;
+    public static LongCounterMetric COUNTER_QUERY_RESULT_CACHE_HIT;
+    public static LongCounterMetric COUNTER_QUERY_RESULT_CACHE_MISS;
     public static LongCounterMetric COUNTER_SLOW_QUERY;
 
     public static LongCounterMetric COUNTER_QUERY_QUEUE_PENDING;
     public static LongCounterMetric COUNTER_QUERY_QUEUE_TOTAL;
     public static LongCounterMetric COUNTER_QUERY_QUEUE_TIMEOUT;
+    public static LongCounterMetric COUNTER_QUERY_QUEUE_LEASE_ADMITTED;
 
     public static LongCounterMetric COUNTER_QUERY_QUEUE_SLOT_PENDING;
     public static LongCounterMetric COUNTER_QUERY_QUEUE_SLOT_RUNNING;
@@ -158,6 +162,8 @@ public final class MetricRepo {
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_RECEIVED_BYTES;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_ERROR_ROWS;
     public static LongCounterMetric COUNTER_ROUTINE_LOAD_PAUSED;
+    public static LongCounterMetric COUNTER_ROUTINE_LOAD_KAFKA_META_CACHE_HIT;
+    public static LongCounterMetric COUNTER_ROUTINE_LOAD_KAFKA_META_CACHE_MISS;
     public static LongCounterMetric COUNTER_SHORTCIRCUIT_QUERY;
     public static LongCounterMetric COUNTER_SHORTCIRCUIT_RPC;
 
@@ -167,6 +173,12 @@ public final class MetricRepo {
     public static Histogram HISTO_JOURNAL_WRITE_BATCH;
     public static Histogram HISTO_JOURNAL_WRITE_BYTES;
     public static Histogram HISTO_SHORTCIRCUIT_RPC_LATENCY;
+    public static Histogram HISTO_QUERY_QUEUE_ADMISSION_LATENCY;
+    public static Histogram HISTO_LAKE_COMPACTION_SCHEDULE_LATENCY;
+    public static Histogram HISTO_LAKE_COMPACTION_SCHEDULE_NEW_JOBS;
+    public static Histogram HISTO_ROUTINE_LOAD_TASK_DISPATCH_LATENCY;
+    public static Histogram HISTO_ROUTINE_LOAD_TASK_SLOT_WAIT;
+    public static Histogram HISTO_ROUTINE_LOAD_KAFKA_META_FETCH_LATENCY;
 
     // following metrics will be updated by metric calculator
     public static GaugeMetricImpl<Double> GAUGE_QUERY_PER_SECOND;
@@ -414,6 +426,30 @@ public final class MetricRepo {
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_TIMEOUT);
         COUNTER_QUERY_SUCCESS = new LongCounterMetric("query_success", MetricUnit.REQUESTS, "total success query");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_SUCCESS);
+        COUNTER_QUERY_RESULT_CACHE_HIT = new LongCounterMetric("query_result_cache_hit", MetricUnit.REQUESTS,
+                "total query hitting the result cache in FE");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_RESULT_CACHE_HIT);
+        COUNTER_QUERY_RESULT_CACHE_MISS = new LongCounterMetric("query_result_cache_miss", MetricUnit.REQUESTS,
+                "total cacheable query missing the result cache in FE");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_RESULT_CACHE_MISS);
+        GaugeMetric<Double> queryResultCacheHitRate = new GaugeMetric<Double>(
+                "query_result_cache_hit_rate", MetricUnit.NOUNIT, "hit rate of the query result cache in FE") {
+            @Override
+            public Double getValue() {
+                long hit = COUNTER_QUERY_RESULT_CACHE_HIT.getValue();
+                long total = hit + COUNTER_QUERY_RESULT_CACHE_MISS.getValue();
+                return total == 0 ? 0.0 : (double) hit / total;
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(queryResultCacheHitRate);
+        GaugeMetric<Long> queryResultCacheBytes = new GaugeMetric<Long>(
+                "query_result_cache_bytes", MetricUnit.BYTES, "bytes of the results cached in FE") {
+            @Override
+            public Long getValue() {
+                return QueryResultCache.getInstance().getUsedBytes();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(queryResultCacheBytes);
         COUNTER_SLOW_QUERY = new LongCounterMetric("slow_query", MetricUnit.REQUESTS, "total slow query");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_SLOW_QUERY);
         COUNTER_QUERY_QUEUE_PENDING = new LongCounterMetric("query_queue_pending", MetricUnit.REQUESTS,
@@ -433,11 +469,28 @@ public final class MetricRepo {
         COUNTER_QUERY_QUEUE_TIMEOUT = new LongCounterMetric("query_queue_timeout", MetricUnit.REQUESTS,
                 "total history query for timeout in queue");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_QUEUE_TIMEOUT);
+        COUNTER_QUERY_QUEUE_LEASE_ADMITTED = new LongCounterMetric("query_queue_lease_admitted", MetricUnit.REQUESTS,
+                "total history queued query admitted locally by the slot lease");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_QUERY_QUEUE_LEASE_ADMITTED);
+        GaugeMetric<Integer> queryQueueSlotLease = new GaugeMetric<Integer>(
+                "query_queue_slot_lease", MetricUnit.NOUNIT, "slots leased to this FE by the leader") {
+            @Override
+            public Integer getValue() {
+                return GlobalStateMgr.getCurrentState().getLeasedSlotProvider().getNumLeaseSlots();
+            }
+        };
+        STARROCKS_METRIC_REGISTER.addMetric(queryQueueSlotLease);
         COUNTER_LOAD_ADD = new LongCounterMetric("load_add", MetricUnit.REQUESTS, "total load submit");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_LOAD_ADD);
         COUNTER_ROUTINE_LOAD_PAUSED =
                 new LongCounterMetric("routine_load_paused", MetricUnit.REQUESTS, "counter of routine load paused");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_ROUTINE_LOAD_PAUSED);
+        COUNTER_ROUTINE_LOAD_KAFKA_META_CACHE_HIT = new LongCounterMetric("routine_load_kafka_meta_cache_hit",
+                MetricUnit.REQUESTS, "counter of kafka partitions and offsets requests served by cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_ROUTINE_LOAD_KAFKA_META_CACHE_HIT);
+        COUNTER_ROUTINE_LOAD_KAFKA_META_CACHE_MISS = new LongCounterMetric("routine_load_kafka_meta_cache_miss",
+                MetricUnit.REQUESTS, "counter of kafka partitions and offsets requests not served by cache");
+        STARROCKS_METRIC_REGISTER.addMetric(COUNTER_ROUTINE_LOAD_KAFKA_META_CACHE_MISS);
         COUNTER_LOAD_FINISHED = new LongCounterMetric("load_finished", MetricUnit.REQUESTS, "total load finished");
         STARROCKS_METRIC_REGISTER.addMetric(COUNTER_LOAD_FINISHED);
         COUNTER_EDIT_LOG_WRITE =
@@ -522,6 +575,18 @@ public final class MetricRepo {
         HISTO_JOURNAL_WRITE_BYTES =
                 METRIC_REGISTER.histogram(MetricRegistry.name("journal", "write", "bytes"));
         HISTO_SHORTCIRCUIT_RPC_LATENCY = METRIC_REGISTER.histogram(MetricRegistry.name("shortcircuit", "latency", "ms"));
+        HISTO_QUERY_QUEUE_ADMISSION_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("query_queue", "admission", "latency", "ms"));
+        HISTO_LAKE_COMPACTION_SCHEDULE_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("lake", "compaction", "schedule", "latency", "ms"));
+        HISTO_LAKE_COMPACTION_SCHEDULE_NEW_JOBS =
+                METRIC_REGISTER.histogram(MetricRegistry.name("lake", "compaction", "schedule", "new", "jobs"));
+        HISTO_ROUTINE_LOAD_TASK_DISPATCH_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("routine_load", "task", "dispatch", "latency", "ms"));
+        HISTO_ROUTINE_LOAD_TASK_SLOT_WAIT =
+                METRIC_REGISTER.histogram(MetricRegistry.name("routine_load", "task", "slot", "wait", "ms"));
+        HISTO_ROUTINE_LOAD_KAFKA_META_FETCH_LATENCY =
+                METRIC_REGISTER.histogram(MetricRegistry.name("routine_load", "kafka", "meta", "fetch", "latency", "ms"));
 
         // init system metrics
         initSystemMetrics();
@@ -947,8 +947,10 @@ public class EditLog {
                     globalStateMgr.getAnalyzeMgr().replayAddBasicStatsMeta(basicStatsMeta);
                     // The follower replays the stats meta log, indicating that the master has re-completed
                     // statistic, and the follower's should refresh cache here.
-                    // We don't need to refresh statistics when checkpointing
-                    if (!GlobalStateMgr.isCheckpointThread()) {
+                    // We don't need to refresh statistics when checkpointing, or if the statistics have been
+                    // pushed to this FE by the master.
+                    if (!GlobalStateMgr.isCheckpointThread() && !globalStateMgr.getStatisticsCacheSyncer()
+                            .isPushed(basicStatsMeta.getTableId(), basicStatsMeta.getUpdateTime())) {
                         globalStateMgr.getAnalyzeMgr().refreshBasicStatisticsCache(basicStatsMeta.getDbId(),
                                 basicStatsMeta.getTableId(), basicStatsMeta.getColumns(), true);
                     }
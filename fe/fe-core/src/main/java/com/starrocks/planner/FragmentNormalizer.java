@@ -15,6 +15,7 @@
 package com.starrocks.planner;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Range;
@@ -51,6 +52,7 @@ import org.apache.thrift.TSerializer;
 import org.apache.thrift.protocol.TCompactProtocol;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
@@ -107,6 +109,13 @@ public class FragmentNormalizer {
 
     private Set<Integer> cachedPlanNodeIds = Sets.newHashSet();
     private boolean assignScanRangesAcrossDrivers = false;
+    // Normalize the whole plan for the query result cache in FE, see computeResultCacheDigest
+    private boolean normalizingWholePlan = false;
+
+    private static final List<Class<? extends PlanNode>> WHOLE_PLAN_CACHEABLE_NODES = ImmutableList.of(
+            OlapScanNode.class, ProjectNode.class, AggregationNode.class, ExchangeNode.class, SortNode.class,
+            HashJoinNode.class, NestLoopJoinNode.class, SetOperationNode.class, AnalyticEvalNode.class,
+            RepeatNode.class, AssertNumRowsNode.class, DecodeNode.class, EmptySetNode.class, TableFunctionNode.class);
 
     public FragmentNormalizer(ExecPlan execPlan, PlanFragment fragment) {
         this.execPlan = execPlan;
@@ -338,9 +347,80 @@ public class FragmentNormalizer {
         }
     }
 
+    /**
+     * Compute the digest of the whole plan for the query result cache in FE. All the OlapScanNodes are normalized
+     * as the ones outside of leftmost path, and their selected partitions, versions and tablets are packed into the
+     * digest, so the digest changes once the partitions are loaded or replaced.
+     *
+     * @param extraKeys other properties the query result depends on, e.g. the time zone of the session
+     * @return hex string of the digest, or null if the result of the plan is uncacheable
+     */
+    public static String computeResultCacheDigest(ExecPlan execPlan, List<String> extraKeys) {
+        for (ScanNode scanNode : execPlan.getScanNodes()) {
+            // the time travel query reads the data before the gtid rather than the selected versions
+            if (!(scanNode instanceof OlapScanNode) || !((OlapScanNode) scanNode).getScanVersionRanges().isEmpty()
+                    || ((OlapScanNode) scanNode).getGtid() > 0) {
+                return null;
+            }
+        }
+        PlanFragment topFragment = execPlan.getTopFragment();
+        FragmentNormalizer normalizer = new FragmentNormalizer(execPlan, topFragment);
+        normalizer.normalizingWholePlan = true;
+        normalizer.normalizeSubTree(Collections.emptySet(), topFragment.getPlanRoot(), Sets.newHashSet());
+        if (normalizer.uncacheable) {
+            return null;
+        }
+        List<ByteBuffer> outputExprs = normalizer.normalizeExprs(topFragment.getOutputExprs());
+        if (normalizer.uncacheable) {
+            return null;
+        }
+        try {
+            TSerializer serializer = new TSerializer(new TCompactProtocol.Factory());
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (TNormalPlanNode node : normalizer.normalizedPlanNodes) {
+                digest.update(serializer.serialize(node));
+            }
+            for (TGlobalDict dict : normalizer.normalizeDicts(normalizer.getAllOffspringFragments(topFragment))) {
+                digest.update(serializer.serialize(dict));
+            }
+            for (ByteBuffer expr : outputExprs) {
+                digest.update(expr);
+            }
+            ByteBuffer scanInfo = ByteBuffer.allocate(Long.BYTES);
+            for (ScanNode scanNode : execPlan.getScanNodes()) {
+                OlapScanNode olapScanNode = (OlapScanNode) scanNode;
+                List<Long> scanInfos = Lists.newArrayList(olapScanNode.getOlapTable().getId(),
+                        olapScanNode.getSelectedIndexId());
+                olapScanNode.getScanPartitionVersions().entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .forEach(e -> scanInfos.addAll(Arrays.asList(e.getKey(), e.getValue())));
+                olapScanNode.getScanTabletIds().stream().sorted().forEach(scanInfos::add);
+                for (Long value : scanInfos) {
+                    scanInfo.clear();
+                    digest.update(scanInfo.putLong(value).array());
+                }
+            }
+            for (String key : extraKeys) {
+                digest.update(key.getBytes(StandardCharsets.UTF_8));
+            }
+            return toHexString(digest.digest());
+        } catch (TException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Fatal error happens when normalize ExecPlan", e);
+        }
+    }
+
     // At present, ScanNode except OlapScanNode can not provides version to indicates
     // that the underlying table is modified.
     private boolean isCacheable(PlanNode node) {
+        // the normal form of OlapScanNode only carries the end versions, the scan of the delta versions is not
+        // distinguished from the scan of the whole versions
+        if (node instanceof OlapScanNode && !((OlapScanNode) node).getScanVersionRanges().isEmpty()) {
+            return false;
+        }
+        if (normalizingWholePlan) {
+            // only the PlanNodes whose normal forms carry all the properties affecting the result are allowed
+            return WHOLE_PLAN_CACHEABLE_NODES.stream().anyMatch(clazz -> clazz.isInstance(node));
+        }
         if (node instanceof ScanNode) {
             return node instanceof OlapScanNode;
         } else if (node instanceof JoinNode) {
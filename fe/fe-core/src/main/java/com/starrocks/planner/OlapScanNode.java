@@ -184,6 +184,9 @@ public class OlapScanNode extends ScanNode {
 
     private long gtid = 0;
 
+    // partition id -> the version range to read, only the data loaded in the version range is read if set
+    private Map<Long, Pair<Long, Long>> scanVersionRanges = Collections.emptyMap();
+
     private Map<Long, Long> scanPartitionVersions = Maps.newHashMap();
 
     private VectorSearchOptions vectorSearchOptions = new VectorSearchOptions();
@@ -381,7 +384,9 @@ public class OlapScanNode extends ScanNode {
                 keyRangeById.put(part.getId(), partitionInfo.getRange(part.getId()));
             }
         } else {
-            keyRangeById = partitionInfo.getIdToRange(false);
+            return new RangePartitionPruner(partitionInfo.getRangeIndex(),
+                    partitionInfo.getPartitionColumns(olapTable.getIdToColumn()),
+                    columnFilters).prune();
         }
         PartitionPruner partitionPruner = new RangePartitionPruner(
                 keyRangeById,
@@ -515,6 +520,10 @@ public class OlapScanNode extends ScanNode {
         int schemaHash = olapTable.getSchemaHashByIndexId(index.getId());
         String schemaHashStr = String.valueOf(schemaHash);
         long visibleVersion = physicalPartition.getVisibleVersion();
+        Pair<Long, Long> scanVersionRange = scanVersionRanges.get(physicalPartition.getId());
+        if (scanVersionRange != null) {
+            visibleVersion = scanVersionRange.second;
+        }
         scanPartitionVersions.put(physicalPartition.getId(), visibleVersion);
         String visibleVersionStr = String.valueOf(visibleVersion);
         boolean fillDataCache = olapTable.isEnableFillDataCache(partition);
@@ -552,6 +561,9 @@ public class OlapScanNode extends ScanNode {
             if (gtid > 0) {
                 internalRange.setGtid(gtid);
             }
+            if (scanVersionRange != null && scanVersionRange.first > 0) {
+                internalRange.setStart_version(scanVersionRange.first);
+            }
 
             // random shuffle List && only collect one copy
             List<Replica> allQueryableReplicas = Lists.newArrayList();
@@ -1418,6 +1430,18 @@ public class OlapScanNode extends ScanNode {
         this.gtid = gtid;
     }
 
+    public long getGtid() {
+        return gtid;
+    }
+
+    public void setScanVersionRanges(Map<Long, Pair<Long, Long>> scanVersionRanges) {
+        this.scanVersionRanges = scanVersionRanges;
+    }
+
+    public Map<Long, Pair<Long, Long>> getScanVersionRanges() {
+        return scanVersionRanges;
+    }
+
     // clear scan node， reduce body size
     public void clearScanNodeForThriftBuild() {
         sortColumn = null;
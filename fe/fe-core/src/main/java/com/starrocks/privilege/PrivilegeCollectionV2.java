@@ -29,6 +29,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PrivilegeCollectionV2 implements GsonPostProcessable {
     private static final Logger LOG = LogManager.getLogger(PrivilegeCollectionV2.class);
@@ -36,6 +37,23 @@ public class PrivilegeCollectionV2 implements GsonPostProcessable {
     @SerializedName("m2")
     protected Map<ObjectType, List<PrivilegeEntry>> typeToPrivilegeEntryList = new HashMap<>();
 
+    // checks on an object type with fewer entries than this just scan the entry list
+    private static final int INDEX_ENTRY_THRESHOLD = 32;
+
+    // object type -> index of its entry list, built on the first check and dropped on any change of the entries
+    private volatile Map<ObjectType, IndexedEntryList> typeToIndex;
+
+    private static class IndexedEntryList {
+        private final List<PrivilegeEntry> privilegeEntryList;
+        // null if the entries can not be indexed
+        private final TablePrivilegeIndex index;
+
+        IndexedEntryList(List<PrivilegeEntry> privilegeEntryList, TablePrivilegeIndex index) {
+            this.privilegeEntryList = privilegeEntryList;
+            this.index = index;
+        }
+    }
+
     /**
      * Remove invalid {@link ForwardCompatiblePEntryObject} after deserialization.
      * @throws IOException
@@ -51,6 +69,34 @@ public class PrivilegeCollectionV2 implements GsonPostProcessable {
                 mapIter.remove();
             }
         }
+        invalidateIndex();
+    }
+
+    private void invalidateIndex() {
+        typeToIndex = null;
+    }
+
+    /**
+     * Get the index of the entries on the object type if the object can be looked up in it, otherwise null is
+     * returned and the caller should scan the entry list.
+     */
+    private TablePrivilegeIndex getIndex(ObjectType objectType, List<PrivilegeEntry> privilegeEntryList,
+                                         PEntryObject object) {
+        if (privilegeEntryList.size() < INDEX_ENTRY_THRESHOLD || !TablePrivilegeIndex.canLookup(object)) {
+            return null;
+        }
+        Map<ObjectType, IndexedEntryList> indexes = typeToIndex;
+        if (indexes == null) {
+            indexes = new ConcurrentHashMap<>();
+            typeToIndex = indexes;
+        }
+        IndexedEntryList indexed = indexes.get(objectType);
+        // the entry list may be replaced as a whole, only use the index built on the same list
+        if (indexed == null || indexed.privilegeEntryList != privilegeEntryList) {
+            indexed = new IndexedEntryList(privilegeEntryList, TablePrivilegeIndex.build(privilegeEntryList));
+            indexes.put(objectType, indexed);
+        }
+        return indexed.index;
     }
 
     private boolean objectMatch(PEntryObject entryObject, PEntryObject other) {
@@ -115,6 +161,7 @@ public class PrivilegeCollectionV2 implements GsonPostProcessable {
         for (PEntryObject object : objects) {
             grantObjectToList(new ActionSet(privilegeTypes), object, isGrant, privilegeEntryList);
         }
+        invalidateIndex();
     }
 
     private void grantObjectToList(
@@ -151,27 +198,31 @@ public class PrivilegeCollectionV2 implements GsonPostProcessable {
             LOG.debug("revoke a non-existence type {}", objectType);
             return;
         }
-        for (PEntryObject object : objects) {
-            PrivilegeEntry entry = findEntry(privilegeEntryList, object, false);
-            if (entry != null) {
-                removeAction(privilegeEntryList, entry, new ActionSet(privilegeTypes));
-            }
-            // some actions may with grant option
-            PrivilegeEntry entryWithGrantOption = findEntry(privilegeEntryList, object, true);
-            if (entryWithGrantOption != null) {
-                // 1. intend to revoke with grant option but already grant object without grant option
-                // 2. intend to revoke without grant option but already grant object with grant option
-                // either way, we should remove the action here
-                removeAction(privilegeEntryList, entryWithGrantOption, new ActionSet(privilegeTypes));
-            }
+        try {
+            for (PEntryObject object : objects) {
+                PrivilegeEntry entry = findEntry(privilegeEntryList, object, false);
+                if (entry != null) {
+                    removeAction(privilegeEntryList, entry, new ActionSet(privilegeTypes));
+                }
+                // some actions may with grant option
+                PrivilegeEntry entryWithGrantOption = findEntry(privilegeEntryList, object, true);
+                if (entryWithGrantOption != null) {
+                    // 1. intend to revoke with grant option but already grant object without grant option
+                    // 2. intend to revoke without grant option but already grant object with grant option
+                    // either way, we should remove the action here
+                    removeAction(privilegeEntryList, entryWithGrantOption, new ActionSet(privilegeTypes));
+                }
 
-            if (entry == null && entryWithGrantOption == null) {
-                String msg = object.isFuzzyMatching() ? object.toString() : objectType.name() + " " + object;
-                throw new PrivilegeException("There is no such grant defined on " + msg);
+                if (entry == null && entryWithGrantOption == null) {
+                    String msg = object.isFuzzyMatching() ? object.toString() : objectType.name() + " " + object;
+                    throw new PrivilegeException("There is no such grant defined on " + msg);
+                }
             }
-        }
-        if (privilegeEntryList.isEmpty()) {
-            typeToPrivilegeEntryList.remove(objectType);
+            if (privilegeEntryList.isEmpty()) {
+                typeToPrivilegeEntryList.remove(objectType);
+            }
+        } finally {
+            invalidateIndex();
         }
     }
 
@@ -180,6 +231,17 @@ public class PrivilegeCollectionV2 implements GsonPostProcessable {
         if (privilegeEntryList == null) {
             return false;
         }
+        TablePrivilegeIndex index = getIndex(objectType, privilegeEntryList, object);
+        if (index != null) {
+            for (List<PrivilegeEntry> candidates : index.getCandidates(object)) {
+                for (PrivilegeEntry privilegeEntry : candidates) {
+                    if (objectMatch(object, privilegeEntry.object) && privilegeEntry.actionSet.contains(want)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
         for (PrivilegeEntry privilegeEntry : privilegeEntryList) {
             if (objectMatch(object, privilegeEntry.object) && privilegeEntry.actionSet.contains(want)) {
                 return true;
@@ -194,6 +256,21 @@ public class PrivilegeCollectionV2 implements GsonPostProcessable {
         if (privilegeEntryList == null) {
             return false;
         }
+        TablePrivilegeIndex index = getIndex(objectType, privilegeEntryList, object);
+        if (index != null) {
+            // a precise object can only be matched by the entries on itself or on the wildcards covering it
+            for (List<PrivilegeEntry> candidates : index.getCandidates(object)) {
+                if (searchObjectInEntries(candidates, object, want)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return searchObjectInEntries(privilegeEntryList, object, want);
+    }
+
+    private boolean searchObjectInEntries(List<PrivilegeEntry> privilegeEntryList, PEntryObject object,
+                                          PrivilegeType want) {
         for (PrivilegeEntry privilegeEntry : privilegeEntryList) {
             // 1. objectMatch(object, privilegeEntry.object):
             //    checking if db1.table1 exists for a user that's granted with `ALL tables in db1` will return true
@@ -263,6 +340,7 @@ public class PrivilegeCollectionV2 implements GsonPostProcessable {
                 listIter.remove();
             }
         }
+        invalidateIndex();
     }
 
     public void merge(PrivilegeCollectionV2 other) {
@@ -285,6 +363,7 @@ public class PrivilegeCollectionV2 implements GsonPostProcessable {
                 } // for privilege entry in other.list
             }
         } // for typeId, privilegeEntryList in other
+        invalidateIndex();
     }
 
     public boolean isEmpty() {
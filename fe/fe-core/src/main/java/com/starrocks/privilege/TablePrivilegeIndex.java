@@ -0,0 +1,130 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.privilege;
+
+import com.starrocks.catalog.Catalog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A catalog -> database -> table hash index of the privilege entries on table like objects
+ * (table, view and materialized view), so that a check on a certain table only looks at the
+ * entries which may match it instead of the whole entry list.
+ * <p>
+ * For a precise object (catalog1, db1, tbl1), the candidates are the entries on
+ * (ALL, ALL, ALL), (catalog1, ALL, ALL), (catalog1, db1, ALL) and (catalog1, db1, tbl1).
+ * Candidates are still verified by {@link PEntryObject#match}, the index only narrows the search.
+ */
+class TablePrivilegeIndex {
+    private static final class DbNode {
+        // entries on (catalog, db, ALL)
+        private final List<PrivilegeEntry> allTables = new ArrayList<>();
+        // compatible table uuid -> entries on (catalog, db, table)
+        private final Map<String, List<PrivilegeEntry>> tables = new HashMap<>();
+    }
+
+    private static final class CatalogNode {
+        // entries on (catalog, ALL, ALL)
+        private final List<PrivilegeEntry> allDbs = new ArrayList<>();
+        // compatible db uuid -> entries in the db
+        private final Map<String, DbNode> dbs = new HashMap<>();
+    }
+
+    // entries on (ALL, ALL, ALL)
+    private final List<PrivilegeEntry> allCatalogs = new ArrayList<>();
+    private final Map<Long, CatalogNode> catalogs = new HashMap<>();
+
+    private TablePrivilegeIndex() {
+    }
+
+    /**
+     * Build the index if all the entries are on table like objects, otherwise null is returned.
+     */
+    static TablePrivilegeIndex build(List<PrivilegeEntry> privilegeEntryList) {
+        TablePrivilegeIndex index = new TablePrivilegeIndex();
+        for (PrivilegeEntry entry : privilegeEntryList) {
+            if (!(entry.object instanceof TablePEntryObject)) {
+                return null;
+            }
+            index.add(entry);
+        }
+        return index;
+    }
+
+    private void add(PrivilegeEntry entry) {
+        TablePEntryObject object = (TablePEntryObject) entry.object;
+        if (object.getCatalogId() == PrivilegeBuiltinConstants.ALL_CATALOGS_ID) {
+            allCatalogs.add(entry);
+            return;
+        }
+        CatalogNode catalogNode = catalogs.computeIfAbsent(object.getCatalogId(), k -> new CatalogNode());
+        if (Objects.equals(object.getDatabaseUUID(), PrivilegeBuiltinConstants.ALL_DATABASES_UUID)) {
+            catalogNode.allDbs.add(entry);
+            return;
+        }
+        DbNode dbNode = catalogNode.dbs.computeIfAbsent(Catalog.getCompatibleDbUUID(object.getDatabaseUUID()),
+                k -> new DbNode());
+        if (Objects.equals(object.getTableUUID(), PrivilegeBuiltinConstants.ALL_TABLES_UUID)) {
+            dbNode.allTables.add(entry);
+            return;
+        }
+        dbNode.tables.computeIfAbsent(Catalog.getCompatibleTableUUID(object.getTableUUID()), k -> new ArrayList<>())
+                .add(entry);
+    }
+
+    /**
+     * Whether the candidates of the object can be found by this index, only precise table like objects can.
+     */
+    static boolean canLookup(PEntryObject object) {
+        return object instanceof TablePEntryObject && !object.isFuzzyMatching();
+    }
+
+    /**
+     * Return all the entries which may match the precise object, see {@link #canLookup}.
+     */
+    List<List<PrivilegeEntry>> getCandidates(PEntryObject obj) {
+        TablePEntryObject object = (TablePEntryObject) obj;
+        List<List<PrivilegeEntry>> candidates = new ArrayList<>(4);
+        if (!allCatalogs.isEmpty()) {
+            candidates.add(allCatalogs);
+        }
+        CatalogNode catalogNode = catalogs.get(object.getCatalogId());
+        if (catalogNode == null) {
+            return candidates;
+        }
+        if (!catalogNode.allDbs.isEmpty()) {
+            candidates.add(catalogNode.allDbs);
+        }
+        DbNode dbNode = catalogNode.dbs.get(Catalog.getCompatibleDbUUID(object.getDatabaseUUID()));
+        if (dbNode == null) {
+            return candidates;
+        }
+        if (!dbNode.allTables.isEmpty()) {
+            candidates.add(dbNode.allTables);
+        }
+        List<PrivilegeEntry> tableEntries =
+                dbNode.tables.getOrDefault(Catalog.getCompatibleTableUUID(object.getTableUUID()),
+                        Collections.emptyList());
+        if (!tableEntries.isEmpty()) {
+            candidates.add(tableEntries);
+        }
+        return candidates;
+    }
+}
@@ -85,6 +85,7 @@ public class QueryQueueManager {
                 // Wait for slot allocated.
                 try {
                     allocatedSlot = slotFuture.get(timeoutMs - currentMs, TimeUnit.MILLISECONDS);
+                    MetricRepo.HISTO_QUERY_QUEUE_ADMISSION_LATENCY.update(System.currentTimeMillis() - startMs);
                 } catch (ExecutionException e) {
                     LOG.warn("[Slot] failed to allocate resource to query [slot={}]", slotRequirement, e);
                     if (e.getCause() instanceof RecoverableException) {
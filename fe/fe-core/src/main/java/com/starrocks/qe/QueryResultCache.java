@@ -0,0 +1,199 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import com.starrocks.mysql.MysqlCommand;
+import com.starrocks.planner.FragmentNormalizer;
+import com.starrocks.planner.OlapScanNode;
+import com.starrocks.sql.plan.ExecPlan;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the whole results of the queries in FE, which is used for the queries returning small results repeatedly,
+ * e.g. dashboards. Unlike the query cache of BE which caches the per-tablet results of the aggregations, the cached
+ * rows are sent to the client directly without executing the query.
+ * <p>
+ * The key is the digest of the normalized plan computed by {@link FragmentNormalizer}, which contains the versions of
+ * the scanned partitions, so a stale result can never be hit. The results of a table are also invalidated once a
+ * transaction on it becomes visible, which only looks up the keys of the table, and the least recently used results
+ * are evicted beyond {@code Config.query_result_cache_max_bytes}.
+ * <p>
+ * The rows are cached in the packet format of the query, so the queries of the text and binary protocols never
+ * share a result.
+ */
+public class QueryResultCache {
+    private static final QueryResultCache INSTANCE = new QueryResultCache(Config.query_result_cache_max_bytes);
+
+    private final Cache<String, Entry> cache;
+    // table id -> keys of the cached results reading the table
+    private final ConcurrentMap<Long, Set<String>> tableIdToKeys = new ConcurrentHashMap<>();
+
+    public static class Entry {
+        private final Set<Long> tableIds;
+        // the mysql packets of the result rows
+        private final List<ByteBuffer> rows;
+        private final long bytes;
+
+        public Entry(Set<Long> tableIds, List<ByteBuffer> rows, long bytes) {
+            this.tableIds = tableIds;
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+
+        public List<ByteBuffer> getRows() {
+            return rows;
+        }
+    }
+
+    /**
+     * Collect the result rows of a query until they are too large to be cached.
+     */
+    public static class ResultCollector {
+        private final String key;
+        private final Set<Long> tableIds;
+        private List<ByteBuffer> rows = Lists.newArrayList();
+        private long bytes = 0;
+
+        private ResultCollector(String key, Set<Long> tableIds) {
+            this.key = key;
+            this.tableIds = tableIds;
+        }
+
+        public void addRow(ByteBuffer row) {
+            if (rows == null) {
+                return;
+            }
+            bytes += row.remaining();
+            if (bytes > Config.query_result_cache_max_entry_bytes) {
+                rows = null;
+                return;
+            }
+            // the row is consumed when sent to the client, so copy it
+            ByteBuffer copy = ByteBuffer.allocate(row.remaining());
+            copy.put(row.duplicate());
+            copy.flip();
+            rows.add(copy);
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    @VisibleForTesting
+    QueryResultCache(long maxBytes) {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Entry entry) -> (int) Math.min(entry.bytes + key.length(), Integer.MAX_VALUE))
+                .executor(Runnable::run)
+                .removalListener((String key, Entry entry, RemovalCause cause) -> {
+                    // a replaced entry has the same key and tables
+                    if (key != null && entry != null && cause != RemovalCause.REPLACED) {
+                        unindex(key, entry.tableIds);
+                    }
+                })
+                .build();
+    }
+
+    public static QueryResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Create a collector of the result of the plan, returns null if the result is uncacheable.
+     */
+    public ResultCollector createCollector(ConnectContext context, ExecPlan execPlan) {
+        if (execPlan.getScanNodes().isEmpty()) {
+            return null;
+        }
+        // prepared statements are returned in binary rows, see DefaultCoordinator
+        String rowFormat = context.getCommand() == MysqlCommand.COM_STMT_EXECUTE ? "binary" : "text";
+        String key = FragmentNormalizer.computeResultCacheDigest(execPlan, Lists.newArrayList(
+                String.join(",", execPlan.getColNames()), context.getSessionVariable().getTimeZone(), rowFormat));
+        if (key == null) {
+            return null;
+        }
+        Set<Long> tableIds = execPlan.getScanNodes().stream()
+                .map(scanNode -> ((OlapScanNode) scanNode).getOlapTable().getId())
+                .collect(Collectors.toSet());
+        return new ResultCollector(key, tableIds);
+    }
+
+    public Entry get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(ResultCollector collector) {
+        if (collector.rows == null) {
+            return;
+        }
+        for (Long tableId : collector.tableIds) {
+            tableIdToKeys.compute(tableId, (k, keys) -> {
+                Set<String> newKeys = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+                newKeys.add(collector.key);
+                return newKeys;
+            });
+        }
+        cache.put(collector.key, new Entry(collector.tableIds, Collections.unmodifiableList(collector.rows),
+                collector.bytes));
+    }
+
+    /**
+     * Invalidate the results reading the table, it's called when the table is changed.
+     */
+    public void invalidateTable(long tableId) {
+        Set<String> keys = tableIdToKeys.remove(tableId);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    private void unindex(String key, Set<Long> tableIds) {
+        for (Long tableId : tableIds) {
+            tableIdToKeys.computeIfPresent(tableId, (k, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    @VisibleForTesting
+    int getNumIndexedKeys(long tableId) {
+        Set<String> keys = tableIdToKeys.get(tableId);
+        return keys == null ? 0 : keys.size();
+    }
+
+    public long getUsedBytes() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        tableIdToKeys.clear();
+    }
+}
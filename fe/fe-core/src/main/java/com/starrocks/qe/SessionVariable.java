@@ -518,10 +518,13 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     public static final String QUERY_CACHE_HOT_PARTITION_NUM = "query_cache_hot_partition_num";
 
     public static final String QUERY_CACHE_AGG_CARDINALITY_LIMIT = "query_cache_agg_cardinality_limit";
+    public static final String ENABLE_QUERY_RESULT_CACHE = "enable_query_result_cache";
     public static final String TRANSMISSION_ENCODE_LEVEL = "transmission_encode_level";
     public static final String RPC_HTTP_MIN_SIZE = "rpc_http_min_size";
 
     public static final String NESTED_MV_REWRITE_MAX_LEVEL = "nested_mv_rewrite_max_level";
+    public static final String MV_REFRESH_PARTITION_PARALLELISM = "mv_refresh_partition_parallelism";
+    public static final String ENABLE_MV_INCREMENTAL_AGG_REFRESH = "enable_mv_incremental_agg_refresh";
     public static final String ENABLE_MATERIALIZED_VIEW_REWRITE = "enable_materialized_view_rewrite";
     public static final String ENABLE_MATERIALIZED_VIEW_UNION_REWRITE = "enable_materialized_view_union_rewrite";
     public static final String MATERIALIZED_VIEW_UNION_REWRITE_MODE = "materialized_view_union_rewrite_mode";
@@ -1779,9 +1782,33 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
     @VarAttr(name = QUERY_CACHE_AGG_CARDINALITY_LIMIT)
     private long queryCacheAggCardinalityLimit = 5000000;
 
+    /**
+     * Cache the whole results of the queries on olap tables in FE, the cached result is reused by the same query
+     * until the partitions it reads are loaded. It's used for the small results of dashboards, see
+     * `query_result_cache_max_bytes` and `query_result_cache_max_entry_bytes` in fe.conf.
+     */
+    @VarAttr(name = ENABLE_QUERY_RESULT_CACHE)
+    private boolean enableQueryResultCache = false;
+
     @VarAttr(name = NESTED_MV_REWRITE_MAX_LEVEL)
     private int nestedMvRewriteMaxLevel = 3;
 
+    /**
+     * The number of partition batches refreshed concurrently by one materialized view refresh task run, each
+     * batch contains at most `partition_refresh_number` partitions. It can be set for one materialized view by
+     * the `session.mv_refresh_partition_parallelism` property. 1 means refreshing the batches one by one.
+     */
+    @VarAttr(name = MV_REFRESH_PARTITION_PARALLELISM)
+    private int mvRefreshPartitionParallelism = 1;
+
+    /**
+     * Refresh the aggregate materialized view on a duplicate key table by merging the aggregation of the data
+     * appended since the last refresh into it, rather than recomputing the whole partitions. It can be set for
+     * one materialized view by the `session.enable_mv_incremental_agg_refresh` property.
+     */
+    @VarAttr(name = ENABLE_MV_INCREMENTAL_AGG_REFRESH)
+    private boolean enableMVIncrementalAggRefresh = false;
+
     @VarAttr(name = ENABLE_MATERIALIZED_VIEW_REWRITE)
     private boolean enableMaterializedViewRewrite = true;
 
@@ -2954,6 +2981,10 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return cboMaxReorderNodeUseDP;
     }
 
+    public void setCboMaxReorderNodeUseDP(long cboMaxReorderNodeUseDP) {
+        this.cboMaxReorderNodeUseDP = cboMaxReorderNodeUseDP;
+    }
+
     public boolean isCboEnableGreedyJoinReorder() {
         return cboEnableGreedyJoinReorder;
     }
@@ -3528,6 +3559,14 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         return queryCacheForcePopulate;
     }
 
+    public boolean isEnableQueryResultCache() {
+        return enableQueryResultCache;
+    }
+
+    public void setEnableQueryResultCache(boolean enableQueryResultCache) {
+        this.enableQueryResultCache = enableQueryResultCache;
+    }
+
     public int getNestedMvRewriteMaxLevel() {
         return nestedMvRewriteMaxLevel;
     }
@@ -3572,6 +3611,22 @@ public class SessionVariable implements Serializable, Writable, Cloneable {
         this.enableSyncMaterializedViewRewrite = enableSyncMaterializedViewRewrite;
     }
 
+    public int getMvRefreshPartitionParallelism() {
+        return mvRefreshPartitionParallelism;
+    }
+
+    public void setMvRefreshPartitionParallelism(int mvRefreshPartitionParallelism) {
+        this.mvRefreshPartitionParallelism = mvRefreshPartitionParallelism;
+    }
+
+    public boolean isEnableMVIncrementalAggRefresh() {
+        return enableMVIncrementalAggRefresh;
+    }
+
+    public void setEnableMVIncrementalAggRefresh(boolean enableMVIncrementalAggRefresh) {
+        this.enableMVIncrementalAggRefresh = enableMVIncrementalAggRefresh;
+    }
+
     // 1 means the mvs directly based on base table
     public void setNestedMvRewriteMaxLevel(int nestedMvRewriteMaxLevel) {
         if (nestedMvRewriteMaxLevel <= 0) {
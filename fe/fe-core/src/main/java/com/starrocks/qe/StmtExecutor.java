@@ -236,6 +236,7 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
@@ -273,7 +274,8 @@ public class StmtExecutor {
     private List<ByteBuffer> proxyResultBuffer = null;
     private ShowResultSet proxyResultSet = null;
     private PQueryStatistics statisticsForAuditLog;
-    private List<StmtExecutor> subStmtExecutors;
+    // the sub executors may be registered by other threads, eg: the partition batches of mv refresh
+    private volatile List<StmtExecutor> subStmtExecutors;
     private Optional<Boolean> isForwardToLeaderOpt = Optional.empty();
     private HttpResultSender httpResultSender;
     private PrepareStmtContext prepareStmtContext;
@@ -978,9 +980,9 @@ public class StmtExecutor {
         return coord.tryProcessProfileAsync(task);
     }
 
-    public void registerSubStmtExecutor(StmtExecutor subStmtExecutor) {
+    public synchronized void registerSubStmtExecutor(StmtExecutor subStmtExecutor) {
         if (subStmtExecutors == null) {
-            subStmtExecutors = Lists.newArrayList();
+            subStmtExecutors = new CopyOnWriteArrayList<>();
         }
         subStmtExecutors.add(subStmtExecutor);
     }
@@ -1001,8 +1003,9 @@ public class StmtExecutor {
                 GlobalStateMgr.getCurrentState().getDeleteMgr().killJob(jobId);
             }
         } else {
-            if (subStmtExecutors != null && !subStmtExecutors.isEmpty()) {
-                for (StmtExecutor sub : subStmtExecutors) {
+            List<StmtExecutor> subStmtExecutorsRef = subStmtExecutors;
+            if (subStmtExecutorsRef != null && !subStmtExecutorsRef.isEmpty()) {
+                for (StmtExecutor sub : subStmtExecutorsRef) {
                     sub.cancel(cancelledMessage);
                 }
             }
@@ -1158,6 +1161,16 @@ public class StmtExecutor {
         List<String> colNames = execPlan.getColNames();
         List<Expr> outputExprs = execPlan.getOutputExprs();
 
+        QueryResultCache.ResultCollector resultCollector = null;
+        if (context.getSessionVariable().isEnableQueryResultCache() && !executeInFe && !isExplainAnalyze
+                && !isSchedulerExplain && !isOutfileQuery && !isProxy && !(context instanceof HttpConnectContext)
+                && !context.getSessionVariable().isEnableExecutionOnly()) {
+            resultCollector = QueryResultCache.getInstance().createCollector(context, execPlan);
+            if (resultCollector != null && sendCachedResult(resultCollector.getKey(), colNames, outputExprs)) {
+                return;
+            }
+        }
+
         if (executeInFe) {
             coord = new FeExecuteCoordinator(context, execPlan);
         } else {
@@ -1212,6 +1225,9 @@ public class StmtExecutor {
                     }
 
                     for (ByteBuffer row : batch.getBatch().getRows()) {
+                        if (resultCollector != null) {
+                            resultCollector.addRow(row);
+                        }
                         if (isProxy) {
                             proxyResultBuffer.add(row);
                         } else {
@@ -1224,6 +1240,9 @@ public class StmtExecutor {
             if (!isSendFields && !isOutfileQuery && !isExplainAnalyze) {
                 sendFields(colNames, outputExprs);
             }
+            if (resultCollector != null) {
+                QueryResultCache.getInstance().put(resultCollector);
+            }
         }
 
         statisticsForAuditLog = batch.getQueryStatistics();
@@ -1250,6 +1269,29 @@ public class StmtExecutor {
         }
     }
 
+    /**
+     * Send the result cached in FE to the client without executing the query.
+     *
+     * @return false if the result is not cached
+     */
+    private boolean sendCachedResult(String key, List<String> colNames, List<Expr> outputExprs) throws IOException {
+        QueryResultCache.Entry entry = QueryResultCache.getInstance().get(key);
+        if (entry == null) {
+            MetricRepo.COUNTER_QUERY_RESULT_CACHE_MISS.increase(1L);
+            return false;
+        }
+        MetricRepo.COUNTER_QUERY_RESULT_CACHE_HIT.increase(1L);
+        sendFields(colNames, outputExprs);
+        MysqlChannel channel = context.getMysqlChannel();
+        for (ByteBuffer row : entry.getRows()) {
+            channel.sendOnePacket(row.duplicate());
+        }
+        context.updateReturnRows(entry.getRows().size());
+        context.getState().setEof();
+        LOG.debug("query {} hits the result cache {}", DebugUtil.printId(context.getQueryId()), key);
+        return true;
+    }
+
     private void handleAnalyzeStmt() throws IOException {
         AnalyzeStmt analyzeStmt = (AnalyzeStmt) parsedStmt;
         TableName tableName = analyzeStmt.getTableName();
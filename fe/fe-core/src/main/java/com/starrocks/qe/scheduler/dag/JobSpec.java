@@ -27,6 +27,7 @@ import com.starrocks.planner.StreamLoadPlanner;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.GlobalVariable;
 import com.starrocks.qe.SessionVariable;
+import com.starrocks.qe.scheduler.slot.LeasedSlotProvider;
 import com.starrocks.qe.scheduler.slot.SlotProvider;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.server.WarehouseManager;
@@ -507,6 +508,8 @@ public class JobSpec {
     public SlotProvider getSlotProvider() {
         if (!isNeedQueued() || !isEnableQueue()) {
             return GlobalStateMgr.getCurrentState().getLocalSlotProvider();
+        } else if (LeasedSlotProvider.isEnabled()) {
+            return GlobalStateMgr.getCurrentState().getLeasedSlotProvider();
         } else {
             return GlobalStateMgr.getCurrentState().getGlobalSlotProvider();
         }
@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.function.BooleanSupplier;
 import java.util.function.Function;
+import java.util.function.IntSupplier;
 
 public class DefaultSlotSelectionStrategy implements SlotSelectionStrategy {
     private static final long SWEEP_EMPTY_GROUP_INTERVAL_MS = 1000L;
@@ -38,13 +39,22 @@ public class DefaultSlotSelectionStrategy implements SlotSelectionStrategy {
 
     private final BooleanSupplier isGlobalResourceOverloaded;
     private final Function<Long, Boolean> isGroupResourceOverloaded;
+    // The slots leased to the FEs are counted as allocated, see SlotLeaseManager.
+    private final IntSupplier numLeasedSlotsSupplier;
 
     private long lastSweepEmptyGroupTimeMs = 0;
 
     public DefaultSlotSelectionStrategy(BooleanSupplier isGlobalResourceOverloaded,
                                         Function<Long, Boolean> isGroupResourceOverloaded) {
+        this(isGlobalResourceOverloaded, isGroupResourceOverloaded, () -> 0);
+    }
+
+    public DefaultSlotSelectionStrategy(BooleanSupplier isGlobalResourceOverloaded,
+                                        Function<Long, Boolean> isGroupResourceOverloaded,
+                                        IntSupplier numLeasedSlotsSupplier) {
         this.isGlobalResourceOverloaded = isGlobalResourceOverloaded;
         this.isGroupResourceOverloaded = isGroupResourceOverloaded;
+        this.numLeasedSlotsSupplier = numLeasedSlotsSupplier;
     }
 
     @Override
@@ -57,7 +67,7 @@ public class DefaultSlotSelectionStrategy implements SlotSelectionStrategy {
             return slotsToAllocate;
         }
 
-        int numAllocatedSlots = slotTracker.getNumAllocatedSlots();
+        int numAllocatedSlots = slotTracker.getNumAllocatedSlots() + numLeasedSlotsSupplier.getAsInt();
         if (!isGlobalSlotAvailable(numAllocatedSlots) || isGlobalResourceOverloaded.getAsBoolean()) {
             return slotsToAllocate;
         }
@@ -0,0 +1,313 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler.slot;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
+import com.starrocks.common.util.FrontendDaemon;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.qe.GlobalVariable;
+import com.starrocks.qe.scheduler.RecoverableException;
+import com.starrocks.rpc.ThriftConnectionPool;
+import com.starrocks.rpc.ThriftRPCRequestExecutor;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.server.NodeMgr;
+import com.starrocks.system.Frontend;
+import com.starrocks.thrift.TRenewSlotLeaseRequest;
+import com.starrocks.thrift.TRenewSlotLeaseResponse;
+import com.starrocks.thrift.TStatusCode;
+import com.starrocks.thrift.TUniqueId;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Allocate slots to the queries locally against the slot lease granted by the leader FE, so a query doesn't need to
+ * send the require and release RPCs to the leader when enabling {@code Config.enable_query_queue_slot_lease}.
+ * <p> The lease is renewed by {@link LeaseRenewer} periodically with the allocated and pending slots of this FE, and
+ * the leader rebalances the leases of all the FEs by {@link SlotLeaseManager}. The pending queries are allocated in
+ * FIFO order while the free slots of the lease are enough for the head query and the lease is not expired. The
+ * allocated slots are released once they expire, as {@link SlotManager} does for the slots allocated by the leader.
+ * <p> The queries with the group level query queue and all the queries with query queue v2 still require slots from
+ * the leader by {@link GlobalSlotProvider}.
+ *
+ * @see SlotLeaseManager
+ */
+public class LeasedSlotProvider implements SlotProvider {
+    private static final Logger LOG = LogManager.getLogger(LeasedSlotProvider.class);
+
+    private final GlobalSlotProvider globalSlotProvider;
+    private final PipelineDriverAllocator pipelineDriverAllocator = new PipelineDriverAllocator();
+    private final LeaseRenewer leaseRenewer = new LeaseRenewer();
+
+    /**
+     * All the following data members are protected by the monitor of this provider.
+     */
+    private final LinkedHashMap<TUniqueId, PendingSlotRequest> pendingSlots = new LinkedHashMap<>();
+    private final Map<TUniqueId, LogicalSlot> allocatedSlots = new HashMap<>();
+    private int numPendingSlots = 0;
+    private int numAllocatedSlots = 0;
+    private int numLeaseSlots = 0;
+    private long leaseExpiredTimeMs = 0;
+
+    public LeasedSlotProvider(GlobalSlotProvider globalSlotProvider) {
+        this.globalSlotProvider = globalSlotProvider;
+    }
+
+    public void start() {
+        leaseRenewer.start();
+    }
+
+    public static boolean isEnabled() {
+        return Config.enable_query_queue_slot_lease && !Config.enable_query_queue_v2;
+    }
+
+    private static boolean canAllocateLocally(LogicalSlot slot) {
+        return isEnabled() &&
+                (!GlobalVariable.isEnableGroupLevelQueryQueue() || slot.getGroupId() == LogicalSlot.ABSENT_GROUP_ID);
+    }
+
+    @Override
+    public Future<LogicalSlot> requireSlot(LogicalSlot slot) {
+        if (!canAllocateLocally(slot)) {
+            return globalSlotProvider.requireSlot(slot);
+        }
+
+        PendingSlotRequest slotRequest = new PendingSlotRequest(slot, null);
+        slotRequest.onRequire();
+        synchronized (this) {
+            pendingSlots.put(slot.getSlotId(), slotRequest);
+            numPendingSlots += slot.getNumPhysicalSlots();
+        }
+
+        tryAllocateSlots();
+        return slotRequest.getSlotFuture();
+    }
+
+    @Override
+    public void cancelSlotRequirement(LogicalSlot slot) {
+        if (slot == null) {
+            return;
+        }
+
+        PendingSlotRequest slotRequest;
+        synchronized (this) {
+            slotRequest = pendingSlots.remove(slot.getSlotId());
+            if (slotRequest != null) {
+                numPendingSlots -= slot.getNumPhysicalSlots();
+            }
+        }
+
+        if (slotRequest != null) {
+            slotRequest.onCancel();
+        } else if (!releaseLocalSlot(slot)) {
+            globalSlotProvider.cancelSlotRequirement(slot);
+        }
+    }
+
+    @Override
+    public void releaseSlot(LogicalSlot slot) {
+        if (slot == null) {
+            return;
+        }
+
+        if (!releaseLocalSlot(slot)) {
+            globalSlotProvider.releaseSlot(slot);
+        }
+    }
+
+    public synchronized int getNumLeaseSlots() {
+        return numLeaseSlots;
+    }
+
+    @VisibleForTesting
+    synchronized int getNumAllocatedSlots() {
+        return numAllocatedSlots;
+    }
+
+    @VisibleForTesting
+    synchronized int getNumPendingSlots() {
+        return numPendingSlots;
+    }
+
+    @VisibleForTesting
+    void renewLease() {
+        leaseRenewer.runAfterCatalogReady();
+    }
+
+    private boolean releaseLocalSlot(LogicalSlot slot) {
+        synchronized (this) {
+            if (allocatedSlots.remove(slot.getSlotId()) == null) {
+                return false;
+            }
+            numAllocatedSlots -= slot.getNumPhysicalSlots();
+        }
+
+        slot.onRelease();
+        pipelineDriverAllocator.release(slot);
+        tryAllocateSlots();
+        return true;
+    }
+
+    private void tryAllocateSlots() {
+        List<PendingSlotRequest> slotRequestsToAllocate = new ArrayList<>();
+        synchronized (this) {
+            if (System.currentTimeMillis() >= leaseExpiredTimeMs) {
+                return;
+            }
+
+            Iterator<PendingSlotRequest> iterator = pendingSlots.values().iterator();
+            while (iterator.hasNext()) {
+                PendingSlotRequest slotRequest = iterator.next();
+                LogicalSlot slot = slotRequest.getSlot();
+                // Keep the FIFO order, the latter queries cannot be allocated before the head one.
+                if (numAllocatedSlots + slot.getNumPhysicalSlots() > numLeaseSlots) {
+                    break;
+                }
+                iterator.remove();
+                numPendingSlots -= slot.getNumPhysicalSlots();
+                numAllocatedSlots += slot.getNumPhysicalSlots();
+                allocatedSlots.put(slot.getSlotId(), slot);
+                slotRequestsToAllocate.add(slotRequest);
+            }
+        }
+
+        // Calculate the pipeline DOP outside the lock, since it may wait for the other allocations in batch.
+        for (PendingSlotRequest slotRequest : slotRequestsToAllocate) {
+            LogicalSlot slot = slotRequest.getSlot();
+            pipelineDriverAllocator.allocate(slot);
+            slotRequest.onFinished(slot.getPipelineDop());
+        }
+        MetricRepo.COUNTER_QUERY_QUEUE_LEASE_ADMITTED.increase((long) slotRequestsToAllocate.size());
+    }
+
+    /**
+     * Release the allocated slots which are not released before the expired time, e.g. the release of a query is
+     * missed, otherwise they occupy the lease forever.
+     */
+    @VisibleForTesting
+    void releaseExpiredSlots() {
+        long nowMs = System.currentTimeMillis();
+        List<LogicalSlot> expiredSlots;
+        synchronized (this) {
+            expiredSlots = allocatedSlots.values().stream()
+                    .filter(slot -> slot.isAllocatedExpired(nowMs))
+                    .collect(Collectors.toList());
+        }
+        if (expiredSlots.isEmpty()) {
+            return;
+        }
+
+        LOG.warn("[Slot] expired local slots [{}]", expiredSlots);
+        expiredSlots.forEach(this::releaseLocalSlot);
+    }
+
+    private void retryPendingSlots() {
+        List<PendingSlotRequest> slotRequests;
+        synchronized (this) {
+            if (pendingSlots.isEmpty()) {
+                return;
+            }
+            slotRequests = new ArrayList<>(pendingSlots.values());
+            pendingSlots.clear();
+            numPendingSlots = 0;
+        }
+
+        // The pending queries will require slots from the leader again.
+        slotRequests.forEach(slotRequest ->
+                slotRequest.onRetry(new RecoverableException("slot lease is disabled and need require slot again")));
+    }
+
+    @VisibleForTesting
+    synchronized void updateLease(int numLeaseSlots, long leaseExpiredTimeMs) {
+        this.numLeaseSlots = numLeaseSlots;
+        this.leaseExpiredTimeMs = leaseExpiredTimeMs;
+    }
+
+    private class LeaseRenewer extends FrontendDaemon {
+        public LeaseRenewer() {
+            super("slot-lease-renewer", Config.query_queue_slot_lease_renew_interval_ms);
+        }
+
+        @Override
+        protected void runAfterCatalogReady() {
+            releaseExpiredSlots();
+
+            if (!isEnabled()) {
+                updateLease(0, 0);
+                retryPendingSlots();
+                return;
+            }
+
+            NodeMgr nodeMgr = GlobalStateMgr.getCurrentState().getNodeMgr();
+            Pair<String, Integer> selfIpAndPort = nodeMgr.getSelfIpAndRpcPort();
+            Frontend frontend = nodeMgr.getFeByHost(selfIpAndPort.first);
+            if (frontend == null) {
+                LOG.warn("[Slot] cannot get frontend from the local host [{}] to renew slot lease", selfIpAndPort.first);
+                return;
+            }
+
+            int curNumAllocatedSlots;
+            int curNumPendingSlots;
+            synchronized (LeasedSlotProvider.this) {
+                curNumAllocatedSlots = numAllocatedSlots;
+                curNumPendingSlots = numPendingSlots;
+            }
+
+            long renewTimeMs = System.currentTimeMillis();
+            try {
+                if (GlobalStateMgr.getCurrentState().isLeader()) {
+                    int leaseSlots = GlobalStateMgr.getCurrentState().getSlotManager().renewSlotLease(
+                            frontend.getNodeName(), frontend.getStartTime(), curNumAllocatedSlots, curNumPendingSlots);
+                    updateLease(leaseSlots, renewTimeMs + SlotLeaseManager.getLeaseDurationMs());
+                } else {
+                    renewLeaseFromLeader(nodeMgr, frontend, curNumAllocatedSlots, curNumPendingSlots, renewTimeMs);
+                }
+            } catch (Exception e) {
+                LOG.warn("[Slot] failed to renew slot lease", e);
+            }
+
+            tryAllocateSlots();
+        }
+
+        private void renewLeaseFromLeader(NodeMgr nodeMgr, Frontend frontend, int curNumAllocatedSlots,
+                                          int curNumPendingSlots, long renewTimeMs) throws Exception {
+            TRenewSlotLeaseRequest request = new TRenewSlotLeaseRequest();
+            request.setFe_name(frontend.getNodeName());
+            request.setFe_start_time(frontend.getStartTime());
+            request.setNum_allocated_slots(curNumAllocatedSlots);
+            request.setNum_pending_slots(curNumPendingSlots);
+
+            TRenewSlotLeaseResponse res = ThriftRPCRequestExecutor.call(
+                    ThriftConnectionPool.frontendPool,
+                    nodeMgr.getLeaderRpcEndpoint(),
+                    client -> client.renewSlotLease(request));
+            if (res.getStatus().getStatus_code() != TStatusCode.OK) {
+                LOG.warn("[Slot] failed to renew slot lease [status={}]", res.getStatus());
+                return;
+            }
+            updateLease(res.getNum_lease_slots(), renewTimeMs + res.getLease_duration_ms());
+        }
+    }
+}
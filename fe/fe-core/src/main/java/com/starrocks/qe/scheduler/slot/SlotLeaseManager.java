@@ -0,0 +1,164 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler.slot;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.starrocks.common.Config;
+import com.starrocks.qe.GlobalVariable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Grant the slot leases to the FEs in the leader FE. Each FE allocates slots to its queries locally against its
+ * lease, see {@link LeasedSlotProvider}.
+ * <p> The leases are rebalanced periodically by the request worker of {@link SlotManager}:
+ * <ul>
+ *     <li> The slots allocated by an FE are always kept in its lease, since they cannot be revoked.
+ *     <li> The free slots not allocated by the leader or the leases are granted to the FEs with pending queries
+ *     first, weighted by their pending slots.
+ *     <li> {@code Config.query_queue_slot_lease_idle_ratio} of the left free slots are granted to all the FEs evenly,
+ *     so the queries can be admitted without waiting for the next rebalance. The others are kept for the queries
+ *     requiring slots from the leader.
+ * </ul>
+ * The leased slots are counted as allocated by {@link SlotSelectionStrategy}, so the global concurrency limit is
+ * still respected by the slots allocated by the leader and the leases.
+ */
+public class SlotLeaseManager {
+    private static final Logger LOG = LogManager.getLogger(SlotLeaseManager.class);
+
+    private static final int UNLIMITED_LEASE_SLOTS = Integer.MAX_VALUE;
+
+    private static class FrontendLease {
+        private final String feName;
+        private final long feStartTimeMs;
+        private volatile int numAllocatedSlots;
+        private volatile int numPendingSlots;
+        private volatile long lastRenewTimeMs;
+        private volatile int numLeaseSlots = 0;
+
+        FrontendLease(String feName, long feStartTimeMs) {
+            this.feName = feName;
+            this.feStartTimeMs = feStartTimeMs;
+        }
+    }
+
+    private final ConcurrentMap<String, FrontendLease> leases = new ConcurrentHashMap<>();
+    private volatile int numLeasedSlots = 0;
+
+    public static long getLeaseDurationMs() {
+        return Config.query_queue_slot_lease_renew_interval_ms * 3;
+    }
+
+    /**
+     * Renew the lease of the FE with its latest slot usage.
+     *
+     * @return the number of slots leased to the FE, which is granted by the last rebalance
+     */
+    public int renewLease(String feName, long feStartTimeMs, int numAllocatedSlots, int numPendingSlots) {
+        FrontendLease lease = leases.compute(feName, (k, prev) -> prev == null || prev.feStartTimeMs != feStartTimeMs ?
+                new FrontendLease(feName, feStartTimeMs) : prev);
+        lease.numAllocatedSlots = numAllocatedSlots;
+        lease.numPendingSlots = numPendingSlots;
+        lease.lastRenewTimeMs = System.currentTimeMillis();
+        return lease.numLeaseSlots;
+    }
+
+    public void removeFrontend(String feName) {
+        leases.remove(feName);
+    }
+
+    public void clear() {
+        leases.clear();
+        numLeasedSlots = 0;
+    }
+
+    public int getNumLeasedSlots() {
+        return numLeasedSlots;
+    }
+
+    @VisibleForTesting
+    int getNumLeaseSlots(String feName) {
+        FrontendLease lease = leases.get(feName);
+        return lease == null ? 0 : lease.numLeaseSlots;
+    }
+
+    /**
+     * Rebalance the leases of all the FEs.
+     *
+     * @param numAllocatedSlots    the slots allocated by the leader, excluding the leased slots
+     * @param isResourceOverloaded whether the resource of the backends is overloaded, no more slots are leased if so
+     */
+    public void rebalance(int numAllocatedSlots, boolean isResourceOverloaded) {
+        long nowMs = System.currentTimeMillis();
+        leases.values().removeIf(lease -> {
+            boolean expired = lease.lastRenewTimeMs + getLeaseDurationMs() < nowMs;
+            if (expired) {
+                LOG.warn("[Slot] the slot lease of frontend [{}] expires", lease.feName);
+            }
+            return expired;
+        });
+        List<FrontendLease> activeLeases = new ArrayList<>(leases.values());
+        if (activeLeases.isEmpty()) {
+            numLeasedSlots = 0;
+            return;
+        }
+
+        if (!GlobalVariable.isQueryQueueConcurrencyLimitEffective()) {
+            // Only the resource usage limits the queries.
+            activeLeases.forEach(lease -> lease.numLeaseSlots =
+                    isResourceOverloaded ? lease.numAllocatedSlots : UNLIMITED_LEASE_SLOTS);
+            numLeasedSlots = 0;
+            return;
+        }
+
+        int numFreeSlots = GlobalVariable.getQueryQueueConcurrencyLimit() - numAllocatedSlots;
+        for (FrontendLease lease : activeLeases) {
+            lease.numLeaseSlots = lease.numAllocatedSlots;
+            numFreeSlots -= lease.numAllocatedSlots;
+        }
+        if (!isResourceOverloaded && numFreeSlots > 0) {
+            // Grant the free slots to the FEs with pending queries first.
+            int numPendingSlots = activeLeases.stream().mapToInt(lease -> lease.numPendingSlots).sum();
+            int numSlotsForPending = Math.min(numFreeSlots, numPendingSlots);
+            int numGrantedSlots = 0;
+            if (numSlotsForPending > 0) {
+                for (FrontendLease lease : activeLeases) {
+                    int numSlots = (int) ((long) numSlotsForPending * lease.numPendingSlots / numPendingSlots);
+                    lease.numLeaseSlots += numSlots;
+                    numGrantedSlots += numSlots;
+                }
+                // Grant the remainder of the division to the FEs with the most pending slots.
+                activeLeases.sort(Comparator.comparingInt((FrontendLease lease) -> lease.numPendingSlots).reversed());
+                for (int i = 0; numGrantedSlots < numSlotsForPending; i = (i + 1) % activeLeases.size()) {
+                    activeLeases.get(i).numLeaseSlots++;
+                    numGrantedSlots++;
+                }
+            }
+
+            int numIdleSlotsPerFe =
+                    (int) ((numFreeSlots - numGrantedSlots) * Config.query_queue_slot_lease_idle_ratio / activeLeases.size());
+            for (FrontendLease lease : activeLeases) {
+                lease.numLeaseSlots += numIdleSlotsPerFe;
+            }
+        }
+        numLeasedSlots = activeLeases.stream().mapToInt(lease -> lease.numLeaseSlots).sum();
+    }
+}
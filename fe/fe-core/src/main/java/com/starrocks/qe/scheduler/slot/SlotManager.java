@@ -45,6 +45,7 @@ import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -104,7 +105,11 @@ public class SlotManager {
 
     private final Map<String, Set<TUniqueId>> requestFeNameToSlotIds = new HashMap<>();
 
+    private final ResourceUsageMonitor resourceUsageMonitor;
     private final SlotSelectionStrategy slotSelectionStrategy;
+    private final SlotLeaseManager slotLeaseManager = new SlotLeaseManager();
+    private final ScheduledExecutorService leaseRebalanceExecutor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("slot-mgr-lease").build());
 
     /**
      * The lifecycle of a slot is managed by the slot tracker.
@@ -125,13 +130,15 @@ public class SlotManager {
     private final SlotTracker slotTracker;
 
     public SlotManager(ResourceUsageMonitor resourceUsageMonitor) {
+        this.resourceUsageMonitor = resourceUsageMonitor;
         resourceUsageMonitor.registerResourceAvailableListener(this::notifyResourceUsageAvailable);
 
         if (Config.enable_query_queue_v2) {
             this.slotSelectionStrategy = new SlotSelectionStrategyV2();
         } else {
             this.slotSelectionStrategy = new DefaultSlotSelectionStrategy(
-                    resourceUsageMonitor::isGlobalResourceOverloaded, resourceUsageMonitor::isGroupResourceOverloaded);
+                    resourceUsageMonitor::isGlobalResourceOverloaded, resourceUsageMonitor::isGroupResourceOverloaded,
+                    slotLeaseManager::getNumLeasedSlots);
         }
 
         this.slotTracker = new SlotTracker(ImmutableList.of(slotSelectionStrategy, new SlotListenerForPipelineDriverAllocator()));
@@ -140,6 +147,9 @@ public class SlotManager {
     public void start() {
         if (started.compareAndSet(false, true)) {
             requestWorker.start();
+            leaseRebalanceExecutor.scheduleWithFixedDelay(() -> requests.add(this::handleRebalanceSlotLeasesTask),
+                    Config.query_queue_slot_lease_renew_interval_ms, Config.query_queue_slot_lease_renew_interval_ms,
+                    TimeUnit.MILLISECONDS);
         }
     }
 
@@ -165,6 +175,23 @@ public class SlotManager {
         });
     }
 
+    /**
+     * Renew the slot lease of the frontend, which allocates slots to its queries locally.
+     *
+     * @return the number of slots leased to the frontend
+     * @see LeasedSlotProvider
+     */
+    public int renewSlotLease(String feName, long feStartTimeMs, int numAllocatedSlots, int numPendingSlots) {
+        if (!isSlotLeaseEnabled()) {
+            return 0;
+        }
+        return slotLeaseManager.renewLease(feName, feStartTimeMs, numAllocatedSlots, numPendingSlots);
+    }
+
+    private static boolean isSlotLeaseEnabled() {
+        return Config.enable_query_queue_slot_lease && !Config.enable_query_queue_v2;
+    }
+
     public List<LogicalSlot> getSlots() {
         return new ArrayList<>(slotTracker.getSlots());
     }
@@ -213,6 +240,7 @@ public class SlotManager {
     }
 
     private void handleFrontendDeadTask(String feName) {
+        slotLeaseManager.removeFrontend(feName);
         Set<TUniqueId> slotIds = requestFeNameToSlotIds.get(feName);
         if (slotIds == null) {
             return;
@@ -224,6 +252,7 @@ public class SlotManager {
     }
 
     private void handleFrontendRestart(String feName, long startMs) {
+        slotLeaseManager.removeFrontend(feName);
         Set<TUniqueId> slotIds = requestFeNameToSlotIds.get(feName);
         if (slotIds == null) {
             return;
@@ -241,6 +270,14 @@ public class SlotManager {
         }).collect(Collectors.toList()).forEach(this::handleReleaseSlotTask);
     }
 
+    private void handleRebalanceSlotLeasesTask() {
+        if (!isSlotLeaseEnabled()) {
+            slotLeaseManager.clear();
+            return;
+        }
+        slotLeaseManager.rebalance(slotTracker.getNumAllocatedSlots(), resourceUsageMonitor.isGlobalResourceOverloaded());
+    }
+
     private void finishSlotRequirementToEndpoint(LogicalSlot slot, TStatus status) {
         responseExecutor.execute(() -> {
             TFinishSlotRequirementRequest request = new TFinishSlotRequirementRequest();
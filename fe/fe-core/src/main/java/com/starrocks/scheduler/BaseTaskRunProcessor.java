@@ -37,8 +37,12 @@ public abstract class BaseTaskRunProcessor implements TaskRunProcessor {
     }
 
     protected void auditAfterExec(TaskRunContext context, StatementBase parsedStmt, PQueryStatistics statistics) {
+        auditAfterExec(context, context.getCtx(), parsedStmt, statistics);
+    }
+
+    protected void auditAfterExec(TaskRunContext context, ConnectContext ctx, StatementBase parsedStmt,
+                                  PQueryStatistics statistics) {
         String origStmt = context.getDefinition();
-        ConnectContext ctx = context.getCtx();
         ConnectProcessor processor = new ConnectProcessor(ctx);
         processor.auditAfterExec(origStmt, parsedStmt, statistics);
     }
@@ -147,6 +147,17 @@ public class MvTaskRunContext extends TaskRunContext {
         this.partitionTTLNumber = partitionTTLNumber;
     }
 
+    /**
+     * The number of partition batches to refresh concurrently in this task run, see
+     * {@link com.starrocks.qe.SessionVariable#MV_REFRESH_PARTITION_PARALLELISM}.
+     */
+    public int getPartitionRefreshParallelism() {
+        if (getCtx() == null || getCtx().getSessionVariable() == null) {
+            return 1;
+        }
+        return Math.max(1, getCtx().getSessionVariable().getMvRefreshPartitionParallelism());
+    }
+
     /**
      * For external table, the partition name is normalized which should convert it into original partition name.
      * <p>
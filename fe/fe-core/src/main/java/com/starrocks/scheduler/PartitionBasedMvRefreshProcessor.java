@@ -40,6 +40,7 @@ import com.starrocks.common.Config;
 import com.starrocks.common.FeConstants;
 import com.starrocks.common.MaterializedViewExceptions;
 import com.starrocks.common.Pair;
+import com.starrocks.common.ThreadPoolManager;
 import com.starrocks.common.UserException;
 import com.starrocks.common.profile.Timer;
 import com.starrocks.common.profile.Tracers;
@@ -60,6 +61,7 @@ import com.starrocks.metric.MaterializedViewMetricsRegistry;
 import com.starrocks.qe.ConnectContext;
 import com.starrocks.qe.SessionVariable;
 import com.starrocks.qe.StmtExecutor;
+import com.starrocks.scheduler.mv.MVIncrementalAggRefreshPlanBuilder;
 import com.starrocks.scheduler.mv.MVPCTMetaRepairer;
 import com.starrocks.scheduler.mv.MVPCTRefreshListPartitioner;
 import com.starrocks.scheduler.mv.MVPCTRefreshNonPartitioner;
@@ -72,6 +74,7 @@ import com.starrocks.scheduler.persist.MVTaskRunExtraMessage;
 import com.starrocks.scheduler.persist.TaskRunStatus;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.StatementPlanner;
+import com.starrocks.sql.analyzer.Analyzer;
 import com.starrocks.sql.analyzer.PlannerMetaLocker;
 import com.starrocks.sql.ast.InsertStmt;
 import com.starrocks.sql.ast.PartitionNames;
@@ -92,10 +95,18 @@ import org.apache.parquet.Strings;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
@@ -112,6 +123,8 @@ public class PartitionBasedMvRefreshProcessor extends BaseTaskRunProcessor {
 
     private static final Logger LOG = LogManager.getLogger(PartitionBasedMvRefreshProcessor.class);
     private static final AtomicLong STMT_ID_GENERATOR = new AtomicLong(0);
+    // the pool to refresh the partition batches of all the mvs, see refreshPartitionBatches
+    private static volatile ThreadPoolExecutor partitionBatchExecutor;
 
     // session.enable_spill
     public static final String MV_SESSION_ENABLE_SPILL =
@@ -456,27 +469,271 @@ public class PartitionBasedMvRefreshProcessor extends BaseTaskRunProcessor {
         }
 
         ///// 2. execute the ExecPlan of insert stmt
-        InsertStmt insertStmt = null;
-        try (Timer ignored = Tracers.watchScope("MVRefreshPrepareRefreshPlan")) {
-            insertStmt = prepareRefreshPlan(mvToRefreshedPartitions, refTablePartitionNames);
-        }
-        try (Timer ignored = Tracers.watchScope("MVRefreshMaterializedView")) {
-            refreshMaterializedView(mvContext, mvContext.getExecPlan(), insertStmt);
+        List<Set<String>> partitionBatches = splitPartitionBatches(mvToRefreshedPartitions);
+        List<ExecPlan> execPlans;
+        if (partitionBatches.size() > 1) {
+            try (Timer ignored = Tracers.watchScope("MVRefreshPartitionBatches")) {
+                execPlans = refreshPartitionBatches(partitionBatches, mvEntity);
+            }
+        } else {
+            if (!mvContext.getCtx().getSessionVariable().isEnableMVIncrementalAggRefresh()
+                    || !refreshIncrementally(mvToRefreshedPartitions, refTablePartitionNames)) {
+                InsertStmt insertStmt = null;
+                try (Timer ignored = Tracers.watchScope("MVRefreshPrepareRefreshPlan")) {
+                    insertStmt = prepareRefreshPlan(mvToRefreshedPartitions, refTablePartitionNames);
+                }
+                try (Timer ignored = Tracers.watchScope("MVRefreshMaterializedView")) {
+                    refreshMaterializedView(mvContext, mvContext.getExecPlan(), insertStmt);
+                }
+            }
+            mvEntity.increaseRefreshedPartitionCount(mvToRefreshedPartitions.size());
+            execPlans = Collections.singletonList(mvContext.getExecPlan());
         }
 
         ///// 3. insert execute successfully, update the meta of materialized view according to ExecPlan
         try (Timer ignored = Tracers.watchScope("MVRefreshUpdateMeta")) {
-            updateMeta(mvToRefreshedPartitions, mvContext.getExecPlan(), refTableRefreshPartitions);
+            updateMeta(mvToRefreshedPartitions, execPlans, refTableRefreshPartitions);
         }
 
         return RefreshJobStatus.SUCCESS;
     }
 
+    /**
+     * Refresh the mv partitions by only merging the data appended to the base table since the last refresh.
+     *
+     * @return false if the mv partitions cannot be refreshed incrementally and need to be overwritten entirely
+     */
+    private boolean refreshIncrementally(Set<String> mvToRefreshedPartitions,
+                                         Map<String, Set<String>> refTablePartitionNames) {
+        MVIncrementalAggRefreshPlanBuilder incrementalPlanBuilder =
+                new MVIncrementalAggRefreshPlanBuilder(materializedView, mvContext, snapshotBaseTables);
+        SessionVariable sessionVariable = mvContext.getCtx().getSessionVariable();
+        // the mv itself is read to merge the delta, which should not be rewritten by other mvs
+        boolean enableMVRewrite = sessionVariable.isEnableMaterializedViewRewrite();
+        sessionVariable.setEnableMaterializedViewRewrite(false);
+        // the query cache doesn't know the delta versions of the base partitions, the partial aggregation of the
+        // delta cannot be cached as the one of the whole base partitions
+        boolean enableQueryCache = sessionVariable.isEnableQueryCache();
+        sessionVariable.setEnableQueryCache(false);
+        try {
+            InsertStmt insertStmt = null;
+            try (Timer ignored = Tracers.watchScope("MVRefreshPrepareIncrementalPlan")) {
+                insertStmt = prepareRefreshPlan(mvToRefreshedPartitions, refTablePartitionNames, incrementalPlanBuilder);
+            }
+            if (insertStmt == null) {
+                return false;
+            }
+            try (Timer ignored = Tracers.watchScope("MVRefreshIncrementally")) {
+                refreshMaterializedView(mvContext, mvContext.getExecPlan(), insertStmt);
+            }
+            return true;
+        } catch (Exception e) {
+            // eg: the delta versions are compacted or deleted, fallback to overwrite the mv partitions
+            LOG.warn("Failed to refresh mv {} incrementally, fallback to overwrite partitions {}: {}",
+                    materializedView.getName(), mvToRefreshedPartitions, e.getMessage());
+            return false;
+        } finally {
+            sessionVariable.setEnableMaterializedViewRewrite(enableMVRewrite);
+            sessionVariable.setEnableQueryCache(enableQueryCache);
+        }
+    }
+
+    /**
+     * Split the partitions to refresh into batches of `partition_refresh_number` partitions if
+     * `mv_refresh_partition_parallelism` is greater than 1, otherwise refresh them in one batch.
+     */
+    private List<Set<String>> splitPartitionBatches(Set<String> mvToRefreshedPartitions) {
+        int partitionRefreshNumber = materializedView.getTableProperty().getPartitionRefreshNumber();
+        if (mvContext.getPartitionRefreshParallelism() <= 1 || !materializedView.isPartitionedTable()
+                || partitionRefreshNumber <= 0 || mvToRefreshedPartitions.size() <= partitionRefreshNumber) {
+            return Collections.singletonList(mvToRefreshedPartitions);
+        }
+        List<String> sortedPartitions = mvToRefreshedPartitions.stream().sorted().collect(Collectors.toList());
+        return Lists.partition(sortedPartitions, partitionRefreshNumber).stream()
+                .map(Sets::newHashSet)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Refresh the partition batches concurrently, at most `mv_refresh_partition_parallelism` batches at the same time.
+     * Each batch is refreshed by its own insert overwrite statement, so the data of a batch is committed atomically.
+     * The meta of the materialized view is updated once after all the batches succeed, the partitions of the
+     * succeeded batches are refreshed again by the next task run if any batch fails.
+     *
+     * @return the exec plans of all the batches
+     */
+    private List<ExecPlan> refreshPartitionBatches(List<Set<String>> partitionBatches,
+                                                   IMaterializedViewMetricsEntity mvEntity) throws Exception {
+        // the plans are prepared one by one because planning shares the states of mv context
+        ConnectContext mvCtx = mvContext.getCtx();
+        List<PartitionBatch> batches = Lists.newArrayList();
+        try {
+            for (Set<String> partitions : partitionBatches) {
+                Map<String, Set<String>> refTablePartitionNames = getRefTableRefreshPartitions(partitions).entrySet()
+                        .stream()
+                        .collect(Collectors.toMap(x -> x.getKey().getName(), Map.Entry::getValue));
+                ConnectContext batchCtx = buildPartitionBatchContext(mvCtx);
+                mvContext.setCtx(batchCtx);
+                InsertStmt insertStmt = prepareRefreshPlan(partitions, refTablePartitionNames);
+                batches.add(new PartitionBatch(partitions, batchCtx, mvContext.getExecPlan(), insertStmt));
+            }
+        } finally {
+            mvContext.setCtx(mvCtx);
+            mvCtx.setThreadLocalInfo();
+        }
+
+        int parallelism = Math.min(mvContext.getPartitionRefreshParallelism(), batches.size());
+        LOG.info("refresh {} partition batches of mv {} with parallelism {}", batches.size(),
+                materializedView.getName(), parallelism);
+        // The executors of the batches are registered to the executor of the task run context, so killing the task
+        // run or the statement of the sync refresh cancels all the running batches.
+        StmtExecutor prevExecutor = mvCtx.getExecutor();
+        StmtExecutor batchesExecutor = new StmtExecutor(mvCtx, batches.get(0).insertStmt);
+        mvCtx.setExecutor(batchesExecutor);
+        if (mvCtx.getParent() != null && mvCtx.getParent().getExecutor() != null) {
+            mvCtx.getParent().getExecutor().registerSubStmtExecutor(batchesExecutor);
+        }
+        try {
+            return runPartitionBatches(batches, parallelism, mvEntity);
+        } finally {
+            mvCtx.setExecutor(prevExecutor);
+        }
+    }
+
+    private List<ExecPlan> runPartitionBatches(List<PartitionBatch> batches, int parallelism,
+                                               IMaterializedViewMetricsEntity mvEntity) throws Exception {
+        // The pool is shared by all the mvs, so at most `parallelism` batches of this mv are submitted at the same
+        // time, and the next batch is submitted once a batch finishes.
+        CompletionService<PartitionBatch> completionService =
+                new ExecutorCompletionService<>(getPartitionBatchExecutor());
+        Iterator<PartitionBatch> pendingBatches = batches.iterator();
+        int runningBatchNum = 0;
+        for (; runningBatchNum < parallelism; runningBatchNum++) {
+            submitPartitionBatch(completionService, pendingBatches.next());
+        }
+
+        int finishedBatchNum = 0;
+        Exception firstFailure = null;
+        while (runningBatchNum > 0) {
+            Future<PartitionBatch> future = completionService.take();
+            runningBatchNum--;
+            try {
+                PartitionBatch batch = future.get();
+                finishedBatchNum++;
+                mvEntity.increaseRefreshedPartitionCount(batch.partitions.size());
+                int progress = finishedBatchNum * 100 / batches.size();
+                updateTaskRunStatus(status -> status.setProgress(Math.min(progress, 99)));
+                LOG.info("refreshed partitions {} of mv {}, finished batches: {}/{}", batch.partitions,
+                        materializedView.getName(), finishedBatchNum, batches.size());
+            } catch (ExecutionException e) {
+                if (firstFailure == null) {
+                    firstFailure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+            // skip the pending batches once any batch fails
+            if (firstFailure == null && pendingBatches.hasNext()) {
+                submitPartitionBatch(completionService, pendingBatches.next());
+                runningBatchNum++;
+            }
+        }
+        if (firstFailure != null) {
+            LOG.warn("failed to refresh mv {}, finished batches: {}/{}", materializedView.getName(),
+                    finishedBatchNum, batches.size(), firstFailure);
+            throw firstFailure;
+        }
+        return batches.stream().map(batch -> batch.execPlan).collect(Collectors.toList());
+    }
+
+    private void submitPartitionBatch(CompletionService<PartitionBatch> completionService, PartitionBatch batch) {
+        completionService.submit(() -> {
+            // the batch may be refreshed by the task run thread whose context is the one of the task run
+            ConnectContext prevCtx = ConnectContext.get();
+            batch.ctx.setThreadLocalInfo();
+            try {
+                refreshMaterializedView(mvContext, batch.ctx, batch.execPlan, batch.insertStmt);
+            } finally {
+                if (prevCtx != null) {
+                    prevCtx.setThreadLocalInfo();
+                } else {
+                    ConnectContext.remove();
+                }
+            }
+            return batch;
+        });
+    }
+
+    /**
+     * The batches are refreshed by the caller thread if all the threads of the pool are busy, so the refreshes
+     * of the mvs never wait for each other.
+     */
+    private static ExecutorService getPartitionBatchExecutor() {
+        int threadNum = Math.max(Config.mv_refresh_partition_batch_thread_num, 1);
+        if (partitionBatchExecutor == null) {
+            synchronized (PartitionBasedMvRefreshProcessor.class) {
+                if (partitionBatchExecutor == null) {
+                    partitionBatchExecutor = ThreadPoolManager.newDaemonThreadPool(0, threadNum, 60, TimeUnit.SECONDS,
+                            new SynchronousQueue<>(), new ThreadPoolExecutor.CallerRunsPolicy(),
+                            "mv-refresh-partition-batch", true);
+                }
+            }
+        }
+        // the core pool size is always 0, so only the max pool size follows the config
+        if (partitionBatchExecutor.getMaximumPoolSize() != threadNum) {
+            partitionBatchExecutor.setMaximumPoolSize(threadNum);
+        }
+        return partitionBatchExecutor;
+    }
+
+    private ConnectContext buildPartitionBatchContext(ConnectContext mvCtx) {
+        ConnectContext ctx = new ConnectContext(null);
+        ctx.setGlobalStateMgr(mvCtx.getGlobalStateMgr());
+        ctx.setCurrentCatalog(mvCtx.getCurrentCatalog());
+        ctx.setDatabase(mvCtx.getDatabase());
+        ctx.setQualifiedUser(mvCtx.getQualifiedUser());
+        ctx.setCurrentUserIdentity(mvCtx.getCurrentUserIdentity());
+        ctx.setCurrentRoleIds(mvCtx.getCurrentRoleIds());
+        ctx.setCurrentWarehouseId(mvCtx.getCurrentWarehouseId());
+        ctx.setSessionVariable((SessionVariable) mvCtx.getSessionVariable().clone());
+        ctx.setQueryMVContext(mvCtx.getQueryMVContext());
+        ctx.setParentConnectContext(mvCtx.getParent());
+        ctx.setQueryId(UUIDUtil.genUUID());
+        ctx.setIsLastStmt(true);
+        ctx.getState().reset();
+        return ctx;
+    }
+
+    private static class PartitionBatch {
+        private final Set<String> partitions;
+        private final ConnectContext ctx;
+        private final ExecPlan execPlan;
+        private final InsertStmt insertStmt;
+
+        PartitionBatch(Set<String> partitions, ConnectContext ctx, ExecPlan execPlan, InsertStmt insertStmt) {
+            this.partitions = partitions;
+            this.ctx = ctx;
+            this.execPlan = execPlan;
+            this.insertStmt = insertStmt;
+        }
+    }
+
     /**
      * Prepare the statement and plan for mv refreshing, considering the partitions of ref table
      */
     private InsertStmt prepareRefreshPlan(Set<String> mvToRefreshedPartitions, Map<String, Set<String>> refTablePartitionNames)
             throws AnalysisException, LockTimeoutException {
+        return prepareRefreshPlan(mvToRefreshedPartitions, refTablePartitionNames, null);
+    }
+
+    /**
+     * Prepare the statement and plan for mv refreshing, merge the delta of the base table into the mv partitions if
+     * incrementalPlanBuilder is set.
+     *
+     * @return the insert statement to refresh the mv, or null if the mv cannot be refreshed incrementally
+     */
+    private InsertStmt prepareRefreshPlan(Set<String> mvToRefreshedPartitions,
+                                          Map<String, Set<String>> refTablePartitionNames,
+                                          MVIncrementalAggRefreshPlanBuilder incrementalPlanBuilder)
+            throws AnalysisException, LockTimeoutException {
         // 1. Prepare context
         ConnectContext ctx = mvContext.getCtx();
         ctx.getAuditEventBuilder().reset();
@@ -507,7 +764,16 @@ public class PartitionBasedMvRefreshProcessor extends BaseTaskRunProcessor {
             // 4. Analyze and prepare a partition & Rebuild insert statement by
             // considering to-refresh partitions of ref tables/ mv
             try (Timer ignored = Tracers.watchScope("MVRefreshAnalyzer")) {
-                insertStmt = planBuilder.analyzeAndBuildInsertPlan(insertStmt, refTablePartitionNames, ctx);
+                if (incrementalPlanBuilder != null) {
+                    insertStmt = incrementalPlanBuilder.buildInsertStmt(insertStmt, mvToRefreshedPartitions,
+                            refTablePartitionNames, ctx);
+                    if (insertStmt == null) {
+                        return null;
+                    }
+                    Analyzer.analyze(insertStmt, ctx);
+                } else {
+                    insertStmt = planBuilder.analyzeAndBuildInsertPlan(insertStmt, refTablePartitionNames, ctx);
+                }
                 // Must set execution id before StatementPlanner.plan
                 ctx.setExecutionId(UUIDUtil.toTUniqueId(ctx.getQueryId()));
             }
@@ -776,10 +1042,11 @@ public class PartitionBasedMvRefreshProcessor extends BaseTaskRunProcessor {
     /**
      * After materialized view is refreshed, update materialized view's meta info to record history refreshes.
      *
+     * @param execPlans                 : the exec plans to refresh the partitions, one for each partition batch.
      * @param refTableAndPartitionNames : refreshed base table and its partition names mapping.
      */
     private void updateMeta(Set<String> mvRefreshedPartitions,
-                            ExecPlan execPlan,
+                            List<ExecPlan> execPlans,
                             Map<TableSnapshotInfo, Set<String>> refTableAndPartitionNames) {
         LOG.info("start to update meta for mv:{}", materializedView.getName());
 
@@ -826,8 +1093,12 @@ public class PartitionBasedMvRefreshProcessor extends BaseTaskRunProcessor {
         updateTaskRunStatus(status -> {
             try {
                 MVTaskRunExtraMessage extraMessage = status.getMvTaskRunExtraMessage();
-                Map<String, Set<String>> baseTableRefreshedPartitionsByExecPlan =
-                        MVTraceUtils.getBaseTableRefreshedPartitionsByExecPlan(materializedView, execPlan);
+                Map<String, Set<String>> baseTableRefreshedPartitionsByExecPlan = Maps.newHashMap();
+                for (ExecPlan execPlan : execPlans) {
+                    MVTraceUtils.getBaseTableRefreshedPartitionsByExecPlan(materializedView, execPlan)
+                            .forEach((table, partitions) -> baseTableRefreshedPartitionsByExecPlan
+                                    .computeIfAbsent(table, k -> Sets.newHashSet()).addAll(partitions));
+                }
                 extraMessage.setBasePartitionsToRefreshMap(baseTableRefreshedPartitionsByExecPlan);
             } catch (Exception e) {
                 // just log warn and no throw exceptions for an updating task runs message.
@@ -1119,9 +1390,14 @@ public class PartitionBasedMvRefreshProcessor extends BaseTaskRunProcessor {
     @VisibleForTesting
     public void refreshMaterializedView(MvTaskRunContext mvContext, ExecPlan execPlan, InsertStmt insertStmt)
             throws Exception {
+        refreshMaterializedView(mvContext, mvContext.getCtx(), execPlan, insertStmt);
+    }
+
+    @VisibleForTesting
+    protected void refreshMaterializedView(MvTaskRunContext mvContext, ConnectContext ctx, ExecPlan execPlan,
+                                           InsertStmt insertStmt) throws Exception {
         Preconditions.checkNotNull(execPlan);
         Preconditions.checkNotNull(insertStmt);
-        ConnectContext ctx = mvContext.getCtx();
 
         if (mvContext.getTaskRun().isKilled()) {
             LOG.warn("[QueryId:{}] refresh materialized view {} is killed", ctx.getQueryId(),
@@ -1131,8 +1407,11 @@ public class PartitionBasedMvRefreshProcessor extends BaseTaskRunProcessor {
 
         StmtExecutor executor = new StmtExecutor(ctx, insertStmt);
         ctx.setExecutor(executor);
-        if (ctx.getParent() != null && ctx.getParent().getExecutor() != null) {
-            StmtExecutor parentStmtExecutor = ctx.getParent().getExecutor();
+        // the executor of a partition batch is registered to the executor of the task run context,
+        // see refreshPartitionBatches
+        ConnectContext parentCtx = ctx == mvContext.getCtx() ? ctx.getParent() : mvContext.getCtx();
+        if (parentCtx != null && parentCtx.getExecutor() != null) {
+            StmtExecutor parentStmtExecutor = parentCtx.getExecutor();
             parentStmtExecutor.registerSubStmtExecutor(executor);
         }
         ctx.setStmtId(STMT_ID_GENERATOR.incrementAndGet());
@@ -1145,7 +1424,7 @@ public class PartitionBasedMvRefreshProcessor extends BaseTaskRunProcessor {
         } finally {
             LOG.info("[QueryId:{}] finished to refresh materialized view {}", ctx.getQueryId(),
                     materializedView.getName());
-            auditAfterExec(mvContext, executor.getParsedStmt(), executor.getQueryStatisticsForAuditLog());
+            auditAfterExec(mvContext, ctx, executor.getParsedStmt(), executor.getQueryStatisticsForAuditLog());
         }
     }
 
@@ -0,0 +1,389 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.scheduler.mv;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.FunctionCallExpr;
+import com.starrocks.analysis.GroupByClause;
+import com.starrocks.analysis.SlotRef;
+import com.starrocks.analysis.Subquery;
+import com.starrocks.analysis.TableName;
+import com.starrocks.catalog.Column;
+import com.starrocks.catalog.FunctionSet;
+import com.starrocks.catalog.KeysType;
+import com.starrocks.catalog.MaterializedView;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.Table;
+import com.starrocks.common.Pair;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.scheduler.MvTaskRunContext;
+import com.starrocks.scheduler.TableSnapshotInfo;
+import com.starrocks.sql.analyzer.QueryAnalyzer;
+import com.starrocks.sql.ast.InsertStmt;
+import com.starrocks.sql.ast.PartitionNames;
+import com.starrocks.sql.ast.QueryRelation;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.SelectList;
+import com.starrocks.sql.ast.SelectListItem;
+import com.starrocks.sql.ast.SelectRelation;
+import com.starrocks.sql.ast.SetQualifier;
+import com.starrocks.sql.ast.SubqueryRelation;
+import com.starrocks.sql.ast.TableRelation;
+import com.starrocks.sql.ast.UnionRelation;
+import com.starrocks.sql.parser.SqlParser;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Build the insert statement to refresh an aggregate materialized view incrementally, which only reads the data
+ * appended to the base table since the last refresh and merges its aggregation into the materialized view.
+ * <p>
+ * eg:
+ *  mv: create mv mv1 as select k1, sum(v1) as s, count(v2) as c, max(v3) as m from t1 group by k1;
+ *  insert overwrite mv1 partition(p1)
+ *  select k1, sum(s), sum(c), max(m) from (
+ *      select k1, s, c, m from mv1 partition(p1)
+ *      union all
+ *      select k1, sum(v1), count(v2), max(v3) from t1 partition(p1) group by k1 -- only the delta versions are read
+ *  ) t group by k1;
+ * <p>
+ * It's only used if the base table is a duplicate key table and its partitions are only appended since the last
+ * refresh, the versions of the base partitions refreshed last time are kept in the version map of the mv. The
+ * versions of the mv partitions are kept in the version map too, the mv partitions changed since then are refreshed
+ * entirely since their data may not match the version map.
+ */
+public class MVIncrementalAggRefreshPlanBuilder {
+    private static final Logger LOG = LogManager.getLogger(MVIncrementalAggRefreshPlanBuilder.class);
+
+    private static final String DELTA_RELATION_ALIAS = "__mv_delta";
+
+    // aggregate function of mv -> the function to merge the aggregated results
+    private static final Map<String, String> MERGE_AGG_FUNCTIONS = ImmutableMap.of(
+            FunctionSet.SUM, FunctionSet.SUM,
+            FunctionSet.COUNT, FunctionSet.SUM,
+            FunctionSet.MIN, FunctionSet.MIN,
+            FunctionSet.MAX, FunctionSet.MAX);
+
+    private final MaterializedView mv;
+    private final MvTaskRunContext mvContext;
+    private final Map<Long, TableSnapshotInfo> snapshotBaseTables;
+
+    public MVIncrementalAggRefreshPlanBuilder(MaterializedView mv,
+                                              MvTaskRunContext mvContext,
+                                              Map<Long, TableSnapshotInfo> snapshotBaseTables) {
+        this.mv = mv;
+        this.mvContext = mvContext;
+        this.snapshotBaseTables = snapshotBaseTables;
+    }
+
+    /**
+     * Rewrite the insert statement generated from the mv definition to merge the delta of the base table into the
+     * mv partitions.
+     *
+     * @param insertStmt             the insert overwrite statement to refresh the mv partitions, not analyzed yet
+     * @param mvPartitionNames       the mv partitions to refresh
+     * @param refTablePartitionNames ref base table name -> the base partitions to refresh
+     * @return the rewritten insert statement, or null if the mv partitions cannot be refreshed incrementally
+     */
+    public InsertStmt buildInsertStmt(InsertStmt insertStmt,
+                                      Set<String> mvPartitionNames,
+                                      Map<String, Set<String>> refTablePartitionNames,
+                                      ConnectContext ctx) {
+        if (snapshotBaseTables.size() != 1) {
+            LOG.info("Skip to refresh mv {} incrementally because it has {} base tables", mv.getName(),
+                    snapshotBaseTables.size());
+            return null;
+        }
+        Table baseTable = snapshotBaseTables.values().iterator().next().getBaseTable();
+        if (!baseTable.isOlapTable() || ((OlapTable) baseTable).getKeysType() != KeysType.DUP_KEYS) {
+            LOG.info("Skip to refresh mv {} incrementally because base table {} is not a duplicate key table",
+                    mv.getName(), baseTable.getName());
+            return null;
+        }
+        OlapTable olapTable = (OlapTable) baseTable;
+
+        // 1. check the mv is an aggregation of the base table
+        List<String> mergeFunctions = getMergeFunctions(olapTable, ctx);
+        if (mergeFunctions == null) {
+            return null;
+        }
+        QueryRelation deltaRelation = insertStmt.getQueryStatement().getQueryRelation();
+        if (!(deltaRelation instanceof SelectRelation)
+                || !(((SelectRelation) deltaRelation).getRelation() instanceof TableRelation)) {
+            return null;
+        }
+        TableRelation baseRelation = (TableRelation) ((SelectRelation) deltaRelation).getRelation();
+        if (baseRelation.getPartitionNames() != null) {
+            LOG.info("Skip to refresh mv {} incrementally because its definition specifies partitions",
+                    mv.getName());
+            return null;
+        }
+        List<String> columnNames = insertStmt.getTargetColumnNames() != null ? insertStmt.getTargetColumnNames() :
+                mv.getBaseSchema().stream().map(Column::getName).collect(Collectors.toList());
+        if (columnNames.size() != mergeFunctions.size()) {
+            return null;
+        }
+
+        // 2. read the versions of the base partitions appended since the last refresh
+        Map<Long, Pair<Long, Long>> scanVersionRanges = getScanVersionRanges(olapTable, mvPartitionNames,
+                refTablePartitionNames.get(olapTable.getName()));
+        if (scanVersionRanges == null) {
+            return null;
+        }
+        if (scanVersionRanges.isEmpty()) {
+            LOG.info("Skip to refresh mv {} incrementally because there is no new data of base table {}",
+                    mv.getName(), olapTable.getName());
+            return null;
+        }
+        List<String> scanPartitionNames = scanVersionRanges.keySet().stream()
+                .map(partitionId -> olapTable.getPartition(partitionId).getName())
+                .collect(Collectors.toList());
+        baseRelation.setPartitionNames(new PartitionNames(false, scanPartitionNames));
+        baseRelation.setScanVersionRanges(scanVersionRanges);
+
+        // 3. merge the delta into the existing data of the mv partitions
+        TableName mvTableName = insertStmt.getTableName();
+        TableRelation mvRelation = new TableRelation(
+                new TableName(mvTableName.getCatalog(), mvTableName.getDb(), mvTableName.getTbl()));
+        mvRelation.setPartitionNames(new PartitionNames(false, new ArrayList<>(mvPartitionNames)));
+        List<SelectListItem> mvItems = columnNames.stream()
+                .map(name -> new SelectListItem(new SlotRef(null, name), null))
+                .collect(Collectors.toList());
+        SelectRelation mvSelect = new SelectRelation(new SelectList(mvItems, false), mvRelation, null, null, null);
+        UnionRelation unionRelation = new UnionRelation(Lists.newArrayList(mvSelect, deltaRelation), SetQualifier.ALL);
+        SubqueryRelation subqueryRelation = new SubqueryRelation(new QueryStatement(unionRelation));
+        TableName deltaTableName = new TableName(null, DELTA_RELATION_ALIAS);
+        subqueryRelation.setAlias(deltaTableName);
+
+        List<SelectListItem> mergeItems = Lists.newArrayList();
+        ArrayList<Expr> groupByExprs = Lists.newArrayList();
+        for (int i = 0; i < columnNames.size(); i++) {
+            SlotRef column = new SlotRef(deltaTableName, columnNames.get(i));
+            String mergeFunction = mergeFunctions.get(i);
+            if (mergeFunction == null) {
+                mergeItems.add(new SelectListItem(column, columnNames.get(i)));
+                groupByExprs.add(column.clone());
+            } else {
+                mergeItems.add(new SelectListItem(new FunctionCallExpr(mergeFunction, Lists.newArrayList(column)),
+                        columnNames.get(i)));
+            }
+        }
+        GroupByClause groupByClause = groupByExprs.isEmpty() ? null :
+                new GroupByClause(groupByExprs, GroupByClause.GroupingType.GROUP_BY);
+        SelectRelation mergeSelect = new SelectRelation(new SelectList(mergeItems, false), subqueryRelation,
+                null, groupByClause, null);
+        insertStmt.setQueryStatement(new QueryStatement(mergeSelect));
+        LOG.info("Refresh mv {} incrementally, mv partitions: {}, base partition versions: {}", mv.getName(),
+                mvPartitionNames, scanVersionRanges);
+        return insertStmt;
+    }
+
+    /**
+     * Get the function to merge each output of the mv definition, null for the group by keys.
+     *
+     * @return null if the mv definition is not a supported aggregation of the base table
+     */
+    private List<String> getMergeFunctions(OlapTable baseTable, ConnectContext ctx) {
+        // analyze another copy of the definition since the analyzed statement cannot be rewritten
+        InsertStmt insertStmt = (InsertStmt) SqlParser.parse(mvContext.getDefinition(), ctx.getSessionVariable()).get(0);
+        QueryStatement queryStatement = insertStmt.getQueryStatement();
+        new QueryAnalyzer(ctx).analyze(queryStatement);
+
+        QueryRelation queryRelation = queryStatement.getQueryRelation();
+        if (!(queryRelation instanceof SelectRelation) || queryRelation.hasWithClause()
+                || queryRelation.hasOrderByClause() || queryRelation.hasLimit()) {
+            LOG.info("Skip to refresh mv {} incrementally because its definition is not a simple select",
+                    mv.getName());
+            return null;
+        }
+        SelectRelation selectRelation = (SelectRelation) queryRelation;
+        if (!selectRelation.hasAggregation() || selectRelation.isDistinct() || selectRelation.hasAnalyticInfo()
+                || selectRelation.getHaving() != null || CollectionUtils.isNotEmpty(selectRelation.getGroupingSetsList())
+                || !(selectRelation.getRelation() instanceof TableRelation)
+                || ((TableRelation) selectRelation.getRelation()).getTable().getId() != baseTable.getId()
+                || (selectRelation.getPredicate() != null && selectRelation.getPredicate().contains(Subquery.class))) {
+            LOG.info("Skip to refresh mv {} incrementally because its definition is not an aggregation of {}",
+                    mv.getName(), baseTable.getName());
+            return null;
+        }
+
+        List<String> mergeFunctions = Lists.newArrayList();
+        List<Expr> keyExprs = Lists.newArrayList();
+        for (Expr expr : selectRelation.getOutputExpression()) {
+            if (!expr.containsAggregate()) {
+                mergeFunctions.add(null);
+                keyExprs.add(expr);
+                continue;
+            }
+            String mergeFunction = null;
+            if (expr instanceof FunctionCallExpr && !((FunctionCallExpr) expr).isDistinct()) {
+                mergeFunction = MERGE_AGG_FUNCTIONS.get(((FunctionCallExpr) expr).getFnName().getFunction());
+            }
+            if (mergeFunction == null) {
+                LOG.info("Skip to refresh mv {} incrementally because aggregation {} cannot be merged",
+                        mv.getName(), expr.toSql());
+                return null;
+            }
+            mergeFunctions.add(mergeFunction);
+        }
+        // the rows of the mv can only be merged by all the group by keys
+        if (!keyExprs.containsAll(selectRelation.getGroupBy())) {
+            LOG.info("Skip to refresh mv {} incrementally because not all group by keys are outputs", mv.getName());
+            return null;
+        }
+        return mergeFunctions;
+    }
+
+    /**
+     * Get the version ranges of the base partitions appended since the last refresh.
+     *
+     * @param baseTable              the snapshot of the base table
+     * @param mvPartitionNames       the mv partitions to refresh
+     * @param basePartitionsToScan   the base partitions to refresh, null if the mv is not partitioned
+     * @return base partition id -> the version range to read, or null if the base partitions are not only appended
+     */
+    private Map<Long, Pair<Long, Long>> getScanVersionRanges(OlapTable baseTable,
+                                                             Set<String> mvPartitionNames,
+                                                             Set<String> basePartitionsToScan) {
+        MaterializedView.AsyncRefreshContext refreshContext = mv.getRefreshScheme().getAsyncRefreshContext();
+        Map<String, MaterializedView.BasePartitionInfo> versionMap =
+                refreshContext.getBaseTableVisibleVersionMap().get(baseTable.getId());
+        if (versionMap == null || !isVersionMapUpToDate(refreshContext, mvPartitionNames)) {
+            return null;
+        }
+
+        // the base partitions whose data have been refreshed into the mv partitions
+        Set<String> refreshedBasePartitions;
+        if (mv.isPartitionedTable()) {
+            if (basePartitionsToScan == null || !isOnlyReferredBy(baseTable, basePartitionsToScan, mvPartitionNames)) {
+                return null;
+            }
+            refreshedBasePartitions = Sets.newHashSet();
+            for (String mvPartitionName : mvPartitionNames) {
+                Set<String> basePartitions =
+                        refreshContext.getMvPartitionNameRefBaseTablePartitionMap().get(mvPartitionName);
+                if (basePartitions != null) {
+                    refreshedBasePartitions.addAll(basePartitions);
+                } else if (mv.getPartition(mvPartitionName) != null) {
+                    // unknown which base partitions are refreshed into the existed mv partition
+                    return null;
+                }
+            }
+        } else {
+            basePartitionsToScan = baseTable.getVisiblePartitionNames();
+            refreshedBasePartitions = versionMap.keySet();
+        }
+        // the data of the dropped base partitions cannot be removed from the mv incrementally
+        if (!basePartitionsToScan.containsAll(refreshedBasePartitions)) {
+            LOG.info("Skip to refresh mv {} incrementally because some base partitions are dropped, " +
+                    "refreshed: {}, current: {}", mv.getName(), refreshedBasePartitions, basePartitionsToScan);
+            return null;
+        }
+
+        Map<Long, Pair<Long, Long>> scanVersionRanges = Maps.newHashMap();
+        for (String partitionName : basePartitionsToScan) {
+            Partition partition = baseTable.getPartition(partitionName);
+            if (partition == null || partition.getSubPartitions().size() != 1) {
+                return null;
+            }
+            long visibleVersion = partition.getVisibleVersion();
+            MaterializedView.BasePartitionInfo basePartitionInfo = versionMap.get(partitionName);
+            if (!refreshedBasePartitions.contains(partitionName)) {
+                if (basePartitionInfo != null) {
+                    return null;
+                }
+                // the new partition is read entirely
+                scanVersionRanges.put(partition.getId(), Pair.create(0L, visibleVersion));
+                continue;
+            }
+            // the partition is replaced or its version is unknown
+            if (basePartitionInfo == null || basePartitionInfo.getId() != partition.getId()
+                    || basePartitionInfo.getVersion() > visibleVersion) {
+                LOG.info("Skip to refresh mv {} incrementally because base partition {} is changed, " +
+                        "refreshed: {}, current version: {}", mv.getName(), partitionName, basePartitionInfo,
+                        visibleVersion);
+                return null;
+            }
+            if (basePartitionInfo.getVersion() < visibleVersion) {
+                scanVersionRanges.put(partition.getId(), Pair.create(basePartitionInfo.getVersion() + 1, visibleVersion));
+            }
+        }
+        return scanVersionRanges;
+    }
+
+    /**
+     * Whether the data of the existed mv partitions is exactly refreshed from the base partitions in the version map,
+     * the version map is stale if the mv partitions are overwritten after the version map is updated, eg: a partition
+     * batch is committed but the refresh fails before the version map is updated.
+     */
+    private boolean isVersionMapUpToDate(MaterializedView.AsyncRefreshContext refreshContext,
+                                         Set<String> mvPartitionNames) {
+        for (String mvPartitionName : mvPartitionNames) {
+            Partition partition = mv.getPartition(mvPartitionName);
+            if (partition == null) {
+                continue;
+            }
+            MaterializedView.BasePartitionInfo partitionInfo =
+                    refreshContext.getMvPartitionVisibleVersionMap().get(mvPartitionName);
+            if (partitionInfo == null || partitionInfo.getId() != partition.getId()
+                    || partitionInfo.getVersion() != partition.getVisibleVersion()) {
+                LOG.info("Skip to refresh mv {} incrementally because mv partition {} is changed since the version " +
+                        "map is updated, recorded: {}, current: {}", mv.getName(), mvPartitionName, partitionInfo,
+                        MaterializedView.BasePartitionInfo.fromOlapTable(partition));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the base partitions are only referred by the given mv partitions, otherwise the delta of the base
+     * partitions may belong to the mv partitions which are not refreshed this time.
+     */
+    private boolean isOnlyReferredBy(OlapTable baseTable, Set<String> basePartitionNames,
+                                     Set<String> mvPartitionNames) {
+        Map<Table, Map<String, Set<String>>> baseToMvPartitions = mvContext.getRefBaseTableMVIntersectedPartitions();
+        if (baseToMvPartitions == null) {
+            return false;
+        }
+        Map<String, Set<String>> partitionMap = baseToMvPartitions.entrySet().stream()
+                .filter(e -> e.getKey().getId() == baseTable.getId())
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+        if (partitionMap == null) {
+            return false;
+        }
+        for (String basePartitionName : basePartitionNames) {
+            Set<String> mvPartitions = partitionMap.get(basePartitionName);
+            if (mvPartitions == null || !mvPartitionNames.containsAll(mvPartitions)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -290,7 +290,7 @@ public final class MVPCTRefreshListPartitioner extends MVPCTRefreshPartitioner {
             }
             mappedPartitionsToRefresh.put(partitionName, listCell);
         }
-        int refreshNumber = mv.getTableProperty().getPartitionRefreshNumber();
+        int refreshNumber = getPartitionRefreshNumber();
         Pair<String, String> result = filterPartitionsByNumber(mappedPartitionsToRefresh, refreshNumber);
         if (result == null) {
             return;
@@ -128,6 +128,18 @@ public abstract class MVPCTRefreshPartitioner {
                                                         Set<String> mvPotentialPartitionNames,
                                                         boolean tentative);
 
+    /**
+     * The max number of partitions to refresh in one task run, all the partition batches refreshed concurrently
+     * are refreshed in the same task run.
+     */
+    protected int getPartitionRefreshNumber() {
+        int partitionRefreshNumber = mv.getTableProperty().getPartitionRefreshNumber();
+        if (partitionRefreshNumber <= 0) {
+            return partitionRefreshNumber;
+        }
+        return partitionRefreshNumber * mvContext.getPartitionRefreshParallelism();
+    }
+
     /**
      * Check whether the base table is supported partition refresh or not.
      */
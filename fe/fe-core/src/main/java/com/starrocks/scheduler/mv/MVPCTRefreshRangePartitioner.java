@@ -308,7 +308,7 @@ public final class MVPCTRefreshRangePartitioner extends MVPCTRefreshPartitioner
     public void filterPartitionByRefreshNumber(Set<String> mvPartitionsToRefresh,
                                                Set<String> mvPotentialPartitionNames,
                                                boolean tentative) {
-        int partitionRefreshNumber = mv.getTableProperty().getPartitionRefreshNumber();
+        int partitionRefreshNumber = getPartitionRefreshNumber();
         Map<String, Range<PartitionKey>> mvRangePartitionMap = mv.getRangePartitionMap();
         if (partitionRefreshNumber <= 0 || partitionRefreshNumber >= mvRangePartitionMap.size()) {
             return;
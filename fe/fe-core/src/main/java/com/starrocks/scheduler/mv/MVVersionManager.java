@@ -18,6 +18,7 @@ import com.google.common.collect.Sets;
 import com.starrocks.catalog.BaseTableInfo;
 import com.starrocks.catalog.MaterializedView;
 import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.Table;
 import com.starrocks.connector.PartitionUtil;
 import com.starrocks.persist.ChangeMaterializedViewRefreshSchemeLog;
@@ -65,6 +66,8 @@ public class MVVersionManager {
         MaterializedView.AsyncRefreshContext refreshContext = mvRefreshScheme.getAsyncRefreshContext();
         // update materialized view partition to ref base table partition names meta
         updateAssociatedPartitionMeta(refreshContext, mvRefreshedPartitions, refTableAndPartitionNames);
+        // update the versions of the refreshed materialized view partitions
+        updateMVPartitionVersionMeta(refreshContext, mvRefreshedPartitions);
         // Update meta information for OLAP tables and external tables
         Map<Boolean, List<TableSnapshotInfo>> snapshotInfoSplits = snapshotBaseTables.values()
                 .stream()
@@ -237,6 +240,24 @@ public class MVVersionManager {
         }
     }
 
+    /**
+     * Record the partition info of the refreshed materialized view partitions, so the data of the mv partitions can be
+     * checked to be exactly refreshed from the base partitions in the version map later.
+     */
+    private void updateMVPartitionVersionMeta(MaterializedView.AsyncRefreshContext refreshContext,
+                                              Set<String> mvRefreshedPartitions) {
+        Map<String, MaterializedView.BasePartitionInfo> mvPartitionVersionMap =
+                refreshContext.getMvPartitionVisibleVersionMap();
+        for (String mvRefreshedPartition : mvRefreshedPartitions) {
+            Partition partition = mv.getPartition(mvRefreshedPartition);
+            if (partition != null) {
+                mvPartitionVersionMap.put(mvRefreshedPartition,
+                        MaterializedView.BasePartitionInfo.fromOlapTable(partition));
+            }
+        }
+        mvPartitionVersionMap.keySet().removeIf(partitionName -> mv.getPartition(partitionName) == null);
+    }
+
     /**
      * Sync meta changes to followers by edit log after version meta changed.
      * @param mv  mv that need to update
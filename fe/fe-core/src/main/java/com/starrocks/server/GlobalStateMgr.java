@@ -188,6 +188,7 @@ import com.starrocks.qe.SessionVariable;
 import com.starrocks.qe.ShowExecutor;
 import com.starrocks.qe.VariableMgr;
 import com.starrocks.qe.scheduler.slot.GlobalSlotProvider;
+import com.starrocks.qe.scheduler.slot.LeasedSlotProvider;
 import com.starrocks.qe.scheduler.slot.LocalSlotProvider;
 import com.starrocks.qe.scheduler.slot.ResourceUsageMonitor;
 import com.starrocks.qe.scheduler.slot.SlotManager;
@@ -212,6 +213,7 @@ import com.starrocks.sql.parser.AstBuilder;
 import com.starrocks.sql.parser.SqlParser;
 import com.starrocks.statistic.AnalyzeMgr;
 import com.starrocks.statistic.StatisticAutoCollector;
+import com.starrocks.statistic.StatisticsCacheSyncer;
 import com.starrocks.statistic.StatisticsMetaManager;
 import com.starrocks.system.Backend;
 import com.starrocks.system.ComputeNode;
@@ -411,6 +413,8 @@ public class GlobalStateMgr {
 
     private final StatisticAutoCollector statisticAutoCollector;
 
+    private final StatisticsCacheSyncer statisticsCacheSyncer;
+
     private final SafeModeChecker safeModeChecker;
 
     private final AnalyzeMgr analyzeMgr;
@@ -476,6 +480,7 @@ public class GlobalStateMgr {
     private final ResourceUsageMonitor resourceUsageMonitor = new ResourceUsageMonitor();
     private final SlotManager slotManager = new SlotManager(resourceUsageMonitor);
     private final GlobalSlotProvider globalSlotProvider = new GlobalSlotProvider();
+    private final LeasedSlotProvider leasedSlotProvider = new LeasedSlotProvider(globalSlotProvider);
     private final SlotProvider localSlotProvider = new LocalSlotProvider();
     private final GlobalLoadJobListenerBus operationListenerBus = new GlobalLoadJobListenerBus();
 
@@ -634,6 +639,7 @@ public class GlobalStateMgr {
         this.updateDbUsedDataQuotaDaemon = new UpdateDbUsedDataQuotaDaemon();
         this.statisticsMetaManager = new StatisticsMetaManager();
         this.statisticAutoCollector = new StatisticAutoCollector();
+        this.statisticsCacheSyncer = new StatisticsCacheSyncer();
         this.safeModeChecker = new SafeModeChecker();
         this.statisticStorage = new CachedStatisticStorage();
 
@@ -895,6 +901,10 @@ public class GlobalStateMgr {
         return statisticStorage;
     }
 
+    public StatisticsCacheSyncer getStatisticsCacheSyncer() {
+        return statisticsCacheSyncer;
+    }
+
     public TabletStatMgr getTabletStatMgr() {
         return tabletStatMgr;
     }
@@ -1426,6 +1436,7 @@ public class GlobalStateMgr {
         configRefreshDaemon.start();
 
         slotManager.start();
+        leasedSlotProvider.start();
 
         lockChecker.start();
 
@@ -1433,6 +1444,8 @@ public class GlobalStateMgr {
 
         procProfileCollector.start();
 
+        statisticsCacheSyncer.start();
+
         // The memory tracker should be placed at the end
         memoryUsageTracker.start();
     }
@@ -2576,6 +2589,10 @@ public class GlobalStateMgr {
         return globalSlotProvider;
     }
 
+    public LeasedSlotProvider getLeasedSlotProvider() {
+        return leasedSlotProvider;
+    }
+
     public SlotProvider getLocalSlotProvider() {
         return localSlotProvider;
     }
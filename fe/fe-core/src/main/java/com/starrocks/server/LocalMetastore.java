@@ -3662,6 +3662,7 @@ public class LocalMetastore implements ConnectorMetadata, MVRepairHandler, Memor
 
         // update table default replication num
         table.setReplicationNum(replicationNum);
+        GlobalStateMgr.getCurrentState().getTabletChecker().markPartitionTabletsDirty(partition);
 
         // log
         ModifyPartitionInfo info = new ModifyPartitionInfo(db.getId(), table.getId(), partition.getId(),
@@ -3714,6 +3715,7 @@ public class LocalMetastore implements ConnectorMetadata, MVRepairHandler, Memor
         if (isUnpartitionedTable) {
             Preconditions.checkNotNull(partition);
             partitionInfo.setReplicationNum(partition.getId(), tableProperty.getReplicationNum());
+            GlobalStateMgr.getCurrentState().getTabletChecker().markPartitionTabletsDirty(partition);
         }
 
         // log
@@ -4601,6 +4603,7 @@ public class LocalMetastore implements ConnectorMetadata, MVRepairHandler, Memor
                         // Put this tablet into urgent table so that it can be repaired ASAP.
                         stateMgr.getTabletChecker().setTabletForUrgentRepair(dbId, meta.getTableId(),
                                 meta.getPartitionId());
+                        stateMgr.getTabletChecker().markTabletsDirty(Lists.newArrayList(tabletId));
                         SetReplicaStatusOperationLog log =
                                 new SetReplicaStatusOperationLog(backendId, tabletId, status);
                         GlobalStateMgr.getCurrentState().getEditLog().logSetReplicaStatus(log);
@@ -4654,6 +4657,7 @@ public class LocalMetastore implements ConnectorMetadata, MVRepairHandler, Memor
 
             PartitionVersion partitionVersion = new PartitionVersion(database.getId(), table.getId(),
                     physicalPartition.getId(), stmt.getVersion());
+            List<Long> badTabletIds = Lists.newArrayList();
             for (MaterializedIndex index : physicalPartition.getMaterializedIndices(IndexExtState.VISIBLE)) {
                 for (Tablet tablet : index.getTablets()) {
                     if (!(tablet instanceof LocalTablet)) {
@@ -4664,6 +4668,7 @@ public class LocalMetastore implements ConnectorMetadata, MVRepairHandler, Memor
                     for (Replica replica : localTablet.getAllReplicas()) {
                         if (replica.getVersion() > stmt.getVersion() && localTablet.getAllReplicas().size() > 1) {
                             replica.setBad(true);
+                            badTabletIds.add(tablet.getId());
                             LOG.warn("set tablet: {} on backend: {} to bad, " +
                                             "because its version: {} is higher than partition visible version: {}",
                                     tablet.getId(), replica.getBackendId(), replica.getVersion(), stmt.getVersion());
@@ -4671,6 +4676,7 @@ public class LocalMetastore implements ConnectorMetadata, MVRepairHandler, Memor
                     }
                 }
             }
+            stateMgr.getTabletChecker().markTabletsDirty(badTabletIds);
             GlobalStateMgr.getCurrentState().getEditLog().logRecoverPartitionVersion(
                     new PartitionVersionRecoveryInfo(Lists.newArrayList(partitionVersion), visibleVersionTime));
             LOG.info("Successfully set partition: {} version to {}, table: {}, db: {}",
@@ -138,6 +138,7 @@ import com.starrocks.qe.ShowMaterializedViewStatus;
 import com.starrocks.qe.VariableMgr;
 import com.starrocks.qe.scheduler.Coordinator;
 import com.starrocks.qe.scheduler.slot.LogicalSlot;
+import com.starrocks.qe.scheduler.slot.SlotLeaseManager;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.server.MetadataMgr;
 import com.starrocks.server.TemporaryTableMgr;
@@ -276,6 +277,8 @@ import com.starrocks.thrift.TRefreshTableRequest;
 import com.starrocks.thrift.TRefreshTableResponse;
 import com.starrocks.thrift.TReleaseSlotRequest;
 import com.starrocks.thrift.TReleaseSlotResponse;
+import com.starrocks.thrift.TRenewSlotLeaseRequest;
+import com.starrocks.thrift.TRenewSlotLeaseResponse;
 import com.starrocks.thrift.TReportAuditStatisticsParams;
 import com.starrocks.thrift.TReportAuditStatisticsResult;
 import com.starrocks.thrift.TReportExecStatusParams;
@@ -299,6 +302,8 @@ import com.starrocks.thrift.TStatusCode;
 import com.starrocks.thrift.TStreamLoadInfo;
 import com.starrocks.thrift.TStreamLoadPutRequest;
 import com.starrocks.thrift.TStreamLoadPutResult;
+import com.starrocks.thrift.TSyncStatisticsCacheRequest;
+import com.starrocks.thrift.TSyncStatisticsCacheResponse;
 import com.starrocks.thrift.TTablePrivDesc;
 import com.starrocks.thrift.TTableReplicationRequest;
 import com.starrocks.thrift.TTableReplicationResponse;
@@ -2782,6 +2787,24 @@ public class FrontendServiceImpl implements FrontendService.Iface {
         return res;
     }
 
+    @Override
+    public TRenewSlotLeaseResponse renewSlotLease(TRenewSlotLeaseRequest request) throws TException {
+        TRenewSlotLeaseResponse res = new TRenewSlotLeaseResponse();
+        if (!request.isSetFe_name() || !request.isSetFe_start_time()) {
+            TStatus status = new TStatus(TStatusCode.INVALID_ARGUMENT);
+            status.setError_msgs(Lists.newArrayList("fe_name and fe_start_time are required"));
+            res.setStatus(status);
+            return res;
+        }
+
+        int numLeaseSlots = GlobalStateMgr.getCurrentState().getSlotManager().renewSlotLease(request.getFe_name(),
+                request.getFe_start_time(), request.getNum_allocated_slots(), request.getNum_pending_slots());
+        res.setStatus(new TStatus(OK));
+        res.setNum_lease_slots(numLeaseSlots);
+        res.setLease_duration_ms(SlotLeaseManager.getLeaseDurationMs());
+        return res;
+    }
+
     @Override
     public TGetDictQueryParamResponse getDictQueryParam(TGetDictQueryParamRequest request) throws TException {
         Database db = GlobalStateMgr.getCurrentState().getLocalMetastore().getDb(request.getDb_name());
@@ -2883,4 +2906,17 @@ public class FrontendServiceImpl implements FrontendService.Iface {
     public TReportFragmentFinishResponse reportFragmentFinish(TReportFragmentFinishParams request) throws TException {
         return QeProcessorImpl.INSTANCE.reportFragmentFinish(request);
     }
+
+    @Override
+    public TSyncStatisticsCacheResponse syncStatisticsCache(TSyncStatisticsCacheRequest request) throws TException {
+        TSyncStatisticsCacheResponse response = new TSyncStatisticsCacheResponse();
+        if (!request.isSetTable_id() || !request.isSetUpdate_time() || !request.isSetSnapshot()) {
+            TStatus status = new TStatus(TStatusCode.INVALID_ARGUMENT);
+            status.addToError_msgs("table_id, update_time and snapshot must be set");
+            response.setStatus(status);
+            return response;
+        }
+        response.setStatus(GlobalStateMgr.getCurrentState().getStatisticsCacheSyncer().applyPushedStatistics(request));
+        return response;
+    }
 }
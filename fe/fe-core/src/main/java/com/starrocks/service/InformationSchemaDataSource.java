@@ -60,6 +60,7 @@ import com.starrocks.thrift.TGetTablesInfoResponse;
 import com.starrocks.thrift.TGetTemporaryTablesInfoRequest;
 import com.starrocks.thrift.TGetTemporaryTablesInfoResponse;
 import com.starrocks.thrift.TPartitionMetaInfo;
+import com.starrocks.thrift.TSchemaTableScanCursor;
 import com.starrocks.thrift.TTableConfigInfo;
 import com.starrocks.thrift.TTableInfo;
 import org.apache.logging.log4j.LogManager;
@@ -69,11 +70,14 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class InformationSchemaDataSource {
 
@@ -141,6 +145,71 @@ public class InformationSchemaDataSource {
         }
     }
 
+    /**
+     * Splits the scan of the tables into batches if the batch size is set. The tables are scanned in the order of
+     * db name and table name from the start cursor, and a batch always contains all the rows of a table,
+     * so the next batch starts from the first table which is not scanned.
+     */
+    static class ScanBatch {
+        private final int batchSize;
+        private final TSchemaTableScanCursor startCursor;
+        private int rowCount = 0;
+        private TSchemaTableScanCursor nextCursor = null;
+
+        ScanBatch(int batchSize, TSchemaTableScanCursor startCursor) {
+            this.batchSize = batchSize;
+            this.startCursor = startCursor;
+        }
+
+        private boolean isEnabled() {
+            return batchSize > 0;
+        }
+
+        List<String> getDbNames(List<String> dbNames) {
+            if (!isEnabled()) {
+                return dbNames;
+            }
+            return dbNames.stream()
+                    .filter(db -> startCursor == null || db.compareTo(startCursor.getDb_name()) >= 0)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        <T> List<T> getTables(String dbName, List<T> tables, Function<T, String> nameGetter) {
+            if (!isEnabled()) {
+                return tables;
+            }
+            boolean isStartDb = startCursor != null && dbName.equals(startCursor.getDb_name());
+            return tables.stream()
+                    .filter(t -> !isStartDb || nameGetter.apply(t).compareTo(startCursor.getTable_name()) >= 0)
+                    .sorted(Comparator.comparing(nameGetter))
+                    .collect(Collectors.toList());
+        }
+
+        // If the batch is full, the table is the start of the next batch
+        boolean isFull(String dbName, String tableName) {
+            if (!isEnabled() || rowCount < batchSize) {
+                return false;
+            }
+            nextCursor = new TSchemaTableScanCursor();
+            nextCursor.setDb_name(dbName);
+            nextCursor.setTable_name(tableName);
+            return true;
+        }
+
+        void addRows(int rows) {
+            rowCount += rows;
+        }
+
+        TSchemaTableScanCursor getNextCursor() {
+            return nextCursor;
+        }
+    }
+
+    private static ScanBatch createScanBatch(boolean isSetBatchSize, int batchSize, TSchemaTableScanCursor startCursor) {
+        return new ScanBatch(isSetBatchSize ? batchSize : 0, startCursor);
+    }
+
     // tables_config
     public static TGetTablesConfigResponse generateTablesConfigResponse(TGetTablesConfigRequest request)
             throws TException {
@@ -148,15 +217,24 @@ public class InformationSchemaDataSource {
         List<TTableConfigInfo> tList = new ArrayList<>();
 
         AuthDbRequestResult result = getAuthDbRequestResult(request.getAuth_info());
+        ScanBatch batch = createScanBatch(request.isSetBatch_size(), request.getBatch_size(),
+                request.getStart_cursor());
 
-        for (String dbName : result.authorizedDbs) {
+        for (String dbName : batch.getDbNames(result.authorizedDbs)) {
             Database db = GlobalStateMgr.getCurrentState().getLocalMetastore().getDb(dbName);
             if (db != null) {
                 Locker locker = new Locker();
                 locker.lockDatabase(db.getId(), LockType.READ);
                 try {
-                    List<Table> allTables = GlobalStateMgr.getCurrentState().getLocalMetastore().getTables(db.getId());
+                    List<Table> allTables = batch.getTables(dbName,
+                            GlobalStateMgr.getCurrentState().getLocalMetastore().getTables(db.getId()), Table::getName);
                     for (Table table : allTables) {
+                        if (request.isSetTable_name() && !table.getName().equals(request.getTable_name())) {
+                            continue;
+                        }
+                        if (batch.isFull(dbName, table.getName())) {
+                            break;
+                        }
                         try {
                             Authorizer.checkAnyActionOnTableLikeObject(result.currentUser,
                                     null, dbName, table);
@@ -179,13 +257,18 @@ public class InformationSchemaDataSource {
                         }
                         // TODO(cjs): other table type (HIVE, MYSQL, ICEBERG, HUDI, JDBC, ELASTICSEARCH)
                         tList.add(tableConfigInfo);
+                        batch.addRows(1);
                     }
                 } finally {
                     locker.unLockDatabase(db.getId(), LockType.READ);
                 }
             }
+            if (batch.getNextCursor() != null) {
+                break;
+            }
         }
         resp.tables_config_infos = tList;
+        resp.setNext_cursor(batch.getNextCursor());
         return resp;
     }
 
@@ -255,14 +338,23 @@ public class InformationSchemaDataSource {
         List<TPartitionMetaInfo> pList = new ArrayList<>();
 
         AuthDbRequestResult result = getAuthDbRequestResult(request.getAuth_info());
+        ScanBatch batch = createScanBatch(request.isSetBatch_size(), request.getBatch_size(),
+                request.getStart_cursor());
 
-        for (String dbName : result.authorizedDbs) {
+        for (String dbName : batch.getDbNames(result.authorizedDbs)) {
             Database db = GlobalStateMgr.getCurrentState().getLocalMetastore().getDb(dbName);
             if (db == null) {
                 continue;
             }
-            List<Table> allTables = GlobalStateMgr.getCurrentState().getLocalMetastore().getTables(db.getId());
+            List<Table> allTables = batch.getTables(dbName,
+                    GlobalStateMgr.getCurrentState().getLocalMetastore().getTables(db.getId()), Table::getName);
             for (Table table : allTables) {
+                if (request.isSetTable_name() && !table.getName().equals(request.getTable_name())) {
+                    continue;
+                }
+                if (batch.isFull(dbName, table.getName())) {
+                    break;
+                }
                 try {
                     Authorizer.checkAnyActionOnTableLikeObject(result.currentUser,
                             null, dbName, table);
@@ -276,6 +368,7 @@ public class InformationSchemaDataSource {
                 // only olap table/mv or cloud table/mv will reach here;
                 // use the same lock level with `SHOW PARTITIONS FROM XXX` to ensure other modification to
                 // partition does not trigger crash
+                int rowCount = pList.size();
                 Locker locker = new Locker();
                 locker.lockDatabase(db.getId(), LockType.READ);
                 try {
@@ -306,9 +399,14 @@ public class InformationSchemaDataSource {
                 } finally {
                     locker.unLockDatabase(db.getId(), LockType.READ);
                 }
+                batch.addRows(pList.size() - rowCount);
+            }
+            if (batch.getNextCursor() != null) {
+                break;
             }
         }
         resp.partitions_meta_infos = pList;
+        resp.setNext_cursor(batch.getNextCursor());
         return resp;
     }
 
@@ -387,6 +485,8 @@ public class InformationSchemaDataSource {
 
         TAuthInfo authInfo = request.getAuth_info();
         AuthDbRequestResult result = getAuthDbRequestResult(authInfo);
+        ScanBatch batch = createScanBatch(request.isSetBatch_size(), request.getBatch_size(),
+                request.getStart_cursor());
 
         String catalogName = InternalCatalog.DEFAULT_INTERNAL_CATALOG_NAME;
         if (authInfo.isSetCatalog_name()) {
@@ -395,7 +495,7 @@ public class InformationSchemaDataSource {
 
         MetadataMgr metadataMgr = GlobalStateMgr.getCurrentState().getMetadataMgr();
 
-        for (String dbName : result.authorizedDbs) {
+        for (String dbName : batch.getDbNames(result.authorizedDbs)) {
             Database db = metadataMgr.getDb(catalogName, dbName);
             if (db == null) {
                 continue;
@@ -405,13 +505,17 @@ public class InformationSchemaDataSource {
             Locker locker = new Locker();
             try {
                 locker.lockDatabase(db.getId(), LockType.READ);
-                List<String> tableNames = metadataMgr.listTableNames(catalogName, dbName);
+                List<String> tableNames = batch.getTables(dbName, metadataMgr.listTableNames(catalogName, dbName),
+                        Function.identity());
                 for (String tableName : tableNames) {
                     if (request.isSetTable_name()) {
                         if (!tableName.equals(request.getTable_name())) {
                             continue;
                         }
                     }
+                    if (batch.isFull(dbName, tableName)) {
+                        break;
+                    }
 
                     BasicTable table = null;
                     try {
@@ -430,6 +534,7 @@ public class InformationSchemaDataSource {
                     }
 
                     tables.add(table);
+                    batch.addRows(1);
                 }
             } finally {
                 locker.unLockDatabase(db.getId(), LockType.READ);
@@ -490,8 +595,12 @@ public class InformationSchemaDataSource {
                     }
                 }
             }
+            if (batch.getNextCursor() != null) {
+                break;
+            }
         }
         response.setTables_infos(infos);
+        response.setNext_cursor(batch.getNextCursor());
         return response;
     }
 
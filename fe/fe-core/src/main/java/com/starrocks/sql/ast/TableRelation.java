@@ -20,6 +20,7 @@ import com.starrocks.analysis.SlotRef;
 import com.starrocks.analysis.TableName;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.Table;
+import com.starrocks.common.Pair;
 import com.starrocks.sql.analyzer.Field;
 import com.starrocks.sql.parser.NodePosition;
 
@@ -61,6 +62,9 @@ public class TableRelation extends Relation {
 
     private long gtid = 0;
 
+    // partition id -> the version range to read, only the data loaded in the version range is read if set
+    private Map<Long, Pair<Long, Long>> scanVersionRanges = Collections.emptyMap();
+
     public TableRelation(TableName name) {
         super(name.getPos());
         this.name = name;
@@ -234,4 +238,12 @@ public class TableRelation extends Relation {
     public long getGtid() {
         return gtid;
     }
+
+    public void setScanVersionRanges(Map<Long, Pair<Long, Long>> scanVersionRanges) {
+        this.scanVersionRanges = scanVersionRanges;
+    }
+
+    public Map<Long, Pair<Long, Long>> getScanVersionRanges() {
+        return scanVersionRanges;
+    }
 }
\ No newline at end of file
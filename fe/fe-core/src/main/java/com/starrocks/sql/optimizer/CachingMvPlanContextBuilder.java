@@ -24,15 +24,27 @@ import com.starrocks.analysis.ParseNode;
 import com.starrocks.catalog.MaterializedView;
 import com.starrocks.catalog.MvPlanContext;
 import com.starrocks.common.Config;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.SessionVariable;
 import com.starrocks.sql.analyzer.AstToSQLBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 public class CachingMvPlanContextBuilder {
 
@@ -42,6 +54,9 @@ public class CachingMvPlanContextBuilder {
 
     // store the ast of mv's define query to mvs
     private Map<AstKey, Set<MaterializedView>> astToMvsMap = Maps.newConcurrentMap();
+    // load the plan contexts of mvs concurrently, created on the first use
+    private static final int LOAD_QUEUE_SIZE = 1024;
+    private static volatile ThreadPoolExecutor loadExecutor;
 
     public static class AstKey {
         private final String sql;
@@ -113,6 +128,102 @@ public class CachingMvPlanContextBuilder {
         }
     }
 
+    /**
+     * Load the plan contexts of mvs which are not in the plan cache concurrently with the session variables of
+     * the caller, and wait for them at most timeoutMs. Loads not finished in time keep running in the background
+     * and fill the cache, the queued ones are cancelled.
+     *
+     * @return the mvs whose plan contexts are still being loaded after timeoutMs, a getPlanContext of them with
+     * cache waits for the in-flight load, so the caller should skip them to respect the timeout
+     */
+    public Set<MaterializedView> loadPlanContextsIfAbsent(ConnectContext connectContext,
+                                                          Collection<MaterializedView> mvs, long timeoutMs) {
+        ThreadPoolExecutor executor = getLoadExecutor();
+        if (executor == null || timeoutMs <= 0) {
+            return Collections.emptySet();
+        }
+        List<MaterializedView> absentMvs = mvs.stream()
+                .filter(mv -> mvPlanContextCache.getIfPresent(mv) == null)
+                .collect(Collectors.toList());
+        if (absentMvs.size() <= 1) {
+            return Collections.emptySet();
+        }
+        Map<MaterializedView, Future<?>> futures = Maps.newHashMap();
+        try {
+            for (MaterializedView mv : absentMvs) {
+                ConnectContext loadContext = buildLoadContext(connectContext);
+                futures.put(mv, executor.submit(() -> {
+                    try (var guard = loadContext.bindScope()) {
+                        getPlanContext(mv, true);
+                    }
+                }));
+            }
+        } catch (RejectedExecutionException e) {
+            // never block the query thread on a full queue, the left mvs are loaded by the caller one by one
+            LOG.warn("submit mv plan context load tasks failed: {}", e.getMessage());
+        }
+
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        for (Future<?> future : futures.values()) {
+            long remaining = deadline - System.currentTimeMillis();
+            try {
+                future.get(Math.max(remaining, 0), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                LOG.warn("load plan contexts of {} mvs timeout after {}ms", absentMvs.size(), timeoutMs);
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                LOG.warn("load mv plan context failed", e);
+            }
+        }
+
+        Set<MaterializedView> loadingMvs = Sets.newHashSet();
+        futures.forEach((mv, future) -> {
+            if (future.isDone()) {
+                return;
+            }
+            // the running load is not interrupted and still fills the cache
+            future.cancel(false);
+            if (mvPlanContextCache.getIfPresent(mv) == null) {
+                loadingMvs.add(mv);
+            }
+        });
+        return loadingMvs;
+    }
+
+    private static ConnectContext buildLoadContext(ConnectContext connectContext) {
+        ConnectContext context = new ConnectContext(null);
+        context.setGlobalStateMgr(connectContext.getGlobalStateMgr());
+        context.setCurrentCatalog(connectContext.getCurrentCatalog());
+        context.setDatabase(connectContext.getDatabase());
+        context.setQualifiedUser(connectContext.getQualifiedUser());
+        context.setCurrentUserIdentity(connectContext.getCurrentUserIdentity());
+        context.setCurrentRoleIds(connectContext.getCurrentRoleIds());
+        context.setCurrentWarehouseId(connectContext.getCurrentWarehouseId());
+        context.setSessionVariable((SessionVariable) connectContext.getSessionVariable().clone());
+        return context;
+    }
+
+    private static ThreadPoolExecutor getLoadExecutor() {
+        if (Config.mv_plan_cache_load_thread_num <= 0) {
+            return null;
+        }
+        if (loadExecutor == null) {
+            synchronized (CachingMvPlanContextBuilder.class) {
+                if (loadExecutor == null) {
+                    // reject the loads instead of blocking the query thread once the queue is full
+                    loadExecutor = ThreadPoolManager.newDaemonThreadPool(Config.mv_plan_cache_load_thread_num,
+                            Config.mv_plan_cache_load_thread_num, 60, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<>(LOAD_QUEUE_SIZE), new ThreadPoolExecutor.AbortPolicy(),
+                            "mv-plan-cache-loader", true);
+                }
+            }
+        }
+        return loadExecutor;
+    }
+
     /**
      * Get plan cache only if mv is present in the plan cache, otherwise null is returned.
      */
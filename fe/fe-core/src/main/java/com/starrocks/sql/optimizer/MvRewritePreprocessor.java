@@ -598,9 +598,27 @@ public class MvRewritePreprocessor {
 
     @VisibleForTesting
     public Set<MvWithPlanContext> getMvWithPlanContext(Set<MaterializedView> validMVs) {
+        // building mv plans is the main cost when the plan cache is cold, build the absent ones concurrently
+        // within the optimizer's time budget, the left ones are built below one by one.
+        Set<MaterializedView> loadingMVs = Collections.emptySet();
+        if (connectContext.getSessionVariable().isEnableMaterializedViewPlanCache()) {
+            long timeoutMs = connectContext.getSessionVariable().getOptimizerExecuteTimeout()
+                    - context.optimizerElapsedMs();
+            List<MaterializedView> activeMVs = validMVs.stream()
+                    .filter(MaterializedView::isActive)
+                    .collect(Collectors.toList());
+            loadingMVs = CachingMvPlanContextBuilder.getInstance()
+                    .loadPlanContextsIfAbsent(connectContext, activeMVs, timeoutMs);
+        }
+
         // filter mvs which are active and have valid plans
         Set<MvWithPlanContext> mvWithPlanContexts = Sets.newHashSet();
         for (MaterializedView mv : validMVs) {
+            if (loadingMVs.contains(mv)) {
+                // waiting for the in-flight load exceeds the optimizer's time budget
+                logMVPrepare(connectContext, "MV {} is skipped since its plan is still being built", mv.getName());
+                continue;
+            }
             try {
                 List<MvWithPlanContext> mvWithPlanContext = getMVWithContext(mv);
                 if (mvWithPlanContext != null) {
@@ -21,6 +21,7 @@ import com.google.common.collect.Maps;
 import com.starrocks.catalog.Column;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Table;
+import com.starrocks.common.Pair;
 import com.starrocks.common.VectorSearchOptions;
 import com.starrocks.sql.ast.PartitionNames;
 import com.starrocks.sql.optimizer.base.DistributionSpec;
@@ -30,6 +31,7 @@ import com.starrocks.sql.optimizer.operator.OperatorVisitor;
 import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -52,6 +54,9 @@ public final class LogicalOlapScanOperator extends LogicalScanOperator {
 
     private long gtid = 0;
 
+    // partition id -> the version range to read
+    private Map<Long, Pair<Long, Long>> scanVersionRanges = Collections.emptyMap();
+
     private VectorSearchOptions vectorSearchOptions = new VectorSearchOptions();
 
     // Only for UT
@@ -137,6 +142,10 @@ public final class LogicalOlapScanOperator extends LogicalScanOperator {
         return gtid;
     }
 
+    public Map<Long, Pair<Long, Long>> getScanVersionRanges() {
+        return scanVersionRanges;
+    }
+
     @Override
     public boolean isEmptyOutputRows() {
         return selectedTabletId == null || selectedTabletId.isEmpty() ||
@@ -193,6 +202,7 @@ public final class LogicalOlapScanOperator extends LogicalScanOperator {
         LogicalOlapScanOperator that = (LogicalOlapScanOperator) o;
         return selectedIndexId == that.selectedIndexId &&
                 gtid == that.gtid &&
+                Objects.equals(scanVersionRanges, that.scanVersionRanges) &&
                 Objects.equals(distributionSpec, that.distributionSpec) &&
                 Objects.equals(selectedPartitionId, that.selectedPartitionId) &&
                 Objects.equals(partitionNames, that.partitionNames) &&
@@ -225,6 +235,7 @@ public final class LogicalOlapScanOperator extends LogicalScanOperator {
             builder.distributionSpec = scanOperator.distributionSpec;
             builder.selectedIndexId = scanOperator.selectedIndexId;
             builder.gtid = scanOperator.gtid;
+            builder.scanVersionRanges = scanOperator.scanVersionRanges;
             builder.selectedPartitionId = scanOperator.selectedPartitionId;
             builder.partitionNames = scanOperator.partitionNames;
             builder.hasTableHints = scanOperator.hasTableHints;
@@ -247,6 +258,11 @@ public final class LogicalOlapScanOperator extends LogicalScanOperator {
             return this;
         }
 
+        public Builder setScanVersionRanges(Map<Long, Pair<Long, Long>> scanVersionRanges) {
+            builder.scanVersionRanges = scanVersionRanges;
+            return this;
+        }
+
         public Builder setSelectedTabletId(List<Long> selectedTabletId) {
             builder.selectedTabletId = ImmutableList.copyOf(selectedTabletId);
             return this;
@@ -63,6 +63,9 @@ public class PhysicalOlapScanOperator extends PhysicalScanOperator {
 
     private long gtid = 0;
 
+    // partition id -> the version range to read
+    private Map<Long, Pair<Long, Long>> scanVersionRanges = Collections.emptyMap();
+
     private PhysicalOlapScanOperator() {
         super(OperatorType.PHYSICAL_OLAP_SCAN);
     }
@@ -96,6 +99,7 @@ public class PhysicalOlapScanOperator extends PhysicalScanOperator {
         this.distributionSpec = scanOperator.getDistributionSpec();
         this.selectedIndexId = scanOperator.getSelectedIndexId();
         this.gtid = scanOperator.getGtid();
+        this.scanVersionRanges = scanOperator.getScanVersionRanges();
         this.selectedPartitionId = scanOperator.getSelectedPartitionId();
         this.selectedTabletId = scanOperator.getSelectedTabletId();
         this.hintsReplicaId = scanOperator.getHintsReplicaIds();
@@ -116,6 +120,10 @@ public class PhysicalOlapScanOperator extends PhysicalScanOperator {
         return gtid;
     }
 
+    public Map<Long, Pair<Long, Long>> getScanVersionRanges() {
+        return scanVersionRanges;
+    }
+
     public void setSelectedPartitionId(List<Long> selectedPartitionId) {
         this.selectedPartitionId = selectedPartitionId;
     }
@@ -238,6 +246,7 @@ public class PhysicalOlapScanOperator extends PhysicalScanOperator {
         PhysicalOlapScanOperator that = (PhysicalOlapScanOperator) o;
         return selectedIndexId == that.selectedIndexId &&
                 gtid == that.gtid &&
+                Objects.equals(scanVersionRanges, that.scanVersionRanges) &&
                 Objects.equals(distributionSpec, that.distributionSpec) &&
                 Objects.equals(selectedPartitionId, that.selectedPartitionId) &&
                 Objects.equals(selectedTabletId, that.selectedTabletId);
@@ -277,6 +286,7 @@ public class PhysicalOlapScanOperator extends PhysicalScanOperator {
             builder.distributionSpec = operator.distributionSpec;
             builder.selectedIndexId = operator.selectedIndexId;
             builder.gtid = operator.gtid;
+            builder.scanVersionRanges = operator.scanVersionRanges;
             builder.selectedTabletId = operator.selectedTabletId;
             builder.hintsReplicaId = operator.hintsReplicaId;
             builder.selectedPartitionId = operator.selectedPartitionId;
@@ -46,6 +46,7 @@ import com.starrocks.sql.optimizer.operator.logical.LogicalOlapScanOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rule.transformation.ListPartitionIndex;
 import com.starrocks.sql.optimizer.rule.transformation.ListPartitionPruner;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -266,6 +267,25 @@ public class OptOlapPartitionPruner {
 
     private static List<Long> listPartitionPrune(OlapTable olapTable, ListPartitionInfo listPartitionInfo,
                                                  LogicalOlapScanOperator operator) {
+        if (operator.getPartitionNames() == null) {
+            // All the formal partitions are candidates, prune them with the partition index which is
+            // only rebuilt when the partitions change
+            ListPartitionIndex partitionIndex = listPartitionInfo.getPartitionIndex();
+            List<Column> partitionColumns = listPartitionInfo.getPartitionColumns(olapTable.getIdToColumn());
+            List<ColumnRefOperator> partitionColumnRefs = partitionColumns.stream()
+                    .limit(partitionIndex.getColumnNum())
+                    .map(operator::getColumnReference)
+                    .collect(Collectors.toList());
+            ListPartitionPruner partitionPruner = new ListPartitionPruner(partitionColumnRefs, partitionIndex,
+                    Utils.extractConjuncts(operator.getPredicate()), null, listPartitionInfo);
+            partitionPruner.prepareDeduceExtraConjuncts(operator);
+            try {
+                return partitionPruner.prune();
+            } catch (AnalysisException e) {
+                LOG.warn("PartitionPrune Failed. ", e);
+            }
+            return null;
+        }
 
         Map<ColumnRefOperator, ConcurrentNavigableMap<LiteralExpr, Set<Long>>> columnToPartitionValuesMap =
                 Maps.newConcurrentMap();
@@ -368,6 +388,8 @@ public class OptOlapPartitionPruner {
     private static List<Long> rangePartitionPrune(OlapTable olapTable, RangePartitionInfo partitionInfo,
                                                   LogicalOlapScanOperator operator) {
         Map<Long, Range<PartitionKey>> keyRangeById;
+        PartitionPruner partitionPruner;
+        List<Column> partitionColumns = partitionInfo.getPartitionColumns(olapTable.getIdToColumn());
         if (operator.getPartitionNames() != null && operator.getPartitionNames().getPartitionNames() != null) {
             keyRangeById = Maps.newHashMap();
             for (String partName : operator.getPartitionNames().getPartitionNames()) {
@@ -377,12 +399,13 @@ public class OptOlapPartitionPruner {
                 }
                 keyRangeById.put(part.getId(), partitionInfo.getRange(part.getId()));
             }
+            partitionPruner = new RangePartitionPruner(keyRangeById, partitionColumns, operator.getColumnFilters());
         } else {
             keyRangeById = partitionInfo.getIdToRange(false);
+            // reuse the range index of the table instead of building it for every query
+            partitionPruner = new RangePartitionPruner(partitionInfo.getRangeIndex(), partitionColumns,
+                    operator.getColumnFilters());
         }
-        PartitionPruner partitionPruner = new RangePartitionPruner(keyRangeById,
-                partitionInfo.getPartitionColumns(olapTable.getIdToColumn()),
-                operator.getColumnFilters());
         try {
             return partitionPruner.prune();
         } catch (Exception e) {
@@ -15,6 +15,7 @@
 package com.starrocks.sql.optimizer.rewrite;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.starrocks.common.Config;
 import com.starrocks.sql.common.ErrorType;
 import com.starrocks.sql.common.StarRocksPlannerException;
@@ -36,8 +37,11 @@ import com.starrocks.sql.optimizer.rewrite.scalar.SimplifiedDateColumnPredicateR
 import com.starrocks.sql.optimizer.rewrite.scalar.SimplifiedPredicateRule;
 import com.starrocks.sql.optimizer.rewrite.scalar.SimplifiedScanColumnRule;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class ScalarOperatorRewriter {
@@ -95,11 +99,30 @@ public class ScalarOperatorRewriter {
         ScalarOperator result = root;
 
         context.reset();
+        // The version of the operator tree is increased whenever a rule changes it. A bottom-up or top-down rule
+        // is applied until nothing changes, so applying it again to the same version is a no-op and skipped.
+        int version = 0;
+        int[] ruleVersions = new int[ruleList.size()];
+        Arrays.fill(ruleVersions, -1);
         int changeNums;
         do {
             changeNums = context.changeNum();
-            for (ScalarOperatorRewriteRule rule : ruleList) {
+            for (int i = 0; i < ruleList.size(); i++) {
+                ScalarOperatorRewriteRule rule = ruleList.get(i);
+                if (ruleVersions[i] == version) {
+                    continue;
+                }
+                int ruleChangeNums = context.changeNum();
                 result = rewriteByRule(result, rule);
+                if (rule.isOnlyOnce()) {
+                    // the changes of only once rule are not counted, take it as changed
+                    version++;
+                } else {
+                    if (ruleChangeNums != context.changeNum()) {
+                        version++;
+                    }
+                    ruleVersions[i] = version;
+                }
             }
 
             if (changeNums > Config.max_planner_scalar_rewrite_num) {
@@ -115,9 +138,12 @@ public class ScalarOperatorRewriter {
         ScalarOperator result = root;
         int changeNums;
         if (rule.isBottomUp()) {
+            Set<ScalarOperator> unchanged = Collections.emptySet();
             do {
                 changeNums = context.changeNum();
-                result = applyRuleBottomUp(result, rule);
+                Set<ScalarOperator> skipped = unchanged;
+                unchanged = Sets.newIdentityHashSet();
+                result = applyRuleBottomUp(result, rule, skipped, unchanged);
             } while (changeNums != context.changeNum());
         } else if (rule.isTopDown()) {
             do {
@@ -131,15 +157,41 @@ public class ScalarOperatorRewriter {
         return result;
     }
 
-    private ScalarOperator applyRuleBottomUp(ScalarOperator operator, ScalarOperatorRewriteRule rule) {
+    /**
+     * Apply the rule bottom up. The rule result of an operator only depends on its subtree, so the subtrees
+     * which are not changed in the last pass are skipped, and the unchanged subtrees of this pass are
+     * collected for the next pass.
+     */
+    private ScalarOperator applyRuleBottomUp(ScalarOperator operator, ScalarOperatorRewriteRule rule,
+                                             Set<ScalarOperator> skipped, Set<ScalarOperator> unchanged) {
+        if (skipped.contains(operator)) {
+            return operator;
+        }
+        int changeNums = context.changeNum();
+        // bitmap of the unchanged children, only the first 64 children are remembered
+        long unchangedChildren = 0;
         for (int i = 0; i < operator.getChildren().size(); i++) {
-            operator.setChild(i, applyRuleBottomUp(operator.getChild(i), rule));
+            int childChangeNums = context.changeNum();
+            ScalarOperator child = applyRuleBottomUp(operator.getChild(i), rule, skipped, unchanged);
+            if (child != operator.getChild(i)) {
+                operator.setChild(i, child);
+            }
+            if (i < Long.SIZE && childChangeNums == context.changeNum()) {
+                unchangedChildren |= 1L << i;
+            }
         }
 
         ScalarOperator op = rule.apply(operator, context);
         if (op != operator) {
             context.change();
         }
+        if (changeNums != context.changeNum()) {
+            for (int i = 0; unchangedChildren != 0; i++, unchangedChildren >>>= 1) {
+                if ((unchangedChildren & 1) != 0) {
+                    unchanged.add(operator.getChild(i));
+                }
+            }
+        }
         return op;
     }
 
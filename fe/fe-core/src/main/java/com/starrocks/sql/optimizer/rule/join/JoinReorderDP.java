@@ -15,131 +15,270 @@
 package com.starrocks.sql.optimizer.rule.join;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Ordering;
 import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.OptimizerContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
 import java.util.BitSet;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.IntStream;
-
-import static com.google.common.collect.ImmutableSet.toImmutableSet;
-import static com.google.common.collect.Sets.powerSet;
 
+/**
+ * Reorder multi join node by dynamic programming.
+ * <p>
+ * The join graph is a hyper graph, an edge (join predicate) connects two sets of atoms if it references atoms of
+ * both sets and only atoms of them. The connected sub graph and its connected complement pairs are enumerated as
+ * DPhyp (Moerkotte and Neumann, "Dynamic Programming Strikes Back", SIGMOD 2008) does, so no cross join is
+ * considered and every pair is enumerated only once. The atom sets are represented by long bitmasks.
+ * <p>
+ * If the join graph is not connected, cross joins are needed, all the partitions of every atom set are enumerated
+ * instead, which is only affordable for a few atoms. So are the join graphs only connected by the predicates over
+ * three or more atoms, e.g. {@code a.x + b.y = c.z}, which can't be built by joining two connected sub graphs.
+ */
 public class JoinReorderDP extends JoinOrder {
+    private static final Logger LOG = LogManager.getLogger(JoinReorderDP.class);
+
+    // the max number of atoms to enumerate all the partitions for the join graph which is not connected
+    private static final int MAX_ATOMS_FOR_CROSS_JOIN = 10;
+    // the max number of join pairs to build, give up dp when exceeded to keep the optimizer time bounded
+    private static final int MAX_JOIN_PAIRS = 50000;
+
     public JoinReorderDP(OptimizerContext context) {
         super(context);
     }
 
-    private final Map<BitSet, GroupInfo> bestPlanMemo = new HashMap<>();
-    List<GroupInfo> groups = new ArrayList<>();
+    private final Map<Long, GroupInfo> bestPlanMemo = new HashMap<>();
+    private long[] edgeMasks;
+    private int joinPairs = 0;
+
+    private static final class TooManyJoinPairsException extends RuntimeException {
+        TooManyJoinPairsException() {
+            super(null, null, false, false);
+        }
+    }
 
     @Override
     protected void enumerate() {
-        groups = joinLevels.get(1).groups;
-        BitSet joinKeys = new BitSet();
-        joinKeys.set(0, groups.size(), true);
-        getBestExpr(joinKeys);
+        if (atomSize >= Long.SIZE) {
+            return;
+        }
+        List<GroupInfo> groups = joinLevels.get(1).groups;
+        for (int i = 0; i < atomSize; i++) {
+            bestPlanMemo.put(1L << i, groups.get(i));
+        }
+        edgeMasks = new long[edgeSize];
+        for (int i = 0; i < edgeSize; i++) {
+            edgeMasks[i] = toMask(edges.get(i).vertexes);
+        }
+
+        try {
+            if (isConnected()) {
+                for (int i = atomSize - 1; i >= 0; i--) {
+                    long atom = 1L << i;
+                    emitCsg(atom);
+                    enumerateCsgRec(atom, lowerBits(atom));
+                }
+            }
+            if (!bestPlanMemo.containsKey(allAtoms()) && atomSize <= MAX_ATOMS_FOR_CROSS_JOIN) {
+                // the join graph is not connected, or only connected by the hyper edges, cross joins are needed
+                enumerateAllPartitions(allAtoms());
+            }
+        } catch (TooManyJoinPairsException e) {
+            LOG.debug("give up join reorder dp for {} atoms, too many join pairs", atomSize);
+            bestPlanMemo.remove(allAtoms());
+        }
     }
 
     @Override
     public List<OptExpression> getResult() {
-        groups = joinLevels.get(1).groups;
-        BitSet joinKeys = new BitSet();
-        joinKeys.set(0, groups.size(), true);
-
-        GroupInfo g = getBestExpr(joinKeys);
+        GroupInfo g = bestPlanMemo.get(allAtoms());
+        if (g == null || g.bestExprInfo == null) {
+            return Lists.newArrayList();
+        }
         return Lists.newArrayList(g.bestExprInfo.expr);
     }
 
-    private GroupInfo getBestExpr(BitSet joinKeys) {
-        if (joinKeys.cardinality() == 1) {
-            int index = 0;
-            while (!joinKeys.get(index)) {
-                index++;
+    private void enumerateCsgRec(long s1, long excluded) {
+        long neighbors = neighborhood(s1, excluded);
+        if (neighbors == 0) {
+            return;
+        }
+        for (long sub = neighbors & -neighbors; sub != 0; sub = (sub - neighbors) & neighbors) {
+            if (bestPlanMemo.containsKey(s1 | sub)) {
+                emitCsg(s1 | sub);
             }
-
-            return groups.get(index);
         }
+        for (long sub = neighbors & -neighbors; sub != 0; sub = (sub - neighbors) & neighbors) {
+            enumerateCsgRec(s1 | sub, excluded | neighbors);
+        }
+    }
 
-        GroupInfo bestPlan = bestPlanMemo.get(joinKeys);
-        if (bestPlan == null) {
-            Ordering<ExpressionInfo> resultComparator = Ordering.from(Comparator.comparing(ExpressionInfo::getCost));
-
-            List<ExpressionInfo> results = new ArrayList<>();
-            List<BitSet> partitions = generatePartitions(joinKeys);
-            for (BitSet partition : partitions) {
-                GroupInfo leftGroup = getBestExpr(partition);
-                if (!results.isEmpty() && leftGroup.bestExprInfo.cost > resultComparator.min(results).cost) {
-                    continue;
-                }
-
-                BitSet otherPartition = (BitSet) joinKeys.clone();
-                otherPartition.andNot(partition);
-
-                GroupInfo rightGroup = getBestExpr(otherPartition);
-                if (!results.isEmpty() && rightGroup.bestExprInfo.cost > resultComparator.min(results).cost) {
-                    continue;
-                }
+    private void emitCsg(long s1) {
+        long excluded = s1 | lowerBits(Long.lowestOneBit(s1));
+        long neighbors = neighborhood(s1, excluded);
+        // from the highest neighbor to the lowest one
+        for (long rest = neighbors; rest != 0; ) {
+            long atom = Long.highestOneBit(rest);
+            rest &= ~atom;
+            if (isConnected(s1, atom)) {
+                emitCsgCmp(s1, atom);
+            }
+            enumerateCmpRec(s1, atom, excluded | (neighbors & lowerBits(atom)));
+        }
+    }
 
-                Optional<ExpressionInfo> joinExpr = buildJoinExpr(leftGroup, rightGroup);
-                if (!joinExpr.isPresent())  {
-                    continue;
-                }
+    private void enumerateCmpRec(long s1, long s2, long excluded) {
+        long neighbors = neighborhood(s2, excluded);
+        if (neighbors == 0) {
+            return;
+        }
+        for (long sub = neighbors & -neighbors; sub != 0; sub = (sub - neighbors) & neighbors) {
+            if (bestPlanMemo.containsKey(s2 | sub) && isConnected(s1, s2 | sub)) {
+                emitCsgCmp(s1, s2 | sub);
+            }
+        }
+        for (long sub = neighbors & -neighbors; sub != 0; sub = (sub - neighbors) & neighbors) {
+            enumerateCmpRec(s1, s2 | sub, excluded | neighbors);
+        }
+    }
 
-                joinExpr.get().expr.deriveLogicalPropertyItself();
-                calculateStatistics(joinExpr.get().expr);
-                computeCost(joinExpr.get());
-                results.add(joinExpr.get());
+    // Enumerate all the partitions of the atoms, include the ones need cross join
+    private void enumerateAllPartitions(long atoms) {
+        if (bestPlanMemo.containsKey(atoms)) {
+            return;
+        }
+        // every partition is enumerated once, the lowest atom is always in the left part
+        long lowest = Long.lowestOneBit(atoms);
+        long others = atoms & ~lowest;
+        for (long sub = 0; ; sub = (sub - others) & others) {
+            long left = lowest | sub;
+            long right = atoms & ~left;
+            if (right == 0) {
+                break;
             }
-            ExpressionInfo minCostPlan = resultComparator.min(results);
+            enumerateAllPartitions(left);
+            enumerateAllPartitions(right);
+            emitCsgCmp(left, right);
+        }
+    }
 
-            BitSet atoms = new BitSet();
-            atoms.or(minCostPlan.leftChildExpr.atoms);
-            atoms.or(minCostPlan.rightChildExpr.atoms);
-            GroupInfo g = new GroupInfo(atoms);
-            g.bestExprInfo = minCostPlan;
-            g.lowestExprCost = minCostPlan.cost;
+    private void emitCsgCmp(long s1, long s2) {
+        if (++joinPairs > MAX_JOIN_PAIRS) {
+            throw new TooManyJoinPairsException();
+        }
+        GroupInfo leftGroup = bestPlanMemo.get(s1);
+        GroupInfo rightGroup = bestPlanMemo.get(s2);
+        if (leftGroup == null || rightGroup == null) {
+            return;
+        }
+        GroupInfo bestPlan = bestPlanMemo.get(s1 | s2);
+        // the cost of a join is never less than the cost sum of its children
+        if (bestPlan != null &&
+                leftGroup.bestExprInfo.cost + rightGroup.bestExprInfo.cost >= bestPlan.lowestExprCost) {
+            return;
+        }
 
-            bestPlanMemo.put(joinKeys, g);
-            return g;
+        Optional<ExpressionInfo> joinExpr = buildJoinExpr(leftGroup, rightGroup);
+        if (!joinExpr.isPresent()) {
+            return;
         }
+        joinExpr.get().expr.deriveLogicalPropertyItself();
+        calculateStatistics(joinExpr.get().expr);
+        computeCost(joinExpr.get());
 
-        return bestPlan;
+        if (bestPlan == null) {
+            bestPlan = new GroupInfo(toBitSet(s1 | s2));
+            bestPlanMemo.put(s1 | s2, bestPlan);
+        }
+        if (joinExpr.get().cost < bestPlan.lowestExprCost) {
+            bestPlan.bestExprInfo = joinExpr.get();
+            bestPlan.lowestExprCost = joinExpr.get().cost;
+        }
     }
 
-    private List<BitSet> generatePartitions(BitSet totalNodes) {
-        Set<Integer> numbers = IntStream.range(0, totalNodes.cardinality()).boxed().collect(toImmutableSet());
-        Set<Set<Integer>> sets = powerSet(numbers).stream()
-                .filter(subSet -> subSet.size() > 0)
-                .filter(subSet -> subSet.size() < numbers.size())
-                .collect(toImmutableSet());
+    /**
+     * The neighborhood of atom set s, excluding the atoms in excluded set.
+     * For an edge only connects s with another atom, the atom is a neighbor.
+     * For an edge connects s with several atoms, the lowest of them represents them,
+     * unless the edge is subsumed by a simple one.
+     */
+    private long neighborhood(long s, long excluded) {
+        long simple = 0;
+        long complex = 0;
+        for (long edge : edgeMasks) {
+            long others = edge & ~s;
+            if ((edge & s) == 0 || others == 0 || (others & excluded) != 0) {
+                continue;
+            }
+            if (Long.bitCount(others) == 1) {
+                simple |= others;
+            } else {
+                complex |= others;
+            }
+        }
+        if (complex == 0) {
+            return simple;
+        }
+        long neighbors = simple;
+        for (long edge : edgeMasks) {
+            long others = edge & ~s;
+            if ((edge & s) == 0 || Long.bitCount(others) < 2 || (others & excluded) != 0 || (others & simple) != 0) {
+                continue;
+            }
+            neighbors |= Long.lowestOneBit(others);
+        }
+        return neighbors;
+    }
 
-        List<Integer> l = bitSet2Array(totalNodes);
-        List<BitSet> partitions = new ArrayList<>();
-        for (Set<Integer> s : sets) {
-            BitSet b = new BitSet();
-            for (Integer i : s) {
-                b.set(l.get(i));
+    // Whether there is an edge can be the join predicate of s1 and s2, the same as buildInnerJoinPredicate
+    private boolean isConnected(long s1, long s2) {
+        long atoms = s1 | s2;
+        for (long edge : edgeMasks) {
+            if ((edge & ~atoms) == 0 && (edge & s1) != 0 && (edge & s2) != 0) {
+                return true;
             }
-            partitions.add(b);
         }
-        return partitions;
+        return false;
     }
 
-    List<Integer> bitSet2Array(BitSet bitSet) {
-        List<Integer> l = Lists.newArrayList();
-        for (int i = 0; i < bitSet.size(); ++i) {
-            if (bitSet.get(i)) {
-                l.add(i);
+    // Whether all the atoms are connected by the edges, it's only a necessary condition for the csg-cmp
+    // enumeration to build a plan of all the atoms, the hyper edges may not be split into binary joins
+    private boolean isConnected() {
+        long reached = 1L;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (long edge : edgeMasks) {
+                if ((edge & reached) != 0 && (edge & ~reached) != 0) {
+                    reached |= edge;
+                    changed = true;
+                }
             }
         }
-        return l;
+        return reached == allAtoms();
+    }
+
+    private long allAtoms() {
+        return atomSize >= Long.SIZE ? -1L : (1L << atomSize) - 1;
+    }
+
+    // the atom and all the atoms lower than it
+    private static long lowerBits(long atom) {
+        return atom | (atom - 1);
+    }
+
+    private static long toMask(BitSet bitSet) {
+        long mask = 0;
+        for (int i = bitSet.nextSetBit(0); i >= 0 && i < Long.SIZE; i = bitSet.nextSetBit(i + 1)) {
+            mask |= 1L << i;
+        }
+        return mask;
+    }
+
+    private static BitSet toBitSet(long mask) {
+        return BitSet.valueOf(new long[] {mask});
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,220 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.optimizer.rule.transformation;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.catalog.ListPartitionInfo;
+import org.apache.commons.collections4.MapUtils;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+
+/**
+ * The posting lists of the partition values which {@link ListPartitionPruner} evaluates the conjuncts on.
+ * <p>
+ * Partitions are numbered by the ascending order of their ids, and the partitions of a value are kept as a
+ * bitmap of those ordinals, so pruning only combines bitmaps. The index of an olap table is built once for
+ * every version of its partition values and shared by the queries, see {@link ListPartitionInfo#getPartitionIndex}.
+ * It's immutable, and the bitmaps it returns must not be modified.
+ */
+public class ListPartitionIndex {
+    // The version of the partition values this index is built from
+    private final long version;
+    // All the partition ids in ascending order, the position of an id is the ordinal of the partition
+    private final long[] partitionIds;
+    private final RoaringBitmap allPartitions;
+    // For each partition column, value -> partitions, there are no null values in these maps
+    private final List<NavigableMap<LiteralExpr, RoaringBitmap>> columnValuePartitions;
+    // For each partition column, the partitions with a null value, null if they are unknown
+    private final List<RoaringBitmap> columnNullPartitions;
+
+    private ListPartitionIndex(long version, long[] partitionIds,
+                               List<NavigableMap<LiteralExpr, RoaringBitmap>> columnValuePartitions,
+                               List<RoaringBitmap> columnNullPartitions) {
+        this.version = version;
+        this.partitionIds = partitionIds;
+        this.allPartitions = new RoaringBitmap();
+        this.allPartitions.add(0L, partitionIds.length);
+        this.columnValuePartitions = columnValuePartitions;
+        this.columnNullPartitions = columnNullPartitions;
+    }
+
+    /**
+     * Build the index from the value to partition ids map and the null partition ids of every partition column.
+     * The null partition ids of a column may be null if they are unknown, the predicates which need them are
+     * not evaluated then.
+     */
+    public static ListPartitionIndex create(long version,
+                                            List<? extends Map<LiteralExpr, ? extends Collection<Long>>> valueMaps,
+                                            List<? extends Collection<Long>> nullPartitionsList) {
+        int size = 0;
+        for (Map<LiteralExpr, ? extends Collection<Long>> valueMap : valueMaps) {
+            for (Collection<Long> partitions : valueMap.values()) {
+                size += partitions.size();
+            }
+        }
+        for (Collection<Long> partitions : nullPartitionsList) {
+            size += partitions == null ? 0 : partitions.size();
+        }
+
+        long[] ids = new long[size];
+        int pos = 0;
+        for (Map<LiteralExpr, ? extends Collection<Long>> valueMap : valueMaps) {
+            for (Collection<Long> partitions : valueMap.values()) {
+                for (Long id : partitions) {
+                    ids[pos++] = id;
+                }
+            }
+        }
+        for (Collection<Long> partitions : nullPartitionsList) {
+            if (partitions != null) {
+                for (Long id : partitions) {
+                    ids[pos++] = id;
+                }
+            }
+        }
+        // a partition appears once for every partition column, keep the distinct ids
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        long[] partitionIds = Arrays.copyOf(ids, distinct);
+
+        List<NavigableMap<LiteralExpr, RoaringBitmap>> columnValuePartitions =
+                Lists.newArrayListWithCapacity(valueMaps.size());
+        for (Map<LiteralExpr, ? extends Collection<Long>> valueMap : valueMaps) {
+            NavigableMap<LiteralExpr, RoaringBitmap> valuePartitions = Maps.newTreeMap();
+            for (Map.Entry<LiteralExpr, ? extends Collection<Long>> entry : valueMap.entrySet()) {
+                valuePartitions.put(entry.getKey(), toBitmap(partitionIds, entry.getValue()));
+            }
+            columnValuePartitions.add(Collections.unmodifiableNavigableMap(valuePartitions));
+        }
+        List<RoaringBitmap> columnNullPartitions = Lists.newArrayListWithCapacity(nullPartitionsList.size());
+        for (Collection<Long> nullPartitions : nullPartitionsList) {
+            columnNullPartitions.add(nullPartitions == null ? null : toBitmap(partitionIds, nullPartitions));
+        }
+        return new ListPartitionIndex(version, partitionIds, columnValuePartitions, columnNullPartitions);
+    }
+
+    /**
+     * Build the index of the formal partitions of an olap table. The partitions without any value, like the
+     * shadow partition of an automatic partitioned table, are not indexed.
+     */
+    public static ListPartitionIndex create(ListPartitionInfo listPartitionInfo, long version) {
+        Set<Long> partitionIds = Sets.newHashSet(listPartitionInfo.getPartitionIds(false));
+        List<NavigableMap<LiteralExpr, Set<Long>>> valueMaps = Lists.newArrayList();
+        List<Set<Long>> nullPartitionsList = Lists.newArrayList();
+
+        Map<Long, List<List<LiteralExpr>>> multiLiteralExprValues = listPartitionInfo.getMultiLiteralExprValues();
+        Map<Long, List<LiteralExpr>> literalExprValues = listPartitionInfo.getLiteralExprValues();
+        if (MapUtils.isNotEmpty(multiLiteralExprValues)) {
+            for (int i = 0; i < listPartitionInfo.getPartitionColumnsSize(); i++) {
+                NavigableMap<LiteralExpr, Set<Long>> valueMap = Maps.newTreeMap();
+                Set<Long> nullPartitions = Sets.newHashSet();
+                for (Map.Entry<Long, List<List<LiteralExpr>>> entry : multiLiteralExprValues.entrySet()) {
+                    Long partitionId = entry.getKey();
+                    if (!partitionIds.contains(partitionId) || entry.getValue() == null) {
+                        continue;
+                    }
+                    for (List<LiteralExpr> values : entry.getValue()) {
+                        LiteralExpr value = values.get(i);
+                        // store null partition value separated from non-null partition values
+                        if (value.isConstantNull()) {
+                            nullPartitions.add(partitionId);
+                        } else {
+                            valueMap.computeIfAbsent(value, k -> Sets.newHashSet()).add(partitionId);
+                        }
+                    }
+                }
+                valueMaps.add(valueMap);
+                nullPartitionsList.add(nullPartitions);
+            }
+        } else if (MapUtils.isNotEmpty(literalExprValues)) {
+            // single item list partition has only one column
+            NavigableMap<LiteralExpr, Set<Long>> valueMap = Maps.newTreeMap();
+            for (Map.Entry<Long, List<LiteralExpr>> entry : literalExprValues.entrySet()) {
+                Long partitionId = entry.getKey();
+                if (!partitionIds.contains(partitionId) || entry.getValue() == null) {
+                    continue;
+                }
+                for (LiteralExpr value : entry.getValue()) {
+                    valueMap.computeIfAbsent(value, k -> Sets.newHashSet()).add(partitionId);
+                }
+            }
+            valueMaps.add(valueMap);
+            nullPartitionsList.add(Collections.emptySet());
+        }
+        return create(version, valueMaps, nullPartitionsList);
+    }
+
+    private static RoaringBitmap toBitmap(long[] partitionIds, Collection<Long> ids) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (Long id : ids) {
+            bitmap.add(Arrays.binarySearch(partitionIds, id));
+        }
+        return bitmap;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getColumnNum() {
+        return columnValuePartitions.size();
+    }
+
+    public NavigableMap<LiteralExpr, RoaringBitmap> getValuePartitions(int column) {
+        return columnValuePartitions.get(column);
+    }
+
+    public RoaringBitmap getNullPartitions(int column) {
+        return columnNullPartitions.get(column);
+    }
+
+    public RoaringBitmap getAllPartitions() {
+        return allPartitions;
+    }
+
+    public long getPartitionId(int ordinal) {
+        return partitionIds[ordinal];
+    }
+
+    // Returns a negative value if the partition isn't indexed
+    public int getOrdinal(long partitionId) {
+        return Arrays.binarySearch(partitionIds, partitionId);
+    }
+
+    public List<Long> toPartitionIds(RoaringBitmap bitmap) {
+        List<Long> ids = Lists.newArrayListWithCapacity(bitmap.getCardinality());
+        IntIterator iterator = bitmap.getIntIterator();
+        while (iterator.hasNext()) {
+            ids.add(partitionIds[iterator.next()]);
+        }
+        return ids;
+    }
+}
@@ -17,7 +17,6 @@ package com.starrocks.sql.optimizer.rule.transformation;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import com.starrocks.analysis.BinaryType;
 import com.starrocks.analysis.Expr;
 import com.starrocks.analysis.LiteralExpr;
@@ -52,15 +51,15 @@ import com.starrocks.sql.plan.ScalarOperatorToExpr;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentNavigableMap;
-import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -85,18 +84,22 @@ public class ListPartitionPruner implements PartitionPruner {
     //                1 -> set(1,5),
     //                2 -> set(2))
 
-    private final Map<ColumnRefOperator, ConcurrentNavigableMap<LiteralExpr, Set<Long>>> columnToPartitionValuesMap;
+    //
     // Store partitions with null partition values separately
     // partitionColumnName -> null partitionIds
     //
     // "date_col" -> set(5)
     // "int_col"  -> set(4)
-    private final Map<ColumnRefOperator, Set<Long>> columnToNullPartitions;
+    //
+    // The partition ids are kept in a ListPartitionIndex as bitmaps of partition ordinals, and the partition
+    // candidates are evaluated as bitmaps as well instead of sets of boxed ids.
+    private final ListPartitionIndex partitionIndex;
+    // partition column -> its position in the partition index
+    private final Map<ColumnRefOperator, Integer> partitionColumnIndexes;
     private final List<ScalarOperator> partitionConjuncts;
     // Conjuncts that not eval in partition pruner, and will be sent to backend.
     private final List<ScalarOperator> noEvalConjuncts = Lists.newArrayList();
 
-    private final Set<Long> allPartitions;
     private final List<ColumnRefOperator> partitionColumnRefs;
     private final List<Long> specifyPartitionIds;
     private final ListPartitionInfo listPartitionInfo;
@@ -116,32 +119,45 @@ public class ListPartitionPruner implements PartitionPruner {
             Map<ColumnRefOperator, Set<Long>> columnToNullPartitions,
             List<ScalarOperator> partitionConjuncts, List<Long> specifyPartitionIds,
             ListPartitionInfo listPartitionInfo) {
-        this.columnToPartitionValuesMap = columnToPartitionValuesMap;
-        this.columnToNullPartitions = columnToNullPartitions;
+        this(Lists.newArrayList(columnToPartitionValuesMap.keySet()),
+                createPartitionIndex(columnToPartitionValuesMap, columnToNullPartitions),
+                partitionConjuncts, specifyPartitionIds, listPartitionInfo);
+    }
+
+    /**
+     * Prune with a partition index built beforehand, e.g. the one cached by {@link ListPartitionInfo}.
+     *
+     * @param partitionColumnRefs the refs of the partition columns, in the column order of the partition index
+     */
+    public ListPartitionPruner(List<ColumnRefOperator> partitionColumnRefs, ListPartitionIndex partitionIndex,
+                               List<ScalarOperator> partitionConjuncts, List<Long> specifyPartitionIds,
+                               ListPartitionInfo listPartitionInfo) {
+        Preconditions.checkArgument(partitionColumnRefs.size() == partitionIndex.getColumnNum());
+        this.partitionIndex = partitionIndex;
+        this.partitionColumnIndexes = Maps.newHashMap();
+        for (int i = 0; i < partitionColumnRefs.size(); i++) {
+            this.partitionColumnIndexes.put(partitionColumnRefs.get(i), i);
+        }
+        this.partitionColumnRefs = partitionColumnRefs;
         this.partitionConjuncts = partitionConjuncts;
-        this.allPartitions = getAllPartitions();
-        this.partitionColumnRefs = getPartitionColumnRefs();
         this.specifyPartitionIds = specifyPartitionIds;
         this.listPartitionInfo = listPartitionInfo;
     }
 
-    private Set<Long> getAllPartitions() {
-        Set<Long> allPartitions = Sets.newHashSet();
-        for (ConcurrentNavigableMap<LiteralExpr, Set<Long>> partitionValuesMap : columnToPartitionValuesMap.values()) {
-            for (Set<Long> partitions : partitionValuesMap.values()) {
-                allPartitions.addAll(partitions);
-            }
-        }
-        for (Set<Long> partitions : columnToNullPartitions.values()) {
-            allPartitions.addAll(partitions);
-        }
-        return allPartitions;
-    }
-
-    private List<ColumnRefOperator> getPartitionColumnRefs() {
-        List<ColumnRefOperator> partitionColumnRefOperators = Lists.newArrayList();
-        partitionColumnRefOperators.addAll(columnToPartitionValuesMap.keySet());
-        return partitionColumnRefOperators;
+    private static ListPartitionIndex createPartitionIndex(
+            Map<ColumnRefOperator, ConcurrentNavigableMap<LiteralExpr, Set<Long>>> columnToPartitionValuesMap,
+            Map<ColumnRefOperator, Set<Long>> columnToNullPartitions) {
+        Preconditions.checkNotNull(columnToPartitionValuesMap);
+        Preconditions.checkNotNull(columnToNullPartitions);
+        Preconditions.checkArgument(columnToPartitionValuesMap.size() == columnToNullPartitions.size());
+        List<ConcurrentNavigableMap<LiteralExpr, Set<Long>>> valueMaps = Lists.newArrayList();
+        List<Set<Long>> nullPartitionsList = Lists.newArrayList();
+        for (Map.Entry<ColumnRefOperator, ConcurrentNavigableMap<LiteralExpr, Set<Long>>> entry :
+                columnToPartitionValuesMap.entrySet()) {
+            valueMaps.add(entry.getValue());
+            nullPartitionsList.add(columnToNullPartitions.get(entry.getKey()));
+        }
+        return ListPartitionIndex.create(0, valueMaps, nullPartitionsList);
     }
 
     public List<ScalarOperator> getNoEvalConjuncts() {
@@ -159,11 +175,8 @@ public class ListPartitionPruner implements PartitionPruner {
      */
     @Override
     public List<Long> prune() throws AnalysisException {
-        Preconditions.checkNotNull(columnToPartitionValuesMap);
-        Preconditions.checkNotNull(columnToNullPartitions);
-        Preconditions.checkArgument(columnToPartitionValuesMap.size() == columnToNullPartitions.size());
         Preconditions.checkNotNull(partitionConjuncts);
-        if (columnToPartitionValuesMap.isEmpty()) {
+        if (partitionColumnRefs.isEmpty()) {
             // no partition columns, notEvalConjuncts is same with conjuncts
             noEvalConjuncts.addAll(partitionConjuncts);
             return null;
@@ -176,7 +189,7 @@ public class ListPartitionPruner implements PartitionPruner {
             return specifyPartitionIds;
         }
 
-        Set<Long> matches = null;
+        RoaringBitmap matches = null;
         for (ScalarOperator operator : partitionConjuncts) {
             List<ColumnRefOperator> columnRefOperatorList = Utils.extractColumnRef(operator);
             if (columnRefOperatorList.retainAll(this.partitionColumnRefs)) {
@@ -184,15 +197,18 @@ public class ListPartitionPruner implements PartitionPruner {
                 continue;
             }
 
-            Pair<Set<Long>, Boolean> matchesPair = evalPartitionPruneFilter(operator);
-            Set<Long> conjunctMatches = matchesPair.first;
+            Pair<RoaringBitmap, Boolean> matchesPair = evalPartitionPruneFilter(operator);
+            RoaringBitmap conjunctMatches = matchesPair.first;
             Boolean existNoEvalConjuncts = matchesPair.second;
-            LOG.debug("prune by expr: {}, partitions: {}", operator.toString(), conjunctMatches);
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("prune by expr: {}, partitions: {}", operator.toString(),
+                        conjunctMatches == null ? null : partitionIndex.toPartitionIds(conjunctMatches));
+            }
             if (conjunctMatches != null) {
                 if (matches == null) {
-                    matches = Sets.newHashSet(conjunctMatches);
+                    matches = conjunctMatches;
                 } else {
-                    matches.retainAll(conjunctMatches);
+                    matches.and(conjunctMatches);
                 }
                 if (existNoEvalConjuncts) {
                     noEvalConjuncts.add(operator);
@@ -214,9 +230,13 @@ public class ListPartitionPruner implements PartitionPruner {
         } else {
             if (specifyPartitionIds != null && !specifyPartitionIds.isEmpty()) {
                 // intersect
-                return specifyPartitionIds.stream().filter(matches::contains).collect(Collectors.toList());
+                final RoaringBitmap finalMatches = matches;
+                return specifyPartitionIds.stream().filter(id -> {
+                    int ordinal = partitionIndex.getOrdinal(id);
+                    return ordinal >= 0 && finalMatches.contains(ordinal);
+                }).collect(Collectors.toList());
             } else {
-                return new ArrayList<>(matches);
+                return partitionIndex.toPartitionIds(matches);
             }
         }
     }
@@ -432,8 +452,8 @@ public class ListPartitionPruner implements PartitionPruner {
     }
 
 
-    private Pair<Set<Long>, Boolean> evalPartitionPruneFilter(ScalarOperator operator) {
-        Set<Long> matches = null;
+    private Pair<RoaringBitmap, Boolean> evalPartitionPruneFilter(ScalarOperator operator) {
+        RoaringBitmap matches = null;
         Boolean existNoEval = false;
         if (operator instanceof BinaryPredicateOperator) {
             matches = evalBinaryPredicate((BinaryPredicateOperator) operator);
@@ -442,7 +462,7 @@ public class ListPartitionPruner implements PartitionPruner {
         } else if (operator instanceof IsNullPredicateOperator) {
             matches = evalIsNullPredicate((IsNullPredicateOperator) operator);
         } else if (operator instanceof CompoundPredicateOperator) {
-            Pair<Set<Long>, Boolean> matchesPair = evalCompoundPredicate((CompoundPredicateOperator) operator);
+            Pair<RoaringBitmap, Boolean> matchesPair = evalCompoundPredicate((CompoundPredicateOperator) operator);
             matches = matchesPair.first;
             existNoEval = matchesPair.second;
         }
@@ -490,19 +510,30 @@ public class ListPartitionPruner implements PartitionPruner {
     // string_col = '001' 3
     // will generate new partition value map
     // int_col = 1  [1, 2, 3]
-    private ConcurrentNavigableMap<LiteralExpr, Set<Long>> getCastPartitionValueMap(CastOperator castOperator,
-                                            ConcurrentNavigableMap<LiteralExpr, Set<Long>> partitionValueMap) {
-        ConcurrentNavigableMap<LiteralExpr, Set<Long>> newPartitionValueMap = new ConcurrentSkipListMap<>();
+    private NavigableMap<LiteralExpr, RoaringBitmap> getCastPartitionValueMap(CastOperator castOperator,
+                                            NavigableMap<LiteralExpr, RoaringBitmap> partitionValueMap) {
+        NavigableMap<LiteralExpr, RoaringBitmap> newPartitionValueMap = Maps.newTreeMap();
 
-        for (Map.Entry<LiteralExpr, Set<Long>> entry : partitionValueMap.entrySet()) {
+        for (Map.Entry<LiteralExpr, RoaringBitmap> entry : partitionValueMap.entrySet()) {
             LiteralExpr key = entry.getKey();
             LiteralExpr literalExpr = castLiteralExpr(key, castOperator.getType());
-            Set<Long> partitions = newPartitionValueMap.computeIfAbsent(literalExpr, k -> Sets.newHashSet());
-            partitions.addAll(entry.getValue());
+            // the bitmaps of the partition index are shared, merge them into a new one
+            RoaringBitmap partitions = newPartitionValueMap.computeIfAbsent(literalExpr, k -> new RoaringBitmap());
+            partitions.or(entry.getValue());
         }
         return newPartitionValueMap;
     }
 
+    private NavigableMap<LiteralExpr, RoaringBitmap> getPartitionValueMap(ColumnRefOperator column) {
+        Integer index = partitionColumnIndexes.get(column);
+        return index == null ? null : partitionIndex.getValuePartitions(index);
+    }
+
+    private RoaringBitmap getNullPartitions(ColumnRefOperator column) {
+        Integer index = partitionColumnIndexes.get(column);
+        return index == null ? null : partitionIndex.getNullPartitions(index);
+    }
+
     private static ConstantOperator evaluateConstant(ScalarOperator operator) {
         if (operator.isConstantRef()) {
             return (ConstantOperator) operator;
@@ -524,7 +555,7 @@ public class ListPartitionPruner implements PartitionPruner {
         return null;
     }
 
-    private Set<Long> evalBinaryPredicate(BinaryPredicateOperator binaryPredicate) {
+    private RoaringBitmap evalBinaryPredicate(BinaryPredicateOperator binaryPredicate) {
         Preconditions.checkNotNull(binaryPredicate);
         ScalarOperator right = binaryPredicate.getChild(1);
         // eval the right child only if it is a constant or cast(constant)
@@ -538,9 +569,9 @@ public class ListPartitionPruner implements PartitionPruner {
         }
         ColumnRefOperator leftChild = Utils.extractColumnRef(binaryPredicate).get(0);
 
-        Set<Long> matches = Sets.newHashSet();
-        ConcurrentNavigableMap<LiteralExpr, Set<Long>> partitionValueMap = columnToPartitionValuesMap.get(leftChild);
-        Set<Long> nullPartitions = columnToNullPartitions.get(leftChild);
+        RoaringBitmap matches = new RoaringBitmap();
+        NavigableMap<LiteralExpr, RoaringBitmap> partitionValueMap = getPartitionValueMap(leftChild);
+        RoaringBitmap nullPartitions = getNullPartitions(leftChild);
 
         if (binaryPredicate.getChild(0) instanceof CastOperator && partitionValueMap != null) {
             // partitionValueMap need cast to target type
@@ -561,36 +592,37 @@ public class ListPartitionPruner implements PartitionPruner {
             case EQ:
                 // SlotRef = Literal
                 if (partitionValueMap.containsKey(literal)) {
-                    matches.addAll(partitionValueMap.get(literal));
+                    matches.or(partitionValueMap.get(literal));
                 }
                 return matches;
             case EQ_FOR_NULL:
                 // SlotRef <=> Literal
                 if (Expr.IS_NULL_LITERAL.apply(literal)) {
                     // null
-                    matches.addAll(nullPartitions);
+                    matches.or(nullPartitions);
                 } else {
                     // same as EQ
                     if (partitionValueMap.containsKey(literal)) {
-                        matches.addAll(partitionValueMap.get(literal));
+                        matches.or(partitionValueMap.get(literal));
                     }
                 }
                 return matches;
             case NE:
                 // SlotRef != Literal
-                matches.addAll(allPartitions);
+                matches.or(partitionIndex.getAllPartitions());
                 // remove null partitions
-                matches.removeAll(nullPartitions);
+                matches.andNot(nullPartitions);
                 // remove partition matches literal
                 if (partitionValueMap.containsKey(literal)) {
                     if (listPartitionInfo == null) {
                         // external table
-                        matches.removeAll(partitionValueMap.get(literal));
+                        matches.andNot(partitionValueMap.get(literal));
                     } else {
-                        Set<Long> partitionIds = partitionValueMap.get(literal);
-                        for (Long id : partitionIds) {
-                            if (listPartitionInfo.pruneById(id)) {
-                                matches.remove(id);
+                        IntIterator ordinals = partitionValueMap.get(literal).getIntIterator();
+                        while (ordinals.hasNext()) {
+                            int ordinal = ordinals.next();
+                            if (listPartitionInfo.pruneById(partitionIndex.getPartitionId(ordinal))) {
+                                matches.remove(ordinal);
                             }
                         }
                     }
@@ -600,7 +632,7 @@ public class ListPartitionPruner implements PartitionPruner {
             case LT:
             case GE:
             case GT:
-                NavigableMap<LiteralExpr, Set<Long>> rangeValueMap = null;
+                NavigableMap<LiteralExpr, RoaringBitmap> rangeValueMap = null;
                 LiteralExpr firstKey = partitionValueMap.firstKey();
                 LiteralExpr lastKey = partitionValueMap.lastKey();
                 boolean upperInclusive = false;
@@ -611,7 +643,7 @@ public class ListPartitionPruner implements PartitionPruner {
                 if (type == BinaryType.LE || type == BinaryType.LT) {
                     // SlotRef <[=] Literal
                     if (literal.compareLiteral(firstKey) < 0) {
-                        return Sets.newHashSet();
+                        return new RoaringBitmap();
                     }
                     if (type == BinaryType.LE) {
                         upperInclusive = true;
@@ -627,7 +659,7 @@ public class ListPartitionPruner implements PartitionPruner {
                 } else {
                     // SlotRef >[=] Literal
                     if (literal.compareLiteral(lastKey) > 0) {
-                        return Sets.newHashSet();
+                        return new RoaringBitmap();
                     }
                     if (type == BinaryType.GE) {
                         lowerInclusive = true;
@@ -643,9 +675,9 @@ public class ListPartitionPruner implements PartitionPruner {
                 }
 
                 rangeValueMap = partitionValueMap.subMap(lowerBoundKey, lowerInclusive, upperBoundKey, upperInclusive);
-                for (Set<Long> partitions : rangeValueMap.values()) {
+                for (RoaringBitmap partitions : rangeValueMap.values()) {
                     if (partitions != null) {
-                        matches.addAll(partitions);
+                        matches.or(partitions);
                     }
                 }
                 return matches;
@@ -655,7 +687,7 @@ public class ListPartitionPruner implements PartitionPruner {
         return null;
     }
 
-    private Set<Long> evalInPredicate(InPredicateOperator inPredicate) {
+    private RoaringBitmap evalInPredicate(InPredicateOperator inPredicate) {
         Preconditions.checkNotNull(inPredicate);
         if (!inPredicate.allValuesMatch(ScalarOperator::isConstantRef)) {
             return null;
@@ -672,9 +704,9 @@ public class ListPartitionPruner implements PartitionPruner {
         }
         ColumnRefOperator child = Utils.extractColumnRef(inPredicate).get(0);
 
-        Set<Long> matches = Sets.newHashSet();
-        ConcurrentNavigableMap<LiteralExpr, Set<Long>> partitionValueMap = columnToPartitionValuesMap.get(child);
-        Set<Long> nullPartitions = columnToNullPartitions.get(child);
+        RoaringBitmap matches = new RoaringBitmap();
+        NavigableMap<LiteralExpr, RoaringBitmap> partitionValueMap = getPartitionValueMap(child);
+        RoaringBitmap nullPartitions = getNullPartitions(child);
 
         if (inPredicate.getChild(0) instanceof CastOperator && partitionValueMap != null) {
             // partitionValueMap need cast to target type
@@ -690,12 +722,12 @@ public class ListPartitionPruner implements PartitionPruner {
             // Column NOT IN (Literal, ..., Literal)
             // If there is a NullLiteral, return an empty set.
             if (inPredicate.hasAnyNullValues()) {
-                return Sets.newHashSet();
+                return new RoaringBitmap();
             }
 
             // all partitions but remove null partitions
-            matches.addAll(allPartitions);
-            matches.removeAll(nullPartitions);
+            matches.or(partitionIndex.getAllPartitions());
+            matches.andNot(nullPartitions);
         }
 
         for (int i = 1; i < inPredicate.getChildren().size(); ++i) {
@@ -703,12 +735,12 @@ public class ListPartitionPruner implements PartitionPruner {
                     new ScalarOperatorToExpr.FormatterContext(new HashMap<>());
             LiteralExpr literal =
                     (LiteralExpr) ScalarOperatorToExpr.buildExecExpression(inPredicate.getChild(i), formatterContext);
-            Set<Long> partitions = partitionValueMap.get(literal);
+            RoaringBitmap partitions = partitionValueMap.get(literal);
             if (partitions != null) {
                 if (inPredicate.isNotIn()) {
-                    matches.removeAll(partitions);
+                    matches.andNot(partitions);
                 } else {
-                    matches.addAll(partitions);
+                    matches.or(partitions);
                 }
             }
         }
@@ -716,40 +748,40 @@ public class ListPartitionPruner implements PartitionPruner {
         return matches;
     }
 
-    private Set<Long> evalIsNullPredicate(IsNullPredicateOperator isNullPredicate) {
+    private RoaringBitmap evalIsNullPredicate(IsNullPredicateOperator isNullPredicate) {
         Preconditions.checkNotNull(isNullPredicate);
         if (!isSinglePartitionColumn(isNullPredicate)) {
             return null;
         }
         ColumnRefOperator child = Utils.extractColumnRef(isNullPredicate).get(0);
 
-        Set<Long> matches = Sets.newHashSet();
-        Set<Long> nullPartitions = columnToNullPartitions.get(child);
+        RoaringBitmap matches = new RoaringBitmap();
+        RoaringBitmap nullPartitions = getNullPartitions(child);
         if (nullPartitions == null) {
             return null;
         }
         if (isNullPredicate.isNotNull()) {
             // is not null
-            matches.addAll(allPartitions);
-            matches.removeAll(nullPartitions);
+            matches.or(partitionIndex.getAllPartitions());
+            matches.andNot(nullPartitions);
         } else {
             // is null
-            matches.addAll(nullPartitions);
+            matches.or(nullPartitions);
         }
         return matches;
     }
 
-    private Pair<Set<Long>, Boolean> evalCompoundPredicate(CompoundPredicateOperator compoundPredicate) {
+    private Pair<RoaringBitmap, Boolean> evalCompoundPredicate(CompoundPredicateOperator compoundPredicate) {
         Preconditions.checkNotNull(compoundPredicate);
         if (compoundPredicate.getCompoundType() == CompoundPredicateOperator.CompoundType.NOT) {
             return Pair.create(null, true);
         }
 
-        Pair<Set<Long>, Boolean> leftPair = evalPartitionPruneFilter(compoundPredicate.getChild(0));
-        Set<Long> lefts = leftPair.first;
+        Pair<RoaringBitmap, Boolean> leftPair = evalPartitionPruneFilter(compoundPredicate.getChild(0));
+        RoaringBitmap lefts = leftPair.first;
 
-        Pair<Set<Long>, Boolean> rightPair = evalPartitionPruneFilter(compoundPredicate.getChild(1));
-        Set<Long> rights = rightPair.first;
+        Pair<RoaringBitmap, Boolean> rightPair = evalPartitionPruneFilter(compoundPredicate.getChild(1));
+        RoaringBitmap rights = rightPair.first;
 
         Boolean existNoEval = leftPair.second || rightPair.second;
 
@@ -763,13 +795,13 @@ public class ListPartitionPruner implements PartitionPruner {
             } else if (rights == null) {
                 return Pair.create(lefts, existNoEval);
             } else {
-                lefts.retainAll(rights);
+                lefts.and(rights);
             }
         } else if (compoundPredicate.getCompoundType() == CompoundPredicateOperator.CompoundType.OR) {
             if (lefts == null || rights == null) {
                 return Pair.create(null, existNoEval);
             } else {
-                lefts.addAll(rights);
+                lefts.or(rights);
             }
         }
         return Pair.create(lefts, existNoEval);
@@ -386,6 +386,52 @@ public class CachedStatisticStorage implements StatisticStorage {
         this.cachedStatistics.synchronous().put(new ColumnStatsCacheKey(table.getId(), column), Optional.of(columnStatistic));
     }
 
+    @Override
+    public StatisticsCacheSnapshot getSnapshot(Collection<Long> tableIds) {
+        StatisticsCacheSnapshot snapshot = new StatisticsCacheSnapshot();
+        // only the loaded statistics are taken, never wait for the loading ones
+        for (Map.Entry<TableStatsCacheKey, CompletableFuture<Optional<Long>>> entry : tableStatsCache.asMap().entrySet()) {
+            TableStatsCacheKey key = entry.getKey();
+            if (tableIds != null && !tableIds.contains(key.getTableId())) {
+                continue;
+            }
+            Optional<Long> rowCount = getIfLoaded(entry.getValue());
+            rowCount.ifPresent(rows -> snapshot.addPartitionRowCount(key.getTableId(), key.getPartitionId(), rows));
+        }
+        for (Map.Entry<ColumnStatsCacheKey, CompletableFuture<Optional<ColumnStatistic>>> entry :
+                cachedStatistics.asMap().entrySet()) {
+            ColumnStatsCacheKey key = entry.getKey();
+            if (tableIds != null && !tableIds.contains(key.tableId)) {
+                continue;
+            }
+            Optional<ColumnStatistic> statistic = getIfLoaded(entry.getValue());
+            statistic.ifPresent(s -> snapshot.addColumnStatistic(key.tableId, key.column, s));
+        }
+        return snapshot;
+    }
+
+    private static <T> Optional<T> getIfLoaded(CompletableFuture<Optional<T>> future) {
+        if (!future.isDone() || future.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return future.join();
+    }
+
+    @Override
+    public void applySnapshot(StatisticsCacheSnapshot snapshot) {
+        for (Map.Entry<Long, StatisticsCacheSnapshot.TableStatistics> table : snapshot.getTables().entrySet()) {
+            long tableId = table.getKey();
+            for (Map.Entry<Long, Long> partition : table.getValue().partitionRowCounts.entrySet()) {
+                tableStatsCache.synchronous().put(new TableStatsCacheKey(tableId, partition.getKey()),
+                        Optional.of(partition.getValue()));
+            }
+            for (Map.Entry<String, ColumnStatistic> column : table.getValue().columnStatistics.entrySet()) {
+                cachedStatistics.synchronous().put(new ColumnStatsCacheKey(tableId, column.getKey()),
+                        Optional.of(column.getValue()));
+            }
+        }
+    }
+
     @Override
     public Map<String, Histogram> getHistogramStatistics(Table table, List<String> columns) {
         Preconditions.checkState(table != null);
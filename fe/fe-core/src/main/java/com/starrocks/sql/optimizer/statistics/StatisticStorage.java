@@ -84,4 +84,12 @@ public interface StatisticStorage {
     }
 
     void addColumnStatistic(Table table, String column, ColumnStatistic columnStatistic);
+
+    // Take a snapshot of the loaded basic statistics of the tables, or of all the tables if tableIds is null
+    default StatisticsCacheSnapshot getSnapshot(Collection<Long> tableIds) {
+        return new StatisticsCacheSnapshot();
+    }
+
+    default void applySnapshot(StatisticsCacheSnapshot snapshot) {
+    }
 }
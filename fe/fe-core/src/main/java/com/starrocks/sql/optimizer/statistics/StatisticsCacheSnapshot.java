@@ -0,0 +1,199 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.optimizer.statistics;
+
+import com.starrocks.common.io.Text;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A binary snapshot of the basic statistics cached by {@link CachedStatisticStorage}, including the row count of
+ * partitions and the column statistics, grouped by table. Histograms are not included.
+ * <p>
+ * The FE which collects the statistics pushes the snapshot of the table to the other FEs, and the snapshot of the
+ * whole cache can be saved to a local file to warm up the cache after FE restarts.
+ */
+public class StatisticsCacheSnapshot {
+    private static final int MAGIC = 0x53545343;
+    private static final int VERSION = 1;
+
+    private static final byte HAS_MIN_STRING = 1;
+    private static final byte HAS_MAX_STRING = 2;
+
+    // the time when the snapshot is taken, in milliseconds
+    private final long createTime;
+    private final Map<Long, TableStatistics> tables = new HashMap<>();
+
+    static class TableStatistics {
+        // partition id -> row count
+        final Map<Long, Long> partitionRowCounts = new HashMap<>();
+        // column name -> column statistic
+        final Map<String, ColumnStatistic> columnStatistics = new HashMap<>();
+    }
+
+    public StatisticsCacheSnapshot() {
+        this(System.currentTimeMillis());
+    }
+
+    private StatisticsCacheSnapshot(long createTime) {
+        this.createTime = createTime;
+    }
+
+    public long getCreateTime() {
+        return createTime;
+    }
+
+    public Set<Long> getTableIds() {
+        return tables.keySet();
+    }
+
+    public boolean isEmpty() {
+        return tables.isEmpty();
+    }
+
+    public void removeTable(long tableId) {
+        tables.remove(tableId);
+    }
+
+    public void addPartitionRowCount(long tableId, long partitionId, long rowCount) {
+        tables.computeIfAbsent(tableId, k -> new TableStatistics()).partitionRowCounts.put(partitionId, rowCount);
+    }
+
+    public void addColumnStatistic(long tableId, String column, ColumnStatistic statistic) {
+        tables.computeIfAbsent(tableId, k -> new TableStatistics()).columnStatistics.put(column, statistic);
+    }
+
+    Map<Long, TableStatistics> getTables() {
+        return tables;
+    }
+
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static StatisticsCacheSnapshot deserialize(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            return read(in);
+        }
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(createTime);
+        out.writeInt(tables.size());
+        for (Map.Entry<Long, TableStatistics> table : tables.entrySet()) {
+            out.writeLong(table.getKey());
+
+            Map<Long, Long> partitionRowCounts = table.getValue().partitionRowCounts;
+            out.writeInt(partitionRowCounts.size());
+            for (Map.Entry<Long, Long> partition : partitionRowCounts.entrySet()) {
+                out.writeLong(partition.getKey());
+                out.writeLong(partition.getValue());
+            }
+
+            Map<String, ColumnStatistic> columnStatistics = table.getValue().columnStatistics;
+            out.writeInt(columnStatistics.size());
+            for (Map.Entry<String, ColumnStatistic> column : columnStatistics.entrySet()) {
+                Text.writeString(out, column.getKey());
+                writeColumnStatistic(out, column.getValue());
+            }
+        }
+    }
+
+    public static StatisticsCacheSnapshot read(DataInput in) throws IOException {
+        int magic = in.readInt();
+        int version = in.readInt();
+        if (magic != MAGIC || version != VERSION) {
+            throw new IOException("invalid statistics cache snapshot, magic: " + magic + ", version: " + version);
+        }
+        StatisticsCacheSnapshot snapshot = new StatisticsCacheSnapshot(in.readLong());
+        int tableNum = in.readInt();
+        for (int i = 0; i < tableNum; i++) {
+            long tableId = in.readLong();
+            TableStatistics table = new TableStatistics();
+
+            int partitionNum = in.readInt();
+            for (int j = 0; j < partitionNum; j++) {
+                long partitionId = in.readLong();
+                table.partitionRowCounts.put(partitionId, in.readLong());
+            }
+
+            int columnNum = in.readInt();
+            for (int j = 0; j < columnNum; j++) {
+                String column = Text.readString(in);
+                table.columnStatistics.put(column, readColumnStatistic(in));
+            }
+            snapshot.tables.put(tableId, table);
+        }
+        return snapshot;
+    }
+
+    private static void writeColumnStatistic(DataOutput out, ColumnStatistic statistic) throws IOException {
+        out.writeDouble(statistic.getMinValue());
+        out.writeDouble(statistic.getMaxValue());
+        out.writeDouble(statistic.getNullsFraction());
+        out.writeDouble(statistic.getAverageRowSize());
+        out.writeDouble(statistic.getDistinctValuesCount());
+        out.writeByte(statistic.getType().ordinal());
+
+        byte flags = 0;
+        if (statistic.getMinString() != null) {
+            flags |= HAS_MIN_STRING;
+        }
+        if (statistic.getMaxString() != null) {
+            flags |= HAS_MAX_STRING;
+        }
+        out.writeByte(flags);
+        if (statistic.getMinString() != null) {
+            Text.writeString(out, statistic.getMinString());
+        }
+        if (statistic.getMaxString() != null) {
+            Text.writeString(out, statistic.getMaxString());
+        }
+    }
+
+    private static ColumnStatistic readColumnStatistic(DataInput in) throws IOException {
+        ColumnStatistic.Builder builder = ColumnStatistic.builder()
+                .setMinValue(in.readDouble())
+                .setMaxValue(in.readDouble())
+                .setNullsFraction(in.readDouble())
+                .setAverageRowSize(in.readDouble())
+                .setDistinctValuesCount(in.readDouble())
+                .setType(ColumnStatistic.StatisticType.values()[in.readByte()]);
+
+        byte flags = in.readByte();
+        if ((flags & HAS_MIN_STRING) != 0) {
+            builder.setMinString(Text.readString(in));
+        }
+        if ((flags & HAS_MAX_STRING) != 0) {
+            builder.setMaxString(Text.readString(in));
+        }
+        return builder.build();
+    }
+}
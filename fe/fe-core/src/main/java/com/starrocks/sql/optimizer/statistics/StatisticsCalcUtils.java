@@ -112,7 +112,7 @@ public class StatisticsCalcUtils {
                     GlobalStateMgr.getCurrentState().getAnalyzeMgr().getBasicStatsMetaMap().get(table.getId());
             StatsConstants.AnalyzeType analyzeType = basicStatsMeta == null ? null : basicStatsMeta.getType();
             LocalDateTime lastWorkTimestamp = GlobalStateMgr.getCurrentState().getTabletStatMgr().getLastWorkTimestamp();
-            if (StatsConstants.AnalyzeType.FULL == analyzeType) {
+            if (basicStatsMeta != null && basicStatsMeta.isPartitionLevelStatistics()) {
 
                 // The basicStatsMeta.getUpdateRows() interface can get the number of
                 // loaded rows in the table since the last statistics update. But this number is at the table level.
@@ -571,6 +571,7 @@ public class RelationTransformer implements AstVisitor<LogicalPlan, ExpressionMa
                         .setDistributionSpec(distributionSpec)
                         .setSelectedIndexId(((OlapTable) node.getTable()).getBaseIndexId())
                         .setGtid(node.getGtid())
+                        .setScanVersionRanges(node.getScanVersionRanges())
                         .setPartitionNames(node.getPartitionNames())
                         .setSelectedTabletId(Lists.newArrayList())
                         .setHintsTabletIds(node.getTabletIds())
@@ -6722,9 +6722,12 @@ public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
 
     @Override
     public ParseNode visitIntegerValue(StarRocksParser.IntegerValueContext context) {
-        NodePosition pos = createPos(context);
+        return createIntegerLiteral(context.getText(), createPos(context));
+    }
+
+    static LiteralExpr createIntegerLiteral(String text, NodePosition pos) {
         try {
-            BigInteger intLiteral = new BigInteger(context.getText());
+            BigInteger intLiteral = new BigInteger(text);
             // Note: val is positive, because we do not recognize minus character in 'IntegerLiteral'
             // -2^63 will be recognized as large int(__int128)
             if (intLiteral.compareTo(LONG_MAX) <= 0) {
@@ -6732,46 +6735,52 @@ public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
             } else if (intLiteral.compareTo(LARGEINT_MAX_ABS) <= 0) {
                 return new LargeIntLiteral(intLiteral.toString(), pos);
             } else {
-                throw new ParsingException(PARSER_ERROR_MSG.numOverflow(context.getText()), pos);
+                throw new ParsingException(PARSER_ERROR_MSG.numOverflow(text), pos);
             }
         } catch (NumberFormatException | AnalysisException e) {
-            throw new ParsingException(PARSER_ERROR_MSG.invalidNumFormat(context.getText()), pos);
+            throw new ParsingException(PARSER_ERROR_MSG.invalidNumFormat(text), pos);
         }
     }
 
     @Override
     public ParseNode visitDoubleValue(StarRocksParser.DoubleValueContext context) {
-        NodePosition pos = createPos(context);
+        return createDoubleLiteral(context.getText(), sqlMode, createPos(context));
+    }
+
+    static LiteralExpr createDoubleLiteral(String text, long sqlMode, NodePosition pos) {
         try {
             if (SqlModeHelper.check(sqlMode, SqlModeHelper.MODE_DOUBLE_LITERAL)) {
-                return new FloatLiteral(context.getText(), pos);
+                return new FloatLiteral(text, pos);
             } else {
-                BigDecimal decimal = new BigDecimal(context.getText());
+                BigDecimal decimal = new BigDecimal(text);
                 int precision = DecimalLiteral.getRealPrecision(decimal);
                 int scale = DecimalLiteral.getRealScale(decimal);
                 int integerPartWidth = precision - scale;
                 if (integerPartWidth > 38) {
-                    return new FloatLiteral(context.getText(), pos);
+                    return new FloatLiteral(text, pos);
                 }
                 return new DecimalLiteral(decimal, pos);
             }
 
         } catch (AnalysisException | NumberFormatException e) {
-            throw new ParsingException(PARSER_ERROR_MSG.invalidNumFormat(context.getText()), pos);
+            throw new ParsingException(PARSER_ERROR_MSG.invalidNumFormat(text), pos);
         }
     }
 
     @Override
     public ParseNode visitDecimalValue(StarRocksParser.DecimalValueContext context) {
-        NodePosition pos = createPos(context);
+        return createDecimalLiteral(context.getText(), sqlMode, createPos(context));
+    }
+
+    static LiteralExpr createDecimalLiteral(String text, long sqlMode, NodePosition pos) {
         try {
             if (SqlModeHelper.check(sqlMode, SqlModeHelper.MODE_DOUBLE_LITERAL)) {
-                return new FloatLiteral(context.getText(), pos);
+                return new FloatLiteral(text, pos);
             } else {
-                return new DecimalLiteral(context.getText(), pos);
+                return new DecimalLiteral(text, pos);
             }
         } catch (AnalysisException e) {
-            throw new ParsingException(PARSER_ERROR_MSG.invalidNumFormat(context.getText()), pos);
+            throw new ParsingException(PARSER_ERROR_MSG.invalidNumFormat(text), pos);
         }
     }
 
@@ -6792,20 +6801,22 @@ public class AstBuilder extends StarRocksBaseVisitor<ParseNode> {
 
     @Override
     public ParseNode visitString(StarRocksParser.StringContext context) {
-        String quotedString;
         NodePosition pos = createPos(context);
         if (context.SINGLE_QUOTED_TEXT() != null) {
-            quotedString = context.SINGLE_QUOTED_TEXT().getText();
-            // For support mysql embedded quotation
-            // In a single-quoted string, two single-quotes are combined into one single-quote
-            quotedString = quotedString.substring(1, quotedString.length() - 1).replace("''", "'");
+            return new StringLiteral(unquoteSingleQuotedText(context.SINGLE_QUOTED_TEXT().getText()), pos);
         } else {
-            quotedString = context.DOUBLE_QUOTED_TEXT().getText();
+            String quotedString = context.DOUBLE_QUOTED_TEXT().getText();
             // For support mysql embedded quotation
             // In a double-quoted string, two double-quotes are combined into one double-quote
             quotedString = quotedString.substring(1, quotedString.length() - 1).replace("\"\"", "\"");
+            return new StringLiteral(escapeBackSlash(quotedString), pos);
         }
-        return new StringLiteral(escapeBackSlash(quotedString), pos);
+    }
+
+    static String unquoteSingleQuotedText(String quotedString) {
+        // For support mysql embedded quotation
+        // In a single-quoted string, two single-quotes are combined into one single-quote
+        return escapeBackSlash(quotedString.substring(1, quotedString.length() - 1).replace("''", "'"));
     }
 
     @Override
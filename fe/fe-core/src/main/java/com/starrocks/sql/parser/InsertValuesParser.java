@@ -0,0 +1,436 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.parser;
+
+import com.starrocks.analysis.BoolLiteral;
+import com.starrocks.analysis.Expr;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.analysis.NullLiteral;
+import com.starrocks.analysis.StringLiteral;
+import com.starrocks.analysis.TableName;
+import com.starrocks.common.NotImplementedException;
+import com.starrocks.sql.ast.InsertStmt;
+import com.starrocks.sql.ast.QueryStatement;
+import com.starrocks.sql.ast.ValuesRelation;
+import org.antlr.v4.runtime.Vocabulary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A hand-written parser for the plain multi-row INSERT ... VALUES statement, which is sent by the
+ * ingestion clients with thousands of rows and is very expensive to parse with the ANTLR grammar.
+ * Only the statement of the form
+ * <pre>
+ *   INSERT INTO [[catalog.]db.]tbl [(col, ...)] VALUES (literal, ...) [, (literal, ...)]* [;]
+ * </pre>
+ * is accepted, where a literal is a number with an optional sign, a single-quoted string, NULL, TRUE or FALSE.
+ * The statement built is the same as the one {@link AstBuilder} builds, including the node positions.
+ * <p>
+ * Anything else, e.g. comments, hints, expressions, keywords used as identifiers or invalid literals,
+ * makes {@link #parse} return null, and the statement is left to the ANTLR parser, so the errors are
+ * still reported by it.
+ */
+class InsertValuesParser {
+    private static final Set<String> KEYWORDS = collectKeywords();
+
+    // thrown to give up the fast path, it is never seen by the callers
+    private static final UnsupportedSqlException UNSUPPORTED = new UnsupportedSqlException();
+
+    private final String sql;
+    private final long sqlMode;
+    private final int tokenLimit;
+    private final int exprLimit;
+
+    private int index = 0;
+    private int line = 1;
+    private int lineStart = 0;
+    private int tokenCount = 0;
+    // position of the last consumed token
+    private int tokenLine;
+    private int tokenCol;
+
+    private InsertValuesParser(String sql, long sqlMode, int tokenLimit, int exprLimit) {
+        this.sql = sql;
+        this.sqlMode = sqlMode;
+        this.tokenLimit = tokenLimit;
+        this.exprLimit = exprLimit;
+    }
+
+    /**
+     * @return the parsed statement, null if the sql is not supported by the fast path
+     */
+    static InsertStmt parse(String sql, long sqlMode, int tokenLimit, int exprLimit) {
+        try {
+            return new InsertValuesParser(sql, sqlMode, tokenLimit, exprLimit).parseInsert();
+        } catch (UnsupportedSqlException | ParsingException e) {
+            return null;
+        }
+    }
+
+    private InsertStmt parseInsert() {
+        skipWhitespace();
+        expectKeyword("INSERT");
+        int insertLine = tokenLine;
+        int insertCol = tokenCol;
+        skipWhitespace();
+        expectKeyword("INTO");
+        skipWhitespace();
+        TableName tableName = parseTableName();
+        skipWhitespace();
+
+        List<String> columnNames = null;
+        if (peek() == '(') {
+            columnNames = parseColumnNames();
+            skipWhitespace();
+        }
+
+        expectKeyword("VALUES");
+        int valuesLine = tokenLine;
+        int valuesCol = tokenCol;
+        List<List<Expr>> rows = new ArrayList<>();
+        do {
+            skipWhitespace();
+            rows.add(parseRow());
+            skipWhitespace();
+        } while (tryConsume(','));
+        int endLine = tokenLine;
+        int endCol = tokenCol;
+
+        if (tryConsume(';')) {
+            skipWhitespace();
+        }
+        if (index != sql.length() || rows.size() > exprLimit) {
+            throw UNSUPPORTED;
+        }
+
+        List<String> colNames = new ArrayList<>();
+        for (int i = 0; i < rows.get(0).size(); ++i) {
+            colNames.add("column_" + i);
+        }
+        QueryStatement queryStatement = new QueryStatement(new ValuesRelation(rows, colNames,
+                new NodePosition(valuesLine, valuesCol, endLine, endCol)));
+        return new InsertStmt(tableName, null, null, columnNames, queryStatement, false, new HashMap<>(),
+                new NodePosition(insertLine, insertCol, endLine, endCol));
+    }
+
+    private TableName parseTableName() {
+        List<String> parts = new ArrayList<>(3);
+        parts.add(parseIdentifier());
+        int startLine = tokenLine;
+        int startCol = tokenCol;
+        while (true) {
+            skipWhitespace();
+            if (!tryConsume('.')) {
+                break;
+            }
+            skipWhitespace();
+            parts.add(parseIdentifier());
+        }
+        NodePosition pos = new NodePosition(startLine, startCol, tokenLine, tokenCol);
+        if (parts.size() == 3) {
+            return new TableName(parts.get(0), parts.get(1), parts.get(2), pos);
+        } else if (parts.size() == 2) {
+            return new TableName(null, parts.get(0), parts.get(1), pos);
+        } else if (parts.size() == 1) {
+            return new TableName(null, null, parts.get(0), pos);
+        }
+        throw UNSUPPORTED;
+    }
+
+    private List<String> parseColumnNames() {
+        expect('(');
+        List<String> columnNames = new ArrayList<>();
+        do {
+            skipWhitespace();
+            // StarRocks tables are not case-sensitive, the same as AstBuilder#getColumnNames
+            columnNames.add(parseIdentifier().toLowerCase());
+            skipWhitespace();
+        } while (tryConsume(','));
+        expect(')');
+        return columnNames;
+    }
+
+    private String parseIdentifier() {
+        markToken();
+        char c = peek();
+        if (c == '`') {
+            int end = sql.indexOf('`', index + 1);
+            // an escaped back quote is left to the ANTLR parser
+            if (end < 0 || (end + 1 < sql.length() && sql.charAt(end + 1) == '`')) {
+                throw UNSUPPORTED;
+            }
+            for (int i = index + 1; i < end; i++) {
+                if (sql.charAt(i) == '\n' || Character.isSurrogate(sql.charAt(i))) {
+                    throw UNSUPPORTED;
+                }
+            }
+            String identifier = sql.substring(index + 1, end);
+            index = end + 1;
+            return identifier;
+        }
+        if (!isIdentifierStart(c)) {
+            throw UNSUPPORTED;
+        }
+        String identifier = readWord();
+        // the non-reserved keywords are valid identifiers, but it is simpler to leave all of them to ANTLR
+        if (KEYWORDS.contains(identifier.toUpperCase(Locale.ROOT))) {
+            throw UNSUPPORTED;
+        }
+        return identifier;
+    }
+
+    private List<Expr> parseRow() {
+        expect('(');
+        List<Expr> row = new ArrayList<>();
+        do {
+            skipWhitespace();
+            row.add(parseLiteral());
+            skipWhitespace();
+        } while (tryConsume(','));
+        expect(')');
+        if (row.size() > exprLimit) {
+            throw UNSUPPORTED;
+        }
+        return row;
+    }
+
+    private Expr parseLiteral() {
+        char c = peek();
+        if (c == '-' || c == '+') {
+            index++;
+            countToken();
+            skipWhitespace();
+            // '--' starts a comment
+            if (!isDigit(peek()) && peek() != '.') {
+                throw UNSUPPORTED;
+            }
+            LiteralExpr literal = parseNumber();
+            if (c == '-') {
+                try {
+                    literal.swapSign();
+                } catch (NotImplementedException e) {
+                    throw UNSUPPORTED;
+                }
+            }
+            return literal;
+        } else if (isDigit(c) || c == '.') {
+            return parseNumber();
+        } else if (c == '\'') {
+            return parseString();
+        } else if (isIdentifierStart(c)) {
+            markToken();
+            String word = readWord();
+            NodePosition pos = new NodePosition(tokenLine, tokenCol);
+            if (word.equalsIgnoreCase("NULL")) {
+                return new NullLiteral(pos);
+            } else if (word.equalsIgnoreCase("TRUE")) {
+                return new BoolLiteral(true, pos);
+            } else if (word.equalsIgnoreCase("FALSE")) {
+                return new BoolLiteral(false, pos);
+            }
+        }
+        throw UNSUPPORTED;
+    }
+
+    // INTEGER_VALUE, DECIMAL_VALUE and DOUBLE_VALUE of StarRocksLex.g4
+    private LiteralExpr parseNumber() {
+        markToken();
+        int start = index;
+        int intDigits = skipDigits();
+        boolean isDecimal = false;
+        if (tryConsume('.')) {
+            isDecimal = true;
+            if (skipDigits() == 0 && intDigits == 0) {
+                throw UNSUPPORTED;
+            }
+        }
+        boolean isDouble = false;
+        if (peek() == 'e' || peek() == 'E') {
+            index++;
+            if (peek() == '+' || peek() == '-') {
+                index++;
+            }
+            if (skipDigits() == 0) {
+                throw UNSUPPORTED;
+            }
+            isDouble = true;
+        }
+        // e.g. DIGIT_IDENTIFIER
+        if (isIdentifierStart(peek()) || isDigit(peek())) {
+            throw UNSUPPORTED;
+        }
+        String text = sql.substring(start, index);
+        NodePosition pos = new NodePosition(tokenLine, tokenCol);
+        if (isDouble) {
+            return AstBuilder.createDoubleLiteral(text, sqlMode, pos);
+        } else if (isDecimal) {
+            return AstBuilder.createDecimalLiteral(text, sqlMode, pos);
+        }
+        return AstBuilder.createIntegerLiteral(text, pos);
+    }
+
+    // SINGLE_QUOTED_TEXT of StarRocksLex.g4
+    private StringLiteral parseString() {
+        markToken();
+        int start = index;
+        index++;
+        while (true) {
+            if (index >= sql.length()) {
+                throw UNSUPPORTED;
+            }
+            char c = sql.charAt(index);
+            if (c == '\\') {
+                if (index + 1 >= sql.length()) {
+                    throw UNSUPPORTED;
+                }
+                nextLineIfNeeded(sql.charAt(index + 1), index + 1);
+                index += 2;
+            } else if (c == '\'') {
+                if (index + 1 < sql.length() && sql.charAt(index + 1) == '\'') {
+                    index += 2;
+                } else {
+                    index++;
+                    break;
+                }
+            } else if (Character.isSurrogate(c)) {
+                // ANTLR counts the columns by code points
+                throw UNSUPPORTED;
+            } else {
+                nextLineIfNeeded(c, index);
+                index++;
+            }
+        }
+        return new StringLiteral(AstBuilder.unquoteSingleQuotedText(sql.substring(start, index)),
+                new NodePosition(tokenLine, tokenCol));
+    }
+
+    private void nextLineIfNeeded(char c, int pos) {
+        if (c == '\n') {
+            line++;
+            lineStart = pos + 1;
+        }
+    }
+
+    private String readWord() {
+        int start = index;
+        while (index < sql.length() && (isIdentifierStart(sql.charAt(index)) || isDigit(sql.charAt(index)))) {
+            index++;
+        }
+        // non-ascii letters are also valid in an identifier
+        if (index < sql.length() && sql.charAt(index) >= '\u0080') {
+            throw UNSUPPORTED;
+        }
+        return sql.substring(start, index);
+    }
+
+    private void expectKeyword(String keyword) {
+        markToken();
+        if (!isIdentifierStart(peek()) || !readWord().equalsIgnoreCase(keyword)) {
+            throw UNSUPPORTED;
+        }
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw UNSUPPORTED;
+        }
+        markToken();
+        index++;
+    }
+
+    private boolean tryConsume(char c) {
+        if (peek() != c) {
+            return false;
+        }
+        markToken();
+        index++;
+        return true;
+    }
+
+    private int skipDigits() {
+        int start = index;
+        while (isDigit(peek())) {
+            index++;
+        }
+        return index - start;
+    }
+
+    // WS of StarRocksLex.g4, comments are not skipped on purpose because they may carry hints
+    private void skipWhitespace() {
+        int start = index;
+        while (index < sql.length()) {
+            char c = sql.charAt(index);
+            if (c == '\n') {
+                line++;
+                lineStart = index + 1;
+            } else if (c != ' ' && c != '\r' && c != '\t' && c != '\u3000') {
+                break;
+            }
+            index++;
+        }
+        if (index > start) {
+            countToken();
+        }
+    }
+
+    private void markToken() {
+        tokenLine = line;
+        tokenCol = index - lineStart;
+        countToken();
+    }
+
+    // the same limit as PostProcessListener, hidden tokens are counted too
+    private void countToken() {
+        if (++tokenCount >= tokenLimit) {
+            throw UNSUPPORTED;
+        }
+    }
+
+    private char peek() {
+        return index < sql.length() ? sql.charAt(index) : 0;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == '$';
+    }
+
+    private static final class UnsupportedSqlException extends RuntimeException {
+        UnsupportedSqlException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static Set<String> collectKeywords() {
+        Set<String> keywords = new HashSet<>();
+        Vocabulary vocabulary = StarRocksLexer.VOCABULARY;
+        for (int i = 0; i <= vocabulary.getMaxTokenType(); i++) {
+            String literalName = vocabulary.getLiteralName(i);
+            // e.g. 'INSERT'
+            if (literalName != null && literalName.length() > 2 && isIdentifierStart(literalName.charAt(1))) {
+                keywords.add(literalName.substring(1, literalName.length() - 1).toUpperCase(Locale.ROOT));
+            }
+        }
+        return keywords;
+    }
+}
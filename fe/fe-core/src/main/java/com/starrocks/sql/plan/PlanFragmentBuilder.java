@@ -822,6 +822,7 @@ public class PlanFragmentBuilder {
             scanNode.setIsOutputChunkByBucket(node.needOutputChunkByBucket());
             scanNode.setWithoutColocateRequirement(node.isWithoutColocateRequirement());
             scanNode.setGtid(node.getGtid());
+            scanNode.setScanVersionRanges(node.getScanVersionRanges());
             scanNode.setVectorSearchOptions(node.getVectorSearchOptions());
             currentExecGroup.add(scanNode);
             // set tablet
@@ -1599,6 +1600,11 @@ public class PlanFragmentBuilder {
                             case "TABLE_NAME":
                                 scanNode.setSchemaTable(constantOperator.getVarchar());
                                 break;
+                            case "DB_NAME":
+                                if (scanNode.getTableName().equalsIgnoreCase("partitions_meta")) {
+                                    scanNode.setSchemaDb(constantOperator.getVarchar());
+                                }
+                                break;
                             case "BE_ID":
                                 scanNode.setBeId(constantOperator.getBigint());
                                 break;
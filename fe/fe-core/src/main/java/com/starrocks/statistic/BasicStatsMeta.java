@@ -118,6 +118,16 @@ public class BasicStatsMeta implements Writable {
         return updateTime;
     }
 
+    /**
+     * Whether the statistics are stored by partition in column_statistics, which is true for the full collection
+     * and the incremental sample collection.
+     */
+    public boolean isPartitionLevelStatistics() {
+        return type == StatsConstants.AnalyzeType.FULL || (type == StatsConstants.AnalyzeType.SAMPLE
+                && properties != null
+                && Boolean.parseBoolean(properties.get(StatsConstants.STATISTIC_INCREMENTAL_SAMPLE)));
+    }
+
     public Map<String, String> getProperties() {
         return properties;
     }
@@ -82,6 +82,10 @@ public class FullStatisticsCollectJob extends StatisticsCollectJob {
         this.partitionIdList = partitionIdList;
     }
 
+    public List<Long> getPartitionIdList() {
+        return partitionIdList;
+    }
+
     @Override
     public void collect(ConnectContext context, AnalyzeStatus analyzeStatus) throws Exception {
         int parallelism = Math.max(1, context.getSessionVariable().getStatisticCollectParallelism());
@@ -281,8 +285,8 @@ public class FullStatisticsCollectJob extends StatisticsCollectJob {
         return Lists.partition(totalQuerySQL, parallelism);
     }
 
-    private String buildBatchCollectFullStatisticSQL(Table table, Partition partition, String columnName,
-                                                     Type columnType) {
+    protected String buildBatchCollectFullStatisticSQL(Table table, Partition partition, String columnName,
+                                                       Type columnType) {
         StringBuilder builder = new StringBuilder();
         VelocityContext context = new VelocityContext();
 
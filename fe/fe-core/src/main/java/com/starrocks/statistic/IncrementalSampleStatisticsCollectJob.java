@@ -0,0 +1,167 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.statistic;
+
+import com.google.common.collect.Maps;
+import com.starrocks.catalog.Database;
+import com.starrocks.catalog.Partition;
+import com.starrocks.catalog.Table;
+import com.starrocks.catalog.Tablet;
+import com.starrocks.catalog.Type;
+import com.starrocks.common.Config;
+import org.apache.commons.lang.StringEscapeUtils;
+import org.apache.velocity.VelocityContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the statistics of the partitions updated since the last collection, and only reads a sample of the
+ * tablets of the large partitions.
+ * <p>
+ * Like {@link FullStatisticsCollectJob}, the row count, data size, null count, ndv sketch and min/max of every
+ * partition are stored in column_statistics and merged into the table statistics when loading them, so the
+ * partitions that are not updated don't need to be sampled again. The counts of a sampled partition are scaled by
+ * the ratio of the partition rows to the sampled rows, while its ndv sketch only covers the sampled tablets.
+ * The statistics meta of the job is SAMPLE with {@link StatsConstants#STATISTIC_INCREMENTAL_SAMPLE} set.
+ */
+public class IncrementalSampleStatisticsCollectJob extends FullStatisticsCollectJob {
+
+    private static final String SAMPLE_PARTITION_STATISTIC_TEMPLATE = "SELECT cast($version as INT)" +
+            ", cast($partitionId as BIGINT)" + // BIGINT
+            ", '$columnNameStr'" + // VARCHAR
+            ", cast(COUNT(1) * $scale as BIGINT)" + // BIGINT
+            ", cast($dataSize * $scale as BIGINT)" + // BIGINT
+            ", $hllFunction" + // VARBINARY
+            ", cast(($countNullFunction) * $scale as BIGINT)" + // BIGINT
+            ", $maxFunction" + // VARCHAR
+            ", $minFunction " + // VARCHAR
+            " FROM (select $quoteColumnName as column_key from `$dbName`.`$tableName` TABLET($tabletIds)) tt";
+
+    private final long sampleRowsLimit;
+
+    // partition id -> sampled tablets, null if the whole partition is read
+    private final Map<Long, PartitionSample> partitionSamples = Maps.newHashMap();
+
+    private static class PartitionSample {
+        private final List<Long> tabletIds;
+        // partition rows / sampled rows
+        private final double scale;
+
+        PartitionSample(List<Long> tabletIds, double scale) {
+            this.tabletIds = tabletIds;
+            this.scale = scale;
+        }
+    }
+
+    public IncrementalSampleStatisticsCollectJob(Database db, Table table, List<Long> partitionIdList,
+                                                 List<String> columnNames, List<Type> columnTypes,
+                                                 StatsConstants.ScheduleType scheduleType,
+                                                 Map<String, String> properties) {
+        super(db, table, partitionIdList, columnNames, columnTypes, StatsConstants.AnalyzeType.SAMPLE, scheduleType,
+                markIncrementalSample(properties));
+        this.sampleRowsLimit = Long.parseLong(properties.getOrDefault(StatsConstants.STATISTIC_SAMPLE_COLLECT_ROWS,
+                String.valueOf(Config.statistic_sample_collect_rows)));
+    }
+
+    // the statistics meta of the job is SAMPLE, and the property tells that they are stored by partition
+    private static Map<String, String> markIncrementalSample(Map<String, String> properties) {
+        Map<String, String> result = Maps.newHashMap(properties);
+        result.put(StatsConstants.STATISTIC_INCREMENTAL_SAMPLE, "true");
+        return result;
+    }
+
+    @Override
+    protected String buildBatchCollectFullStatisticSQL(Table table, Partition partition, String columnName,
+                                                       Type columnType) {
+        PartitionSample sample = partitionSamples.computeIfAbsent(partition.getId(), k -> samplePartition(partition));
+        if (sample == null) {
+            return super.buildBatchCollectFullStatisticSQL(table, partition, columnName, columnType);
+        }
+
+        VelocityContext context = new VelocityContext();
+        String quoteColumnKey = "`column_key`";
+        context.put("version", StatsConstants.STATISTIC_BATCH_VERSION);
+        context.put("partitionId", partition.getId());
+        context.put("columnNameStr", StringEscapeUtils.escapeSql(columnName));
+        context.put("dataSize", fullAnalyzeGetDataSize(quoteColumnKey, columnType));
+        context.put("dbName", db.getOriginName());
+        context.put("tableName", table.getName());
+        context.put("quoteColumnName", StatisticUtils.quoting(table, columnName));
+        context.put("scale", BigDecimal.valueOf(sample.scale).toPlainString());
+        context.put("tabletIds", sample.tabletIds.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+
+        if (!columnType.canStatistic()) {
+            context.put("hllFunction", "hex(hll_serialize(hll_empty()))");
+            context.put("countNullFunction", "0");
+            context.put("maxFunction", "''");
+            context.put("minFunction", "''");
+        } else {
+            context.put("hllFunction", "hex(hll_serialize(IFNULL(hll_raw(" + quoteColumnKey + "), hll_empty())))");
+            context.put("countNullFunction", "COUNT(1) - COUNT(" + quoteColumnKey + ")");
+            context.put("maxFunction", getMinMaxFunction(columnType, quoteColumnKey, true));
+            context.put("minFunction", getMinMaxFunction(columnType, quoteColumnKey, false));
+        }
+        return build(context, SAMPLE_PARTITION_STATISTIC_TEMPLATE);
+    }
+
+    /**
+     * Pick random tablets of the partition until they hold sampleRowsLimit rows, returns null if the partition
+     * is small enough to be read entirely.
+     */
+    private PartitionSample samplePartition(Partition partition) {
+        if (partition.getDataSize() <= Config.statistic_max_full_collect_data_size) {
+            return null;
+        }
+        List<Tablet> tablets = partition.getSubPartitions().stream()
+                .flatMap(physicalPartition -> physicalPartition.getBaseIndex().getTablets().stream())
+                .filter(tablet -> tablet.getFuzzyRowCount() > 0)
+                .collect(Collectors.toCollection(ArrayList::new));
+        Collections.shuffle(tablets);
+
+        long totalRows = tablets.stream().mapToLong(Tablet::getFuzzyRowCount).sum();
+        long sampleRows = 0;
+        List<Long> tabletIds = new ArrayList<>();
+        for (Tablet tablet : tablets) {
+            if (sampleRows >= sampleRowsLimit) {
+                break;
+            }
+            tabletIds.add(tablet.getId());
+            sampleRows += tablet.getFuzzyRowCount();
+        }
+        if (tabletIds.isEmpty() || tabletIds.size() == tablets.size()) {
+            return null;
+        }
+        return new PartitionSample(tabletIds, totalRows * 1.0 / sampleRows);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("IncrementalSampleStatisticsCollectJob{");
+        sb.append("type=").append(type);
+        sb.append(", scheduleType=").append(scheduleType);
+        sb.append(", db=").append(db);
+        sb.append(", table=").append(table);
+        sb.append(", partitionIdList=").append(getPartitionIdList());
+        sb.append(", columnNames=").append(columnNames);
+        sb.append(", properties=").append(properties);
+        sb.append('}');
+        return sb.toString();
+    }
+}
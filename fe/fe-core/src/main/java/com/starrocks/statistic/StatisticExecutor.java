@@ -77,7 +77,7 @@ public class StatisticExecutor {
                                                    List<String> columnNames) {
         String sql;
         BasicStatsMeta meta = GlobalStateMgr.getCurrentState().getAnalyzeMgr().getBasicStatsMetaMap().get(tableId);
-        if (meta != null && meta.getType().equals(StatsConstants.AnalyzeType.FULL)) {
+        if (meta != null && meta.isPartitionLevelStatistics()) {
             Table table = null;
             if (dbId == null) {
                 List<Long> dbIds = GlobalStateMgr.getCurrentState().getLocalMetastore().getDbIds();
@@ -345,6 +345,8 @@ public class StatisticExecutor {
                 GlobalStateMgr.getCurrentState().getAnalyzeMgr().refreshBasicStatisticsCache(
                         basicStatsMeta.getDbId(), basicStatsMeta.getTableId(), basicStatsMeta.getColumns(),
                         refreshAsync);
+                GlobalStateMgr.getCurrentState().getStatisticsCacheSyncer().pushStatistics(table,
+                        basicStatsMeta.getColumns(), basicStatsMeta.getUpdateTime());
             } else {
                 // for external table
                 ExternalBasicStatsMeta externalBasicStatsMeta = new ExternalBasicStatsMeta(statsJob.getCatalogName(),
@@ -0,0 +1,239 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.statistic;
+
+import com.starrocks.catalog.Table;
+import com.starrocks.common.Config;
+import com.starrocks.common.FeConstants;
+import com.starrocks.common.ThreadPoolManager;
+import com.starrocks.common.util.FrontendDaemon;
+import com.starrocks.rpc.ThriftConnectionPool;
+import com.starrocks.rpc.ThriftRPCRequestExecutor;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.optimizer.statistics.StatisticStorage;
+import com.starrocks.sql.optimizer.statistics.StatisticsCacheSnapshot;
+import com.starrocks.system.Frontend;
+import com.starrocks.thrift.TNetworkAddress;
+import com.starrocks.thrift.TStatus;
+import com.starrocks.thrift.TStatusCode;
+import com.starrocks.thrift.TSyncStatisticsCacheRequest;
+import com.starrocks.thrift.TSyncStatisticsCacheResponse;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the basic statistics cache of every FE warm without querying the statistics tables.
+ * <p>
+ * After collecting the statistics of a table, the FE pushes the snapshot of its cached statistics of the table to
+ * the other FEs, so they don't need to reload the statistics when replaying the stats meta log.
+ * If enable_statistic_cache_warm_start is set, every FE also saves the snapshot of the whole cache to a local file
+ * periodically, and loads it after restart.
+ */
+public class StatisticsCacheSyncer extends FrontendDaemon {
+    private static final Logger LOG = LogManager.getLogger(StatisticsCacheSyncer.class);
+
+    private static final String SNAPSHOT_FILE_NAME = "statistics_cache.snapshot";
+    private static final int PUSH_QUEUE_SIZE = 1024;
+
+    // reject the pushes instead of blocking the statistics collection once the queue is full
+    private final ExecutorService pushExecutor = ThreadPoolManager.newDaemonThreadPool(1, 1, 0, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(PUSH_QUEUE_SIZE), new ThreadPoolExecutor.AbortPolicy(),
+            "statistics-cache-push", true);
+
+    // table id -> the update time of the latest statistics pushed to this FE
+    private final Map<Long, Long> pushedUpdateTimes = new ConcurrentHashMap<>();
+
+    private boolean snapshotFileLoaded = false;
+
+    public StatisticsCacheSyncer() {
+        super("statistics-cache-syncer", Config.statistic_cache_snapshot_interval_sec * 1000L);
+    }
+
+    @Override
+    protected void runAfterCatalogReady() {
+        setInterval(Config.statistic_cache_snapshot_interval_sec * 1000L);
+        if (!Config.enable_statistic_cache_warm_start) {
+            return;
+        }
+        if (!snapshotFileLoaded) {
+            snapshotFileLoaded = true;
+            loadSnapshotFile();
+        } else {
+            saveSnapshotFile();
+        }
+    }
+
+    /**
+     * Push the cached statistics of the table to the other FEs asynchronously, called after collecting statistics.
+     */
+    public void pushStatistics(Table table, List<String> columns, LocalDateTime updateTime) {
+        if (!Config.enable_statistic_cache_push || FeConstants.runningUnitTest || columns == null) {
+            return;
+        }
+        long updateTimeMs = toMillis(updateTime);
+        try {
+            pushExecutor.submit(() -> {
+                try {
+                    doPushStatistics(table, columns, updateTimeMs);
+                } catch (Exception e) {
+                    LOG.warn("failed to push the statistics of table {}", table.getName(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOG.warn("too many statistics to push, skip pushing the statistics of table {}", table.getName());
+        }
+    }
+
+    private void doPushStatistics(Table table, List<String> columns, long updateTime) {
+        StatisticStorage storage = GlobalStateMgr.getCurrentState().getStatisticStorage();
+        // the cache of this FE may be refreshed asynchronously, wait for the loading
+        storage.refreshTableStatisticSync(table);
+        storage.getColumnStatisticsSync(table, columns);
+        StatisticsCacheSnapshot snapshot = storage.getSnapshot(Collections.singleton(table.getId()));
+        if (snapshot.isEmpty()) {
+            return;
+        }
+
+        TSyncStatisticsCacheRequest request = new TSyncStatisticsCacheRequest();
+        request.setTable_id(table.getId());
+        request.setUpdate_time(updateTime);
+        try {
+            request.setSnapshot(snapshot.serialize());
+        } catch (IOException e) {
+            LOG.warn("failed to serialize the statistics of table {}", table.getName(), e);
+            return;
+        }
+
+        // the FEs may be deployed on the same host, so compare the node name
+        String selfNodeName = GlobalStateMgr.getCurrentState().getNodeMgr().getNodeName();
+        for (Frontend fe : GlobalStateMgr.getCurrentState().getNodeMgr().getFrontends(null)) {
+            if (fe.getNodeName().equals(selfNodeName) || !fe.isAlive()) {
+                continue;
+            }
+            try {
+                TSyncStatisticsCacheResponse response = ThriftRPCRequestExecutor.call(
+                        ThriftConnectionPool.frontendPool,
+                        new TNetworkAddress(fe.getHost(), fe.getRpcPort()),
+                        Config.thrift_rpc_timeout_ms,
+                        client -> client.syncStatisticsCache(request));
+                if (response.getStatus() == null || response.getStatus().getStatus_code() != TStatusCode.OK) {
+                    LOG.warn("failed to push the statistics of table {} to {}:{}, status: {}",
+                            table.getName(), fe.getHost(), fe.getRpcPort(), response.getStatus());
+                }
+            } catch (Exception e) {
+                LOG.warn("failed to push the statistics of table {} to {}:{}",
+                        table.getName(), fe.getHost(), fe.getRpcPort(), e);
+            }
+        }
+    }
+
+    /**
+     * Apply the statistics pushed by the FE which collects them.
+     */
+    public TStatus applyPushedStatistics(TSyncStatisticsCacheRequest request) {
+        StatisticsCacheSnapshot snapshot;
+        try {
+            snapshot = StatisticsCacheSnapshot.deserialize(request.getSnapshot());
+        } catch (IOException e) {
+            LOG.warn("failed to deserialize the statistics of table {}", request.getTable_id(), e);
+            TStatus status = new TStatus(TStatusCode.INVALID_ARGUMENT);
+            status.addToError_msgs(e.getMessage());
+            return status;
+        }
+        GlobalStateMgr.getCurrentState().getStatisticStorage().applySnapshot(snapshot);
+        pushedUpdateTimes.merge(request.getTable_id(), request.getUpdate_time(), Math::max);
+        return new TStatus(TStatusCode.OK);
+    }
+
+    /**
+     * Whether the statistics of the table updated at updateTime have been pushed to this FE,
+     * then it's unnecessary to reload them.
+     */
+    public boolean isPushed(long tableId, LocalDateTime updateTime) {
+        Long pushedUpdateTime = pushedUpdateTimes.get(tableId);
+        return pushedUpdateTime != null && pushedUpdateTime >= toMillis(updateTime);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static File getSnapshotFile() {
+        return new File(Config.meta_dir, SNAPSHOT_FILE_NAME);
+    }
+
+    private void saveSnapshotFile() {
+        StatisticsCacheSnapshot snapshot = GlobalStateMgr.getCurrentState().getStatisticStorage().getSnapshot(null);
+        File file = getSnapshotFile();
+        File tmpFile = new File(file.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath())))) {
+                snapshot.write(out);
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            LOG.debug("saved the statistics of {} tables to {}", snapshot.getTableIds().size(), file);
+        } catch (IOException e) {
+            LOG.warn("failed to save the statistics cache snapshot to {}", file, e);
+        }
+    }
+
+    private void loadSnapshotFile() {
+        File file = getSnapshotFile();
+        if (!file.exists()) {
+            return;
+        }
+        StatisticsCacheSnapshot snapshot;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            snapshot = StatisticsCacheSnapshot.read(in);
+        } catch (IOException e) {
+            LOG.warn("failed to load the statistics cache snapshot from {}", file, e);
+            return;
+        }
+
+        // skip the tables whose statistics are dropped or collected again after the snapshot is taken
+        Map<Long, BasicStatsMeta> basicStatsMetaMap = GlobalStateMgr.getCurrentState().getAnalyzeMgr()
+                .getBasicStatsMetaMap();
+        for (Long tableId : snapshot.getTableIds().toArray(new Long[0])) {
+            BasicStatsMeta meta = basicStatsMetaMap.get(tableId);
+            if (meta == null || toMillis(meta.getUpdateTime()) > snapshot.getCreateTime()) {
+                snapshot.removeTable(tableId);
+            }
+        }
+        GlobalStateMgr.getCurrentState().getStatisticStorage().applySnapshot(snapshot);
+        LOG.info("loaded the statistics of {} tables from {}", snapshot.getTableIds().size(), file);
+    }
+}
@@ -440,7 +440,7 @@ public class StatisticsCollectJobFactory {
                             table.getName(), basicStatsMeta.getUpdateTime(), healthy,
                             Config.statistic_auto_collect_sample_threshold, ByteSizeUnit.BYTES.toMB(sumDataSize),
                             ByteSizeUnit.BYTES.toMB(Config.statistic_auto_collect_small_table_size));
-                    createSampleStatsJob(allTableJobMap, job, db, table, columnNames, columnTypes);
+                    createSampleStatsJob(allTableJobMap, job, basicStatsMeta, db, table, columnNames, columnTypes);
                     return;
                 }
             }
@@ -449,7 +449,7 @@ public class StatisticsCollectJobFactory {
         LOG.debug("statistics job work on un-health table: {}, healthy: {}, Type: {}", table.getName(), healthy,
                 job.getAnalyzeType());
         if (job.getAnalyzeType().equals(StatsConstants.AnalyzeType.SAMPLE)) {
-            createSampleStatsJob(allTableJobMap, job, db, table, columnNames, columnTypes);
+            createSampleStatsJob(allTableJobMap, job, basicStatsMeta, db, table, columnNames, columnTypes);
         } else if (job.getAnalyzeType().equals(StatsConstants.AnalyzeType.FULL)) {
             if (basicStatsMeta == null || basicStatsMeta.isInitJobMeta()) {
                 createFullStatsJob(allTableJobMap, job, LocalDateTime.MIN, db, table, columnNames, columnTypes);
@@ -464,8 +464,19 @@ public class StatisticsCollectJobFactory {
     }
 
     private static void createSampleStatsJob(List<StatisticsCollectJob> allTableJobMap, NativeAnalyzeJob job,
-                                             Database db, Table table, List<String> columnNames,
-                                             List<Type> columnTypes) {
+                                             BasicStatsMeta basicStatsMeta, Database db, Table table,
+                                             List<String> columnNames, List<Type> columnTypes) {
+        if (Config.statistic_auto_collect_incremental_sample) {
+            // the partitions collected by the last full or incremental collection don't need to be sampled again
+            LocalDateTime statsLastUpdateTime = LocalDateTime.MIN;
+            if (basicStatsMeta != null && !basicStatsMeta.isInitJobMeta()
+                    && basicStatsMeta.isPartitionLevelStatistics()) {
+                statsLastUpdateTime = basicStatsMeta.getUpdateTime();
+            }
+            createIncrementalSampleStatsJob(allTableJobMap, job, getUpdatedPartitions(table, statsLastUpdateTime),
+                    db, table, columnNames, columnTypes);
+            return;
+        }
         StatisticsCollectJob sample = buildStatisticsCollectJob(db, table, null, columnNames, columnTypes,
                 StatsConstants.AnalyzeType.SAMPLE, job.getScheduleType(), job.getProperties());
         allTableJobMap.add(sample);
@@ -475,15 +486,14 @@ public class StatisticsCollectJobFactory {
                                            NativeAnalyzeJob job, LocalDateTime statsLastUpdateTime,
                                            Database db, Table table, List<String> columnNames, List<Type> columnTypes) {
         StatsConstants.AnalyzeType analyzeType;
-        List<Partition> partitionList = new ArrayList<>();
-        for (Partition partition : table.getPartitions()) {
-            LocalDateTime partitionUpdateTime = StatisticUtils.getPartitionLastUpdateTime(partition);
-            if (statsLastUpdateTime.isBefore(partitionUpdateTime) && partition.hasData()) {
-                partitionList.add(partition);
-            }
-        }
+        List<Partition> partitionList = getUpdatedPartitions(table, statsLastUpdateTime);
 
         if (partitionList.stream().anyMatch(p -> p.getDataSize() > Config.statistic_max_full_collect_data_size)) {
+            if (Config.statistic_auto_collect_incremental_sample) {
+                createIncrementalSampleStatsJob(allTableJobMap, job, partitionList, db, table, columnNames,
+                        columnTypes);
+                return;
+            }
             analyzeType = StatsConstants.AnalyzeType.SAMPLE;
             LOG.debug("statistics job choose sample on table: {}, partition data size greater than config: {}",
                     table.getName(), Config.statistic_max_full_collect_data_size);
@@ -497,4 +507,46 @@ public class StatisticsCollectJobFactory {
                     analyzeType, job.getScheduleType(), Maps.newHashMap()));
         }
     }
+
+    private static void createIncrementalSampleStatsJob(List<StatisticsCollectJob> allTableJobMap,
+                                                        NativeAnalyzeJob job, List<Partition> partitionList,
+                                                        Database db, Table table, List<String> columnNames,
+                                                        List<Type> columnTypes) {
+        if (partitionList.isEmpty()) {
+            return;
+        }
+        LOG.debug("statistics job choose incremental sample on table: {}, updated partitions: {}",
+                table.getName(), partitionList.size());
+        allTableJobMap.add(buildIncrementalSampleStatisticsCollectJob(db, table,
+                partitionList.stream().map(Partition::getId).collect(Collectors.toList()), columnNames, columnTypes,
+                job.getScheduleType(), job.getProperties()));
+    }
+
+    public static StatisticsCollectJob buildIncrementalSampleStatisticsCollectJob(Database db, Table table,
+                                                                                  List<Long> partitionIdList,
+                                                                                  List<String> columnNames,
+                                                                                  List<Type> columnTypes,
+                                                                                  StatsConstants.ScheduleType scheduleType,
+                                                                                  Map<String, String> properties) {
+        if (columnNames == null || columnNames.isEmpty()) {
+            columnNames = StatisticUtils.getCollectibleColumns(table);
+            columnTypes = null;
+        }
+        if (columnTypes == null || columnTypes.isEmpty()) {
+            columnTypes = columnNames.stream().map(col -> table.getColumn(col).getType()).collect(Collectors.toList());
+        }
+        return new IncrementalSampleStatisticsCollectJob(db, table, partitionIdList, columnNames, columnTypes,
+                scheduleType, properties);
+    }
+
+    private static List<Partition> getUpdatedPartitions(Table table, LocalDateTime statsLastUpdateTime) {
+        List<Partition> partitionList = new ArrayList<>();
+        for (Partition partition : table.getPartitions()) {
+            LocalDateTime partitionUpdateTime = StatisticUtils.getPartitionLastUpdateTime(partition);
+            if (statsLastUpdateTime.isBefore(partitionUpdateTime) && partition.hasData()) {
+                partitionList.add(partition);
+            }
+        }
+        return partitionList;
+    }
 }
@@ -47,6 +47,8 @@ public class StatsConstants {
     public static final String STATISTIC_SAMPLE_COLLECT_ROWS = "statistic_sample_collect_rows";
     public static final String STATISTIC_EXCLUDE_PATTERN = "statistic_exclude_pattern";
     public static final String STATISTIC_AUTO_COLLECT_INTERVAL = "statistic_auto_collect_interval";
+    // set by the incremental sample collection, whose statistics are stored by partition like the full collection
+    public static final String STATISTIC_INCREMENTAL_SAMPLE = "statistic_incremental_sample";
 
     // Sample statistics tablet sample ratio
     public static final String HIGH_WEIGHT_SAMPLE_RATIO = "high_weight_sample_ratio";
@@ -212,7 +212,14 @@ public class HeartbeatMgr extends FrontendDaemon {
                             GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo().getComputeNode(hbResponse.getBeId());
                 }
                 if (computeNode != null) {
+                    boolean wasAlive = computeNode.isAlive();
                     boolean isChanged = computeNode.handleHbResponse(hbResponse, isReplay);
+                    if (!isReplay && Config.enable_tablet_checker_dirty_check && computeNode instanceof Backend
+                            && wasAlive != computeNode.isAlive()) {
+                        // replicas on this backend become available or unavailable
+                        GlobalStateMgr.getCurrentState().getTabletChecker()
+                                .markBackendTabletsDirty(computeNode.getId());
+                    }
                     if (hbResponse.getStatus() != HbStatus.OK) {
                         // invalid all connections cached in ClientPool
                         ThriftConnectionPool.backendPool.clearPool(
@@ -67,6 +67,7 @@ import com.starrocks.metric.MetricRepo;
 import com.starrocks.persist.EditLog;
 import com.starrocks.persist.metablock.SRMetaBlockException;
 import com.starrocks.persist.metablock.SRMetaBlockWriter;
+import com.starrocks.qe.QueryResultCache;
 import com.starrocks.replication.ReplicationTxnCommitAttachment;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.server.RunMode;
@@ -1675,6 +1676,7 @@ public class DatabaseTransactionMgr {
             }
             TransactionLogApplier applier = txnLogApplierFactory.create(table);
             applier.applyVisibleLog(transactionState, tableCommitInfo, db);
+            QueryResultCache.getInstance().invalidateTable(table.getId());
         }
         try {
             GlobalStateMgr.getCurrentState().getAnalyzeMgr().updateLoadRows(transactionState);
@@ -1693,6 +1695,7 @@ public class DatabaseTransactionMgr {
         }
         TransactionLogApplier applier = txnLogApplierFactory.create(table);
         ((LakeTableTxnLogApplier) applier).applyVisibleLogBatch(transactionStateBatch, db);
+        QueryResultCache.getInstance().invalidateTable(table.getId());
         return true;
     }
 
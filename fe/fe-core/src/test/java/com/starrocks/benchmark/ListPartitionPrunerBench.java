@@ -0,0 +1,209 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.starrocks.analysis.BinaryType;
+import com.starrocks.analysis.DateLiteral;
+import com.starrocks.analysis.IntLiteral;
+import com.starrocks.analysis.LiteralExpr;
+import com.starrocks.catalog.Type;
+import com.starrocks.common.AnalysisException;
+import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.InPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rule.transformation.ListPartitionIndex;
+import com.starrocks.sql.optimizer.rule.transformation.ListPartitionPruner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark the ListPartitionPruner on a table partitioned by (date_col, int_col).
+ * The mode "set" is the baseline which evaluates the conjuncts on hash sets of partition ids like the pruner
+ * did before the bitmaps, "map" builds the bitmaps from the partition values for every query like the pruner
+ * of an external table, and "index" uses the bitmaps built once like the pruner of an olap table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class ListPartitionPrunerBench {
+
+    private static final int INT_VALUES = 100;
+    private static final LocalDate START_DATE = LocalDate.of(2020, 1, 1);
+
+    @Param({"1000", "10000", "100000"})
+    private int partitionNum;
+
+    @Param({"set", "map", "index"})
+    private String mode;
+
+    private Map<ColumnRefOperator, ConcurrentNavigableMap<LiteralExpr, Set<Long>>> columnToPartitionValuesMap;
+    private Map<ColumnRefOperator, Set<Long>> columnToNullPartitions;
+    private ColumnRefOperator dateColumn;
+    private ColumnRefOperator intColumn;
+    private List<ColumnRefOperator> partitionColumns;
+    private ListPartitionIndex partitionIndex;
+    private Set<Long> allPartitionIds;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ListPartitionPrunerBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() throws AnalysisException {
+        dateColumn = new ColumnRefOperator(1, Type.DATE, "date_col", true);
+        intColumn = new ColumnRefOperator(2, Type.INT, "int_col", true);
+        ConcurrentNavigableMap<LiteralExpr, Set<Long>> dateValues = new ConcurrentSkipListMap<>();
+        ConcurrentNavigableMap<LiteralExpr, Set<Long>> intValues = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < partitionNum; i++) {
+            long partitionId = 10000L + i * 3L;
+            LocalDate date = START_DATE.plusDays(i / INT_VALUES);
+            dateValues.computeIfAbsent(new DateLiteral(date.getYear(), date.getMonthValue(), date.getDayOfMonth()),
+                    k -> Sets.newHashSet()).add(partitionId);
+            intValues.computeIfAbsent(new IntLiteral(i % INT_VALUES, Type.INT), k -> Sets.newHashSet())
+                    .add(partitionId);
+        }
+        columnToPartitionValuesMap = Maps.newHashMap();
+        columnToPartitionValuesMap.put(dateColumn, dateValues);
+        columnToPartitionValuesMap.put(intColumn, intValues);
+        columnToNullPartitions = Maps.newHashMap();
+        columnToNullPartitions.put(dateColumn, Sets.newHashSet());
+        columnToNullPartitions.put(intColumn, Sets.newHashSet());
+
+        partitionColumns = Lists.newArrayList(dateColumn, intColumn);
+        partitionIndex = ListPartitionIndex.create(1L, Lists.newArrayList(dateValues, intValues),
+                Lists.newArrayList(Sets.newHashSet(), Sets.newHashSet()));
+        allPartitionIds = Sets.newHashSet();
+        intValues.values().forEach(allPartitionIds::addAll);
+    }
+
+    private List<Long> prune(List<ScalarOperator> conjuncts) throws AnalysisException {
+        switch (mode) {
+            case "set":
+                return pruneWithSets(conjuncts);
+            case "map":
+                return new ListPartitionPruner(columnToPartitionValuesMap, columnToNullPartitions, conjuncts, null)
+                        .prune();
+            default:
+                return new ListPartitionPruner(partitionColumns, partitionIndex, conjuncts, null, null).prune();
+        }
+    }
+
+    // The baseline, only evaluates the predicates used by this benchmark
+    private List<Long> pruneWithSets(List<ScalarOperator> conjuncts) {
+        Set<Long> matches = Sets.newHashSet(allPartitionIds);
+        for (ScalarOperator conjunct : conjuncts) {
+            ConcurrentNavigableMap<LiteralExpr, Set<Long>> values = columnToPartitionValuesMap.get(
+                    (ColumnRefOperator) conjunct.getChild(0));
+            Set<Long> conjunctMatches = Sets.newHashSet();
+            if (conjunct instanceof InPredicateOperator) {
+                for (int i = 1; i < conjunct.getChildren().size(); i++) {
+                    Set<Long> partitions = values.get(toLiteral((ConstantOperator) conjunct.getChild(i)));
+                    if (partitions != null) {
+                        conjunctMatches.addAll(partitions);
+                    }
+                }
+            } else {
+                LiteralExpr literal = toLiteral((ConstantOperator) conjunct.getChild(1));
+                switch (((BinaryPredicateOperator) conjunct).getBinaryType()) {
+                    case EQ:
+                        conjunctMatches.addAll(values.getOrDefault(literal, Collections.emptySet()));
+                        break;
+                    case NE:
+                        conjunctMatches.addAll(allPartitionIds);
+                        conjunctMatches.removeAll(values.getOrDefault(literal, Collections.emptySet()));
+                        break;
+                    case GE:
+                        values.tailMap(literal, true).values().forEach(conjunctMatches::addAll);
+                        break;
+                    default:
+                        throw new UnsupportedOperationException(conjunct.toString());
+                }
+            }
+            matches.retainAll(conjunctMatches);
+        }
+        List<Long> result = Lists.newArrayList(matches);
+        Collections.sort(result);
+        return result;
+    }
+
+    private static LiteralExpr toLiteral(ConstantOperator constant) {
+        if (constant.getType().isDate()) {
+            LocalDateTime date = constant.getDate();
+            return new DateLiteral(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        }
+        return new IntLiteral(constant.getInt(), Type.INT);
+    }
+
+    private ConstantOperator dateOffset(int days) {
+        return ConstantOperator.createDate(START_DATE.plusDays(days).atStartOfDay());
+    }
+
+    /**
+     * date_col >= 'd' and int_col in (1, 2, 3)
+     */
+    @Benchmark
+    public List<Long> bench_RangeAndIn() throws AnalysisException {
+        List<ScalarOperator> conjuncts = Lists.newArrayList(
+                new BinaryPredicateOperator(BinaryType.GE, dateColumn, dateOffset(partitionNum / INT_VALUES / 2)),
+                new InPredicateOperator(false, Lists.newArrayList(intColumn, ConstantOperator.createInt(1),
+                        ConstantOperator.createInt(2), ConstantOperator.createInt(3))));
+        return prune(conjuncts);
+    }
+
+    /**
+     * date_col = 'd' and int_col != 1
+     */
+    @Benchmark
+    public List<Long> bench_EqAndNe() throws AnalysisException {
+        List<ScalarOperator> conjuncts = Lists.newArrayList(
+                new BinaryPredicateOperator(BinaryType.EQ, dateColumn, dateOffset(0)),
+                new BinaryPredicateOperator(BinaryType.NE, intColumn, ConstantOperator.createInt(1)));
+        return prune(conjuncts);
+    }
+}
@@ -21,9 +21,11 @@ import com.starrocks.catalog.Type;
 import com.starrocks.sql.optimizer.Utils;
 import com.starrocks.sql.optimizer.base.ColumnRefFactory;
 import com.starrocks.sql.optimizer.operator.scalar.BinaryPredicateOperator;
+import com.starrocks.sql.optimizer.operator.scalar.CaseWhenOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ColumnRefOperator;
 import com.starrocks.sql.optimizer.operator.scalar.CompoundPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
+import com.starrocks.sql.optimizer.operator.scalar.InPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 import com.starrocks.sql.optimizer.rewrite.ScalarOperatorRewriter;
 import com.starrocks.sql.optimizer.rule.transformation.materialization.MvUtils;
@@ -71,6 +73,8 @@ public class NormalizePredicateBench {
 
     private ScalarOperator randomPredicate;
     private ScalarOperator disjunctive;
+    private ScalarOperator inPredicate;
+    private ScalarOperator caseWhen;
 
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
@@ -83,6 +87,8 @@ public class NormalizePredicateBench {
     public void setup() {
         randomPredicate = generatePredicate();
         disjunctive = generateDisjunctive();
+        inPredicate = generateInPredicate();
+        caseWhen = generateCaseWhen();
     }
 
     private BinaryType randomBinary() {
@@ -154,6 +160,28 @@ public class NormalizePredicateBench {
         return Utils.compoundOr(disjuntiveList);
     }
 
+    // col in (0, 1, 2, ...)
+    private ScalarOperator generateInPredicate() {
+        ColumnRefFactory factory = new ColumnRefFactory();
+        List<ScalarOperator> arguments = Lists.newArrayList(factory.create("col", Type.BIGINT, true));
+        for (int i = 0; i < predicateSize; i++) {
+            arguments.add(ConstantOperator.createInt(i));
+        }
+        return new InPredicateOperator(false, arguments);
+    }
+
+    // case when col = 0 then 0 when col = 1 then 1 ... end
+    private ScalarOperator generateCaseWhen() {
+        ColumnRefFactory factory = new ColumnRefFactory();
+        ColumnRefOperator ref = factory.create("col", Type.BIGINT, true);
+        List<ScalarOperator> whenThens = Lists.newArrayList();
+        for (int i = 0; i < predicateSize; i++) {
+            whenThens.add(new BinaryPredicateOperator(BinaryType.EQ, ref, ConstantOperator.createInt(i)));
+            whenThens.add(ConstantOperator.createInt(i));
+        }
+        return new CaseWhenOperator(Type.INT, null, ConstantOperator.createNull(Type.INT), whenThens);
+    }
+
     @Benchmark
     public void bench_NormalizePredicate_Random() {
         ScalarOperator res = MvUtils.canonizePredicateForRewrite(null, randomPredicate);
@@ -182,4 +210,16 @@ public class NormalizePredicateBench {
         ScalarOperatorRewriter scalarRewriter = new ScalarOperatorRewriter();
         ScalarOperator res = scalarRewriter.rewrite(disjunctive, ScalarOperatorRewriter.DEFAULT_REWRITE_RULES);
     }
+
+    @Benchmark
+    public void bench_Rewrite_InPredicate() {
+        ScalarOperatorRewriter scalarRewriter = new ScalarOperatorRewriter();
+        ScalarOperator res = scalarRewriter.rewrite(inPredicate, ScalarOperatorRewriter.DEFAULT_REWRITE_RULES);
+    }
+
+    @Benchmark
+    public void bench_Rewrite_CaseWhen() {
+        ScalarOperatorRewriter scalarRewriter = new ScalarOperatorRewriter();
+        ScalarOperator res = scalarRewriter.rewrite(caseWhen, ScalarOperatorRewriter.DEFAULT_REWRITE_RULES);
+    }
 }
@@ -0,0 +1,117 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.benchmark;
+
+import com.google.common.collect.Lists;
+import com.starrocks.common.util.Counter;
+import com.starrocks.common.util.RuntimeProfile;
+import com.starrocks.thrift.TRuntimeProfileTree;
+import com.starrocks.thrift.TUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark merging the isomorphic operator profiles of many fragment instances,
+ * which is what the profile of a query with a high degree of parallelism goes through,
+ * and building those instance profiles from the reports of the backends.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+public class RuntimeProfileMergeBench {
+
+    private static final int OPERATOR_NUM = 10;
+    private static final int COUNTER_NUM = 30;
+
+    @Param({"16", "128", "1024"})
+    private int instanceNum;
+
+    private List<RuntimeProfile> instanceProfiles;
+    private List<TRuntimeProfileTree> instanceReports;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(RuntimeProfileMergeBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        instanceProfiles = Lists.newArrayList();
+        instanceReports = Lists.newArrayList();
+        for (int i = 0; i < instanceNum; i++) {
+            RuntimeProfile instance = new RuntimeProfile("Instance " + i);
+            instance.getCounterTotalTime().setValue(1000L * i);
+            for (int op = 0; op < OPERATOR_NUM; op++) {
+                RuntimeProfile operator = new RuntimeProfile("OPERATOR (plan_node_id=" + op + ")");
+                operator.addInfoString("IsFinalSink", "false");
+                operator.getCounterTotalTime().setValue(100L * i);
+                for (int c = 0; c < COUNTER_NUM; c++) {
+                    Counter parent = operator.addCounter("Counter" + c, TUnit.UNIT, null);
+                    parent.setValue(i + c);
+                    Counter child = operator.addCounter("Counter" + c + "Time", TUnit.TIME_NS, null,
+                            "Counter" + c);
+                    child.setValue(1000L * (i + c));
+                }
+                instance.addChild(operator);
+            }
+            instanceProfiles.add(instance);
+            instanceReports.add(instance.toThrift());
+        }
+    }
+
+    @Benchmark
+    public List<RuntimeProfile> bench_UpdateFromReports() {
+        List<RuntimeProfile> profiles = Lists.newArrayListWithCapacity(instanceNum);
+        for (TRuntimeProfileTree report : instanceReports) {
+            RuntimeProfile profile = new RuntimeProfile();
+            profile.update(report);
+            profiles.add(profile);
+        }
+        return profiles;
+    }
+
+    @Benchmark
+    public RuntimeProfile bench_MergeIsomorphicProfiles() {
+        return RuntimeProfile.mergeIsomorphicProfiles(instanceProfiles, null);
+    }
+
+    @Benchmark
+    public String bench_MergeAndPrint() {
+        RuntimeProfile merged = RuntimeProfile.mergeIsomorphicProfiles(instanceProfiles, null);
+        RuntimeProfile.removeRedundantMinMaxMetrics(merged);
+        return merged.toString();
+    }
+}
@@ -30,6 +30,7 @@ import com.starrocks.qe.StmtExecutor;
 import com.starrocks.server.GlobalStateMgr;
 import com.starrocks.sql.ast.StatementBase;
 import com.starrocks.sql.ast.TruncateTableStmt;
+import com.starrocks.sql.optimizer.rule.transformation.ListPartitionIndex;
 import com.starrocks.thrift.TDataSink;
 import com.starrocks.thrift.TUniqueId;
 import com.starrocks.thrift.TWriteQuorumType;
@@ -164,6 +165,27 @@ public class ListPartitionInfoTest {
         Assert.assertTrue(sink.toThrift() instanceof TDataSink);
     }
 
+    @Test
+    public void testPartitionIndexCache() {
+        ListPartitionIndex index = listPartitionInfo.getPartitionIndex();
+        Assert.assertEquals(Lists.newArrayList(10001L, 10002L), index.toPartitionIds(index.getAllPartitions()));
+        Assert.assertSame(index, listPartitionInfo.getPartitionIndex());
+
+        // the copy made for a query shares the index until one of them changes
+        ListPartitionInfo copy = (ListPartitionInfo) listPartitionInfo.clone();
+        Assert.assertSame(index, copy.getPartitionIndex());
+        copy.setIdToIsTempPartition(10002L, true);
+        ListPartitionIndex copyIndex = copy.getPartitionIndex();
+        Assert.assertNotSame(index, copyIndex);
+        Assert.assertEquals(Lists.newArrayList(10001L), copyIndex.toPartitionIds(copyIndex.getAllPartitions()));
+        Assert.assertEquals(2, listPartitionInfo.getPartitionIndex().getAllPartitions().getCardinality());
+
+        listPartitionInfo.dropPartition(10001L);
+        index = listPartitionInfo.getPartitionIndex();
+        Assert.assertEquals(Lists.newArrayList(10002L), index.toPartitionIds(index.getAllPartitions()));
+        Assert.assertSame(index, listPartitionInfo.getPartitionIndex());
+    }
+
     @Test
     public void testToSqlForSingle() {
         List<Long> partitionId = Lists.newArrayList(10001L, 10002L);
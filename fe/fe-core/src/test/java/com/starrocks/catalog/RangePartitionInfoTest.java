@@ -19,6 +19,7 @@ package com.starrocks.catalog;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Range;
+import com.google.common.collect.RangeMap;
 import com.starrocks.common.AnalysisException;
 import com.starrocks.common.DdlException;
 import com.starrocks.sql.ast.PartitionKeyDesc;
@@ -372,4 +373,40 @@ public class RangePartitionInfoTest {
         Assert.assertTrue(rangePartitionInfo.getRange(123L) == null);
     }
 
+    @Test
+    public void testRangeIndex() throws Exception {
+        Column k1 = new Column("k1", new ScalarType(PrimitiveType.INT), true, null, "", "");
+        partitionColumns.add(k1);
+        RangePartitionInfo rangePartitionInfo = new RangePartitionInfo(partitionColumns);
+        PartitionKey key10 = PartitionKey.createPartitionKey(
+                Lists.newArrayList(new PartitionValue("10")), partitionColumns);
+        PartitionKey key20 = PartitionKey.createPartitionKey(
+                Lists.newArrayList(new PartitionValue("20")), partitionColumns);
+        rangePartitionInfo.addPartition(1L, false, Range.closedOpen(key10, key20), null, (short) 1,
+                false, null);
+
+        RangeMap<PartitionKey, Long> rangeIndex = rangePartitionInfo.getRangeIndex();
+        Assert.assertEquals(Long.valueOf(1L), rangeIndex.get(key10));
+        Assert.assertNull(rangeIndex.get(key20));
+        // reused until the ranges are changed
+        Assert.assertSame(rangeIndex, rangePartitionInfo.getRangeIndex());
+
+        PartitionKey key30 = PartitionKey.createPartitionKey(
+                Lists.newArrayList(new PartitionValue("30")), partitionColumns);
+        rangePartitionInfo.addPartition(2L, false, Range.closedOpen(key20, key30), null, (short) 1,
+                false, null);
+        rangeIndex = rangePartitionInfo.getRangeIndex();
+        Assert.assertEquals(Long.valueOf(2L), rangeIndex.get(key20));
+
+        // temp partitions are not indexed
+        rangePartitionInfo.addPartition(3L, true, Range.atLeast(key30), null, (short) 1,
+                false, null);
+        Assert.assertNull(rangePartitionInfo.getRangeIndex().get(key30));
+        rangePartitionInfo.moveRangeFromTempToFormal(3L);
+        Assert.assertEquals(Long.valueOf(3L), rangePartitionInfo.getRangeIndex().get(key30));
+
+        rangePartitionInfo.dropPartition(1L);
+        Assert.assertNull(rangePartitionInfo.getRangeIndex().get(key10));
+        Assert.assertEquals(2, rangePartitionInfo.getRangeIndex().asMapOfRanges().size());
+    }
 }
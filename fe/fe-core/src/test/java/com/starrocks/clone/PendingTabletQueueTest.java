@@ -0,0 +1,104 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.clone;
+
+import com.starrocks.clone.TabletSchedCtx.Priority;
+import com.starrocks.clone.TabletSchedCtx.Type;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class PendingTabletQueueTest {
+
+    private static TabletSchedCtx createCtx(long partitionId, long tabletId, Priority priority, long lastVisitedTime) {
+        TabletSchedCtx ctx = new TabletSchedCtx(Type.REPAIR, 1, 2, partitionId, 4, tabletId,
+                System.currentTimeMillis());
+        ctx.setOrigPriority(priority);
+        ctx.setLastVisitedTime(lastVisitedTime);
+        return ctx;
+    }
+
+    @Test
+    public void testPollOrder() {
+        PendingTabletQueue queue = new PendingTabletQueue();
+        queue.add(createCtx(3, 1001, Priority.NORMAL, 3));
+        queue.add(createCtx(3, 1002, Priority.NORMAL, 1));
+        queue.add(createCtx(3, 1003, Priority.HIGH, 5));
+        queue.add(createCtx(3, 1004, Priority.LOW, 0));
+        // same last visited time, ordered by tablet id
+        queue.add(createCtx(3, 1005, Priority.NORMAL, 1));
+
+        Assert.assertEquals(5, queue.size());
+        Assert.assertEquals(3, queue.size(Priority.NORMAL));
+        Assert.assertEquals(1002, queue.get(1002).getTabletId());
+        Assert.assertNull(queue.get(2000));
+
+        List<TabletSchedCtx> peeked = queue.peek(2);
+        Assert.assertEquals(2, peeked.size());
+        Assert.assertEquals(1003, peeked.get(0).getTabletId());
+        Assert.assertEquals(1002, peeked.get(1).getTabletId());
+        Assert.assertEquals(5, queue.size());
+
+        long[] expected = {1003, 1002, 1005, 1001, 1004};
+        for (long tabletId : expected) {
+            Assert.assertEquals(tabletId, queue.poll().getTabletId());
+        }
+        Assert.assertNull(queue.poll());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testAddSameTablet() {
+        PendingTabletQueue queue = new PendingTabletQueue();
+        queue.add(createCtx(3, 1001, Priority.LOW, 1));
+        TabletSchedCtx ctx = createCtx(3, 1001, Priority.HIGH, 1);
+        queue.add(ctx);
+
+        Assert.assertEquals(1, queue.size());
+        Assert.assertEquals(0, queue.size(Priority.LOW));
+        Assert.assertSame(ctx, queue.poll());
+    }
+
+    @Test
+    public void testChangePriority() {
+        PendingTabletQueue queue = new PendingTabletQueue();
+        queue.add(createCtx(3, 1001, Priority.NORMAL, 1));
+        queue.add(createCtx(5, 1002, Priority.LOW, 2));
+        queue.add(createCtx(5, 1003, Priority.NORMAL, 3));
+
+        queue.changePriority(ctx -> ctx.getPartitionId() == 5, Priority.VERY_HIGH);
+        Assert.assertEquals(2, queue.size(Priority.VERY_HIGH));
+        Assert.assertEquals(1, queue.size(Priority.NORMAL));
+        Assert.assertEquals(0, queue.size(Priority.LOW));
+
+        Assert.assertEquals(1002, queue.poll().getTabletId());
+        Assert.assertEquals(1003, queue.poll().getTabletId());
+        Assert.assertEquals(1001, queue.poll().getTabletId());
+    }
+
+    @Test
+    public void testClear() {
+        PendingTabletQueue queue = new PendingTabletQueue();
+        queue.add(createCtx(3, 1001, Priority.NORMAL, 1));
+        queue.add(createCtx(3, 1002, Priority.HIGH, 1));
+
+        Assert.assertEquals(2, queue.snapshot().size());
+        Assert.assertEquals(2, queue.clear().size());
+        Assert.assertEquals(0, queue.size());
+        Assert.assertNull(queue.get(1001));
+        Assert.assertNull(queue.poll());
+    }
+}
@@ -0,0 +1,163 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.clone;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.LocalTablet;
+import com.starrocks.catalog.LocalTablet.TabletHealthStatus;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.system.SystemInfoService;
+import com.starrocks.utframe.StarRocksAssert;
+import com.starrocks.utframe.UtFrameUtils;
+import mockit.Deencapsulation;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class TabletCheckerTest {
+    private static final String DB_NAME = "test_tablet_checker";
+
+    private static StarRocksAssert starRocksAssert;
+
+    private boolean prevEnableDirtyCheck;
+    private TabletSchedulerStat stat;
+    private TabletChecker tabletChecker;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinStarRocksCluster();
+        ConnectContext connectContext = UtFrameUtils.createDefaultCtx();
+        starRocksAssert = new StarRocksAssert(connectContext);
+        starRocksAssert.withDatabase(DB_NAME).useDatabase(DB_NAME);
+    }
+
+    @Before
+    public void before() {
+        prevEnableDirtyCheck = Config.enable_tablet_checker_dirty_check;
+        Config.enable_tablet_checker_dirty_check = true;
+        stat = new TabletSchedulerStat();
+        tabletChecker = new TabletChecker(GlobalStateMgr.getCurrentState().getTabletScheduler(), stat);
+    }
+
+    @After
+    public void after() {
+        Config.enable_tablet_checker_dirty_check = prevEnableDirtyCheck;
+    }
+
+    private static OlapTable createTable(String tableName) throws Exception {
+        starRocksAssert.withTable("create table " + tableName + " (k1 date, v1 int) duplicate key(k1)\n" +
+                "partition by range(k1) (\n" +
+                "    partition p1 values less than ('2024-01-01'),\n" +
+                "    partition p2 values less than ('2024-02-01'))\n" +
+                "distributed by hash(v1) buckets 2 properties('replication_num' = '1');");
+        return (OlapTable) starRocksAssert.getTable(DB_NAME, tableName);
+    }
+
+    private static List<Long> getTabletIds(OlapTable table, String partitionName) {
+        return table.getPartition(partitionName).getBaseIndex().getTabletIdsInOrder();
+    }
+
+    @Test
+    public void testMarkTabletsDirty() throws Exception {
+        OlapTable table = createTable("t_mark");
+        List<Long> tabletIds = getTabletIds(table, "p1");
+
+        Config.enable_tablet_checker_dirty_check = false;
+        tabletChecker.markTabletsDirty(tabletIds);
+        tabletChecker.markBackendTabletsDirty(10001);
+        tabletChecker.markPartitionTabletsDirty(table.getPartition("p1"));
+        Assert.assertEquals(0, tabletChecker.getDirtyTabletNum());
+
+        Config.enable_tablet_checker_dirty_check = true;
+        tabletChecker.markTabletsDirty(tabletIds);
+        tabletChecker.markTabletsDirty(tabletIds);
+        Assert.assertEquals(2, tabletChecker.getDirtyTabletNum());
+
+        tabletChecker.markPartitionTabletsDirty(table.getPartition("p2"));
+        Assert.assertEquals(4, tabletChecker.getDirtyTabletNum());
+
+        tabletChecker.markBackendTabletsDirty(10001);
+        Assert.assertEquals(Sets.newHashSet(GlobalStateMgr.getCurrentState().getTabletInvertedIndex()
+                .getTabletIdsByBackendId(10001)).size(), tabletChecker.getDirtyTabletNum());
+    }
+
+    @Test
+    public void testCheckDirtyTablets() throws Exception {
+        OlapTable table = createTable("t_check");
+        List<Long> tabletIds = Lists.newArrayList(getTabletIds(table, "p1"));
+        // the tablet which doesn't exist is skipped
+        tabletIds.add(-1L);
+        tabletChecker.markTabletsDirty(tabletIds);
+
+        // only the dirty tablets are checked
+        tabletChecker.checkDirtyTablets();
+        Assert.assertEquals(2, stat.counterTabletChecked.get());
+        Assert.assertEquals(0, tabletChecker.getDirtyTabletNum());
+
+        tabletChecker.checkDirtyTablets();
+        Assert.assertEquals(2, stat.counterTabletChecked.get());
+    }
+
+    @Test
+    public void testCheckDirtyTabletsInRecycleBin() throws Exception {
+        OlapTable table = createTable("t_recycle");
+        List<Long> tabletIds = getTabletIds(table, "p1");
+        starRocksAssert.alterTable("alter table t_recycle drop partition p1");
+        Assert.assertNull(table.getPartition("p1"));
+
+        // the tablets of the partition in the recycle bin are still checked
+        tabletChecker.markTabletsDirty(tabletIds);
+        tabletChecker.checkDirtyTablets();
+        Assert.assertEquals(2, stat.counterTabletChecked.get());
+    }
+
+    @Test
+    public void testMarkUnscheduledTabletsDirtyInFullCheck() throws Exception {
+        OlapTable table = createTable("t_full_check");
+        new MockUp<TabletChecker>() {
+            @Mock
+            public Pair<TabletHealthStatus, TabletSchedCtx.Priority> getTabletHealthStatusWithPriority(
+                    LocalTablet tablet, SystemInfoService systemInfoService, long visibleVersion, int replicationNum,
+                    List<Long> aliveBeIdsInCluster, Multimap<String, String> requiredLocation) {
+                return Pair.create(TabletHealthStatus.REPLICA_MISSING, TabletSchedCtx.Priority.NORMAL);
+            }
+        };
+        new MockUp<LocalTablet>() {
+            @Mock
+            public boolean readyToBeRepaired(TabletHealthStatus status, TabletSchedCtx.Priority priority) {
+                return false;
+            }
+        };
+
+        // the unhealthy tablets which are not scheduled are checked again by the dirty scan
+        Deencapsulation.invoke(tabletChecker, "doCheck", false);
+        Set<Long> dirtyTabletIds = Deencapsulation.getField(tabletChecker, "dirtyTabletIds");
+        Assert.assertTrue(dirtyTabletIds.containsAll(getTabletIds(table, "p1")));
+        Assert.assertTrue(dirtyTabletIds.containsAll(getTabletIds(table, "p2")));
+    }
+}
@@ -0,0 +1,72 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common.util;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.starrocks.common.Config;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class KafkaMetaCacheTest {
+    private long ttlMs;
+
+    @Before
+    public void setUp() {
+        ttlMs = Config.routine_load_kafka_meta_cache_ttl_ms;
+        Config.routine_load_kafka_meta_cache_ttl_ms = 60000;
+    }
+
+    @After
+    public void tearDown() {
+        Config.routine_load_kafka_meta_cache_ttl_ms = ttlMs;
+    }
+
+    @Test
+    public void testPartitions() {
+        KafkaMetaCache cache = new KafkaMetaCache();
+        KafkaMetaCache.Key key = new KafkaMetaCache.Key("127.0.0.1:9092", "topic", ImmutableMap.of(), 0);
+        Assert.assertNull(cache.getPartitions(key));
+
+        cache.putPartitions(key, Lists.newArrayList(0, 1, 2));
+        KafkaMetaCache.Key sameKey = new KafkaMetaCache.Key("127.0.0.1:9092", "topic", ImmutableMap.of(), 0);
+        Assert.assertEquals(Lists.newArrayList(0, 1, 2), cache.getPartitions(sameKey));
+
+        KafkaMetaCache.Key otherKey = new KafkaMetaCache.Key("127.0.0.1:9092", "topic",
+                ImmutableMap.of("group.id", "g1"), 0);
+        Assert.assertNull(cache.getPartitions(otherKey));
+
+        Config.routine_load_kafka_meta_cache_ttl_ms = 0;
+        Assert.assertFalse(KafkaMetaCache.isEnabled());
+        Assert.assertNull(cache.getPartitions(key));
+    }
+
+    @Test
+    public void testLatestOffsets() {
+        KafkaMetaCache cache = new KafkaMetaCache();
+        KafkaMetaCache.Key key = new KafkaMetaCache.Key("127.0.0.1:9092", "topic", ImmutableMap.of(), 0);
+        cache.putLatestOffsets(key, ImmutableMap.of(0, 100L, 1, 200L));
+        cache.putLatestOffsets(key, ImmutableMap.of(2, 300L));
+
+        Map<Integer, Long> offsets = cache.getLatestOffsets(key, Lists.newArrayList(0, 2));
+        Assert.assertEquals(ImmutableMap.of(0, 100L, 2, 300L), offsets);
+        // not all the partitions are cached
+        Assert.assertNull(cache.getLatestOffsets(key, Lists.newArrayList(0, 3)));
+    }
+}
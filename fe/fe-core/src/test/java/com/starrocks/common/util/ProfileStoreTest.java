@@ -0,0 +1,188 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package com.starrocks.common.util;
+
+import com.starrocks.common.Config;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProfileStoreTest {
+
+    @TempDir
+    public File dir;
+
+    private long originMaxSizeMb;
+    private long originSegmentSizeMb;
+    private int originWriteQueueSize;
+
+    @BeforeEach
+    public void setUp() {
+        originMaxSizeMb = Config.profile_store_max_size_mb;
+        originSegmentSizeMb = Config.profile_store_segment_size_mb;
+        originWriteQueueSize = Config.profile_store_write_queue_size;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Config.profile_store_max_size_mb = originMaxSizeMb;
+        Config.profile_store_segment_size_mb = originSegmentSizeMb;
+        Config.profile_store_write_queue_size = originWriteQueueSize;
+    }
+
+    private static ProfileManager.ProfileElement buildElement(String queryId, int contentSize) throws Exception {
+        ProfileManager.ProfileElement element = new ProfileManager.ProfileElement();
+        element.infoStrings.put(ProfileManager.QUERY_ID, queryId);
+        element.infoStrings.put(ProfileManager.SQL_STATEMENT, "select " + queryId);
+        element.infoStrings.put(ProfileManager.DEFAULT_DB, null);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < contentSize; i++) {
+            content.append((char) ('a' + i % 26));
+        }
+        element.profileContent = CompressionUtils.gzipCompressString(content.toString());
+        return element;
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        ProfileStore store = new ProfileStore(dir);
+        ProfileManager.ProfileElement element = buildElement("q1", 100);
+        store.asyncWrite(element);
+        store.asyncWrite(buildElement("q2", 100));
+        store.flush();
+
+        assertTrue(store.contains("q1"));
+        ProfileManager.ProfileElement stored = store.getElement("q1");
+        assertNotNull(stored);
+        assertEquals(element.infoStrings, stored.infoStrings);
+        assertEquals(CompressionUtils.gzipDecompressString(element.profileContent),
+                CompressionUtils.gzipDecompressString(stored.profileContent));
+
+        List<ProfileManager.ProfileElement> elements = store.getElements();
+        assertEquals(2, elements.size());
+        assertEquals("q1", elements.get(0).infoStrings.get(ProfileManager.QUERY_ID));
+        assertEquals("q2", elements.get(1).infoStrings.get(ProfileManager.QUERY_ID));
+        assertNull(elements.get(0).profileContent);
+
+        store.remove("q1");
+        assertFalse(store.contains("q1"));
+        assertNull(store.getElement("q1"));
+        store.close();
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        ProfileStore store = new ProfileStore(dir);
+        store.asyncWrite(buildElement("q1", 100));
+        store.asyncWrite(buildElement("q2", 100));
+        store.flush();
+        store.close();
+
+        // append a torn record to the segment
+        File[] segments = dir.listFiles();
+        assertNotNull(segments);
+        assertEquals(1, segments.length);
+        long validLength = segments[0].length();
+        try (RandomAccessFile raf = new RandomAccessFile(segments[0], "rw")) {
+            raf.seek(validLength);
+            raf.writeInt(1000);
+            raf.writeLong(0);
+        }
+
+        store = new ProfileStore(dir);
+        store.flush();
+        assertEquals(2, store.size());
+        assertNotNull(store.getElement("q2"));
+        assertEquals(validLength, segments[0].length());
+
+        // new writes go to a new segment
+        store.asyncWrite(buildElement("q3", 100));
+        store.flush();
+        assertEquals(3, store.size());
+        assertEquals(2, dir.listFiles().length);
+        store.close();
+    }
+
+    @Test
+    public void testDeleteExceededSegments() throws Exception {
+        Config.profile_store_segment_size_mb = 0;
+        Config.profile_store_max_size_mb = 0;
+        ProfileStore store = new ProfileStore(dir);
+        for (int i = 0; i < 10; i++) {
+            store.asyncWrite(buildElement("q" + i, 1000));
+        }
+        store.flush();
+
+        // every record rolls a new segment, and only the latest segment is kept
+        assertEquals(1, store.size());
+        assertTrue(store.contains("q9"));
+        assertEquals(1, dir.listFiles().length);
+        assertEquals(dir.listFiles()[0].length(), store.getTotalSize());
+        store.close();
+    }
+
+    @Test
+    public void testSkipWriteIfQueueFull() throws Exception {
+        Config.profile_store_write_queue_size = 1;
+        ProfileStore store = new ProfileStore(dir);
+        store.flush();
+
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch writeBlocked = new CountDownLatch(1);
+        new MockUp<ProfileStore>() {
+            @Mock
+            public void write(Invocation invocation, ProfileManager.ProfileElement element) throws Exception {
+                writeStarted.countDown();
+                writeBlocked.await(10, TimeUnit.SECONDS);
+                invocation.proceed(element);
+            }
+        };
+
+        // q1 is being written and q2 is waiting in the queue, so q3 is skipped without waiting for the writer
+        store.asyncWrite(buildElement("q1", 100));
+        assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+        store.asyncWrite(buildElement("q2", 100));
+        long startMs = System.currentTimeMillis();
+        store.asyncWrite(buildElement("q3", 100));
+        assertTrue(System.currentTimeMillis() - startMs < 5000);
+
+        writeBlocked.countDown();
+        // the queue may still be full, so wait for the writes instead of flushing
+        long deadlineMs = System.currentTimeMillis() + 10000;
+        while (store.size() < 2 && System.currentTimeMillis() < deadlineMs) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, store.size());
+        assertTrue(store.contains("q1"));
+        assertTrue(store.contains("q2"));
+        assertFalse(store.contains("q3"));
+        store.close();
+    }
+}
@@ -40,6 +40,7 @@ import com.google.common.collect.Sets;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.starrocks.common.Pair;
 import com.starrocks.thrift.TCounter;
 import com.starrocks.thrift.TCounterAggregateType;
 import com.starrocks.thrift.TCounterMergeType;
@@ -47,6 +48,7 @@ import com.starrocks.thrift.TCounterStrategy;
 import com.starrocks.thrift.TRuntimeProfileNode;
 import com.starrocks.thrift.TRuntimeProfileTree;
 import com.starrocks.thrift.TUnit;
+import mockit.Deencapsulation;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -783,4 +785,139 @@ public class RuntimeProfileTest {
         Assert.assertEquals(1, profile.getVersion());
         Assert.assertEquals(1, childProfile.getVersion());
     }
+
+    private static TRuntimeProfileTree buildThriftProfile() {
+        TRuntimeProfileNode root = new TRuntimeProfileNode();
+        root.name = new String("root");
+        root.num_children = 1;
+        root.info_strings = new HashMap<>();
+        root.info_strings_display_order = new ArrayList<>();
+        String infoKey = new String("key");
+        root.info_strings.put(infoKey, "value");
+        root.info_strings_display_order.add(infoKey);
+        TRuntimeProfileNode child = new TRuntimeProfileNode();
+        child.name = new String("child");
+        TCounter counter = new TCounter();
+        counter.name = new String("counter");
+        counter.type = TUnit.UNIT;
+        counter.value = 1;
+        counter.strategy = Counter.createStrategy(TUnit.UNIT);
+        child.counters = Lists.newArrayList(counter);
+        TRuntimeProfileTree tree = new TRuntimeProfileTree();
+        tree.nodes = Lists.newArrayList(root, child);
+        return tree;
+    }
+
+    private static String findKey(Set<String> keys, String key) {
+        return keys.stream().filter(key::equals).findFirst().orElse(null);
+    }
+
+    @Test
+    public void testUpdateInternsNames() {
+        RuntimeProfile profile1 = new RuntimeProfile("profile1");
+        RuntimeProfile profile2 = new RuntimeProfile("profile2");
+        profile1.update(buildThriftProfile());
+        profile2.update(buildThriftProfile());
+
+        Assert.assertSame(findKey(profile1.getInfoStrings().keySet(), "key"),
+                findKey(profile2.getInfoStrings().keySet(), "key"));
+        RuntimeProfile child1 = profile1.getChild("child");
+        RuntimeProfile child2 = profile2.getChild("child");
+        Assert.assertSame(child1.getName(), child2.getName());
+        Assert.assertSame(findKey(child1.getCounterMap().keySet(), "counter"),
+                findKey(child2.getCounterMap().keySet(), "counter"));
+        Assert.assertSame(child1.getCounter("counter").getStrategy(), child2.getCounter("counter").getStrategy());
+        Assert.assertEquals(1, child2.getCounter("counter").getValue());
+    }
+
+    @Test
+    public void testCounterTable() {
+        RuntimeProfile profile = new RuntimeProfile("profile");
+        // grow the table a few times
+        for (int i = 0; i < 100; i++) {
+            profile.addCounter("Counter" + i, TUnit.UNIT, null).setValue(i);
+            profile.addCounter("Counter" + i + "Child", TUnit.UNIT, null, "Counter" + i).setValue(-i);
+        }
+        Assert.assertEquals(201, profile.getCounterMap().size());
+        Assert.assertSame(profile.getCounterTotalTime(), profile.getCounter(RuntimeProfile.TOTAL_TIME_COUNTER));
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, profile.getCounter("Counter" + i).getValue());
+            Pair<Counter, String> pair = profile.getCounterPair("Counter" + i + "Child");
+            Assert.assertEquals(-i, pair.first.getValue());
+            Assert.assertEquals("Counter" + i, pair.second);
+        }
+        Assert.assertNull(profile.getCounter("Counter100"));
+        Assert.assertNull(profile.getCounterPair("Counter100"));
+        // adding an existing counter returns it
+        Assert.assertSame(profile.getCounter("Counter1"), profile.addCounter("Counter1", TUnit.UNIT, null));
+
+        // the child counters are removed together with their parent
+        profile.removeCounter("Counter1");
+        Assert.assertNull(profile.getCounter("Counter1"));
+        Assert.assertNull(profile.getCounter("Counter1Child"));
+        Assert.assertFalse(profile.getChildCounterMap().get(RuntimeProfile.ROOT_COUNTER).contains("Counter1"));
+        Assert.assertEquals(199, profile.getCounterMap().size());
+        for (int i = 2; i < 100; i++) {
+            Assert.assertEquals(i, profile.getCounter("Counter" + i).getValue());
+            Assert.assertEquals(-i, profile.getCounter("Counter" + i + "Child").getValue());
+        }
+        profile.addCounter("Counter1", TUnit.UNIT, null).setValue(1);
+        Assert.assertEquals(1, profile.getCounter("Counter1").getValue());
+
+        RuntimeProfile copied = new RuntimeProfile("copied");
+        copied.copyAllCountersFrom(profile);
+        Assert.assertEquals(profile.getCounterMap().keySet(), copied.getCounterMap().keySet());
+        Assert.assertEquals("Counter2", copied.getCounterPair("Counter2Child").second);
+    }
+
+    @Test
+    public void testCounterTableConcurrentRead() throws Exception {
+        RuntimeProfile profile = new RuntimeProfile("profile");
+        int counterNum = 10000;
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < counterNum; i++) {
+                profile.addCounter("Counter" + i, TUnit.UNIT, null).setValue(i);
+            }
+        });
+        writer.start();
+        // a counter which has been found stays visible with its value while the table grows
+        for (int i = 0; i < counterNum; ) {
+            Counter counter = profile.getCounter("Counter" + i);
+            if (counter == null) {
+                continue;
+            }
+            Assert.assertSame(counter, profile.getCounterMap().get("Counter" + i));
+            i++;
+        }
+        writer.join();
+        Assert.assertEquals(counterNum + 1, profile.getCounterMap().size());
+    }
+
+    @Test
+    public void testCreateChildrenLazily() {
+        RuntimeProfile profile = new RuntimeProfile("profile");
+        Assert.assertTrue(profile.getChildList().isEmpty());
+        Assert.assertTrue(profile.getChildMap().isEmpty());
+        Assert.assertTrue(profile.getChildCounterMap().isEmpty());
+        Assert.assertNull(profile.getChild("child"));
+        profile.sortChildren();
+        profile.removeChild("child");
+        profile.removeAllChildren();
+        profile.computeTimeInProfile(1);
+        Assert.assertNull(Deencapsulation.getField(profile, "childList"));
+        Assert.assertNull(Deencapsulation.getField(profile, "childMap"));
+        Assert.assertNull(Deencapsulation.getField(profile, "childCounterMap"));
+
+        // a profile without children is still serialized and updated as a leaf
+        RuntimeProfile updated = new RuntimeProfile("profile");
+        updated.update(profile.toThrift());
+        Assert.assertTrue(updated.getChildList().isEmpty());
+
+        RuntimeProfile child = new RuntimeProfile("child");
+        profile.addChild(child);
+        Assert.assertSame(child, profile.getChild("child"));
+        Assert.assertEquals(1, profile.getChildList().size());
+        profile.removeChild("child");
+        Assert.assertTrue(profile.getChildList().isEmpty());
+    }
 }
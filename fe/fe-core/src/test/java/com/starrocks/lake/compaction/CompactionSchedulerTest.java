@@ -41,8 +41,11 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 
@@ -219,4 +222,72 @@ public class CompactionSchedulerTest {
 
         Assert.assertEquals(3 * 16, compactionScheduler.compactionTaskLimit());
     }
+
+    @Test
+    public void testReserveTaskQuota() {
+        AtomicInteger taskQuota = new AtomicInteger(5);
+        Assert.assertTrue(CompactionScheduler.reserveTaskQuota(taskQuota, 2));
+        Assert.assertEquals(3, taskQuota.get());
+        // the last job can exceed the left quota
+        Assert.assertTrue(CompactionScheduler.reserveTaskQuota(taskQuota, 4));
+        Assert.assertEquals(-1, taskQuota.get());
+        Assert.assertFalse(CompactionScheduler.reserveTaskQuota(taskQuota, 1));
+        Assert.assertEquals(-1, taskQuota.get());
+    }
+
+    @Test
+    public void testScheduleInParallelWithTaskLimit() {
+        int defaultDispatchThreads = Config.lake_compaction_dispatch_threads;
+        Config.lake_compaction_dispatch_threads = 4;
+
+        List<PartitionIdentifier> partitions = Lists.newArrayList();
+        for (int i = 0; i < 6; i++) {
+            partitions.add(new PartitionIdentifier(1, 2, 100 + i));
+        }
+        new MockUp<CompactionMgr>() {
+            @Mock
+            public List<PartitionIdentifier> choosePartitionsToCompact(Set<PartitionIdentifier> excludes,
+                                                                       Set<Long> excludeTables) {
+                return partitions;
+            }
+        };
+        List<PartitionIdentifier> startedPartitions = Collections.synchronizedList(Lists.newArrayList());
+        new MockUp<CompactionScheduler>() {
+            @Mock
+            protected int compactionTaskLimit() {
+                return 5;
+            }
+
+            @Mock
+            protected CompactionJob startCompaction(PartitionIdentifier partitionIdentifier, AtomicInteger taskQuota) {
+                // every job has 2 tasks
+                if (!CompactionScheduler.reserveTaskQuota(taskQuota, 2)) {
+                    return null;
+                }
+                startedPartitions.add(partitionIdentifier);
+                PhysicalPartition partition = new Partition(partitionIdentifier.getPartitionId(), "p", null, null);
+                return new CompactionJob(new Database(), new LakeTable(), partition, 100, false);
+            }
+        };
+        new MockUp<CompactionJob>() {
+            @Mock
+            public int getNumTabletCompactionTasks() {
+                return 2;
+            }
+        };
+
+        try {
+            CompactionScheduler compactionScheduler = new CompactionScheduler(new CompactionMgr(),
+                    GlobalStateMgr.getCurrentState().getNodeMgr().getClusterInfo(),
+                    GlobalStateMgr.getCurrentState().getGlobalTransactionMgr(), GlobalStateMgr.getCurrentState(), "");
+            // 4 partitions are dispatched in parallel, but only 3 jobs are started as the serial scheduling does,
+            // the task limit is reached after that.
+            Assert.assertEquals(3, compactionScheduler.schedule());
+            Assert.assertEquals(3, startedPartitions.size());
+            Assert.assertEquals(3, compactionScheduler.getRunningCompactions().size());
+            Assert.assertTrue(partitions.subList(0, 4).containsAll(startedPartitions));
+        } finally {
+            Config.lake_compaction_dispatch_threads = defaultDispatchThreads;
+        }
+    }
 }
@@ -82,4 +82,28 @@ public class ScoreSorterTest {
         Assert.assertEquals(4, sortedList.get(0).getPartition().getPartitionId());
         Assert.assertEquals(3, sortedList.get(1).getPartition().getPartitionId());
     }
+
+    @Test
+    public void testPendingVersions() {
+        List<PartitionStatistics> statisticsList = new ArrayList<>();
+        PartitionStatistics statistics = new PartitionStatistics(new PartitionIdentifier(1, 2, 3));
+        statistics.setCompactionScore(Quantiles.compute(Arrays.asList(1.0, 1.0)));
+        statistics.setCurrentVersion(new PartitionVersion(5, System.currentTimeMillis()));
+        statisticsList.add(statistics);
+
+        statistics = new PartitionStatistics(new PartitionIdentifier(1, 2, 4));
+        statistics.setCompactionScore(Quantiles.compute(Arrays.asList(1.0, 1.0)));
+        statistics.setCurrentVersion(new PartitionVersion(10, System.currentTimeMillis()));
+        statisticsList.add(statistics);
+
+        statistics = new PartitionStatistics(new PartitionIdentifier(1, 2, 5));
+        statistics.setCompactionScore(Quantiles.compute(Arrays.asList(1.0, 1.0)));
+        statisticsList.add(statistics);
+
+        // same score, sorted by the versions not compacted yet
+        List<PartitionStatistics> sortedList = new ScoreSorter().sort(statisticsList);
+        Assert.assertEquals(4, sortedList.get(0).getPartition().getPartitionId());
+        Assert.assertEquals(3, sortedList.get(1).getPartition().getPartitionId());
+        Assert.assertEquals(5, sortedList.get(2).getPartition().getPartitionId());
+    }
 }
@@ -37,16 +37,22 @@ package com.starrocks.load.routineload;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import com.starrocks.common.Config;
+import com.starrocks.common.Pair;
 import com.starrocks.common.jmockit.Deencapsulation;
+import com.starrocks.load.routineload.RoutineLoadJob.JobState;
 import com.starrocks.server.GlobalStateMgr;
 import mockit.Expectations;
 import mockit.Injectable;
 import mockit.Mocked;
+import mockit.Verifications;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class RoutineLoadTaskSchedulerTest {
 
@@ -57,7 +63,7 @@ public class RoutineLoadTaskSchedulerTest {
 
     @Test
     public void testRunOneCycle(@Injectable KafkaRoutineLoadJob kafkaRoutineLoadJob1,
-                                @Injectable KafkaRoutineLoadJob routineLoadJob) {
+                                @Injectable KafkaRoutineLoadJob routineLoadJob) throws Exception {
         long beId = 100L;
 
         Map<Integer, Long> partitionIdToOffset = Maps.newHashMap();
@@ -88,9 +94,9 @@ public class RoutineLoadTaskSchedulerTest {
                 minTimes = 0;
                 result = routineLoadManager;
 
-                routineLoadManager.getClusterIdleSlotNum();
+                routineLoadManager.waitForIdleSlot(anyLong);
                 minTimes = 0;
-                result = 1;
+                result = true;
                 routineLoadManager.checkTaskInJob((UUID) any);
                 minTimes = 0;
                 result = true;
@@ -114,4 +120,140 @@ public class RoutineLoadTaskSchedulerTest {
         Deencapsulation.setField(routineLoadTaskScheduler, "needScheduleTasksQueue", routineLoadTaskInfoQueue);
         routineLoadTaskScheduler.runAfterCatalogReady();
     }
+
+    @Test
+    public void testWaitForIdleSlot(@Injectable KafkaTaskInfo task) throws Exception {
+        new Expectations() {
+            {
+                routineLoadManager.waitForIdleSlot(anyLong);
+                result = false;
+            }
+        };
+
+        // the task is not taken from the queue until any slot is idle
+        RoutineLoadTaskScheduler routineLoadTaskScheduler = new RoutineLoadTaskScheduler(routineLoadManager);
+        routineLoadTaskScheduler.addTaskInQueue(task);
+        routineLoadTaskScheduler.runAfterCatalogReady();
+        Queue<RoutineLoadTaskInfo> needScheduleTasksQueue =
+                Deencapsulation.getField(routineLoadTaskScheduler, "needScheduleTasksQueue");
+        Assert.assertEquals(1, needScheduleTasksQueue.size());
+    }
+
+    @Test
+    public void testParkAndRescheduleSlotWaitingTasks(@Injectable KafkaTaskInfo task,
+                                                      @Injectable KafkaRoutineLoadJob job) throws Exception {
+        new Expectations() {
+            {
+                routineLoadManager.waitForIdleSlot(anyLong);
+                result = true;
+                routineLoadManager.checkTaskInJob((UUID) any);
+                // the task is abandoned when it's rescheduled
+                returns(true, false);
+                routineLoadManager.getSlotReleaseVersion();
+                returns(0L, 0L, 1L);
+                routineLoadManager.getClusterIdleSlotNum();
+                result = 1;
+                // no slot is available when the task is scheduled at first
+                routineLoadManager.takeBeTaskSlot(anyLong, anyLong);
+                result = -1L;
+                routineLoadManager.getJob(anyLong);
+                result = job;
+                job.getState();
+                result = JobState.RUNNING;
+
+                task.getId();
+                result = new UUID(1, 1);
+                task.readyToExecute();
+                result = true;
+                task.getPreviousBeId();
+                result = -1L;
+            }
+        };
+
+        RoutineLoadTaskScheduler routineLoadTaskScheduler = new RoutineLoadTaskScheduler(routineLoadManager);
+        Queue<Pair<RoutineLoadTaskInfo, Long>> slotWaitingTasks =
+                Deencapsulation.getField(routineLoadTaskScheduler, "slotWaitingTasks");
+        routineLoadTaskScheduler.addTaskInQueue(task);
+        routineLoadTaskScheduler.runAfterCatalogReady();
+        // the task failed to allocate a slot is parked
+        long deadline = System.currentTimeMillis() + 10000;
+        while (slotWaitingTasks.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(1, slotWaitingTasks.size());
+
+        // no slot is released
+        routineLoadTaskScheduler.scheduleSlotWaitingTasks();
+        Assert.assertEquals(1, slotWaitingTasks.size());
+
+        // the task is scheduled again once a slot is released
+        routineLoadTaskScheduler.scheduleSlotWaitingTasks();
+        Assert.assertTrue(slotWaitingTasks.isEmpty());
+        awaitScheduled(routineLoadTaskScheduler);
+        new Verifications() {
+            {
+                task.setLastScheduledTime(anyLong);
+                times = 2;
+            }
+        };
+    }
+
+    @Test
+    public void testDropSlotWaitingTasksOfNotRunningJob(@Injectable KafkaTaskInfo pausedTask,
+                                                        @Injectable KafkaTaskInfo runningTask,
+                                                        @Injectable KafkaRoutineLoadJob pausedJob,
+                                                        @Injectable KafkaRoutineLoadJob runningJob) throws Exception {
+        new Expectations() {
+            {
+                routineLoadManager.getSlotReleaseVersion();
+                result = 1L;
+                routineLoadManager.getClusterIdleSlotNum();
+                result = 1;
+                routineLoadManager.checkTaskInJob((UUID) any);
+                result = false;
+
+                pausedTask.getId();
+                result = new UUID(1, 1);
+                pausedTask.getJobId();
+                result = 1L;
+                runningTask.getId();
+                result = new UUID(2, 2);
+                runningTask.getJobId();
+                result = 2L;
+                routineLoadManager.getJob(1L);
+                result = pausedJob;
+                routineLoadManager.getJob(2L);
+                result = runningJob;
+                pausedJob.getState();
+                result = JobState.PAUSED;
+                runningJob.getState();
+                result = JobState.RUNNING;
+            }
+        };
+
+        RoutineLoadTaskScheduler routineLoadTaskScheduler = new RoutineLoadTaskScheduler(routineLoadManager);
+        Queue<Pair<RoutineLoadTaskInfo, Long>> slotWaitingTasks =
+                Deencapsulation.getField(routineLoadTaskScheduler, "slotWaitingTasks");
+        slotWaitingTasks.add(new Pair<>(pausedTask, System.currentTimeMillis()));
+        slotWaitingTasks.add(new Pair<>(runningTask, System.currentTimeMillis()));
+
+        // the task of the paused job is dropped without taking the only idle slot
+        routineLoadTaskScheduler.scheduleSlotWaitingTasks();
+        Assert.assertTrue(slotWaitingTasks.isEmpty());
+        awaitScheduled(routineLoadTaskScheduler);
+        new Verifications() {
+            {
+                pausedTask.setLastScheduledTime(anyLong);
+                times = 0;
+                runningTask.setLastScheduledTime(anyLong);
+                times = 1;
+            }
+        };
+    }
+
+    private static void awaitScheduled(RoutineLoadTaskScheduler routineLoadTaskScheduler) throws Exception {
+        ExecutorService threadPool = Deencapsulation.getField(routineLoadTaskScheduler, "threadPool");
+        threadPool.shutdown();
+        Assert.assertTrue(threadPool.awaitTermination(10, TimeUnit.SECONDS));
+    }
 }
@@ -0,0 +1,98 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.privilege;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark the latency of checking a table privilege against the number of table grants.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class PrivilegeCheckBench {
+
+    private static final int TABLES_PER_DB = 100;
+
+    @Param({"10", "1000", "10000", "50000"})
+    public int grantNum;
+
+    private PrivilegeCollectionV2 collection;
+    private List<TablePEntryObject> tables;
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(PrivilegeCheckBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() throws PrivilegeException {
+        collection = new PrivilegeCollectionV2();
+        tables = new ArrayList<>();
+        List<PEntryObject> objects = new ArrayList<>();
+        for (int i = 0; i < grantNum; i++) {
+            TablePEntryObject table = new TablePEntryObject(String.valueOf(i / TABLES_PER_DB), String.valueOf(i));
+            tables.add(table);
+            objects.add(table);
+        }
+        collection.grant(ObjectType.TABLE, Collections.singletonList(PrivilegeType.SELECT), objects, false);
+    }
+
+    private TablePEntryObject randomTable() {
+        TablePEntryObject table = tables.get(ThreadLocalRandom.current().nextInt(tables.size()));
+        // check with a new object as the analyzer does
+        return new TablePEntryObject(table.getDatabaseUUID(), table.getTableUUID());
+    }
+
+    @Benchmark
+    public boolean bench_CheckGranted() {
+        return collection.check(ObjectType.TABLE, PrivilegeType.SELECT, randomTable());
+    }
+
+    @Benchmark
+    public boolean bench_CheckNotGranted() {
+        return collection.check(ObjectType.TABLE, PrivilegeType.INSERT, randomTable());
+    }
+
+    @Benchmark
+    public boolean bench_SearchAnyAction() {
+        return collection.searchAnyActionOnObject(ObjectType.TABLE, randomTable());
+    }
+}
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableList;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -364,4 +365,52 @@ public class PrivilegeCollectionTest {
             Assert.assertEquals(0, collection.typeToPrivilegeEntryList.size());
         }
     }
+
+    @Test
+    public void testCheckWithTableIndex() throws Exception {
+        PrivilegeCollectionV2 collection = new PrivilegeCollectionV2();
+        ObjectType table = ObjectType.TABLE;
+        PrivilegeType select = PrivilegeType.SELECT;
+        PrivilegeType insert = PrivilegeType.INSERT;
+
+        // enough table grants in db 1 to check them through the index
+        List<PEntryObject> tables = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tables.add(new TablePEntryObject("1", String.valueOf(i)));
+        }
+        collection.grant(table, Arrays.asList(select), tables, false);
+        Assert.assertTrue(collection.check(table, select, new TablePEntryObject("1", "99")));
+        Assert.assertFalse(collection.check(table, insert, new TablePEntryObject("1", "99")));
+        Assert.assertFalse(collection.check(table, select, new TablePEntryObject("1", "100")));
+        Assert.assertFalse(collection.check(table, select, new TablePEntryObject("2", "1")));
+        Assert.assertTrue(collection.searchAnyActionOnObject(table, new TablePEntryObject("1", "50")));
+        Assert.assertFalse(collection.searchAnyActionOnObject(table, new TablePEntryObject("2", "50")));
+        // fuzzy object is checked by scanning the entries
+        Assert.assertTrue(collection.searchAnyActionOnObject(table,
+                new TablePEntryObject("1", PrivilegeBuiltinConstants.ALL_TABLES_UUID)));
+
+        // wildcard fallbacks
+        TablePEntryObject allTablesInDb2 = new TablePEntryObject("2", PrivilegeBuiltinConstants.ALL_TABLES_UUID);
+        collection.grant(table, Arrays.asList(select), Arrays.asList(allTablesInDb2), false);
+        Assert.assertTrue(collection.check(table, select, new TablePEntryObject("2", "1")));
+        Assert.assertFalse(collection.check(table, select, new TablePEntryObject("3", "1")));
+        TablePEntryObject allTablesInAllDb = new TablePEntryObject(
+                PrivilegeBuiltinConstants.ALL_DATABASES_UUID, PrivilegeBuiltinConstants.ALL_TABLES_UUID);
+        collection.grant(table, Arrays.asList(insert), Arrays.asList(allTablesInAllDb), false);
+        Assert.assertTrue(collection.check(table, insert, new TablePEntryObject("3", "1")));
+        Assert.assertFalse(collection.check(table, select, new TablePEntryObject("3", "1")));
+
+        // external table uuid in old format matches the one in new format
+        collection.grant(table, Arrays.asList(select),
+                Arrays.asList(new TablePEntryObject(101, "hive.db", "hive.db.tbl.123")), false);
+        Assert.assertTrue(collection.check(table, select, new TablePEntryObject(101, "db", "tbl")));
+
+        // index is rebuilt after revoke and merge
+        collection.revoke(table, Arrays.asList(select), Arrays.asList(new TablePEntryObject("1", "99")));
+        Assert.assertFalse(collection.check(table, select, new TablePEntryObject("1", "99")));
+        PrivilegeCollectionV2 other = new PrivilegeCollectionV2();
+        other.grant(table, Arrays.asList(select), Arrays.asList(new TablePEntryObject("1", "99")), false);
+        collection.merge(other);
+        Assert.assertTrue(collection.check(table, select, new TablePEntryObject("1", "99")));
+    }
 }
@@ -0,0 +1,150 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe;
+
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.common.Config;
+import com.starrocks.mysql.MysqlCommand;
+import com.starrocks.sql.plan.ExecPlan;
+import com.starrocks.utframe.StarRocksAssert;
+import com.starrocks.utframe.UtFrameUtils;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class QueryResultCacheTest {
+    private static ConnectContext ctx;
+    private static StarRocksAssert starRocksAssert;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        UtFrameUtils.createMinStarRocksCluster();
+        ctx = UtFrameUtils.createDefaultCtx();
+        starRocksAssert = new StarRocksAssert(ctx);
+        starRocksAssert.withDatabase("test_result_cache").useDatabase("test_result_cache")
+                .withTable("CREATE TABLE t0(k1 INT, v1 INT) DUPLICATE KEY(k1) " +
+                        "DISTRIBUTED BY HASH(k1) BUCKETS 3 PROPERTIES('replication_num' = '1')")
+                .withTable("CREATE TABLE t1(k1 INT, v1 INT) DUPLICATE KEY(k1) " +
+                        "DISTRIBUTED BY HASH(k1) BUCKETS 3 PROPERTIES('replication_num' = '1')");
+    }
+
+    private static ExecPlan getPlan(String sql) throws Exception {
+        return UtFrameUtils.getPlanAndFragment(ctx, sql).second;
+    }
+
+    private static QueryResultCache.ResultCollector collect(QueryResultCache cache, String sql, String... rows)
+            throws Exception {
+        QueryResultCache.ResultCollector collector = cache.createCollector(ctx, getPlan(sql));
+        Assert.assertNotNull(sql, collector);
+        for (String row : rows) {
+            collector.addRow(ByteBuffer.wrap(row.getBytes(StandardCharsets.UTF_8)));
+        }
+        cache.put(collector);
+        return collector;
+    }
+
+    private static OlapTable getTable(String tableName) {
+        return (OlapTable) starRocksAssert.getTable("test_result_cache", tableName);
+    }
+
+    @Test
+    public void testHit() throws Exception {
+        QueryResultCache cache = new QueryResultCache(1L << 20);
+        String sql = "select k1, sum(v1) from t0 group by k1";
+        QueryResultCache.ResultCollector collector = collect(cache, sql, "1", "2");
+
+        QueryResultCache.ResultCollector newCollector = cache.createCollector(ctx, getPlan(sql));
+        Assert.assertEquals(collector.getKey(), newCollector.getKey());
+        QueryResultCache.Entry entry = cache.get(newCollector.getKey());
+        Assert.assertNotNull(entry);
+        Assert.assertEquals(2, entry.getRows().size());
+        Assert.assertEquals("1", StandardCharsets.UTF_8.decode(entry.getRows().get(0).duplicate()).toString());
+
+        // another query doesn't hit the result
+        Assert.assertNull(cache.get(cache.createCollector(ctx, getPlan("select k1 from t0")).getKey()));
+    }
+
+    @Test
+    public void testMissAfterLoad() throws Exception {
+        QueryResultCache cache = new QueryResultCache(1L << 20);
+        String sql = "select count(*) from t0";
+        QueryResultCache.ResultCollector collector = collect(cache, sql, "10");
+        QueryResultCache.ResultCollector otherCollector = collect(cache, "select count(*) from t1", "20");
+
+        Partition partition = getTable("t0").getPartition("t0");
+        long version = partition.getVisibleVersion();
+        try {
+            partition.setVisibleVersion(version + 1, System.currentTimeMillis());
+            String newKey = cache.createCollector(ctx, getPlan(sql)).getKey();
+            Assert.assertNotEquals(collector.getKey(), newKey);
+            Assert.assertNull(cache.get(newKey));
+        } finally {
+            partition.setVisibleVersion(version, System.currentTimeMillis());
+        }
+
+        // the results of the loaded table are dropped once the transaction is visible
+        long tableId = getTable("t0").getId();
+        Assert.assertEquals(1, cache.getNumIndexedKeys(tableId));
+        cache.invalidateTable(tableId);
+        Assert.assertNull(cache.get(collector.getKey()));
+        Assert.assertEquals(0, cache.getNumIndexedKeys(tableId));
+        Assert.assertNotNull(cache.get(otherCollector.getKey()));
+    }
+
+    @Test
+    public void testRowFormat() throws Exception {
+        QueryResultCache cache = new QueryResultCache(1L << 20);
+        String sql = "select k1, v1 from t0";
+        QueryResultCache.ResultCollector textCollector = collect(cache, sql, "1");
+        MysqlCommand command = ctx.getCommand();
+        try {
+            ctx.setCommand(MysqlCommand.COM_STMT_EXECUTE);
+            QueryResultCache.ResultCollector binaryCollector = cache.createCollector(ctx, getPlan(sql));
+            Assert.assertNotEquals(textCollector.getKey(), binaryCollector.getKey());
+            Assert.assertNull(cache.get(binaryCollector.getKey()));
+        } finally {
+            ctx.setCommand(command);
+        }
+    }
+
+    @Test
+    public void testUncacheable() throws Exception {
+        QueryResultCache cache = new QueryResultCache(1L << 20);
+        Assert.assertNull(cache.createCollector(ctx, getPlan("select 1")));
+        Assert.assertNull(cache.createCollector(ctx, getPlan("select k1, rand() from t0")));
+        Assert.assertNull(cache.createCollector(ctx, getPlan("select * from information_schema.tables")));
+        // the time travel query doesn't read the latest versions
+        Assert.assertNotNull(cache.createCollector(ctx, getPlan("select k1, v1 from t0")));
+        Assert.assertNull(cache.createCollector(ctx, getPlan("select k1, v1 from t0 before '1000'")));
+    }
+
+    @Test
+    public void testTooLargeResult() throws Exception {
+        QueryResultCache cache = new QueryResultCache(1L << 20);
+        long maxEntryBytes = Config.query_result_cache_max_entry_bytes;
+        try {
+            Config.query_result_cache_max_entry_bytes = 4;
+            QueryResultCache.ResultCollector collector = collect(cache, "select v1 from t0", "12", "345");
+            Assert.assertNull(cache.get(collector.getKey()));
+            Assert.assertEquals(0, cache.getNumIndexedKeys(getTable("t0").getId()));
+        } finally {
+            Config.query_result_cache_max_entry_bytes = maxEntryBytes;
+        }
+    }
+}
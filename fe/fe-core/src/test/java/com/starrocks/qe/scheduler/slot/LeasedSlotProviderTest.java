@@ -0,0 +1,191 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler.slot;
+
+import com.starrocks.common.Config;
+import com.starrocks.common.util.UUIDUtil;
+import com.starrocks.metric.MetricRepo;
+import com.starrocks.qe.scheduler.RecoverableException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LeasedSlotProviderTest {
+    private static final long LEASE_DURATION_MS = 60_000L;
+
+    private boolean prevEnableSlotLease;
+    private LeasedSlotProvider slotProvider;
+
+    @BeforeClass
+    public static void beforeClass() {
+        MetricRepo.init();
+    }
+
+    @Before
+    public void before() {
+        prevEnableSlotLease = Config.enable_query_queue_slot_lease;
+        Config.enable_query_queue_slot_lease = true;
+        slotProvider = new LeasedSlotProvider(new GlobalSlotProvider());
+    }
+
+    @After
+    public void after() {
+        Config.enable_query_queue_slot_lease = prevEnableSlotLease;
+    }
+
+    @Test
+    public void testAllocateInFifoOrder() {
+        slotProvider.updateLease(2, System.currentTimeMillis() + LEASE_DURATION_MS);
+
+        LogicalSlot slot1 = generateSlot(1);
+        LogicalSlot slot2 = generateSlot(2);
+        LogicalSlot slot3 = generateSlot(1);
+        Future<LogicalSlot> future1 = slotProvider.requireSlot(slot1);
+        Future<LogicalSlot> future2 = slotProvider.requireSlot(slot2);
+        Future<LogicalSlot> future3 = slotProvider.requireSlot(slot3);
+
+        // slot2 exceeds the lease, and slot3 cannot be allocated before slot2 even if the lease is enough for it.
+        assertThat(future1).isDone();
+        assertThat(slot1.getState()).isEqualTo(LogicalSlot.State.ALLOCATED);
+        assertThat(future2).isNotDone();
+        assertThat(future3).isNotDone();
+        assertThat(slotProvider.getNumAllocatedSlots()).isOne();
+        assertThat(slotProvider.getNumPendingSlots()).isEqualTo(3);
+
+        // Release slot1, and then slot2 is allocated.
+        slotProvider.releaseSlot(slot1);
+        assertThat(slot1.getState()).isEqualTo(LogicalSlot.State.RELEASED);
+        assertThat(future2).isDone();
+        assertThat(future3).isNotDone();
+        assertThat(slotProvider.getNumAllocatedSlots()).isEqualTo(2);
+        assertThat(slotProvider.getNumPendingSlots()).isOne();
+
+        // Release slot2, and then slot3 is allocated.
+        slotProvider.releaseSlot(slot2);
+        assertThat(future3).isDone();
+        assertThat(slotProvider.getNumAllocatedSlots()).isOne();
+        assertThat(slotProvider.getNumPendingSlots()).isZero();
+
+        // Re-release the same slot has no effect.
+        slotProvider.releaseSlot(slot3);
+        slotProvider.releaseSlot(slot3);
+        assertThat(slotProvider.getNumAllocatedSlots()).isZero();
+    }
+
+    @Test
+    public void testCancelPendingSlot() {
+        slotProvider.updateLease(1, System.currentTimeMillis() + LEASE_DURATION_MS);
+
+        LogicalSlot slot1 = generateSlot(1);
+        LogicalSlot slot2 = generateSlot(1);
+        slotProvider.requireSlot(slot1);
+        Future<LogicalSlot> future2 = slotProvider.requireSlot(slot2);
+        assertThat(slotProvider.getNumPendingSlots()).isOne();
+
+        slotProvider.cancelSlotRequirement(slot2);
+        assertThat(future2).isCancelled();
+        assertThat(slot2.getState()).isEqualTo(LogicalSlot.State.CANCELLED);
+        assertThat(slotProvider.getNumPendingSlots()).isZero();
+
+        // Cancel an allocated slot releases it.
+        slotProvider.cancelSlotRequirement(slot1);
+        assertThat(slotProvider.getNumAllocatedSlots()).isZero();
+    }
+
+    @Test
+    public void testLeaseExpired() {
+        slotProvider.updateLease(2, System.currentTimeMillis() - 1);
+
+        LogicalSlot slot1 = generateSlot(1);
+        Future<LogicalSlot> future1 = slotProvider.requireSlot(slot1);
+        assertThat(future1).isNotDone();
+        assertThat(slotProvider.getNumPendingSlots()).isOne();
+
+        // The pending slots are allocated once the lease is renewed.
+        slotProvider.updateLease(2, System.currentTimeMillis() + LEASE_DURATION_MS);
+        Future<LogicalSlot> future2 = slotProvider.requireSlot(generateSlot(1));
+        assertThat(future1).isDone();
+        assertThat(future2).isDone();
+        assertThat(slotProvider.getNumAllocatedSlots()).isEqualTo(2);
+        assertThat(slotProvider.getNumPendingSlots()).isZero();
+    }
+
+    @Test
+    public void testReleaseExpiredSlots() {
+        slotProvider.updateLease(1, System.currentTimeMillis() + LEASE_DURATION_MS);
+
+        LogicalSlot slot1 = generateSlot(1, System.currentTimeMillis() + 10);
+        LogicalSlot slot2 = generateSlot(1);
+        Future<LogicalSlot> future1 = slotProvider.requireSlot(slot1);
+        Future<LogicalSlot> future2 = slotProvider.requireSlot(slot2);
+        assertThat(future1).isDone();
+        assertThat(future2).isNotDone();
+
+        // slot1 expires without release, and its slot is given to slot2.
+        long expiredTimeMs = slot1.getExpiredAllocatedTimeMs();
+        while (System.currentTimeMillis() < expiredTimeMs) {
+            Thread.yield();
+        }
+        slotProvider.releaseExpiredSlots();
+        assertThat(slot1.getState()).isEqualTo(LogicalSlot.State.RELEASED);
+        assertThat(future2).isDone();
+        assertThat(slotProvider.getNumAllocatedSlots()).isOne();
+
+        // The release of the expired slot has no effect.
+        slotProvider.releaseSlot(slot1);
+        assertThat(slotProvider.getNumAllocatedSlots()).isOne();
+    }
+
+    @Test
+    public void testRetryPendingSlotsAfterDisabled() {
+        slotProvider.updateLease(1, System.currentTimeMillis() + LEASE_DURATION_MS);
+
+        LogicalSlot slot1 = generateSlot(1);
+        LogicalSlot slot2 = generateSlot(1);
+        slotProvider.requireSlot(slot1);
+        Future<LogicalSlot> future2 = slotProvider.requireSlot(slot2);
+        assertThat(future2).isNotDone();
+
+        // The pending queries require slots from the leader again after the slot lease is disabled.
+        Config.enable_query_queue_slot_lease = false;
+        slotProvider.renewLease();
+        assertThat(slotProvider.getNumLeaseSlots()).isZero();
+        assertThat(slotProvider.getNumPendingSlots()).isZero();
+        assertThat(slot2.getState()).isEqualTo(LogicalSlot.State.CREATED);
+        assertThatThrownBy(future2::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RecoverableException.class);
+
+        // The allocated slot is still released locally.
+        slotProvider.releaseSlot(slot1);
+        assertThat(slotProvider.getNumAllocatedSlots()).isZero();
+    }
+
+    private static LogicalSlot generateSlot(int numSlots) {
+        return generateSlot(numSlots, System.currentTimeMillis() + LEASE_DURATION_MS);
+    }
+
+    private static LogicalSlot generateSlot(int numSlots, long expiredAllocatedTimeMs) {
+        return new LogicalSlot(UUIDUtil.genTUniqueId(), "fe", LogicalSlot.ABSENT_GROUP_ID, numSlots,
+                System.currentTimeMillis() + LEASE_DURATION_MS, expiredAllocatedTimeMs, 0, 0, 0);
+    }
+}
@@ -0,0 +1,166 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.qe.scheduler.slot;
+
+import com.starrocks.common.Config;
+import com.starrocks.qe.GlobalVariable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlotLeaseManagerTest {
+    private int prevConcurrencyLimit;
+    private double prevIdleRatio;
+    private long prevRenewIntervalMs;
+
+    @Before
+    public void before() {
+        prevConcurrencyLimit = GlobalVariable.getQueryQueueConcurrencyLimit();
+        prevIdleRatio = Config.query_queue_slot_lease_idle_ratio;
+        prevRenewIntervalMs = Config.query_queue_slot_lease_renew_interval_ms;
+        Config.query_queue_slot_lease_idle_ratio = 0;
+    }
+
+    @After
+    public void after() {
+        GlobalVariable.setQueryQueueConcurrencyLimit(prevConcurrencyLimit);
+        Config.query_queue_slot_lease_idle_ratio = prevIdleRatio;
+        Config.query_queue_slot_lease_renew_interval_ms = prevRenewIntervalMs;
+    }
+
+    @Test
+    public void testGrantPendingSlots() {
+        GlobalVariable.setQueryQueueConcurrencyLimit(10);
+        SlotLeaseManager leaseManager = new SlotLeaseManager();
+
+        // The lease is granted by the last rebalance.
+        assertThat(leaseManager.renewLease("fe1", 1, 1, 3)).isZero();
+        assertThat(leaseManager.renewLease("fe2", 1, 1, 1)).isZero();
+
+        // 10 - 2 (leader) - 2 (allocated by leases) = 6 free slots, 4 of them are granted to the pending slots.
+        leaseManager.rebalance(2, false);
+        assertThat(leaseManager.getNumLeaseSlots("fe1")).isEqualTo(4);
+        assertThat(leaseManager.getNumLeaseSlots("fe2")).isEqualTo(2);
+        assertThat(leaseManager.getNumLeasedSlots()).isEqualTo(6);
+        assertThat(leaseManager.renewLease("fe1", 1, 4, 0)).isEqualTo(4);
+
+        // The free slots are less than the pending slots.
+        leaseManager.renewLease("fe1", 1, 4, 4);
+        leaseManager.renewLease("fe2", 1, 2, 4);
+        leaseManager.rebalance(2, false);
+        assertThat(leaseManager.getNumLeaseSlots("fe1")).isEqualTo(5);
+        assertThat(leaseManager.getNumLeaseSlots("fe2")).isEqualTo(3);
+        assertThat(leaseManager.getNumLeasedSlots()).isEqualTo(8);
+    }
+
+    @Test
+    public void testGrantRemainderSlots() {
+        GlobalVariable.setQueryQueueConcurrencyLimit(3);
+        SlotLeaseManager leaseManager = new SlotLeaseManager();
+        leaseManager.renewLease("fe1", 1, 0, 3);
+        leaseManager.renewLease("fe2", 1, 0, 2);
+        leaseManager.renewLease("fe3", 1, 0, 0);
+
+        // 3 * 3 / 5 = 1 and 3 * 2 / 5 = 1, the remainder is granted to the FE with the most pending slots.
+        leaseManager.rebalance(0, false);
+        assertThat(leaseManager.getNumLeaseSlots("fe1")).isEqualTo(2);
+        assertThat(leaseManager.getNumLeaseSlots("fe2")).isEqualTo(1);
+        assertThat(leaseManager.getNumLeaseSlots("fe3")).isZero();
+        assertThat(leaseManager.getNumLeasedSlots()).isEqualTo(3);
+    }
+
+    @Test
+    public void testGrantIdleSlots() {
+        GlobalVariable.setQueryQueueConcurrencyLimit(10);
+        Config.query_queue_slot_lease_idle_ratio = 0.5;
+        SlotLeaseManager leaseManager = new SlotLeaseManager();
+        leaseManager.renewLease("fe1", 1, 0, 2);
+        leaseManager.renewLease("fe2", 1, 0, 0);
+
+        // (10 - 2) * 0.5 of the left free slots are granted to the FEs evenly.
+        leaseManager.rebalance(0, false);
+        assertThat(leaseManager.getNumLeaseSlots("fe1")).isEqualTo(4);
+        assertThat(leaseManager.getNumLeaseSlots("fe2")).isEqualTo(2);
+        assertThat(leaseManager.getNumLeasedSlots()).isEqualTo(6);
+    }
+
+    @Test
+    public void testResourceOverloaded() {
+        GlobalVariable.setQueryQueueConcurrencyLimit(10);
+        Config.query_queue_slot_lease_idle_ratio = 0.5;
+        SlotLeaseManager leaseManager = new SlotLeaseManager();
+        leaseManager.renewLease("fe1", 1, 2, 2);
+        leaseManager.renewLease("fe2", 1, 1, 0);
+
+        // The allocated slots are kept, but no more slots are granted.
+        leaseManager.rebalance(0, true);
+        assertThat(leaseManager.getNumLeaseSlots("fe1")).isEqualTo(2);
+        assertThat(leaseManager.getNumLeaseSlots("fe2")).isEqualTo(1);
+        assertThat(leaseManager.getNumLeasedSlots()).isEqualTo(3);
+
+        // No free slots.
+        leaseManager.rebalance(7, false);
+        assertThat(leaseManager.getNumLeaseSlots("fe1")).isEqualTo(2);
+        assertThat(leaseManager.getNumLeaseSlots("fe2")).isEqualTo(1);
+    }
+
+    @Test
+    public void testUnlimitedConcurrency() {
+        GlobalVariable.setQueryQueueConcurrencyLimit(0);
+        SlotLeaseManager leaseManager = new SlotLeaseManager();
+        leaseManager.renewLease("fe1", 1, 2, 2);
+
+        leaseManager.rebalance(0, false);
+        assertThat(leaseManager.getNumLeaseSlots("fe1")).isEqualTo(Integer.MAX_VALUE);
+        // The leased slots are not counted by the leader if the concurrency is unlimited.
+        assertThat(leaseManager.getNumLeasedSlots()).isZero();
+
+        leaseManager.rebalance(0, true);
+        assertThat(leaseManager.getNumLeaseSlots("fe1")).isEqualTo(2);
+    }
+
+    @Test
+    public void testLeaseExpired() throws InterruptedException {
+        GlobalVariable.setQueryQueueConcurrencyLimit(10);
+        SlotLeaseManager leaseManager = new SlotLeaseManager();
+        leaseManager.renewLease("fe1", 1, 2, 2);
+        leaseManager.renewLease("fe2", 1, 1, 0);
+        leaseManager.rebalance(0, false);
+        assertThat(leaseManager.getNumLeasedSlots()).isEqualTo(5);
+
+        // The lease of fe1 is not renewed in time.
+        Config.query_queue_slot_lease_renew_interval_ms = 10;
+        Thread.sleep(50);
+        leaseManager.renewLease("fe2", 1, 1, 0);
+        leaseManager.rebalance(0, false);
+        assertThat(leaseManager.getNumLeaseSlots("fe1")).isZero();
+        assertThat(leaseManager.getNumLeaseSlots("fe2")).isEqualTo(1);
+        assertThat(leaseManager.getNumLeasedSlots()).isEqualTo(1);
+
+        // The lease is reset once the FE restarts.
+        assertThat(leaseManager.renewLease("fe2", 2, 0, 0)).isZero();
+        leaseManager.rebalance(0, false);
+        assertThat(leaseManager.getNumLeaseSlots("fe2")).isZero();
+        assertThat(leaseManager.getNumLeasedSlots()).isZero();
+
+        // All the leases expire.
+        Thread.sleep(50);
+        leaseManager.rebalance(0, false);
+        assertThat(leaseManager.getNumLeaseSlots("fe2")).isZero();
+        assertThat(leaseManager.getNumLeasedSlots()).isZero();
+    }
+}
@@ -0,0 +1,364 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.scheduler;
+
+import com.google.common.collect.Lists;
+import com.starrocks.catalog.MaterializedView;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.catalog.Partition;
+import com.starrocks.common.Pair;
+import com.starrocks.scheduler.mv.MVVersionManager;
+import com.starrocks.sql.analyzer.AstToSQLBuilder;
+import com.starrocks.sql.ast.InsertStmt;
+import com.starrocks.sql.ast.QueryRelation;
+import com.starrocks.sql.ast.SelectRelation;
+import com.starrocks.sql.ast.SubqueryRelation;
+import com.starrocks.sql.ast.TableRelation;
+import com.starrocks.sql.ast.UnionRelation;
+import com.starrocks.sql.plan.ExecPlan;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class MVIncrementalAggRefreshTest extends MVRefreshTestBase {
+    private static final String MV_PROPERTIES = "properties('replication_num' = '1', " +
+            "'session.enable_mv_incremental_agg_refresh' = 'true')\n";
+
+    // the insert statements executed by the refreshes of a test
+    private final List<InsertStmt> refreshStmts = Lists.newArrayList();
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        MVRefreshTestBase.beforeClass();
+        starRocksAssert.withTable("CREATE TABLE test.dup_tbl\n" +
+                        "(\n" +
+                        "    k1 date,\n" +
+                        "    k2 int,\n" +
+                        "    v1 int\n" +
+                        ")\n" +
+                        "DUPLICATE KEY(k1)\n" +
+                        "PARTITION BY RANGE(k1)\n" +
+                        "(\n" +
+                        "    PARTITION p1 values [('2022-01-01'),('2022-02-01')),\n" +
+                        "    PARTITION p2 values [('2022-02-01'),('2022-03-01'))\n" +
+                        ")\n" +
+                        "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                        "PROPERTIES('replication_num' = '1');")
+                .withTable("CREATE TABLE test.agg_tbl\n" +
+                        "(\n" +
+                        "    k1 date,\n" +
+                        "    k2 int,\n" +
+                        "    v1 int sum\n" +
+                        ")\n" +
+                        "AGGREGATE KEY(k1, k2)\n" +
+                        "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                        "PROPERTIES('replication_num' = '1');")
+                .withTable("CREATE TABLE test.dim_tbl\n" +
+                        "(\n" +
+                        "    k2 int,\n" +
+                        "    name varchar(20)\n" +
+                        ")\n" +
+                        "DUPLICATE KEY(k2)\n" +
+                        "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                        "PROPERTIES('replication_num' = '1');");
+        executeInsertSql("insert into test.dup_tbl values('2022-01-01', 1, 1), ('2022-02-01', 2, 2)");
+        executeInsertSql("insert into test.agg_tbl values('2022-01-01', 1, 1)");
+        executeInsertSql("insert into test.dim_tbl values(1, 'a')");
+    }
+
+    @Before
+    public void before() {
+        refreshStmts.clear();
+        new MockUp<PartitionBasedMvRefreshProcessor>() {
+            @Mock
+            public void refreshMaterializedView(Invocation invocation, MvTaskRunContext mvContext, ExecPlan execPlan,
+                                                InsertStmt insertStmt) {
+                refreshStmts.add(insertStmt);
+                invocation.proceed();
+            }
+        };
+    }
+
+    private static SubqueryRelation getDeltaRelation(InsertStmt insertStmt) {
+        QueryRelation queryRelation = insertStmt.getQueryStatement().getQueryRelation();
+        if (!(queryRelation instanceof SelectRelation)
+                || !(((SelectRelation) queryRelation).getRelation() instanceof SubqueryRelation)) {
+            return null;
+        }
+        SubqueryRelation subqueryRelation = (SubqueryRelation) ((SelectRelation) queryRelation).getRelation();
+        return "__mv_delta".equals(subqueryRelation.getAlias().getTbl()) ? subqueryRelation : null;
+    }
+
+    private static boolean isIncremental(InsertStmt insertStmt) {
+        return getDeltaRelation(insertStmt) != null;
+    }
+
+    private static Map<Long, Pair<Long, Long>> getScanVersionRanges(InsertStmt insertStmt) {
+        UnionRelation unionRelation = (UnionRelation) getDeltaRelation(insertStmt).getQueryStatement().getQueryRelation();
+        SelectRelation baseSelect = (SelectRelation) unionRelation.getRelations().get(1);
+        return ((TableRelation) baseSelect.getRelation()).getScanVersionRanges();
+    }
+
+    private void refresh(MaterializedView mv) throws Exception {
+        initAndExecuteTaskRun(buildMVTaskRun(mv, "test"));
+    }
+
+    private InsertStmt getLastRefreshStmt() {
+        Assert.assertFalse(refreshStmts.isEmpty());
+        return refreshStmts.get(refreshStmts.size() - 1);
+    }
+
+    @Test
+    public void testRefreshIncrementally() throws Exception {
+        starRocksAssert.withMaterializedView("create materialized view test.mv_inc_agg\n" +
+                "partition by k1\n" +
+                "distributed by hash(k2) buckets 3\n" +
+                "refresh deferred manual\n" +
+                MV_PROPERTIES +
+                "as select k1, k2, sum(v1) as s, count(v1) as c, max(v1) as m from test.dup_tbl group by k1, k2;", () -> {
+                    MaterializedView mv = getMv("test", "mv_inc_agg");
+                    // the first refresh reads all the data since no version is refreshed
+                    refresh(mv);
+                    Assert.assertEquals(1, refreshStmts.size());
+                    Assert.assertFalse(isIncremental(getLastRefreshStmt()));
+
+                    OlapTable baseTable = (OlapTable) getTable("test", "dup_tbl");
+                    Partition p1 = baseTable.getPartition("p1");
+                    long refreshedVersion = p1.getVisibleVersion();
+                    executeInsertSql("insert into test.dup_tbl partition(p1) values('2022-01-02', 1, 10)");
+                    executeInsertSql("insert into test.dup_tbl partition(p1) values('2022-01-03', 3, 20)");
+                    long visibleVersion = p1.getVisibleVersion();
+                    Assert.assertEquals(refreshedVersion + 2, visibleVersion);
+
+                    refresh(mv);
+                    Assert.assertEquals(2, refreshStmts.size());
+                    InsertStmt insertStmt = getLastRefreshStmt();
+                    Assert.assertTrue(isIncremental(insertStmt));
+                    // only the versions appended since the last refresh of p1 are read
+                    Assert.assertEquals(Map.of(p1.getId(), Pair.create(refreshedVersion + 1, visibleVersion)),
+                            getScanVersionRanges(insertStmt));
+
+                    String sql = AstToSQLBuilder.toSQL(insertStmt.getQueryStatement());
+                    Assert.assertTrue(sql, sql.contains("UNION ALL"));
+                    Assert.assertTrue(sql, sql.contains("`__mv_delta`"));
+                    Assert.assertTrue(sql, sql.contains("sum(`__mv_delta`.`s`)"));
+                    Assert.assertTrue(sql, sql.contains("sum(`__mv_delta`.`c`)"));
+                    Assert.assertTrue(sql, sql.contains("max(`__mv_delta`.`m`)"));
+                    Assert.assertTrue(sql, sql.contains("GROUP BY `__mv_delta`.`k1`, `__mv_delta`.`k2`"));
+
+                    // the refreshed versions are recorded for the next incremental refresh
+                    Map<String, MaterializedView.BasePartitionInfo> versionMap = mv.getRefreshScheme()
+                            .getAsyncRefreshContext().getBaseTableVisibleVersionMap().get(baseTable.getId());
+                    Assert.assertEquals(visibleVersion, versionMap.get("p1").getVersion());
+                });
+    }
+
+    @Test
+    public void testRefreshStaleVersionMap() throws Exception {
+        starRocksAssert.withMaterializedView("create materialized view test.mv_inc_agg_stale\n" +
+                "partition by k1\n" +
+                "distributed by hash(k2) buckets 3\n" +
+                "refresh deferred manual\n" +
+                MV_PROPERTIES +
+                "as select k1, k2, sum(v1) as s from test.dup_tbl group by k1, k2;", () -> {
+                    MaterializedView mv = getMv("test", "mv_inc_agg_stale");
+                    refresh(mv);
+
+                    // the mv partition is overwritten but the version map is not updated, eg: the fe crashes
+                    MockUp<MVVersionManager> versionManagerMockUp = new MockUp<MVVersionManager>() {
+                        @Mock
+                        public void updateMVVersionInfo(Map<Long, TableSnapshotInfo> snapshotBaseTables,
+                                                        Set<String> mvRefreshedPartitions,
+                                                        Set<Long> refBaseTableIds,
+                                                        Map<TableSnapshotInfo, Set<String>> refTableAndPartitionNames) {
+                            throw new RuntimeException("failed to update the version map");
+                        }
+                    };
+                    executeInsertSql("insert into test.dup_tbl partition(p1) values('2022-01-06', 1, 10)");
+                    Assert.assertThrows(Exception.class, () -> refresh(mv));
+                    Assert.assertTrue(isIncremental(getLastRefreshStmt()));
+                    versionManagerMockUp.tearDown();
+
+                    // the delta has been merged into the mv partition, so it's overwritten entirely
+                    refresh(mv);
+                    Assert.assertFalse(isIncremental(getLastRefreshStmt()));
+
+                    // the version map matches the mv partition again
+                    executeInsertSql("insert into test.dup_tbl partition(p1) values('2022-01-07', 1, 10)");
+                    refresh(mv);
+                    Assert.assertTrue(isIncremental(getLastRefreshStmt()));
+                });
+    }
+
+    @Test
+    public void testDisableQueryCache() throws Exception {
+        starRocksAssert.withMaterializedView("create materialized view test.mv_inc_agg_query_cache\n" +
+                "partition by k1\n" +
+                "distributed by hash(k2) buckets 3\n" +
+                "refresh deferred manual\n" +
+                "properties('replication_num' = '1', 'session.enable_mv_incremental_agg_refresh' = 'true', " +
+                "'session.enable_query_cache' = 'true')\n" +
+                "as select k1, k2, sum(v1) as s from test.dup_tbl group by k1, k2;", () -> {
+                    MaterializedView mv = getMv("test", "mv_inc_agg_query_cache");
+                    List<Boolean> enableQueryCaches = Lists.newArrayList();
+                    new MockUp<PartitionBasedMvRefreshProcessor>() {
+                        @Mock
+                        public void refreshMaterializedView(Invocation invocation, MvTaskRunContext mvContext,
+                                                            ExecPlan execPlan, InsertStmt insertStmt) {
+                            refreshStmts.add(insertStmt);
+                            enableQueryCaches.add(mvContext.getCtx().getSessionVariable().isEnableQueryCache());
+                            invocation.proceed();
+                        }
+                    };
+                    refresh(mv);
+                    executeInsertSql("insert into test.dup_tbl partition(p1) values('2022-01-08', 1, 10)");
+                    refresh(mv);
+
+                    // the partial aggregation of the delta versions is never cached
+                    Assert.assertTrue(isIncremental(getLastRefreshStmt()));
+                    Assert.assertEquals(Lists.newArrayList(true, false), enableQueryCaches);
+                });
+    }
+
+    @Test
+    public void testRefreshReplacedPartition() throws Exception {
+        starRocksAssert.withMaterializedView("create materialized view test.mv_inc_agg_replace\n" +
+                "partition by k1\n" +
+                "distributed by hash(k2) buckets 3\n" +
+                "refresh deferred manual\n" +
+                MV_PROPERTIES +
+                "as select k1, k2, sum(v1) as s from test.dup_tbl group by k1, k2;", () -> {
+                    MaterializedView mv = getMv("test", "mv_inc_agg_replace");
+                    refresh(mv);
+
+                    // the rows of the replaced partition may be changed
+                    executeInsertSql("insert overwrite test.dup_tbl partition(p2) values('2022-02-02', 2, 5)");
+                    refresh(mv);
+                    Assert.assertFalse(isIncremental(getLastRefreshStmt()));
+                });
+    }
+
+    @Test
+    public void testRefreshDroppedPartition() throws Exception {
+        starRocksAssert.withTable("CREATE TABLE test.dup_tbl_drop\n" +
+                "(\n" +
+                "    k1 date,\n" +
+                "    k2 int,\n" +
+                "    v1 int\n" +
+                ")\n" +
+                "DUPLICATE KEY(k1)\n" +
+                "PARTITION BY RANGE(k1)\n" +
+                "(\n" +
+                "    PARTITION p1 values [('2022-01-01'),('2022-02-01')),\n" +
+                "    PARTITION p2 values [('2022-02-01'),('2022-03-01'))\n" +
+                ")\n" +
+                "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                "PROPERTIES('replication_num' = '1');");
+        executeInsertSql("insert into test.dup_tbl_drop values('2022-01-01', 1, 1), ('2022-02-01', 2, 2)");
+        starRocksAssert.withMaterializedView("create materialized view test.mv_inc_agg_drop\n" +
+                "distributed by hash(k2) buckets 3\n" +
+                "refresh deferred manual\n" +
+                MV_PROPERTIES +
+                "as select k2, sum(v1) as s from test.dup_tbl_drop group by k2;", () -> {
+                    MaterializedView mv = getMv("test", "mv_inc_agg_drop");
+                    refresh(mv);
+
+                    // the data of the dropped partition cannot be removed from the mv incrementally
+                    starRocksAssert.alterTable("ALTER TABLE test.dup_tbl_drop DROP PARTITION p2");
+                    executeInsertSql("insert into test.dup_tbl_drop partition(p1) values('2022-01-02', 1, 10)");
+                    refresh(mv);
+                    Assert.assertFalse(isIncremental(getLastRefreshStmt()));
+                });
+    }
+
+    @Test
+    public void testRefreshNotEligibleMV() throws Exception {
+        List<String> mvQueries = Lists.newArrayList(
+                // several base tables
+                "select a.k2, sum(a.v1) as s from test.dup_tbl a join test.dim_tbl b on a.k2 = b.k2 group by a.k2",
+                // not a duplicate key base table
+                "select k2, sum(v1) as s from test.agg_tbl group by k2",
+                // the aggregations cannot be merged
+                "select k2, avg(v1) as s from test.dup_tbl group by k2",
+                "select k2, count(distinct v1) as s from test.dup_tbl group by k2",
+                // not all the group by keys are outputs
+                "select k2, sum(v1) as s from test.dup_tbl group by k1, k2");
+        for (int i = 0; i < mvQueries.size(); i++) {
+            String mvName = "mv_inc_agg_not_eligible_" + i;
+            String mvQuery = mvQueries.get(i);
+            starRocksAssert.withMaterializedView("create materialized view test." + mvName + "\n" +
+                    "distributed by hash(k2) buckets 3\n" +
+                    "refresh deferred manual\n" +
+                    MV_PROPERTIES +
+                    "as " + mvQuery, () -> {
+                        MaterializedView mv = getMv("test", mvName);
+                        refresh(mv);
+                        executeInsertSql("insert into test.dup_tbl partition(p1) values('2022-01-04', 1, 10)");
+                        executeInsertSql("insert into test.agg_tbl values('2022-01-04', 1, 10)");
+                        refresh(mv);
+                        Assert.assertFalse(mvQuery, isIncremental(getLastRefreshStmt()));
+                    });
+        }
+    }
+
+    @Test
+    public void testFallbackAfterIncrementalRefreshFailure() throws Exception {
+        starRocksAssert.withMaterializedView("create materialized view test.mv_inc_agg_fallback\n" +
+                "partition by k1\n" +
+                "distributed by hash(k2) buckets 3\n" +
+                "refresh deferred manual\n" +
+                MV_PROPERTIES +
+                "as select k1, k2, sum(v1) as s from test.dup_tbl group by k1, k2;", () -> {
+                    MaterializedView mv = getMv("test", "mv_inc_agg_fallback");
+                    refresh(mv);
+
+                    new MockUp<PartitionBasedMvRefreshProcessor>() {
+                        @Mock
+                        public void refreshMaterializedView(Invocation invocation, MvTaskRunContext mvContext,
+                                                            ExecPlan execPlan, InsertStmt insertStmt) {
+                            refreshStmts.add(insertStmt);
+                            // eg: the delta versions are compacted in the backends
+                            if (isIncremental(insertStmt)) {
+                                throw new RuntimeException("versions are compacted");
+                            }
+                            invocation.proceed();
+                        }
+                    };
+                    executeInsertSql("insert into test.dup_tbl partition(p1) values('2022-01-05', 1, 10)");
+                    int numRefreshStmts = refreshStmts.size();
+                    refresh(mv);
+
+                    // the mv partition is overwritten entirely after the incremental refresh fails
+                    List<InsertStmt> stmts = refreshStmts.subList(numRefreshStmts, refreshStmts.size());
+                    Assert.assertEquals(2, stmts.size());
+                    Assert.assertTrue(isIncremental(stmts.get(0)));
+                    Assert.assertFalse(isIncremental(stmts.get(1)));
+
+                    OlapTable baseTable = (OlapTable) getTable("test", "dup_tbl");
+                    Map<String, MaterializedView.BasePartitionInfo> versionMap = mv.getRefreshScheme()
+                            .getAsyncRefreshContext().getBaseTableVisibleVersionMap().get(baseTable.getId());
+                    Assert.assertEquals(baseTable.getPartition("p1").getVisibleVersion(),
+                            versionMap.get("p1").getVersion());
+                });
+    }
+}
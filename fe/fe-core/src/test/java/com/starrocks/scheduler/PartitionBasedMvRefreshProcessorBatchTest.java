@@ -0,0 +1,241 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.scheduler;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.starrocks.catalog.MaterializedView;
+import com.starrocks.catalog.OlapTable;
+import com.starrocks.common.UserException;
+import com.starrocks.qe.ConnectContext;
+import com.starrocks.qe.StmtExecutor;
+import com.starrocks.scheduler.mv.MVPCTRefreshPartitioner;
+import com.starrocks.scheduler.persist.MVTaskRunExtraMessage;
+import com.starrocks.scheduler.persist.TaskRunStatus;
+import com.starrocks.sql.ast.DmlStmt;
+import com.starrocks.sql.ast.InsertStmt;
+import com.starrocks.sql.plan.ExecPlan;
+import mockit.Deencapsulation;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class PartitionBasedMvRefreshProcessorBatchTest extends MVRefreshTestBase {
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        MVRefreshTestBase.beforeClass();
+        starRocksAssert.withTable("CREATE TABLE test.tbl_batch\n" +
+                "(\n" +
+                "    k1 date,\n" +
+                "    k2 int,\n" +
+                "    v1 int\n" +
+                ")\n" +
+                "DUPLICATE KEY(k1)\n" +
+                "PARTITION BY RANGE(k1)\n" +
+                "(\n" +
+                "    PARTITION p0 values [('2022-01-01'),('2022-02-01')),\n" +
+                "    PARTITION p1 values [('2022-02-01'),('2022-03-01')),\n" +
+                "    PARTITION p2 values [('2022-03-01'),('2022-04-01')),\n" +
+                "    PARTITION p3 values [('2022-04-01'),('2022-05-01'))\n" +
+                ")\n" +
+                "DISTRIBUTED BY HASH(k2) BUCKETS 3\n" +
+                "PROPERTIES('replication_num' = '1');");
+        executeInsertSql("insert into test.tbl_batch values('2022-01-01', 1, 1), ('2022-02-01', 2, 2), " +
+                "('2022-03-01', 3, 3), ('2022-04-01', 4, 4)");
+    }
+
+    private static String createMvSql(String mvName) {
+        return "create materialized view test." + mvName + "\n" +
+                "partition by k1\n" +
+                "distributed by hash(k2) buckets 3\n" +
+                "refresh deferred manual\n" +
+                "properties('replication_num' = '1', 'partition_refresh_number' = '1', " +
+                "'session.mv_refresh_partition_parallelism' = '2')\n" +
+                "as select k1, k2, sum(v1) as v1 from test.tbl_batch group by k1, k2;";
+    }
+
+    private static void refreshAllPartitionsInOneTaskRun() {
+        // refresh all the partitions by 4 batches of 1 partition in one task run
+        new MockUp<MVPCTRefreshPartitioner>() {
+            @Mock
+            protected int getPartitionRefreshNumber() {
+                return -1;
+            }
+        };
+    }
+
+    private static Set<String> getTargetPartitions(InsertStmt insertStmt) {
+        return Sets.newHashSet(insertStmt.getTargetPartitionNames().getPartitionNames());
+    }
+
+    @Test
+    public void testRefreshPartitionBatches() throws Exception {
+        refreshAllPartitionsInOneTaskRun();
+        List<Set<String>> refreshedBatches = Collections.synchronizedList(Lists.newArrayList());
+        new MockUp<PartitionBasedMvRefreshProcessor>() {
+            @Mock
+            protected void refreshMaterializedView(Invocation invocation, MvTaskRunContext mvContext, ConnectContext ctx,
+                                                   ExecPlan execPlan, InsertStmt insertStmt) {
+                // each batch is refreshed by its own context
+                Assert.assertNotSame(mvContext.getCtx(), ctx);
+                refreshedBatches.add(getTargetPartitions(insertStmt));
+                invocation.proceed();
+            }
+        };
+        List<Integer> progresses = Collections.synchronizedList(Lists.newArrayList());
+        new MockUp<TaskRunStatus>() {
+            @Mock
+            public void setProgress(Invocation invocation, int progress) {
+                progresses.add(progress);
+                invocation.proceed();
+            }
+        };
+
+        starRocksAssert.withMaterializedView(createMvSql("mv_batch_success"), () -> {
+            MaterializedView mv = getMv("test", "mv_batch_success");
+            TaskRun taskRun = buildMVTaskRun(mv, "test");
+            initAndExecuteTaskRun(taskRun);
+
+            Assert.assertEquals(4, refreshedBatches.size());
+            refreshedBatches.forEach(batch -> Assert.assertEquals(1, batch.size()));
+            Assert.assertEquals(Sets.newHashSet("p0", "p1", "p2", "p3"),
+                    refreshedBatches.stream().reduce(Sets.newHashSet(), Sets::union));
+            // the progress is reported once a batch finishes, and 100 is left to the end of the task run
+            Assert.assertEquals(Lists.newArrayList(25, 50, 75, 99), progresses);
+
+            // the meta is updated by the partitions of all the batches
+            OlapTable baseTable = (OlapTable) getTable("test", "tbl_batch");
+            Map<String, MaterializedView.BasePartitionInfo> versionMap = mv.getRefreshScheme().getAsyncRefreshContext()
+                    .getBaseTableVisibleVersionMap().get(baseTable.getId());
+            Assert.assertEquals(Sets.newHashSet("p0", "p1", "p2", "p3"), versionMap.keySet());
+            Assert.assertTrue(getPartitionNamesToRefreshForMv(mv).isEmpty());
+
+            PartitionBasedMvRefreshProcessor processor = (PartitionBasedMvRefreshProcessor) taskRun.getProcessor();
+            MVTaskRunExtraMessage extraMessage = processor.getMVTaskRunExtraMessage();
+            Assert.assertEquals(Sets.newHashSet("p0", "p1", "p2", "p3"),
+                    extraMessage.getBasePartitionsToRefreshMap().get("tbl_batch"));
+        });
+    }
+
+    @Test
+    public void testRefreshPartitionBatchesWithFailure() throws Exception {
+        refreshAllPartitionsInOneTaskRun();
+        List<Set<String>> refreshedBatches = Collections.synchronizedList(Lists.newArrayList());
+        CountDownLatch failedLatch = new CountDownLatch(1);
+        new MockUp<PartitionBasedMvRefreshProcessor>() {
+            @Mock
+            protected void refreshMaterializedView(MvTaskRunContext mvContext, ConnectContext ctx,
+                                                   ExecPlan execPlan, InsertStmt insertStmt) throws Exception {
+                Set<String> partitions = getTargetPartitions(insertStmt);
+                refreshedBatches.add(partitions);
+                if (partitions.contains("p0")) {
+                    failedLatch.countDown();
+                    throw new RuntimeException("refresh batch p0 failed");
+                }
+                // finish the other running batch after the failed batch
+                failedLatch.await(10, TimeUnit.SECONDS);
+                Thread.sleep(200);
+            }
+        };
+
+        starRocksAssert.withMaterializedView(createMvSql("mv_batch_failure"), () -> {
+            MaterializedView mv = getMv("test", "mv_batch_failure");
+            TaskRun taskRun = buildMVTaskRun(mv, "test");
+            try {
+                initAndExecuteTaskRun(taskRun);
+                Assert.fail("the refresh should fail");
+            } catch (Exception e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("refresh batch p0 failed"));
+            }
+
+            // the pending batches are skipped once the batch of p0 fails
+            Assert.assertEquals(Sets.newHashSet("p0", "p1"),
+                    refreshedBatches.stream().reduce(Sets.newHashSet(), Sets::union));
+            // the meta is not updated even if the batch of p1 succeeds
+            OlapTable baseTable = (OlapTable) getTable("test", "tbl_batch");
+            Assert.assertFalse(mv.getRefreshScheme().getAsyncRefreshContext()
+                    .getBaseTableVisibleVersionMap().containsKey(baseTable.getId()));
+            Assert.assertEquals(Sets.newHashSet("p0", "p1", "p2", "p3"), getPartitionNamesToRefreshForMv(mv));
+        });
+    }
+
+    @Test
+    public void testKillPartitionBatches() throws Exception {
+        refreshAllPartitionsInOneTaskRun();
+        Set<StmtExecutor> cancelledExecutors = Sets.newConcurrentHashSet();
+        List<Boolean> isThreadLocalCtxes = Collections.synchronizedList(Lists.newArrayList());
+        CountDownLatch runningLatch = new CountDownLatch(2);
+        new MockUp<StmtExecutor>() {
+            @Mock
+            public void cancel(Invocation invocation, String cancelledMessage) {
+                cancelledExecutors.add(invocation.getInvokedInstance());
+                invocation.proceed(cancelledMessage);
+            }
+
+            @Mock
+            public void handleDMLStmtWithProfile(Invocation invocation, ExecPlan execPlan, DmlStmt stmt)
+                    throws Exception {
+                StmtExecutor executor = invocation.getInvokedInstance();
+                // the batch is refreshed by its own context even if it runs on the task run thread
+                isThreadLocalCtxes.add(ConnectContext.get() == Deencapsulation.getField(executor, "context"));
+                runningLatch.countDown();
+                long deadline = System.currentTimeMillis() + 10000;
+                while (!cancelledExecutors.contains(executor) && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+                throw new UserException("refresh batch is cancelled");
+            }
+        };
+
+        starRocksAssert.withMaterializedView(createMvSql("mv_batch_kill"), () -> {
+            MaterializedView mv = getMv("test", "mv_batch_kill");
+            TaskRun taskRun = buildMVTaskRun(mv, "test");
+            AtomicReference<Exception> failure = new AtomicReference<>();
+            Thread taskRunThread = new Thread(() -> {
+                try {
+                    initAndExecuteTaskRun(taskRun);
+                } catch (Exception e) {
+                    failure.set(e);
+                }
+            });
+            taskRunThread.start();
+            Assert.assertTrue(runningLatch.await(10, TimeUnit.SECONDS));
+
+            // kill the task run like TaskRunManager.killTaskRun
+            taskRun.kill();
+            taskRun.getRunCtx().kill(false, "kill TaskRun");
+            taskRunThread.join(20000);
+            Assert.assertFalse(taskRunThread.isAlive());
+
+            // both the running batches are cancelled and the pending batches are skipped
+            Assert.assertNotNull(failure.get());
+            Assert.assertEquals(Lists.newArrayList(true, true), isThreadLocalCtxes);
+            Assert.assertEquals(3, cancelledExecutors.size());
+            Assert.assertEquals(Sets.newHashSet("p0", "p1", "p2", "p3"), getPartitionNamesToRefreshForMv(mv));
+        });
+    }
+}
@@ -228,6 +228,45 @@ public class InformationSchemaDataSourceTest {
         Assert.assertEquals("duplicate_table_with_null", partitionMeta.getTable_name());
     }
 
+    @Test
+    public void testGetPartitionsMetaByBatch() throws Exception {
+        starRocksAssert.withDatabase("db_batch").useDatabase("db_batch");
+        for (String name : Lists.newArrayList("t3", "t1", "t4", "t2")) {
+            starRocksAssert.withTable("create table db_batch." + name + " (k1 int, v1 int) " +
+                    "duplicate key(k1) distributed by hash(k1) buckets 1 properties('replication_num'='1')");
+        }
+
+        FrontendServiceImpl impl = new FrontendServiceImpl(exeEnv);
+        TGetPartitionsMetaRequest req = new TGetPartitionsMetaRequest();
+        TAuthInfo authInfo = new TAuthInfo();
+        authInfo.setPattern("db_batch");
+        authInfo.setUser("root");
+        authInfo.setUser_ip("%");
+        req.setAuth_info(authInfo);
+        req.setBatch_size(3);
+
+        List<String> tableNames = Lists.newArrayList();
+        int batches = 0;
+        TGetPartitionsMetaResponse response;
+        do {
+            response = impl.getPartitionsMeta(req);
+            response.getPartitions_meta_infos().forEach(p -> tableNames.add(p.getTable_name()));
+            req.setStart_cursor(response.getNext_cursor());
+            batches++;
+        } while (response.isSetNext_cursor());
+        Assert.assertEquals(2, batches);
+        Assert.assertEquals(Lists.newArrayList("t1", "t2", "t3", "t4"), tableNames);
+
+        // filter by table name
+        req = new TGetPartitionsMetaRequest();
+        req.setAuth_info(authInfo);
+        req.setTable_name("t2");
+        response = impl.getPartitionsMeta(req);
+        Assert.assertEquals(1, response.getPartitions_meta_infos().size());
+        Assert.assertEquals("t2", response.getPartitions_meta_infos().get(0).getTable_name());
+        Assert.assertFalse(response.isSetNext_cursor());
+    }
+
     @Test
     public void testRandomDistribution() throws Exception {
         starRocksAssert.withEnableMV().withDatabase("db4").useDatabase("db4");
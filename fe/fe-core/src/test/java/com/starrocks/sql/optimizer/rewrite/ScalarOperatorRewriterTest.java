@@ -31,6 +31,7 @@ import com.starrocks.sql.optimizer.operator.scalar.CompoundPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ConstantOperator;
 import com.starrocks.sql.optimizer.operator.scalar.IsNullPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
+import com.starrocks.sql.optimizer.rewrite.scalar.BottomUpScalarOperatorRewriteRule;
 import com.starrocks.sql.optimizer.rewrite.scalar.ImplicitCastRule;
 import com.starrocks.sql.optimizer.rewrite.scalar.MvNormalizePredicateRule;
 import com.starrocks.sql.optimizer.rewrite.scalar.NegateFilterShuttle;
@@ -42,6 +43,8 @@ import org.junit.Test;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
@@ -200,4 +203,32 @@ public class ScalarOperatorRewriterTest {
         String actual = result.toString();
         Assert.assertEquals(actual, expect, actual);
     }
+
+    @Test
+    public void testSkipUnchangedSubtree() {
+        ColumnRefOperator col1 = new ColumnRefOperator(1, Type.INT, "col1", true);
+        ColumnRefOperator col2 = new ColumnRefOperator(2, Type.INT, "col2", true);
+        ColumnRefOperator col3 = new ColumnRefOperator(3, Type.INT, "col3", true);
+        ScalarOperator root = new CompoundPredicateOperator(CompoundPredicateOperator.CompoundType.AND,
+                new BinaryPredicateOperator(BinaryType.EQ, col1, ConstantOperator.createInt(1)),
+                new CompoundPredicateOperator(CompoundPredicateOperator.CompoundType.AND,
+                        new BinaryPredicateOperator(BinaryType.EQ, col2, ConstantOperator.createInt(2)),
+                        new BinaryPredicateOperator(BinaryType.EQ, col3, ConstantOperator.createInt(3))));
+
+        Map<ColumnRefOperator, Integer> visits = new HashMap<>();
+        BottomUpScalarOperatorRewriteRule replaceCol1 = new BottomUpScalarOperatorRewriteRule() {
+            @Override
+            public ScalarOperator visitVariableReference(ColumnRefOperator column,
+                                                         ScalarOperatorRewriteContext context) {
+                visits.merge(column, 1, Integer::sum);
+                return column.getId() == 1 ? ConstantOperator.createInt(1) : column;
+            }
+        };
+        ScalarOperator result = new ScalarOperatorRewriter().rewrite(root, Lists.newArrayList(replaceCol1));
+        assertEquals("1 = 1 AND 2: col2 = 2 AND 3: col3 = 3", result.toString());
+        // the unchanged subtree is neither visited again to confirm the fixpoint nor in the next round
+        assertEquals(1, visits.get(col1).intValue());
+        assertEquals(1, visits.get(col2).intValue());
+        assertEquals(1, visits.get(col3).intValue());
+    }
 }
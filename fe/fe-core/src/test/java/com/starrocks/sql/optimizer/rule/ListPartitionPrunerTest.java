@@ -40,6 +40,7 @@ import com.starrocks.sql.optimizer.operator.scalar.InPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.IsNullPredicateOperator;
 import com.starrocks.sql.optimizer.operator.scalar.ScalarOperator;
 import com.starrocks.sql.optimizer.rewrite.OptExternalPartitionPruner;
+import com.starrocks.sql.optimizer.rule.transformation.ListPartitionIndex;
 import com.starrocks.sql.optimizer.rule.transformation.ListPartitionPruner;
 import org.junit.Assert;
 import org.junit.Before;
@@ -107,6 +108,7 @@ public class ListPartitionPrunerTest {
         Assert.assertEquals(null, pruner.prune());
         columnToPartitionValuesMap.clear();
         columnToNullPartitions.clear();
+        pruner = new ListPartitionPruner(columnToPartitionValuesMap, columnToNullPartitions, conjuncts, null, null);
         Assert.assertEquals(null, pruner.prune());
     }
 
@@ -684,6 +686,71 @@ public class ListPartitionPrunerTest {
         Assert.assertEquals(Lists.newArrayList(0L, 1L, 2L, 6L, 7L, 8L), pruner.prune());
     }
 
+    @Test
+    public void testSparsePartitionIds() throws AnalysisException {
+        // int_col=0   100001
+        // int_col=1   200002
+        // int_col=2   300003, 5
+        // int_col=null 9000000000
+        columnToPartitionValuesMap = Maps.newHashMap();
+        ConcurrentNavigableMap<LiteralExpr, Set<Long>> intPartitionValuesMap = new ConcurrentSkipListMap<>();
+        columnToPartitionValuesMap.put(intColumn, intPartitionValuesMap);
+        intPartitionValuesMap.put(new IntLiteral(0, Type.INT), Sets.newHashSet(100001L));
+        intPartitionValuesMap.put(new IntLiteral(1, Type.INT), Sets.newHashSet(200002L));
+        intPartitionValuesMap.put(new IntLiteral(2, Type.INT), Sets.newHashSet(300003L, 5L));
+        columnToNullPartitions = Maps.newHashMap();
+        columnToNullPartitions.put(intColumn, Sets.newHashSet(9000000000L));
+
+        conjuncts = Lists.newArrayList();
+        pruner = new ListPartitionPruner(columnToPartitionValuesMap, columnToNullPartitions, conjuncts, null);
+        // int_col >= 1
+        conjuncts.add(new BinaryPredicateOperator(BinaryType.GE, intColumn, ConstantOperator.createInt(1)));
+        Assert.assertEquals(Lists.newArrayList(5L, 200002L, 300003L), pruner.prune());
+        // int_col != 1
+        conjuncts.clear();
+        conjuncts.add(new BinaryPredicateOperator(BinaryType.NE, intColumn, ConstantOperator.createInt(1)));
+        Assert.assertEquals(Lists.newArrayList(5L, 100001L, 300003L), pruner.prune());
+        // int_col is null or int_col = 0
+        conjuncts.clear();
+        conjuncts.add(new CompoundPredicateOperator(
+                CompoundPredicateOperator.CompoundType.OR,
+                new IsNullPredicateOperator(false, intColumn),
+                new BinaryPredicateOperator(BinaryType.EQ, intColumn, ConstantOperator.createInt(0))));
+        Assert.assertEquals(Lists.newArrayList(100001L, 9000000000L), pruner.prune());
+    }
+
+    @Test
+    public void testPartitionIndex() throws AnalysisException {
+        List<ColumnRefOperator> partitionColumns = Lists.newArrayList(dateColumn, intColumn);
+        ListPartitionIndex index = ListPartitionIndex.create(1L,
+                Lists.newArrayList(columnToPartitionValuesMap.get(dateColumn), columnToPartitionValuesMap.get(intColumn)),
+                Lists.newArrayList(columnToNullPartitions.get(dateColumn), columnToNullPartitions.get(intColumn)));
+        Assert.assertEquals(2, index.getColumnNum());
+        Assert.assertEquals(10, index.getAllPartitions().getCardinality());
+        Assert.assertEquals(3, index.getOrdinal(3L));
+        Assert.assertTrue(index.getOrdinal(10L) < 0);
+
+        // the pruner on the shared index gives the same result as the one on the partition values
+        List<ScalarOperator> predicates = Lists.newArrayList(
+                new BinaryPredicateOperator(BinaryType.GE, dateColumn,
+                        ConstantOperator.createDate(LocalDateTime.of(2021, 1, 2, 0, 0, 0))),
+                new BinaryPredicateOperator(BinaryType.NE, intColumn, ConstantOperator.createInt(1)),
+                new InPredicateOperator(true, Lists.newArrayList(intColumn, ConstantOperator.createInt(0))),
+                new IsNullPredicateOperator(false, dateColumn),
+                new CompoundPredicateOperator(CompoundPredicateOperator.CompoundType.OR,
+                        new BinaryPredicateOperator(BinaryType.LT, dateColumn,
+                                ConstantOperator.createDate(LocalDateTime.of(2021, 1, 2, 0, 0, 0))),
+                        new IsNullPredicateOperator(false, intColumn)));
+        for (ScalarOperator predicate : predicates) {
+            conjuncts.clear();
+            conjuncts.add(predicate);
+            List<Long> expected = pruner.prune();
+            ListPartitionPruner indexPruner = new ListPartitionPruner(partitionColumns, index,
+                    Lists.newArrayList(predicate), null, null);
+            Assert.assertEquals(predicate.toString(), expected, indexPruner.prune());
+        }
+    }
+
     @Test
     public void testGetEffectivePartitionPredicate() {
         Column dateCol = new Column("date_col", Type.DATE);
@@ -21,12 +21,14 @@ import com.starrocks.catalog.MaterializedView;
 import com.starrocks.catalog.MvPlanContext;
 import com.starrocks.catalog.Table;
 import com.starrocks.common.Pair;
+import com.starrocks.qe.ConnectContext;
 import com.starrocks.sql.ast.QueryStatement;
 import com.starrocks.sql.ast.StatementBase;
 import com.starrocks.sql.optimizer.CachingMvPlanContextBuilder;
 import com.starrocks.sql.optimizer.MaterializationContext;
 import com.starrocks.sql.optimizer.MaterializedViewOptimizer;
 import com.starrocks.sql.optimizer.Memo;
+import com.starrocks.sql.optimizer.MvPlanContextBuilder;
 import com.starrocks.sql.optimizer.MvRewritePreprocessor;
 import com.starrocks.sql.optimizer.OptExpression;
 import com.starrocks.sql.optimizer.Optimizer;
@@ -55,16 +57,22 @@ import com.starrocks.sql.optimizer.transformer.LogicalPlan;
 import com.starrocks.sql.optimizer.transformer.RelationTransformer;
 import com.starrocks.sql.plan.ExecPlan;
 import com.starrocks.utframe.UtFrameUtils;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
 import org.assertj.core.util.Sets;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static com.starrocks.planner.MaterializedViewTestBase.getRefBaseTablePartitionColumn;
@@ -713,4 +721,63 @@ public class MvRewritePreprocessorTest extends MvRewriteTestBase {
             Assert.assertEquals(1, mvWithPlanContexts.size());
         });
     }
+
+    @Test
+    public void testLoadPlanContextsIfAbsent() throws Exception {
+        List<String> mvNames = Lists.newArrayList("load_plan_mv1", "load_plan_mv2", "load_plan_mv3");
+        for (String mvName : mvNames) {
+            starRocksAssert.withMaterializedView("create materialized view " + mvName +
+                    " distributed by hash(`v1`) as select v1, sum(v3) as total from t0 group by v1");
+        }
+        List<MaterializedView> mvs = mvNames.stream().map(mvName -> getMv(DB_NAME, mvName)).collect(Collectors.toList());
+        MaterializedView slowMv = mvs.get(2);
+
+        List<Integer> loadQueryTimeouts = Collections.synchronizedList(Lists.newArrayList());
+        CountDownLatch slowLoadLatch = new CountDownLatch(1);
+        new MockUp<MvPlanContextBuilder>() {
+            @Mock
+            public List<MvPlanContext> getPlanContext(Invocation invocation, MaterializedView mv) throws Exception {
+                // the plan is built with the session variables of the query, but not in the query's context
+                Assert.assertNotSame(connectContext, ConnectContext.get());
+                loadQueryTimeouts.add(ConnectContext.get().getSessionVariable().getQueryTimeoutS());
+                if (mv == slowMv) {
+                    slowLoadLatch.await(10, TimeUnit.SECONDS);
+                }
+                return invocation.proceed(mv);
+            }
+        };
+
+        int queryTimeoutS = connectContext.getSessionVariable().getQueryTimeoutS();
+        connectContext.getSessionVariable().setQueryTimeoutS(1234);
+        CachingMvPlanContextBuilder builder = CachingMvPlanContextBuilder.getInstance();
+        builder.rebuildCache();
+        try {
+            // the slow load is not finished in time, and the caller should not wait for it
+            Set<MaterializedView> loadingMvs = builder.loadPlanContextsIfAbsent(connectContext, mvs, 1000);
+            Assert.assertEquals(Collections.singleton(slowMv), loadingMvs);
+            Assert.assertNotNull(builder.getPlanContextFromCacheIfPresent(mvs.get(0)));
+            Assert.assertNotNull(builder.getPlanContextFromCacheIfPresent(mvs.get(1)));
+            Assert.assertNull(builder.getPlanContextFromCacheIfPresent(slowMv));
+
+            // the slow load keeps running and fills the cache
+            slowLoadLatch.countDown();
+            long deadlineMs = System.currentTimeMillis() + 10000;
+            while (builder.getPlanContextFromCacheIfPresent(slowMv) == null && System.currentTimeMillis() < deadlineMs) {
+                Thread.sleep(10);
+            }
+            Assert.assertNotNull(builder.getPlanContextFromCacheIfPresent(slowMv));
+            Assert.assertEquals(Lists.newArrayList(1234, 1234, 1234), loadQueryTimeouts);
+
+            // all the plans are cached
+            Assert.assertTrue(builder.loadPlanContextsIfAbsent(connectContext, mvs, 1000).isEmpty());
+            Assert.assertEquals(3, loadQueryTimeouts.size());
+        } finally {
+            slowLoadLatch.countDown();
+            connectContext.getSessionVariable().setQueryTimeoutS(queryTimeoutS);
+            builder.rebuildCache();
+            for (String mvName : mvNames) {
+                starRocksAssert.dropMaterializedView(mvName);
+            }
+        }
+    }
 }
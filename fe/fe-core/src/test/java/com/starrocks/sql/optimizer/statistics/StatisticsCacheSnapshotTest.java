@@ -0,0 +1,79 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.optimizer.statistics;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class StatisticsCacheSnapshotTest {
+
+    private static void assertColumnStatisticEquals(ColumnStatistic expected, ColumnStatistic actual) {
+        Assert.assertEquals(expected.getMinValue(), actual.getMinValue(), 0);
+        Assert.assertEquals(expected.getMaxValue(), actual.getMaxValue(), 0);
+        Assert.assertEquals(expected.getNullsFraction(), actual.getNullsFraction(), 0);
+        Assert.assertEquals(expected.getAverageRowSize(), actual.getAverageRowSize(), 0);
+        Assert.assertEquals(expected.getDistinctValuesCount(), actual.getDistinctValuesCount(), 0);
+        Assert.assertEquals(expected.getType(), actual.getType());
+        Assert.assertEquals(expected.getMinString(), actual.getMinString());
+        Assert.assertEquals(expected.getMaxString(), actual.getMaxString());
+    }
+
+    @Test
+    public void testSerialize() throws IOException {
+        ColumnStatistic v1 = new ColumnStatistic(1, 100, 0.1, 8, 50);
+        ColumnStatistic v2 = ColumnStatistic.builder().setMinValue(0).setMaxValue(10).setNullsFraction(0)
+                .setAverageRowSize(10).setDistinctValuesCount(3).setMinString("a").setMaxString("z").build();
+
+        StatisticsCacheSnapshot snapshot = new StatisticsCacheSnapshot();
+        snapshot.addPartitionRowCount(1, 11, 1000);
+        snapshot.addPartitionRowCount(1, 12, 2000);
+        snapshot.addColumnStatistic(1, "v1", v1);
+        snapshot.addColumnStatistic(2, "v2", v2);
+        snapshot.addColumnStatistic(2, "v3", ColumnStatistic.unknown());
+
+        StatisticsCacheSnapshot result = StatisticsCacheSnapshot.deserialize(snapshot.serialize());
+        Assert.assertEquals(snapshot.getCreateTime(), result.getCreateTime());
+        Assert.assertEquals(ImmutableSet.of(1L, 2L), result.getTableIds());
+        Assert.assertEquals(snapshot.getTables().get(1L).partitionRowCounts,
+                result.getTables().get(1L).partitionRowCounts);
+        assertColumnStatisticEquals(v1, result.getTables().get(1L).columnStatistics.get("v1"));
+        assertColumnStatisticEquals(v2, result.getTables().get(2L).columnStatistics.get("v2"));
+        Assert.assertTrue(result.getTables().get(2L).columnStatistics.get("v3").isUnknown());
+
+        Assert.assertThrows(IOException.class, () -> StatisticsCacheSnapshot.deserialize(new byte[8]));
+    }
+
+    @Test
+    public void testApplyToCache() {
+        ColumnStatistic v1 = new ColumnStatistic(1, 100, 0.1, 8, 50);
+        StatisticsCacheSnapshot snapshot = new StatisticsCacheSnapshot();
+        snapshot.addPartitionRowCount(1, 11, 1000);
+        snapshot.addColumnStatistic(1, "v1", v1);
+        snapshot.addColumnStatistic(2, "v2", v1);
+
+        CachedStatisticStorage storage = new CachedStatisticStorage();
+        storage.applySnapshot(snapshot);
+
+        StatisticsCacheSnapshot table1 = storage.getSnapshot(ImmutableSet.of(1L));
+        Assert.assertEquals(ImmutableSet.of(1L), table1.getTableIds());
+        Assert.assertEquals(1000L, table1.getTables().get(1L).partitionRowCounts.get(11L).longValue());
+        assertColumnStatisticEquals(v1, table1.getTables().get(1L).columnStatistics.get("v1"));
+
+        Assert.assertEquals(ImmutableSet.of(1L, 2L), storage.getSnapshot(null).getTableIds());
+    }
+}
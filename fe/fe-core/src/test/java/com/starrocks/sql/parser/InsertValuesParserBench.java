@@ -0,0 +1,92 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.parser;
+
+import com.starrocks.common.Config;
+import com.starrocks.qe.SqlModeHelper;
+import com.starrocks.sql.ast.StatementBase;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+// Compare the throughput of InsertValuesParser with the ANTLR parser on the multi-row INSERT ... VALUES statements
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class InsertValuesParserBench {
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(InsertValuesParserBench.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+    private String sql;
+
+    @Param({"100", "1000", "10000"})
+    public int rows;
+
+    @Setup
+    public void setup() {
+        StringJoiner values = new StringJoiner(",");
+        for (int i = 0; i < rows; i++) {
+            values.add("(" + i + ", -1869445626, 0.17698452552099786, 'name_" + i + "', '2024-01-01 00:00:00', null)");
+        }
+        sql = "INSERT INTO db.test_insert_values (k1, k2, v1, v2, v3, v4) VALUES " + values + ";";
+    }
+
+    @Benchmark
+    public StatementBase parseWithFastPath() {
+        return InsertValuesParser.parse(sql, SqlModeHelper.MODE_DEFAULT, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public StatementBase parseWithAntlr() {
+        StarRocksLexer lexer = new StarRocksLexer(new CaseInsensitiveStream(CharStreams.fromString(sql)));
+        CommonTokenStream tokenStream = new CommonTokenStream(lexer);
+        StarRocksParser parser = new StarRocksParser(tokenStream);
+        parser.removeErrorListeners();
+        parser.addErrorListener(new BaseErrorListener());
+        parser.removeParseListeners();
+        parser.addParseListener(new PostProcessListener(Integer.MAX_VALUE, Config.expr_children_limit));
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        StarRocksParser.SqlStatementsContext sqlStatements = parser.sqlStatements();
+        return (StatementBase) new AstBuilder(SqlModeHelper.MODE_DEFAULT)
+                .visitSingleStatement(sqlStatements.singleStatement(0));
+    }
+}
@@ -0,0 +1,130 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.sql.parser;
+
+import com.starrocks.analysis.Expr;
+import com.starrocks.common.Config;
+import com.starrocks.qe.SessionVariable;
+import com.starrocks.qe.SqlModeHelper;
+import com.starrocks.sql.ast.InsertStmt;
+import com.starrocks.sql.ast.ValuesRelation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+class InsertValuesParserTest {
+
+    @AfterEach
+    void tearDown() {
+        Config.enable_insert_values_fast_parse = true;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "insert into t values (1, 'a', null)",
+            "INSERT INTO db.t VALUES (-1, +2.5, 'it''s', TRUE, false), (9223372036854775808, -1.5e3, 'a\\nb', null, 1)",
+            "insert into `cat`.`db`.`t` (K1, `v1`) values (.5, -9223372036854775808);",
+            "  insert\ninto t\n(c1, c2)\nvalues\n  (1, 'x\ny'),\n  (2, 'z')  ;  ",
+            "insert into t values(1)",
+            "insert into t values ('中文', 1)",
+    })
+    void testSameAsAntlr(String sql) {
+        SessionVariable sessionVariable = new SessionVariable();
+        InsertStmt fast = InsertValuesParser.parse(sql, sessionVariable.getSqlMode(), 10000, 10000);
+        assertNotNull(fast);
+
+        Config.enable_insert_values_fast_parse = false;
+        InsertStmt expected = (InsertStmt) SqlParser.parse(sql, sessionVariable).get(0);
+
+        assertEquals(expected.getTableName().toString(), fast.getTableName().toString());
+        assertPosEquals(expected.getTableName().getPos(), fast.getTableName().getPos());
+        assertEquals(expected.getTargetColumnNames(), fast.getTargetColumnNames());
+        assertPosEquals(expected.getPos(), fast.getPos());
+
+        ValuesRelation expectedValues = (ValuesRelation) expected.getQueryStatement().getQueryRelation();
+        ValuesRelation fastValues = (ValuesRelation) fast.getQueryStatement().getQueryRelation();
+        assertEquals(expectedValues.getColumnOutputNames(), fastValues.getColumnOutputNames());
+        assertPosEquals(expectedValues.getPos(), fastValues.getPos());
+        assertEquals(expectedValues.getRows().size(), fastValues.getRows().size());
+        for (int i = 0; i < expectedValues.getRows().size(); i++) {
+            List<Expr> expectedRow = expectedValues.getRows().get(i);
+            List<Expr> fastRow = fastValues.getRows().get(i);
+            assertEquals(expectedRow.size(), fastRow.size());
+            for (int j = 0; j < expectedRow.size(); j++) {
+                assertEquals(expectedRow.get(j).getClass(), fastRow.get(j).getClass());
+                assertEquals(expectedRow.get(j).getType(), fastRow.get(j).getType());
+                assertEquals(expectedRow.get(j).toSql(), fastRow.get(j).toSql());
+                assertPosEquals(expectedRow.get(j).getPos(), fastRow.get(j).getPos());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "insert into t select 1",
+            "insert overwrite t values (1)",
+            "insert into t partition (p1) values (1)",
+            "insert into t with label l1 values (1)",
+            "insert /*+ SET_VAR(query_timeout=1) */ into t values (1)",
+            "insert into t values (1) -- comment",
+            "insert into t values (1 + 1)",
+            "insert into t values (default)",
+            "insert into t values (\"a\")",
+            "insert into t values (now())",
+            "insert into t values (--1)",
+            "insert into t values (1abc)",
+            "insert into t values (1); select 1",
+            "insert into `a``b` values (1)",
+            "insert into values values (1)",
+            "insert into t values (99999999999999999999999999999999999999999999)",
+            "insert into a.b.c.d values (1)",
+            "select 1",
+    })
+    void testUnsupported(String sql) {
+        assertNull(InsertValuesParser.parse(sql, SqlModeHelper.MODE_DEFAULT, 10000, 10000));
+    }
+
+    @Test
+    void testLimits() {
+        String sql = "insert into t values (1, 2), (3, 4), (5, 6)";
+        assertNotNull(InsertValuesParser.parse(sql, SqlModeHelper.MODE_DEFAULT, 10000, 3));
+        // too many rows
+        assertNull(InsertValuesParser.parse(sql, SqlModeHelper.MODE_DEFAULT, 10000, 2));
+        // too many tokens
+        assertNull(InsertValuesParser.parse(sql, SqlModeHelper.MODE_DEFAULT, 10, 10000));
+    }
+
+    @Test
+    void testDoubleLiteralMode() {
+        String sql = "insert into t values (1.5)";
+        InsertStmt stmt = InsertValuesParser.parse(sql, SqlModeHelper.MODE_DOUBLE_LITERAL, 10000, 10000);
+        Expr literal = ((ValuesRelation) stmt.getQueryStatement().getQueryRelation()).getRows().get(0).get(0);
+        assertEquals("FloatLiteral", literal.getClass().getSimpleName());
+    }
+
+    private static void assertPosEquals(NodePosition expectedPos, NodePosition actualPos) {
+        assertEquals(expectedPos.getLine(), actualPos.getLine());
+        assertEquals(expectedPos.getCol(), actualPos.getCol());
+        assertEquals(expectedPos.getEndLine(), actualPos.getEndLine());
+        assertEquals(expectedPos.getEndCol(), actualPos.getEndCol());
+    }
+}
@@ -18,6 +18,11 @@ package com.starrocks.sql.plan;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.common.FeConstants;
 import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.optimizer.OptExpression;
+import com.starrocks.sql.optimizer.rule.join.JoinReorderDP;
+import mockit.Invocation;
+import mockit.Mock;
+import mockit.MockUp;
 import org.junit.Assert;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer;
@@ -25,6 +30,9 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class MultiJoinReorderTest extends PlanTestBase {
 
@@ -408,6 +416,74 @@ public class MultiJoinReorderTest extends PlanTestBase {
                 "  |----8:EXCHANGE"));
     }
 
+    // Record the number of plans produced by every JoinReorderDP
+    private static List<Integer> recordJoinReorderDPResults() {
+        List<Integer> numResults = new ArrayList<>();
+        new MockUp<JoinReorderDP>() {
+            @Mock
+            public List<OptExpression> getResult(Invocation invocation) {
+                List<OptExpression> result = invocation.proceed();
+                numResults.add(result.size());
+                return result;
+            }
+        };
+        return numResults;
+    }
+
+    @Test
+    @Order(5)
+    void testLargeJoinReorderDP() throws Exception {
+        connectContext.getSessionVariable().enableDPJoinReorder();
+        connectContext.getSessionVariable().disableGreedyJoinReorder();
+        long maxReorderNodeUseDP = connectContext.getSessionVariable().getCboMaxReorderNodeUseDP();
+        connectContext.getSessionVariable().setCboMaxReorderNodeUseDP(16);
+        try {
+            // chain join of 16 tables
+            List<Integer> numResults = recordJoinReorderDPResults();
+            StringBuilder sql = new StringBuilder("select count(*) from t1 a0");
+            for (int i = 1; i < 16; i++) {
+                sql.append(" join t1 a").append(i).append(" on a").append(i - 1).append(".v4 = a").append(i).append(".v5");
+            }
+            String planFragment = getFragmentPlan(sql.toString());
+            Assert.assertFalse(planFragment, planFragment.contains("CROSS JOIN"));
+            Assert.assertFalse(numResults.isEmpty());
+            Assert.assertTrue(numResults.toString(), numResults.stream().allMatch(numResult -> numResult > 0));
+
+            // star join of 12 tables
+            numResults.clear();
+            sql = new StringBuilder("select count(*) from t3");
+            for (int i = 1; i < 12; i++) {
+                sql.append(" join t").append(i % 3).append(" a").append(i)
+                        .append(" on t3.v10 = a").append(i).append(i % 3 == 0 ? ".v1" : i % 3 == 1 ? ".v4" : ".v7");
+            }
+            planFragment = getFragmentPlan(sql.toString());
+            Assert.assertFalse(planFragment, planFragment.contains("CROSS JOIN"));
+            Assert.assertFalse(numResults.isEmpty());
+            Assert.assertTrue(numResults.toString(), numResults.stream().allMatch(numResult -> numResult > 0));
+        } finally {
+            connectContext.getSessionVariable().setCboMaxReorderNodeUseDP(maxReorderNodeUseDP);
+            connectContext.getSessionVariable().enableGreedyJoinReorder();
+        }
+    }
+
+    @Test
+    @Order(5)
+    void testHyperEdgeJoinReorderDP() throws Exception {
+        connectContext.getSessionVariable().enableDPJoinReorder();
+        connectContext.getSessionVariable().disableGreedyJoinReorder();
+        try {
+            // the tables are only connected by a predicate over three tables
+            List<Integer> numResults = recordJoinReorderDPResults();
+            String sql = "select * from t0 join t1 join t2 on t0.v1 + t1.v4 = t2.v7";
+            String planFragment = getFragmentPlan(sql);
+            Assert.assertTrue(planFragment, planFragment.contains("CROSS JOIN"));
+            Assert.assertFalse(numResults.isEmpty());
+            Assert.assertTrue(numResults.toString(), numResults.stream().allMatch(numResult -> numResult > 0));
+        } finally {
+            connectContext.getSessionVariable().enableGreedyJoinReorder();
+        }
+    }
+
     @Test
     @Order(5)
     void testLeftJoinReorderDP() throws Exception {
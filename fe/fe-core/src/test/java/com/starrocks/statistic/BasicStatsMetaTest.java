@@ -87,6 +87,19 @@ public class BasicStatsMetaTest extends PlanTestBase {
         }
     }
 
+    @Test
+    public void testIsPartitionLevelStatistics() {
+        LocalDateTime updateTime = LocalDateTime.of(2024, 7, 22, 12, 20);
+        Assert.assertTrue(new BasicStatsMeta(1L, 2L, List.of(), StatsConstants.AnalyzeType.FULL, updateTime,
+                Map.of()).isPartitionLevelStatistics());
+        Assert.assertFalse(new BasicStatsMeta(1L, 2L, List.of(), StatsConstants.AnalyzeType.SAMPLE, updateTime,
+                Map.of()).isPartitionLevelStatistics());
+        Assert.assertFalse(new BasicStatsMeta(1L, 2L, List.of(), StatsConstants.AnalyzeType.SAMPLE, updateTime,
+                null).isPartitionLevelStatistics());
+        Assert.assertTrue(new BasicStatsMeta(1L, 2L, List.of(), StatsConstants.AnalyzeType.SAMPLE, updateTime,
+                Map.of(StatsConstants.STATISTIC_INCREMENTAL_SAMPLE, "true")).isPartitionLevelStatistics());
+    }
+
     @Test
     public void testSerialization() throws IOException {
         Database db = GlobalStateMgr.getCurrentState().getMetadataMgr().getDb("default_catalog", "test");
@@ -0,0 +1,105 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.statistic;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.starrocks.journal.JournalEntity;
+import com.starrocks.persist.OperationType;
+import com.starrocks.server.GlobalStateMgr;
+import com.starrocks.sql.optimizer.statistics.StatisticsCacheSnapshot;
+import com.starrocks.thrift.TStatusCode;
+import com.starrocks.thrift.TSyncStatisticsCacheRequest;
+import com.starrocks.utframe.UtFrameUtils;
+import mockit.Mock;
+import mockit.MockUp;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StatisticsCacheSyncerTest {
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        UtFrameUtils.createMinStarRocksCluster();
+    }
+
+    private static TSyncStatisticsCacheRequest createRequest(long tableId, LocalDateTime updateTime) throws Exception {
+        StatisticsCacheSnapshot snapshot = new StatisticsCacheSnapshot();
+        snapshot.addPartitionRowCount(tableId, 1L, 100L);
+        TSyncStatisticsCacheRequest request = new TSyncStatisticsCacheRequest();
+        request.setTable_id(tableId);
+        request.setUpdate_time(updateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        request.setSnapshot(snapshot.serialize());
+        return request;
+    }
+
+    @Test
+    public void testApplyPushedStatistics() throws Exception {
+        StatisticsCacheSyncer syncer = new StatisticsCacheSyncer();
+        LocalDateTime updateTime = LocalDateTime.now().withNano(0);
+        Assert.assertFalse(syncer.isPushed(1001L, updateTime));
+
+        Assert.assertEquals(TStatusCode.OK, syncer.applyPushedStatistics(createRequest(1001L, updateTime))
+                .getStatus_code());
+        Assert.assertTrue(syncer.isPushed(1001L, updateTime));
+        Assert.assertTrue(syncer.isPushed(1001L, updateTime.minusSeconds(1)));
+        Assert.assertFalse(syncer.isPushed(1001L, updateTime.plusSeconds(1)));
+        Assert.assertFalse(syncer.isPushed(1002L, updateTime));
+
+        // the pushed statistics older than the applied ones are ignored
+        syncer.applyPushedStatistics(createRequest(1001L, updateTime.minusSeconds(10)));
+        Assert.assertTrue(syncer.isPushed(1001L, updateTime));
+
+        TSyncStatisticsCacheRequest request = createRequest(1002L, updateTime);
+        request.setSnapshot(new byte[] {1, 2, 3});
+        Assert.assertEquals(TStatusCode.INVALID_ARGUMENT, syncer.applyPushedStatistics(request).getStatus_code());
+        Assert.assertFalse(syncer.isPushed(1002L, updateTime));
+    }
+
+    @Test
+    public void testSkipRefreshWhenReplayPushedStatistics() throws Exception {
+        AtomicInteger refreshCount = new AtomicInteger();
+        new MockUp<AnalyzeMgr>() {
+            @Mock
+            public void refreshBasicStatisticsCache(Long dbId, Long tableId, List<String> columns, boolean async) {
+                refreshCount.incrementAndGet();
+            }
+        };
+
+        GlobalStateMgr globalStateMgr = GlobalStateMgr.getCurrentState();
+        LocalDateTime updateTime = LocalDateTime.now().withNano(0);
+        globalStateMgr.getStatisticsCacheSyncer().applyPushedStatistics(createRequest(2001L, updateTime));
+
+        // the statistics have been pushed, so they are not reloaded when replaying the stats meta
+        JournalEntity journalEntity = new JournalEntity();
+        journalEntity.setOpCode(OperationType.OP_ADD_BASIC_STATS_META);
+        journalEntity.setData(new BasicStatsMeta(1L, 2001L, Lists.newArrayList("c1"), StatsConstants.AnalyzeType.FULL,
+                updateTime, Maps.newHashMap()));
+        globalStateMgr.getEditLog().loadJournal(globalStateMgr, journalEntity);
+        Assert.assertEquals(0, refreshCount.get());
+        Assert.assertEquals(updateTime, globalStateMgr.getAnalyzeMgr().getBasicStatsMetaMap().get(2001L).getUpdateTime());
+
+        // the statistics collected again are not pushed yet
+        journalEntity.setData(new BasicStatsMeta(1L, 2001L, Lists.newArrayList("c1"), StatsConstants.AnalyzeType.FULL,
+                updateTime.plusSeconds(1), Maps.newHashMap()));
+        globalStateMgr.getEditLog().loadJournal(globalStateMgr, journalEntity);
+        Assert.assertEquals(1, refreshCount.get());
+    }
+}
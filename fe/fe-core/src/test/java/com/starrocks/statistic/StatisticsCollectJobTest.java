@@ -21,6 +21,7 @@ import com.google.common.collect.Maps;
 import com.starrocks.catalog.Database;
 import com.starrocks.catalog.IcebergTable;
 import com.starrocks.catalog.InternalCatalog;
+import com.starrocks.catalog.LocalTablet;
 import com.starrocks.catalog.OlapTable;
 import com.starrocks.catalog.Partition;
 import com.starrocks.catalog.Table;
@@ -917,6 +918,60 @@ public class StatisticsCollectJobTest extends PlanTestNoneDBBase {
         Assert.assertEquals(50, collectSqlList.size());
     }
 
+    @Test
+    public void testIncrementalSampleStatisticsBuildCollectSQLList() {
+        Database database = connectContext.getGlobalStateMgr().getLocalMetastore().getDb("test");
+        OlapTable table = (OlapTable) GlobalStateMgr.getCurrentState().getLocalMetastore()
+                .getTable(database.getFullName(), "t0_stats_partition");
+        List<Long> partitionIdList = Lists.newArrayList(table.getPartition("p0").getId(),
+                table.getPartition("p1").getId());
+
+        new MockUp<Partition>() {
+            @Mock
+            public long getDataSize() {
+                return 1000;
+            }
+        };
+        new MockUp<LocalTablet>() {
+            @Mock
+            public long getFuzzyRowCount() {
+                return 100;
+            }
+        };
+
+        long maxFullCollectDataSize = Config.statistic_max_full_collect_data_size;
+        try {
+            Config.statistic_max_full_collect_data_size = 100;
+            StatisticsCollectJob collectJob = StatisticsCollectJobFactory.buildIncrementalSampleStatisticsCollectJob(
+                    database, table, partitionIdList, Lists.newArrayList("v1", "v2"), null,
+                    StatsConstants.ScheduleType.SCHEDULE,
+                    ImmutableMap.of(StatsConstants.STATISTIC_SAMPLE_COLLECT_ROWS, "100"));
+            // the statistics are sampled, but stored by partition like the full collection
+            Assert.assertEquals(StatsConstants.AnalyzeType.SAMPLE, collectJob.getType());
+            Assert.assertTrue(new BasicStatsMeta(database.getId(), table.getId(), null, collectJob.getType(),
+                    LocalDateTime.now(), collectJob.getProperties()).isPartitionLevelStatistics());
+
+            // one of the 3 tablets is sampled, and the counts are scaled by 3
+            List<List<String>> collectSqlList =
+                    ((IncrementalSampleStatisticsCollectJob) collectJob).buildCollectSQLList(1);
+            Assert.assertEquals(4, collectSqlList.size());
+            Assert.assertEquals(4, StringUtils.countMatches(collectSqlList.toString(), "TABLET("));
+            Assert.assertEquals(4, StringUtils.countMatches(collectSqlList.toString(), "COUNT(1) * 3.0"));
+            Assert.assertFalse(collectSqlList.toString().contains("partition `p0`"));
+
+            // small partitions are read entirely
+            Config.statistic_max_full_collect_data_size = 10000;
+            collectJob = StatisticsCollectJobFactory.buildIncrementalSampleStatisticsCollectJob(
+                    database, table, partitionIdList, Lists.newArrayList("v1", "v2"), null,
+                    StatsConstants.ScheduleType.SCHEDULE, Maps.newHashMap());
+            collectSqlList = ((IncrementalSampleStatisticsCollectJob) collectJob).buildCollectSQLList(1);
+            Assert.assertEquals(0, StringUtils.countMatches(collectSqlList.toString(), "TABLET("));
+            Assert.assertEquals(2, StringUtils.countMatches(collectSqlList.toString(), "partition `p0`"));
+        } finally {
+            Config.statistic_max_full_collect_data_size = maxFullCollectDataSize;
+        }
+    }
+
     @Test
     public void testExternalFullStatisticsBuildCollectSQLList() {
         Database database = connectContext.getGlobalStateMgr().getMetadataMgr().getDb("hive0", "partitioned_db");
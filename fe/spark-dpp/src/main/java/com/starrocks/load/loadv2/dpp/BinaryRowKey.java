@@ -0,0 +1,389 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.load.loadv2.dpp;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.starrocks.load.loadv2.etl.EtlJobConfig;
+import org.apache.spark.Partitioner;
+import scala.Tuple2;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// BinaryRowKey is the serialized form of a rollup row key (bucket key + key columns) used by the
+// sort shuffle before writing parquet files.
+// The key columns are encoded into a byte array whose unsigned lexicographical order is the same as
+// the order of BucketComparator, so the shuffle sorts rows without deserializing the column objects,
+// and the first 8 bytes are cached as a long prefix to resolve most comparisons with one instruction.
+// Only used when all key columns have an order preserving encoding, see isSupported.
+// Strings are compared by their UTF-8 bytes, i.e. by code points, which is how the BE compares strings.
+// It differs from the UTF-16 order of String.compareTo used by BucketComparator only for the supplementary
+// characters (encoded as surrogate pairs) against the characters in U+E000..U+FFFF.
+class BinaryRowKey implements Comparable<BinaryRowKey>, Serializable {
+    private static final byte NULL_FLAG = 0x00;
+    private static final byte BOOLEAN_FLAG = 0x01;
+    private static final byte BYTE_FLAG = 0x02;
+    private static final byte SHORT_FLAG = 0x03;
+    private static final byte INT_FLAG = 0x04;
+    private static final byte LONG_FLAG = 0x05;
+    private static final byte FLOAT_FLAG = 0x06;
+    private static final byte DOUBLE_FLAG = 0x07;
+    private static final byte DATE_FLAG = 0x08;
+    private static final byte TIMESTAMP_FLAG = 0x09;
+    private static final byte STRING_FLAG = 0x0A;
+
+    // strings are terminated by 0x00 0x01 and a 0x00 inside a string is escaped as 0x00 0xFF,
+    // so that a string sorts before all its extensions
+    private static final byte STRING_ESCAPE = 0x00;
+    private static final byte STRING_TERMINATOR = 0x01;
+    private static final byte STRING_ESCAPED_ZERO = (byte) 0xFF;
+
+    private final String bucketKey;
+    private final byte[] keyBytes;
+    private final long prefix;
+
+    BinaryRowKey(String bucketKey, byte[] keyBytes) {
+        this.bucketKey = bucketKey;
+        this.keyBytes = keyBytes;
+        this.prefix = computePrefix(keyBytes);
+    }
+
+    public String getBucketKey() {
+        return bucketKey;
+    }
+
+    public byte[] getKeyBytes() {
+        return keyBytes;
+    }
+
+    // the rollup columns whose type has no order preserving binary encoding (decimal) use the object key
+    public static boolean isSupported(EtlJobConfig.EtlIndex indexMeta) {
+        for (EtlJobConfig.EtlColumn column : indexMeta.columns) {
+            if (column.isKey && column.columnType.startsWith("DECIMAL")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // the first element of keyColumns is the bucket key, the following elements are the key columns
+    public static BinaryRowKey encode(List<Object> keyColumns) {
+        Encoder encoder = new Encoder();
+        for (int i = 1; i < keyColumns.size(); i++) {
+            encoder.write(keyColumns.get(i));
+        }
+        return new BinaryRowKey(keyColumns.get(0).toString(), encoder.toByteArray());
+    }
+
+    public List<Object> decode() {
+        List<Object> keyColumns = new ArrayList<>();
+        keyColumns.add(bucketKey);
+        int pos = 0;
+        while (pos < keyBytes.length) {
+            byte flag = keyBytes[pos++];
+            switch (flag) {
+                case NULL_FLAG:
+                    keyColumns.add(null);
+                    break;
+                case BOOLEAN_FLAG:
+                    keyColumns.add(keyBytes[pos++] != 0);
+                    break;
+                case BYTE_FLAG:
+                    keyColumns.add((byte) (keyBytes[pos++] ^ 0x80));
+                    break;
+                case SHORT_FLAG:
+                    keyColumns.add((short) (readLong(pos, 2) ^ 0x8000));
+                    pos += 2;
+                    break;
+                case INT_FLAG:
+                    keyColumns.add((int) readLong(pos, 4) ^ Integer.MIN_VALUE);
+                    pos += 4;
+                    break;
+                case LONG_FLAG:
+                    keyColumns.add(readLong(pos, 8) ^ Long.MIN_VALUE);
+                    pos += 8;
+                    break;
+                case FLOAT_FLAG: {
+                    int bits = (int) readLong(pos, 4);
+                    bits = bits < 0 ? bits ^ Integer.MIN_VALUE : ~bits;
+                    keyColumns.add(Float.intBitsToFloat(bits));
+                    pos += 4;
+                    break;
+                }
+                case DOUBLE_FLAG: {
+                    long bits = readLong(pos, 8);
+                    bits = bits < 0 ? bits ^ Long.MIN_VALUE : ~bits;
+                    keyColumns.add(Double.longBitsToDouble(bits));
+                    pos += 8;
+                    break;
+                }
+                case DATE_FLAG:
+                    keyColumns.add(new Date(readLong(pos, 8) ^ Long.MIN_VALUE));
+                    pos += 8;
+                    break;
+                case TIMESTAMP_FLAG: {
+                    Timestamp timestamp = new Timestamp(readLong(pos, 8) ^ Long.MIN_VALUE);
+                    timestamp.setNanos((int) readLong(pos + 8, 4));
+                    keyColumns.add(timestamp);
+                    pos += 12;
+                    break;
+                }
+                case STRING_FLAG: {
+                    byte[] buf = new byte[keyBytes.length - pos];
+                    int len = 0;
+                    while (true) {
+                        byte b = keyBytes[pos++];
+                        if (b == STRING_ESCAPE) {
+                            if (keyBytes[pos++] == STRING_TERMINATOR) {
+                                break;
+                            }
+                            buf[len++] = 0;
+                        } else {
+                            buf[len++] = b;
+                        }
+                    }
+                    keyColumns.add(new String(buf, 0, len, StandardCharsets.UTF_8));
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("invalid binary row key flag " + flag);
+            }
+        }
+        return keyColumns;
+    }
+
+    private long readLong(int pos, int size) {
+        long value = 0;
+        for (int i = 0; i < size; i++) {
+            value = (value << 8) | (keyBytes[pos + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static long computePrefix(byte[] bytes) {
+        long prefix = 0;
+        for (int i = 0; i < 8; i++) {
+            prefix <<= 8;
+            if (i < bytes.length) {
+                prefix |= bytes[i] & 0xFF;
+            }
+        }
+        return prefix;
+    }
+
+    @Override
+    public int compareTo(BinaryRowKey other) {
+        if (bucketKey != other.bucketKey && !bucketKey.equals(other.bucketKey)) {
+            return bucketKey.compareTo(other.bucketKey);
+        }
+        int cmp = Long.compareUnsigned(prefix, other.prefix);
+        if (cmp != 0) {
+            return cmp;
+        }
+        // the first 8 bytes are equal
+        int len = Math.min(keyBytes.length, other.keyBytes.length);
+        for (int i = 8; i < len; i++) {
+            int b1 = keyBytes[i] & 0xFF;
+            int b2 = other.keyBytes[i] & 0xFF;
+            if (b1 != b2) {
+                return b1 - b2;
+            }
+        }
+        return keyBytes.length - other.keyBytes.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BinaryRowKey that = (BinaryRowKey) o;
+        return prefix == that.prefix && bucketKey.equals(that.bucketKey) && Arrays.equals(keyBytes, that.keyBytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * bucketKey.hashCode() + Arrays.hashCode(keyBytes);
+    }
+
+    @Override
+    public String toString() {
+        List<Object> keyColumns = decode();
+        return "BinaryRowKey{" +
+                "bucketKey=" + bucketKey +
+                ", keyColumns=" + keyColumns.subList(1, keyColumns.size()) +
+                '}';
+    }
+
+    private static class Encoder {
+        private byte[] buf = new byte[64];
+        private int len = 0;
+
+        void write(Object value) {
+            if (value == null) {
+                writeByte(NULL_FLAG);
+            } else if (value instanceof Boolean) {
+                writeByte(BOOLEAN_FLAG);
+                writeByte((Boolean) value ? 1 : 0);
+            } else if (value instanceof Byte) {
+                writeByte(BYTE_FLAG);
+                writeByte((Byte) value ^ 0x80);
+            } else if (value instanceof Short) {
+                writeByte(SHORT_FLAG);
+                writeLong((Short) value ^ 0x8000, 2);
+            } else if (value instanceof Integer) {
+                writeByte(INT_FLAG);
+                writeLong((Integer) value ^ Integer.MIN_VALUE, 4);
+            } else if (value instanceof Long) {
+                writeByte(LONG_FLAG);
+                writeLong((Long) value ^ Long.MIN_VALUE, 8);
+            } else if (value instanceof Float) {
+                // same order as Float.compareTo: -0.0 < 0.0 and NaN is the largest
+                int bits = Float.floatToIntBits((Float) value);
+                writeByte(FLOAT_FLAG);
+                writeLong(bits < 0 ? ~bits : bits ^ Integer.MIN_VALUE, 4);
+            } else if (value instanceof Double) {
+                long bits = Double.doubleToLongBits((Double) value);
+                writeByte(DOUBLE_FLAG);
+                writeLong(bits < 0 ? ~bits : bits ^ Long.MIN_VALUE, 8);
+            } else if (value instanceof Timestamp) {
+                Timestamp timestamp = (Timestamp) value;
+                writeByte(TIMESTAMP_FLAG);
+                writeLong(timestamp.getTime() ^ Long.MIN_VALUE, 8);
+                writeLong(timestamp.getNanos(), 4);
+            } else if (value instanceof Date) {
+                writeByte(DATE_FLAG);
+                writeLong(((Date) value).getTime() ^ Long.MIN_VALUE, 8);
+            } else if (value instanceof String) {
+                // UTF-8 byte order is the code point order, see the class comment
+                writeByte(STRING_FLAG);
+                byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+                ensureCapacity(bytes.length * 2 + 2);
+                for (byte b : bytes) {
+                    if (b == STRING_ESCAPE) {
+                        buf[len++] = STRING_ESCAPE;
+                        buf[len++] = STRING_ESCAPED_ZERO;
+                    } else {
+                        buf[len++] = b;
+                    }
+                }
+                buf[len++] = STRING_ESCAPE;
+                buf[len++] = STRING_TERMINATOR;
+            } else {
+                throw new IllegalArgumentException(
+                        String.format("unsupported binary row key column type %s", value.getClass()));
+            }
+        }
+
+        private void writeByte(int b) {
+            ensureCapacity(1);
+            buf[len++] = (byte) b;
+        }
+
+        private void writeLong(long value, int size) {
+            ensureCapacity(size);
+            for (int i = size - 1; i >= 0; i--) {
+                buf[len++] = (byte) (value >>> (i * 8));
+            }
+        }
+
+        private void ensureCapacity(int size) {
+            if (len + size > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + size));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, len);
+        }
+    }
+}
+
+class BinaryRowKeyComparator implements Comparator<BinaryRowKey>, Serializable {
+    @Override
+    public int compare(BinaryRowKey left, BinaryRowKey right) {
+        return left.compareTo(right);
+    }
+}
+
+class BinaryBucketPartitioner extends Partitioner {
+
+    private Map<String, Integer> bucketKeyMap;
+
+    public BinaryBucketPartitioner(Map<String, Integer> bucketKeyMap) {
+        this.bucketKeyMap = bucketKeyMap;
+    }
+
+    @Override
+    public int numPartitions() {
+        return bucketKeyMap.size();
+    }
+
+    @Override
+    public int getPartition(Object key) {
+        return bucketKeyMap.get(((BinaryRowKey) key).getBucketKey());
+    }
+}
+
+// writes the bucket key and the encoded key columns only, without any class information of the columns
+class BinaryRowKeySerializer extends Serializer<BinaryRowKey> {
+    @Override
+    public void write(Kryo kryo, Output output, BinaryRowKey key) {
+        output.writeString(key.getBucketKey());
+        output.writeInt(key.getKeyBytes().length, true);
+        output.writeBytes(key.getKeyBytes());
+    }
+
+    @Override
+    public BinaryRowKey read(Kryo kryo, Input input, Class<BinaryRowKey> type) {
+        String bucketKey = input.readString();
+        int len = input.readInt(true);
+        return new BinaryRowKey(bucketKey, input.readBytes(len));
+    }
+}
+
+// decodes the sorted binary keys back to the object keys consumed by the parquet writer
+class BinaryRowKeyDecodeIterator implements Iterator<Tuple2<List<Object>, Object[]>> {
+    private final Iterator<Tuple2<BinaryRowKey, Object[]>> iterator;
+
+    BinaryRowKeyDecodeIterator(Iterator<Tuple2<BinaryRowKey, Object[]>> iterator) {
+        this.iterator = iterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return iterator.hasNext();
+    }
+
+    @Override
+    public Tuple2<List<Object>, Object[]> next() {
+        Tuple2<BinaryRowKey, Object[]> pair = iterator.next();
+        return new Tuple2<>(pair._1().decode(), pair._2());
+    }
+}
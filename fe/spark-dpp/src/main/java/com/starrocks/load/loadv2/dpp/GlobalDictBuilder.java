@@ -17,18 +17,22 @@
 
 package com.starrocks.load.loadv2.dpp;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.collections.map.MultiValueMap;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
+import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.sql.AnalysisException;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
 import org.apache.spark.sql.SparkSession;
 import org.apache.spark.sql.catalog.Column;
 import org.apache.spark.sql.types.DataTypes;
 import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
+import org.apache.spark.storage.StorageLevel;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -228,8 +232,8 @@ public class GlobalDictBuilder {
                     // split distinct key first and then encode with count
                     buildGlobalDictBySplit(maxDictValue, distinctColumnNameTmp);
                 } else {
-                    // build global dict directly
-                    spark.sql(getBuildGlobalDictSql(maxDictValue, distinctColumnNameTmp));
+                    // only append the new distinct values to the global dict
+                    buildGlobalDictIncrementally(maxDictValue, distinctColumnNameTmp);
                 }
 
             });
@@ -327,6 +331,61 @@ public class GlobalDictBuilder {
 
     }
 
+    /**
+     * Append the distinct values which are not in the global dict yet, instead of rewriting the whole
+     * dict partition of the column. A load which brings no new value doesn't touch the dict at all.
+     * <p>
+     * The ids of the new values are assigned by zipWithIndex, which numbers every spark partition
+     * in parallel from the offsets of the preceding partitions, instead of a row_number() window
+     * which has to move all the new values into a single task.
+     */
+    private void buildGlobalDictIncrementally(long maxGlobalDictValue, String distinctColumnName) {
+        Dataset<Row> newDistinctValue = sortDistinctValue(spark.sql(getNewDistinctValue(distinctColumnName)))
+                .persist(StorageLevel.MEMORY_AND_DISK());
+        try {
+            long newDistinctValueCount = newDistinctValue.count();
+            LOG.info(" column " + distinctColumnName + " has " + newDistinctValueCount + " new distinct values");
+            if (newDistinctValueCount == 0) {
+                return;
+            }
+
+            JavaRDD<Row> newDictRows = assignDictValues(newDistinctValue, maxGlobalDictValue);
+            String tmpDictTableName = String.format("%s_%s_incr_dict_%s", globalDictTableName, maxGlobalDictValue,
+                    distinctColumnName);
+            spark.createDataFrame(newDictRows, getDictSchema()).createOrReplaceTempView(tmpDictTableName);
+            spark.sql(getAppendGlobalDictSql(tmpDictTableName, distinctColumnName));
+            spark.catalog().dropTempView(tmpDictTableName);
+        } finally {
+            newDistinctValue.unpersist();
+        }
+    }
+
+    /**
+     * zipWithIndex numbers the rows by the position of their partition and their position in it, which may
+     * differ if a partition is recomputed, e.g. after a lost executor or a cache eviction, and a key could get
+     * two ids then. The keys are sorted first, so that the id of a key is always its rank among the new keys.
+     */
+    static Dataset<Row> sortDistinctValue(Dataset<Row> newDistinctValue) {
+        return newDistinctValue.sort("dict_key");
+    }
+
+    static JavaRDD<Row> assignDictValues(Dataset<Row> sortedDistinctValue, long maxGlobalDictValue) {
+        return sortedDistinctValue.toJavaRDD().zipWithIndex()
+                .map(pair -> RowFactory.create(pair._1().getString(0), maxGlobalDictValue + pair._2() + 1));
+    }
+
+    private String getAppendGlobalDictSql(String newDictTableName, String distinctColumnName) {
+        return "insert into table " + globalDictTableName + " partition(dict_column='" + distinctColumnName + "') "
+                + " select dict_key,dict_value from " + newDictTableName;
+    }
+
+    private StructType getDictSchema() {
+        List<StructField> fieldList = new ArrayList<>();
+        fieldList.add(DataTypes.createStructField("dict_key", DataTypes.StringType, false));
+        fieldList.add(DataTypes.createStructField("dict_value", DataTypes.LongType, false));
+        return DataTypes.createStructType(fieldList);
+    }
+
     private String getSplitBuildGlobalDictSql(Map<String, Long> distinctKeyMap, String distinctColumnName) {
         StringBuilder sql = new StringBuilder();
         sql.append("insert overwrite table ").append(globalDictTableName).append(" partition(dict_column='")
@@ -356,26 +415,17 @@ public class GlobalDictBuilder {
         return weights;
     }
 
-    private String getBuildGlobalDictSql(long maxGlobalDictValue, String distinctColumnName) {
-        return "insert overwrite table " + globalDictTableName + " partition(dict_column='" + distinctColumnName + "') "
-                + " select dict_key,dict_value from " + globalDictTableName + " where dict_column='" +
-                distinctColumnName + "' "
-                + " union all select t1.dict_key as dict_key,(row_number() over(order by t1.dict_key)) + (" +
-                maxGlobalDictValue + ") as dict_value from "
-                + "(select dict_key from " + distinctKeyTableName + " where dict_column='" + distinctColumnName +
-                "' and dict_key is not null)t1 left join "
-                + " (select dict_key,dict_value from " + globalDictTableName + " where dict_column='" +
-                distinctColumnName + "' )t2 " +
-                "on t1.dict_key = t2.dict_key where t2.dict_value is null";
-    }
-
-    private String getNewDistinctValue(String distinctColumnName) {
+    // an anti join only checks the existence of the keys, so only the dict keys are shuffled and the matched
+    // rows are dropped by the join itself instead of being padded with nulls and filtered afterwards.
+    // note that spark can only broadcast the right side of a left anti join, i.e. the dict, never the distinct keys.
+    @VisibleForTesting
+    String getNewDistinctValue(String distinctColumnName) {
         return "select t1.dict_key from " +
                 " (select dict_key from " + distinctKeyTableName + " where dict_column='" + distinctColumnName +
-                "' and dict_key is not null)t1 left join " +
-                " (select dict_key,dict_value from " + globalDictTableName + " where dict_column='" +
+                "' and dict_key is not null)t1 left anti join " +
+                " (select dict_key from " + globalDictTableName + " where dict_column='" +
                 distinctColumnName + "' )t2 " +
-                "on t1.dict_key = t2.dict_key where t2.dict_value is null";
+                "on t1.dict_key = t2.dict_key";
 
     }
 
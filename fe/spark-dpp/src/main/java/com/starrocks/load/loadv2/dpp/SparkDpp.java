@@ -101,6 +101,8 @@ public final class SparkDpp implements java.io.Serializable {
     private static final String TABLE_LOAD_ROWS = "table_load_rows";
     private static final String TABLE_LOAD_BYTES = "table_load_bytes";
     private static final String TABLE_LOAD_FINISHED = "table_load_finished";
+    // spark conf to sort the rollup rows by the binary encoded keys, see BinaryRowKey and BinaryRowKeyShuffleBench
+    private static final String BINARY_ROW_KEY_SHUFFLE_CONF = "spark.starrocks.dpp.binaryRowKeyShuffle";
     private SparkSession spark = null;
     private EtlJobConfig etlJobConfig = null;
     private LongAccumulator abnormalRowAcc = null;
@@ -118,6 +120,7 @@ public final class SparkDpp implements java.io.Serializable {
     // because hadoop configuration is not serializable,
     // we need to wrap it so that we can use it in executor.
     private SerializableConfiguration serializableHadoopConf;
+    private boolean binaryRowKeyShuffle = false;
     private DppResult dppResult = new DppResult();
     private Map<Long, Set<String>> tableToBitmapDictColumns = new HashMap<>();
     private Map<Long, Set<String>> tableToBitmapBinaryColumns = new HashMap<>();
@@ -155,6 +158,7 @@ public final class SparkDpp implements java.io.Serializable {
         }
         spark.sparkContext().register(invalidRows, "InvalidRowsAccumulator");
         this.serializableHadoopConf = new SerializableConfiguration(spark.sparkContext().hadoopConfiguration());
+        this.binaryRowKeyShuffle = spark.sparkContext().getConf().getBoolean(BINARY_ROW_KEY_SHUFFLE_CONF, false);
     }
 
     private JavaPairRDD<List<Object>, Object[]> processRDDAggregate(JavaPairRDD<List<Object>, Object[]> currentPairRDD,
@@ -225,8 +229,8 @@ public final class SparkDpp implements java.io.Serializable {
         ExpressionEncoder encoder = RowEncoder.apply(dstSchema);
         ExpressionEncoderHelper encoderHelper = new ExpressionEncoderHelper(encoder);
 
-        resultRDD.repartitionAndSortWithinPartitions(new BucketPartitioner(bucketKeyMap), new BucketComparator())
-                .foreachPartition(new VoidFunction<Iterator<Tuple2<List<Object>, Object[]>>>() {
+        VoidFunction<Iterator<Tuple2<List<Object>, Object[]>>> writeFunction =
+                new VoidFunction<Iterator<Tuple2<List<Object>, Object[]>>>() {
                     @Override
                     public void call(Iterator<Tuple2<List<Object>, Object[]>> t) throws Exception {
                         // write the data to dst file
@@ -316,7 +320,29 @@ public final class SparkDpp implements java.io.Serializable {
                         }
 
                     }
-                });
+                };
+
+        sortByBucket(resultRDD, bucketKeyMap, binaryRowKeyShuffle && BinaryRowKey.isSupported(indexMeta))
+                .foreachPartition(writeFunction);
+    }
+
+    /**
+     * Shuffle the rows to the partitions of their buckets and sort them by the keys in each partition.
+     *
+     * @param binaryRowKey whether to shuffle and sort the rows by the binary encoded keys, which are decoded
+     *                     back after the sort, so the result is the same as the one of the object keys
+     */
+    static JavaRDD<Tuple2<List<Object>, Object[]>> sortByBucket(JavaPairRDD<List<Object>, Object[]> rdd,
+                                                                Map<String, Integer> bucketKeyMap,
+                                                                boolean binaryRowKey) {
+        if (binaryRowKey) {
+            return rdd.mapToPair(pair -> new Tuple2<>(BinaryRowKey.encode(pair._1()), pair._2()))
+                    .repartitionAndSortWithinPartitions(new BinaryBucketPartitioner(bucketKeyMap),
+                            new BinaryRowKeyComparator())
+                    .mapPartitions(BinaryRowKeyDecodeIterator::new);
+        }
+        return JavaPairRDD.toRDD(rdd.repartitionAndSortWithinPartitions(new BucketPartitioner(bucketKeyMap),
+                new BucketComparator())).toJavaRDD();
     }
 
     // TODO(wb) one shuffle to calculate the rollup in the same level
@@ -31,5 +31,6 @@ public class StarRocksKryoRegistrator implements KryoRegistrator {
     public void registerClasses(Kryo kryo) {
         kryo.register(Roaring64Map.class);
         kryo.register(BitmapValue.class);
+        kryo.register(BinaryRowKey.class, new BinaryRowKeySerializer());
     }
 }
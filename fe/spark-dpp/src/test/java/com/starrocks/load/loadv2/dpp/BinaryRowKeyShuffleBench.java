@@ -0,0 +1,112 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.load.loadv2.dpp;
+
+import org.apache.spark.TaskContext;
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.storage.StorageLevel;
+import org.apache.spark.util.LongAccumulator;
+import scala.Tuple2;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark the shuffle and sort of the rollup rows in front of the parquet writer in local mode, with the object
+ * keys and the binary encoded keys, see SparkDpp#sortByBucket.
+ * <p>
+ * Usage: BinaryRowKeyShuffleBench [row number] [bucket number] [rounds]
+ */
+public class BinaryRowKeyShuffleBench {
+
+    static Map<String, Integer> createBucketKeyMap(int bucketNum) {
+        Map<String, Integer> bucketKeyMap = new HashMap<>();
+        for (int i = 0; i < bucketNum; i++) {
+            bucketKeyMap.put(i + "_0", i);
+        }
+        return bucketKeyMap;
+    }
+
+    /**
+     * Generate the rows of a rollup keyed by (bucket, int, bigint, varchar, date), the values are 2 bigint columns.
+     */
+    static JavaPairRDD<List<Object>, Object[]> generateRows(JavaSparkContext sc, int rowNum, int bucketNum,
+                                                            int sliceNum) {
+        List<Integer> slices = IntStream.range(0, sliceNum).boxed().collect(Collectors.toList());
+        return sc.parallelize(slices, sliceNum).flatMapToPair(slice -> {
+            Random random = new Random(slice);
+            List<Tuple2<List<Object>, Object[]>> rows = new ArrayList<>();
+            for (int i = slice; i < rowNum; i += sliceNum) {
+                List<Object> key = new ArrayList<>();
+                key.add(random.nextInt(bucketNum) + "_0");
+                key.add(random.nextInt(1000));
+                key.add(random.nextLong());
+                key.add(random.nextInt(10) == 0 ? null : "name_" + random.nextInt(100000));
+                key.add(new Date(86400000L * (18000 + random.nextInt(365))));
+                rows.add(new Tuple2<>(key, new Object[] {random.nextLong(), (long) i}));
+            }
+            return rows.iterator();
+        });
+    }
+
+    public static void main(String[] args) {
+        int rowNum = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        int bucketNum = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        SparkSession spark = SparkSession.builder().master("local[*]").appName("BinaryRowKeyShuffleBench")
+                .config("spark.ui.enabled", "false")
+                .config("spark.serializer", "org.apache.spark.serializer.KryoSerializer")
+                .config("spark.kryo.registrator", "com.starrocks.load.loadv2.dpp.StarRocksKryoRegistrator")
+                .config("spark.kryo.registrationRequired", "false")
+                .getOrCreate();
+        try {
+            JavaSparkContext sc = JavaSparkContext.fromSparkContext(spark.sparkContext());
+            JavaPairRDD<List<Object>, Object[]> rows =
+                    generateRows(sc, rowNum, bucketNum, sc.defaultParallelism()).persist(StorageLevel.MEMORY_ONLY());
+            System.out.printf("rows: %d, buckets: %d%n", rows.count(), bucketNum);
+            Map<String, Integer> bucketKeyMap = createBucketKeyMap(bucketNum);
+            for (int round = 0; round < rounds; round++) {
+                for (boolean binaryRowKey : new boolean[] {false, true}) {
+                    LongAccumulator rowAcc = sc.sc().longAccumulator();
+                    LongAccumulator shuffleBytesAcc = sc.sc().longAccumulator();
+                    long start = System.nanoTime();
+                    SparkDpp.sortByBucket(rows, bucketKeyMap, binaryRowKey).foreachPartition(iterator -> {
+                        long rowCount = 0;
+                        while (iterator.hasNext()) {
+                            iterator.next();
+                            rowCount++;
+                        }
+                        rowAcc.add(rowCount);
+                        shuffleBytesAcc.add(TaskContext.get().taskMetrics().shuffleReadMetrics().totalBytesRead());
+                    });
+                    long costMs = (System.nanoTime() - start) / 1000000;
+                    System.out.printf("round %d, %-6s keys: %d rows, %d ms, shuffle %d bytes%n", round,
+                            binaryRowKey ? "binary" : "object", rowAcc.value(), costMs, shuffleBytesAcc.value());
+                }
+            }
+        } finally {
+            spark.stop();
+        }
+    }
+}
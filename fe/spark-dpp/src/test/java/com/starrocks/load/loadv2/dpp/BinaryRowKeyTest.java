@@ -0,0 +1,132 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.load.loadv2.dpp;
+
+import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.sql.SparkSession;
+import org.junit.Assert;
+import org.junit.Test;
+import scala.Tuple2;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class BinaryRowKeyTest {
+
+    private static List<Object> key(Object... columns) {
+        List<Object> key = new ArrayList<>();
+        key.add("1_0");
+        key.addAll(Arrays.asList(columns));
+        return key;
+    }
+
+    private static void assertSameOrder(List<Object> left, List<Object> right) {
+        int expected = Integer.signum(new BucketComparator().compare(left, right));
+        int actual = Integer.signum(BinaryRowKey.encode(left).compareTo(BinaryRowKey.encode(right)));
+        Assert.assertEquals(left + " vs " + right, expected, actual);
+    }
+
+    @Test
+    public void testEncodeDecode() {
+        Timestamp timestamp = Timestamp.valueOf("2024-01-02 03:04:05.123456789");
+        List<Object> key = key(null, true, (byte) -3, (short) 300, -5, Long.MAX_VALUE, -1.5f, 2.25d,
+                Date.valueOf("2024-01-02"), timestamp, "abc\u0000d", "", "中文");
+        BinaryRowKey binaryRowKey = BinaryRowKey.encode(key);
+        Assert.assertEquals("1_0", binaryRowKey.getBucketKey());
+        List<Object> decoded = binaryRowKey.decode();
+        Assert.assertEquals(key, decoded);
+        Assert.assertEquals(timestamp.getNanos(), ((Timestamp) decoded.get(10)).getNanos());
+    }
+
+    @Test
+    public void testOrder() {
+        assertSameOrder(key(null, 1), key(0, 1));
+        assertSameOrder(key(1, null), key(1, 0));
+        assertSameOrder(key("a"), key("ab"));
+        assertSameOrder(key("a\u0000"), key("a"));
+        assertSameOrder(key("ab", 1), key("a", 2));
+        assertSameOrder(key(-0.0d), key(0.0d));
+        assertSameOrder(key(Double.NaN), key(Double.POSITIVE_INFINITY));
+        assertSameOrder(key(Float.NEGATIVE_INFINITY), key(-1.0f));
+        assertSameOrder(key(Date.valueOf("1969-12-31")), key(Date.valueOf("1970-01-01")));
+        assertSameOrder(key(Timestamp.valueOf("2024-01-01 00:00:00.000000001")),
+                key(Timestamp.valueOf("2024-01-01 00:00:00")));
+
+        Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            List<Object> left = key((short) random.nextInt(), random.nextInt(10), random.nextLong(),
+                    random.nextDouble() - 0.5, Integer.toString(random.nextInt(100)));
+            List<Object> right = key((short) random.nextInt(), random.nextInt(10), random.nextLong(),
+                    random.nextDouble() - 0.5, Integer.toString(random.nextInt(100)));
+            if (random.nextBoolean()) {
+                right.set(1, left.get(1));
+                right.set(2, left.get(2));
+            }
+            assertSameOrder(left, right);
+            assertSameOrder(left, left);
+        }
+    }
+
+    @Test
+    public void testSupplementaryCharacterOrder() {
+        // U+1F600 is a surrogate pair in UTF-16 (0xD83D 0xDE00), so String.compareTo sorts it before U+FF21,
+        // while its UTF-8 bytes (0xF0 ...) sort after the ones of U+FF21 (0xEF ...), which is the code point order
+        String supplementary = "a\uD83D\uDE00";
+        String bmp = "a\uFF21";
+        Assert.assertTrue(new BucketComparator().compare(key(supplementary), key(bmp)) < 0);
+        Assert.assertTrue(supplementary.codePointAt(1) > bmp.codePointAt(1));
+        Assert.assertTrue(BinaryRowKey.encode(key(supplementary)).compareTo(BinaryRowKey.encode(key(bmp))) > 0);
+        Assert.assertEquals(key(supplementary), BinaryRowKey.encode(key(supplementary)).decode());
+    }
+
+    @Test
+    public void testPrefixTie() {
+        BinaryRowKey shortKey = BinaryRowKey.encode(key(1L));
+        BinaryRowKey longKey = BinaryRowKey.encode(key(1L, 0));
+        Assert.assertTrue(shortKey.compareTo(longKey) < 0);
+        Assert.assertEquals(shortKey, BinaryRowKey.encode(key(1L)));
+        Assert.assertEquals(shortKey.hashCode(), BinaryRowKey.encode(key(1L)).hashCode());
+    }
+
+    @Test
+    public void testSortByBucketSameAsObjectKeys() {
+        SparkSession spark = SparkSession.builder().master("local[2]").appName("BinaryRowKeyTest")
+                .config("spark.ui.enabled", "false")
+                .config("spark.serializer", "org.apache.spark.serializer.KryoSerializer")
+                .config("spark.kryo.registrator", "com.starrocks.load.loadv2.dpp.StarRocksKryoRegistrator")
+                .getOrCreate();
+        try {
+            JavaSparkContext sc = JavaSparkContext.fromSparkContext(spark.sparkContext());
+            JavaPairRDD<List<Object>, Object[]> rows = BinaryRowKeyShuffleBench.generateRows(sc, 10000, 4, 3);
+            Map<String, Integer> bucketKeyMap = BinaryRowKeyShuffleBench.createBucketKeyMap(4);
+            // the rows of each bucket are written in the same order by both the keys
+            List<List<List<Object>>> objectKeys = SparkDpp.sortByBucket(rows, bucketKeyMap, false)
+                    .map(Tuple2::_1).glom().collect();
+            List<List<List<Object>>> binaryKeys = SparkDpp.sortByBucket(rows, bucketKeyMap, true)
+                    .map(Tuple2::_1).glom().collect();
+            Assert.assertEquals(4, objectKeys.size());
+            Assert.assertEquals(10000, objectKeys.stream().mapToInt(List::size).sum());
+            Assert.assertEquals(objectKeys, binaryKeys);
+        } finally {
+            spark.stop();
+        }
+    }
+}
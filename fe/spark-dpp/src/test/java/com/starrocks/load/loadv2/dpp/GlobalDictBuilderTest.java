@@ -0,0 +1,122 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.load.loadv2.dpp;
+
+import org.apache.commons.collections.map.MultiValueMap;
+import org.apache.spark.sql.Dataset;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.StructType;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class GlobalDictBuilderTest {
+    private static final String DISTINCT_KEY_TABLE = "distinct_key_table";
+    private static final String GLOBAL_DICT_TABLE = "global_dict_table";
+
+    private static SparkSession spark;
+
+    @BeforeClass
+    public static void beforeClass() {
+        spark = SparkSession.builder().master("local[1]").appName("GlobalDictBuilderTest")
+                .config("spark.ui.enabled", "false").getOrCreate();
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        spark.stop();
+    }
+
+    private static void createView(String viewName, StructType schema, List<Row> rows) {
+        spark.createDataFrame(rows, schema).createOrReplaceTempView(viewName);
+    }
+
+    @Test
+    public void testGetNewDistinctValue() {
+        StructType distinctKeySchema = DataTypes.createStructType(Arrays.asList(
+                DataTypes.createStructField("dict_key", DataTypes.StringType, true),
+                DataTypes.createStructField("dict_column", DataTypes.StringType, false)));
+        createView(DISTINCT_KEY_TABLE, distinctKeySchema, Arrays.asList(
+                RowFactory.create("a", "c1"),
+                RowFactory.create("b", "c1"),
+                RowFactory.create("c", "c1"),
+                RowFactory.create(null, "c1"),
+                RowFactory.create("d", "c2")));
+        StructType dictSchema = DataTypes.createStructType(Arrays.asList(
+                DataTypes.createStructField("dict_key", DataTypes.StringType, true),
+                DataTypes.createStructField("dict_value", DataTypes.LongType, false),
+                DataTypes.createStructField("dict_column", DataTypes.StringType, false)));
+        createView(GLOBAL_DICT_TABLE, dictSchema, Arrays.asList(
+                RowFactory.create("a", 1L, "c1"),
+                // the same key of another column doesn't matter
+                RowFactory.create("b", 1L, "c2"),
+                RowFactory.create("d", 2L, "c2")));
+
+        GlobalDictBuilder builder = new GlobalDictBuilder(new MultiValueMap(), new ArrayList<>(), new ArrayList<>(),
+                "", "", "default", DISTINCT_KEY_TABLE, GLOBAL_DICT_TABLE, "", 1, new ArrayList<>(), 1, spark);
+
+        String sql = builder.getNewDistinctValue("c1");
+        Assert.assertTrue(sql, sql.contains("left anti join"));
+        // only the keys not in the dict of the column are new, and the null key is never encoded
+        Assert.assertEquals(Arrays.asList("b", "c"), collectKeys(sql));
+        // all the keys of c2 are in the dict
+        Assert.assertEquals(Collections.emptyList(), collectKeys(builder.getNewDistinctValue("c2")));
+    }
+
+    @Test
+    public void testAssignDictValues() {
+        StructType schema = DataTypes.createStructType(Collections.singletonList(
+                DataTypes.createStructField("dict_key", DataTypes.StringType, false)));
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(RowFactory.create(String.format("k%03d", i)));
+        }
+        Collections.shuffle(rows, new Random(0));
+        Dataset<Row> keys = spark.createDataFrame(rows, schema);
+
+        // the ids only depend on the keys, not on how they are partitioned
+        Map<String, Long> dict = collectDict(keys.repartition(4), 10L);
+        Assert.assertEquals(dict, collectDict(keys.repartition(7), 10L));
+        Assert.assertEquals(100, dict.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(Long.valueOf(11L + i), dict.get(String.format("k%03d", i)));
+        }
+    }
+
+    private static Map<String, Long> collectDict(Dataset<Row> keys, long maxGlobalDictValue) {
+        return GlobalDictBuilder.assignDictValues(GlobalDictBuilder.sortDistinctValue(keys), maxGlobalDictValue)
+                .collect().stream()
+                .collect(Collectors.toMap(row -> row.getString(0), row -> row.getLong(1)));
+    }
+
+    private static List<String> collectKeys(String sql) {
+        return spark.sql(sql).collectAsList().stream()
+                .map(row -> row.getString(0))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -27,6 +27,13 @@ public class BrokerConfig extends ConfigBase {
     
     @ConfField
     public static int hdfs_write_buffer_size_kb = 1024;
+
+    /**
+     * Read-ahead size set on opened reader streams, used by sequential preads.
+     * 0 means keeping the default of the underlying file system.
+     */
+    @ConfField
+    public static int hdfs_readahead_kb = 0;
     
     @ConfField
     public static int client_expire_seconds = 300;
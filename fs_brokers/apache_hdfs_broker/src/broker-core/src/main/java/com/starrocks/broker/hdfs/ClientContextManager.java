@@ -17,14 +17,17 @@
 
 package com.starrocks.broker.hdfs;
 
+import java.io.IOException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.log4j.Logger;
 
+import com.starrocks.common.BrokerReadStats;
 import com.starrocks.thrift.TBrokerFD;
 import com.starrocks.thrift.TBrokerOperationStatusCode;
 
@@ -87,6 +90,31 @@ public class ClientContextManager {
         FSDataInputStream fsDataInputStream = clientContext.getInputStream(fd);
         return fsDataInputStream;
     }
+
+    /**
+     * Lookup the input stream of fd without taking the manager monitor, so that concurrent preads
+     * on different (or the same) fds are not serialized here. All the maps are concurrent, a stream
+     * removed concurrently is reported as not found or fails later with an IOException on read.
+     */
+    public BrokerInputStream getBrokerInputStream(TBrokerFD fd) {
+        String clientId = fdToClientMap.get(fd);
+        ClientResourceContext clientContext = clientId == null ? null : clientContexts.get(clientId);
+        BrokerInputStream brokerInputStream = clientContext == null ? null : clientContext.inputStreams.get(fd);
+        if (brokerInputStream == null) {
+            throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR,
+                    "the fd {} is not opened or owned by client {}", fd, clientId);
+        }
+        clientContext.updateClientLastPingTime();
+        brokerInputStream.updateLastUpdateAccessTime();
+        return brokerInputStream;
+    }
+
+    public BrokerReadStats getReadStats(TBrokerFD fd) {
+        String clientId = fdToClientMap.get(fd);
+        ClientResourceContext clientContext = clientId == null ? null : clientContexts.get(clientId);
+        BrokerInputStream brokerInputStream = clientContext == null ? null : clientContext.inputStreams.get(fd);
+        return brokerInputStream == null ? null : brokerInputStream.getReadStats();
+    }
     
     public synchronized FSDataOutputStream getFsDataOutputStream(TBrokerFD fd) {
         String clientId = fdToClientMap.get(fd);
@@ -177,21 +205,47 @@ public class ClientContextManager {
         }
     }
     
-    private static class BrokerInputStream {
+    static class BrokerInputStream {
         
         private final FSDataInputStream inputStream;
         private final BrokerFileSystem brokerFileSystem;
+        // Guards the stateful (seek + read) access of inputStream. Positional reads don't need it.
+        private final ReentrantLock streamLock = new ReentrantLock();
+        // The end offset of the last read, a request starting here is treated as a sequential read.
+        private volatile long lastReadEndOffset;
+        private final BrokerReadStats readStats = new BrokerReadStats();
         
         public BrokerInputStream(FSDataInputStream inputStream, BrokerFileSystem brokerFileSystem) {
             this.inputStream = inputStream;
             this.brokerFileSystem = brokerFileSystem;
             this.brokerFileSystem.updateLastUpdateAccessTime();
+            try {
+                this.lastReadEndOffset = inputStream.getPos();
+            } catch (IOException e) {
+                this.lastReadEndOffset = -1;
+            }
         }
         
         public FSDataInputStream getInputStream() {
             this.brokerFileSystem.updateLastUpdateAccessTime();
             return inputStream;
         }
+
+        public ReentrantLock getStreamLock() {
+            return streamLock;
+        }
+
+        public long getLastReadEndOffset() {
+            return lastReadEndOffset;
+        }
+
+        public void setLastReadEndOffset(long lastReadEndOffset) {
+            this.lastReadEndOffset = lastReadEndOffset;
+        }
+
+        public BrokerReadStats getReadStats() {
+            return readStats;
+        }
         
         public void updateLastUpdateAccessTime() {
             this.brokerFileSystem.updateLastUpdateAccessTime();
@@ -36,7 +36,9 @@
 
 package com.starrocks.broker.hdfs;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
+import com.starrocks.common.BrokerReadStats;
 import com.starrocks.common.WildcardURI;
 import com.starrocks.thrift.TBrokerFD;
 import com.starrocks.thrift.TBrokerFileStatus;
@@ -56,6 +58,7 @@ import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.util.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -79,6 +82,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class FileSystemManager {
 
@@ -176,6 +180,8 @@ public class FileSystemManager {
 
     private int readBufferSize = 128 << 10; // 128k
     private int writeBufferSize = 128 << 10; // 128k
+    // pread buffers are reused per thrift worker thread, the response data is copied out by thrift
+    private final ThreadLocal<byte[]> threadReadBuffer = new ThreadLocal<>();
 
     private ConcurrentHashMap<FileSystemIdentity, BrokerFileSystem> cachedFileSystem;
     private ClientContextManager clientContextManager;
@@ -1025,6 +1031,13 @@ public class FileSystemManager {
         try {
             FSDataInputStream fsDataInputStream = fileSystem.getDFSFileSystem().open(inputFilePath, readBufferSize);
             fsDataInputStream.seek(startOffset);
+            if (BrokerConfig.hdfs_readahead_kb > 0) {
+                try {
+                    fsDataInputStream.setReadahead((long) BrokerConfig.hdfs_readahead_kb << 10);
+                } catch (UnsupportedOperationException e) {
+                    logger.debug("file system of " + path + " does not support setting read-ahead");
+                }
+            }
             UUID uuid = UUID.randomUUID();
             TBrokerFD fd = parseUUIDToFD(uuid);
             clientContextManager.putNewInputStream(clientId, fd, fsDataInputStream, fileSystem);
@@ -1036,53 +1049,111 @@ public class FileSystemManager {
         }
     }
 
+    /**
+     * Read at most min(length, readBufferSize) bytes of fd from offset.
+     *
+     * A request starting at the end of the previous read is served by the stateful stream, so that
+     * the read-ahead of the underlying file system client works for sequential scans. Any other request
+     * (e.g. parquet / orc range reads issued concurrently on the same fd) is served by a positional read,
+     * which neither moves the stream position nor needs the stream lock. If the stream is busy with
+     * another sequential read, a positional read is used instead of waiting for it.
+     *
+     * The returned buffer wraps a per-thread buffer and is only valid until the next pread of the
+     * calling thread, callers must copy it out (thrift does that when setting the response data).
+     */
     public ByteBuffer pread(TBrokerFD fd, long offset, long length) {
-        FSDataInputStream fsDataInputStream = clientContextManager.getFsDataInputStream(fd);
-        synchronized (fsDataInputStream) {
-            long currentStreamOffset;
+        ClientContextManager.BrokerInputStream brokerInputStream = clientContextManager.getBrokerInputStream(fd);
+        FSDataInputStream fsDataInputStream = brokerInputStream.getInputStream();
+        int bufLength = (int) Math.min(length, readBufferSize);
+        byte[] buf = getThreadReadBuffer(bufLength);
+        int readLength;
+        ReentrantLock streamLock = brokerInputStream.getStreamLock();
+        if (offset == brokerInputStream.getLastReadEndOffset() && streamLock.tryLock()) {
             try {
-                currentStreamOffset = fsDataInputStream.getPos();
-            } catch (IOException e) {
-                logger.error("errors while get file pos from output stream", e);
-                throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR,
-                        "errors while get file pos from output stream");
-            }
-            if (currentStreamOffset != offset) {
-                // it's ok, when reading some format like parquet, it is not a sequential read
-                logger.debug("invalid offset, current read offset is "
-                        + currentStreamOffset + " is not equal to request offset "
-                        + offset + " seek to it");
-                try {
-                    fsDataInputStream.seek(offset);
-                } catch (IOException e) {
-                    throw new BrokerException(TBrokerOperationStatusCode.INVALID_INPUT_OFFSET,
-                            e, "current read offset {} is not equal to {}, and could not seek to it",
-                            currentStreamOffset, offset);
-                }
-            }
-            byte[] buf;
-            if (length > readBufferSize) {
-                buf = new byte[readBufferSize];
-            } else {
-                buf = new byte[(int) length];
+                readLength = sequentialRead(fsDataInputStream, offset, buf, bufLength);
+            } finally {
+                streamLock.unlock();
             }
+            brokerInputStream.getReadStats().onSequentialRead();
+        } else {
+            readLength = positionalRead(fsDataInputStream, offset, buf, bufLength);
+            brokerInputStream.getReadStats().onPositionalRead();
+        }
+        brokerInputStream.setLastReadEndOffset(offset + readLength);
+        if (logger.isDebugEnabled()) {
+            logger.debug("read buffer from input stream, buffer size:" + bufLength + ", read length:" + readLength);
+        }
+        return ByteBuffer.wrap(buf, 0, readLength);
+    }
+
+    private int sequentialRead(FSDataInputStream fsDataInputStream, long offset, byte[] buf, int length) {
+        long currentStreamOffset;
+        try {
+            currentStreamOffset = fsDataInputStream.getPos();
+        } catch (IOException e) {
+            logger.error("errors while get file pos from input stream", e);
+            throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR,
+                    "errors while get file pos from input stream");
+        }
+        if (currentStreamOffset != offset) {
+            // the stream position may be behind the hint if the last read of this fd was a positional read
+            logger.debug("invalid offset, current read offset is "
+                    + currentStreamOffset + " is not equal to request offset "
+                    + offset + " seek to it");
             try {
-                int readLength = readByteArrayFully(fsDataInputStream, buf);
-                if (readLength < 0) {
-                    throw new BrokerException(TBrokerOperationStatusCode.END_OF_FILE,
-                            "end of file reached");
-                }
-                if (logger.isDebugEnabled()) {
-                    logger.debug(
-                            "read buffer from input stream, buffer size:" + buf.length + ", read length:" + readLength);
-                }
-                return ByteBuffer.wrap(buf, 0, readLength);
+                fsDataInputStream.seek(offset);
             } catch (IOException e) {
-                logger.error("errors while read data from stream", e);
-                throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR,
-                        e, "errors while read data from stream");
+                throw new BrokerException(TBrokerOperationStatusCode.INVALID_INPUT_OFFSET,
+                        e, "current read offset {} is not equal to {}, and could not seek to it",
+                        currentStreamOffset, offset);
             }
         }
+        try {
+            return readByteArrayFully(fsDataInputStream, buf, length);
+        } catch (IOException e) {
+            logger.error("errors while read data from stream", e);
+            throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR,
+                    e, "errors while read data from stream");
+        }
+    }
+
+    private int positionalRead(FSDataInputStream fsDataInputStream, long offset, byte[] buf, int length) {
+        int readLength = 0;
+        try {
+            while (readLength < length) {
+                int n = fsDataInputStream.read(offset + readLength, buf, readLength, length - readLength);
+                if (n <= 0) {
+                    break;
+                }
+                readLength += n;
+            }
+        } catch (EOFException e) {
+            // some file systems throw EOFException instead of returning -1 when reading beyond the end
+            logger.debug("reach end of file while positional read at offset " + (offset + readLength));
+        } catch (IOException e) {
+            logger.error("errors while positional read data from stream", e);
+            throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR,
+                    e, "errors while read data from stream at offset {}", offset);
+        }
+        return readLength;
+    }
+
+    private byte[] getThreadReadBuffer(int length) {
+        byte[] buf = threadReadBuffer.get();
+        if (buf == null || buf.length < length) {
+            buf = new byte[length];
+            threadReadBuffer.set(buf);
+        }
+        return buf;
+    }
+
+    public BrokerReadStats getReadStats(TBrokerFD fd) {
+        return clientContextManager.getReadStats(fd);
+    }
+
+    @VisibleForTesting
+    ClientContextManager getClientContextManager() {
+        return clientContextManager;
     }
 
     public void seek(TBrokerFD fd, long offset) {
@@ -1090,17 +1161,25 @@ public class FileSystemManager {
                 "seek this method is not supported");
     }
 
+    /**
+     * Close the reader fd. It waits for the sequential read in progress, which holds the same stream lock,
+     * a positional read in progress fails with an IOException instead.
+     */
     public void closeReader(TBrokerFD fd) {
-        FSDataInputStream fsDataInputStream = clientContextManager.getFsDataInputStream(fd);
-        synchronized (fsDataInputStream) {
+        ClientContextManager.BrokerInputStream brokerInputStream = clientContextManager.getBrokerInputStream(fd);
+        ReentrantLock streamLock = brokerInputStream.getStreamLock();
+        streamLock.lock();
+        try {
+            brokerInputStream.getInputStream().close();
+        } catch (IOException e) {
+            logger.error("errors while close file input stream", e);
+            throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR,
+                    e, "errors while close file input stream");
+        } finally {
             try {
-                fsDataInputStream.close();
-            } catch (IOException e) {
-                logger.error("errors while close file input stream", e);
-                throw new BrokerException(TBrokerOperationStatusCode.TARGET_STORAGE_SERVICE_ERROR,
-                        e, "errors while close file input stream");
-            } finally {
                 clientContextManager.removeInputStream(fd);
+            } finally {
+                streamLock.unlock();
             }
         }
     }
@@ -1166,10 +1245,10 @@ public class FileSystemManager {
         return new TBrokerFD(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
     }
 
-    private int readByteArrayFully(FSDataInputStream is, byte[] dest) throws IOException {
+    private int readByteArrayFully(FSDataInputStream is, byte[] dest, int length) throws IOException {
         int readLength = 0;
-        while (readLength < dest.length) {
-            int n = is.read(dest, readLength, dest.length - readLength);
+        while (readLength < length) {
+            int n = is.read(dest, readLength, length - readLength);
             if (n <= 0) {
                 break;
             }
@@ -19,6 +19,7 @@ package com.starrocks.broker.hdfs;
 
 import com.google.common.base.Stopwatch;
 import com.starrocks.common.BrokerPerfMonitor;
+import com.starrocks.common.BrokerReadStats;
 import com.starrocks.thrift.TBrokerCheckPathExistRequest;
 import com.starrocks.thrift.TBrokerCheckPathExistResponse;
 import com.starrocks.thrift.TBrokerCloseReaderRequest;
@@ -157,6 +158,10 @@ public class HDFSBrokerServiceImpl implements TFileBrokerService.Iface {
             ByteBuffer readBuf = fileSystemManager.pread(request.fd, request.offset, request.length);
             response.setData(readBuf);
             response.setOpStatus(generateOKStatus());
+            BrokerReadStats readStats = fileSystemManager.getReadStats(request.fd);
+            if (readStats != null) {
+                readStats.update(readBuf.remaining(), stopwatch.elapsed(TimeUnit.NANOSECONDS));
+            }
         } catch (BrokerException e) {
             logger.warn("failed to pread: " + request.fd, e);
             TBrokerOperationStatus errorStatus = e.generateFailedOperationStatus();
@@ -189,6 +194,10 @@ public class HDFSBrokerServiceImpl implements TFileBrokerService.Iface {
     public TBrokerOperationStatus closeReader(TBrokerCloseReaderRequest request)
             throws TException {
         logger.info("receive a close reader request, fd: " + request.fd);
+        BrokerReadStats readStats = fileSystemManager.getReadStats(request.fd);
+        if (readStats != null) {
+            logger.info("read stats of fd: " + request.fd + ", " + readStats);
+        }
 
         try {
             fileSystemManager.closeReader(request.fd);
@@ -0,0 +1,84 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read statistics of one opened reader fd. Updated concurrently by pread requests and
+ * reported when the reader is closed.
+ */
+public class BrokerReadStats {
+
+    private final long createTimeMs = System.currentTimeMillis();
+    private final LongAdder readCount = new LongAdder();
+    private final LongAdder readBytes = new LongAdder();
+    private final LongAdder readNanos = new LongAdder();
+    private final LongAdder sequentialReadCount = new LongAdder();
+    private final LongAdder positionalReadCount = new LongAdder();
+
+    public void onSequentialRead() {
+        sequentialReadCount.increment();
+    }
+
+    public void onPositionalRead() {
+        positionalReadCount.increment();
+    }
+
+    public void update(long bytes, long elapsedNanos) {
+        readCount.increment();
+        readBytes.add(bytes);
+        readNanos.add(elapsedNanos);
+    }
+
+    public long getReadCount() {
+        return readCount.sum();
+    }
+
+    public long getReadBytes() {
+        return readBytes.sum();
+    }
+
+    public long getSequentialReadCount() {
+        return sequentialReadCount.sum();
+    }
+
+    public long getPositionalReadCount() {
+        return positionalReadCount.sum();
+    }
+
+    /**
+     * Throughput in MB/s, computed over the time spent inside pread requests.
+     */
+    public double getThroughputMBps() {
+        long nanos = readNanos.sum();
+        if (nanos <= 0) {
+            return 0;
+        }
+        return (double) readBytes.sum() / (1 << 20) / ((double) nanos / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Override
+    public String toString() {
+        return "reads: " + getReadCount()
+                + ", bytes: " + getReadBytes()
+                + ", sequential reads: " + getSequentialReadCount()
+                + ", positional reads: " + getPositionalReadCount()
+                + ", read cost: " + TimeUnit.NANOSECONDS.toMillis(readNanos.sum()) + " millis"
+                + ", throughput: " + String.format("%.2f", getThroughputMBps()) + " MB/s"
+                + ", alive: " + (System.currentTimeMillis() - createTimeMs) + " millis";
+    }
+}
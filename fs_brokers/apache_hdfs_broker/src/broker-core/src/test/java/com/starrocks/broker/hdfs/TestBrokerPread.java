@@ -0,0 +1,142 @@
+// Copyright 2021-present StarRocks, Inc. All rights reserved.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     https://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.starrocks.broker.hdfs;
+
+import com.starrocks.common.BrokerReadStats;
+import com.starrocks.thrift.TBrokerFD;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class TestBrokerPread {
+
+    private static final int FILE_SIZE = 1 << 20;
+
+    private File file;
+    private byte[] data;
+    private FileSystemManager fileSystemManager;
+    private ClientContextManager clientContextManager;
+    private TBrokerFD fd;
+
+    @Before
+    public void setUp() throws Exception {
+        data = new byte[FILE_SIZE];
+        new Random(0).nextBytes(data);
+        file = File.createTempFile("broker_pread", ".dat");
+        Files.write(file.toPath(), data);
+
+        fileSystemManager = new FileSystemManager();
+        clientContextManager = fileSystemManager.getClientContextManager();
+        FileSystem localFileSystem = FileSystem.getLocal(new Configuration());
+        BrokerFileSystem brokerFileSystem = new BrokerFileSystem(new FileSystemIdentity("file:///", ""));
+        brokerFileSystem.setFileSystem(localFileSystem);
+        fd = new TBrokerFD(1, 2);
+        clientContextManager.putNewInputStream("client", fd, localFileSystem.open(new Path(file.getPath())),
+                brokerFileSystem);
+    }
+
+    @After
+    public void tearDown() {
+        clientContextManager.removeInputStream(fd);
+        file.delete();
+    }
+
+    private void assertRead(long offset, int length, ByteBuffer buffer) {
+        Assert.assertEquals(length, buffer.remaining());
+        for (int i = 0; i < length; i++) {
+            Assert.assertEquals(data[(int) offset + i], buffer.get(buffer.position() + i));
+        }
+    }
+
+    @Test
+    public void testSequentialAndPositionalRead() {
+        assertRead(0, 100, fileSystemManager.pread(fd, 0, 100));
+        // out of order reads don't move the stream
+        assertRead(5000, 200, fileSystemManager.pread(fd, 5000, 200));
+        assertRead(100, 100, fileSystemManager.pread(fd, 100, 100));
+        // continues the last read
+        assertRead(200, 300, fileSystemManager.pread(fd, 200, 300));
+
+        BrokerReadStats readStats = fileSystemManager.getReadStats(fd);
+        Assert.assertEquals(2, readStats.getSequentialReadCount());
+        Assert.assertEquals(2, readStats.getPositionalReadCount());
+    }
+
+    @Test
+    public void testReadBeyondEnd() {
+        assertRead(FILE_SIZE - 10, 10, fileSystemManager.pread(fd, FILE_SIZE - 10, 100));
+        Assert.assertEquals(0, fileSystemManager.pread(fd, FILE_SIZE, 100).remaining());
+        Assert.assertEquals(0, fileSystemManager.pread(fd, FILE_SIZE + 100, 100).remaining());
+    }
+
+    @Test
+    public void testConcurrentRead() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Random random = new Random(t);
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        long offset = random.nextInt(FILE_SIZE - 4096);
+                        int length = 1 + random.nextInt(4096);
+                        // the buffer of a thread is reused, so it's checked before the next read
+                        assertRead(offset, length, fileSystemManager.pread(fd, offset, length));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        BrokerReadStats readStats = fileSystemManager.getReadStats(fd);
+        Assert.assertEquals(800, readStats.getSequentialReadCount() + readStats.getPositionalReadCount());
+    }
+
+    @Test
+    public void testCloseReaderWaitsForSequentialRead() throws Exception {
+        ReentrantLock streamLock = clientContextManager.getBrokerInputStream(fd).getStreamLock();
+        streamLock.lock();
+        Thread closeThread = new Thread(() -> fileSystemManager.closeReader(fd));
+        try {
+            closeThread.start();
+            closeThread.join(200);
+            Assert.assertTrue(closeThread.isAlive());
+            Assert.assertNotNull(fileSystemManager.getReadStats(fd));
+        } finally {
+            streamLock.unlock();
+        }
+        closeThread.join();
+        Assert.assertNull(fileSystemManager.getReadStats(fd));
+        Assert.assertThrows(BrokerException.class, () -> fileSystemManager.pread(fd, 0, 100));
+    }
+}
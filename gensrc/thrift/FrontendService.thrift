@@ -1418,8 +1418,19 @@ struct TAuthInfo {
     5: optional string catalog_name
 }
 
+// The position to continue scanning the tables of information_schema from, the tables are scanned
+// in the order of db name and table name
+struct TSchemaTableScanCursor {
+    1: optional string db_name
+    2: optional string table_name
+}
+
 struct TGetTablesConfigRequest {
     1: optional TAuthInfo auth_info
+    2: optional string table_name
+    // return about batch_size rows and the cursor of the next batch if set, otherwise return all the rows
+    3: optional i32 batch_size
+    4: optional TSchemaTableScanCursor start_cursor
 }
 
 struct TTableConfigInfo {
@@ -1439,10 +1450,16 @@ struct TTableConfigInfo {
 
 struct TGetTablesConfigResponse {
     1: optional list<TTableConfigInfo> tables_config_infos
+    // not set if there are no more rows
+    2: optional TSchemaTableScanCursor next_cursor
 }
 
 struct TGetPartitionsMetaRequest {
     1: optional TAuthInfo auth_info
+    2: optional string table_name
+    // return about batch_size rows and the cursor of the next batch if set, otherwise return all the rows
+    3: optional i32 batch_size
+    4: optional TSchemaTableScanCursor start_cursor
 }
 
 struct TPartitionMetaInfo {
@@ -1478,11 +1495,16 @@ struct TPartitionMetaInfo {
 
 struct TGetPartitionsMetaResponse {
     1: optional list<TPartitionMetaInfo> partitions_meta_infos
+    // not set if there are no more rows
+    2: optional TSchemaTableScanCursor next_cursor
 }
 
 struct TGetTablesInfoRequest {
     1: optional TAuthInfo auth_info
     2: optional string table_name;
+    // return about batch_size rows and the cursor of the next batch if set, otherwise return all the rows
+    3: optional i32 batch_size
+    4: optional TSchemaTableScanCursor start_cursor
 }
 
 struct TTableInfo {
@@ -1513,6 +1535,8 @@ struct TTableInfo {
 
 struct TGetTablesInfoResponse {
     1: optional list<TTableInfo> tables_infos
+    // not set if there are no more rows
+    2: optional TSchemaTableScanCursor next_cursor
 }
 
 struct TGetTemporaryTablesInfoRequest {
@@ -1632,6 +1656,23 @@ struct TReleaseSlotResponse {
     1: optional Status.TStatus status
 }
 
+struct TRenewSlotLeaseRequest {
+    1: optional string fe_name
+    2: optional i64 fe_start_time
+    // the slots allocated locally by the FE against its lease
+    3: optional i32 num_allocated_slots
+    // the slots of the queries waiting for the lease of the FE
+    4: optional i32 num_pending_slots
+}
+
+struct TRenewSlotLeaseResponse {
+    1: optional Status.TStatus status
+    // the max slots the FE can allocate locally
+    2: optional i32 num_lease_slots
+    // the lease is valid in this duration since the request is sent
+    3: optional i64 lease_duration_ms
+}
+
 struct TGetWarehousesRequest {
 }
 
@@ -1840,6 +1881,18 @@ struct TListSessionsResponse {
     2: optional list<TSessionInfo> sessions;
 }
 
+struct TSyncStatisticsCacheRequest {
+    1: optional i64 table_id;
+    // the update time of the statistics meta in milliseconds
+    2: optional i64 update_time;
+    // the serialized StatisticsCacheSnapshot
+    3: optional binary snapshot;
+}
+
+struct TSyncStatisticsCacheResponse {
+    1: optional Status.TStatus status;
+}
+
 struct TGetKeysRequest {
 }
 
@@ -1945,6 +1998,7 @@ service FrontendService {
     TRequireSlotResponse requireSlotAsync(1: TRequireSlotRequest request)
     TFinishSlotRequirementResponse finishSlotRequirement(1: TFinishSlotRequirementRequest request)
     TReleaseSlotResponse releaseSlot(1: TReleaseSlotRequest request)
+    TRenewSlotLeaseResponse renewSlotLease(1: TRenewSlotLeaseRequest request)
 
     TGetLoadTxnStatusResult getLoadTxnStatus(1: TGetLoadTxnStatusRequest request)
 
@@ -1960,5 +2014,7 @@ service FrontendService {
     TGetTemporaryTablesInfoResponse getTemporaryTablesInfo(1: TGetTemporaryTablesInfoRequest request)
 
     TReportFragmentFinishResponse reportFragmentFinish(TReportFragmentFinishParams request)
+
+    TSyncStatisticsCacheResponse syncStatisticsCache(1: TSyncStatisticsCacheRequest request)
 }
 
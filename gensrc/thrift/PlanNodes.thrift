@@ -134,6 +134,9 @@ struct TInternalScanRange {
   // used for per-bucket compute optimize
   13: optional i32 bucket_sequence
   14: optional i64 gtid
+  // Only read the rowsets in the version range [start_version, version], used to read the data loaded
+  // since the last refresh of materialized views
+  15: optional i64 start_version
 }
 
 enum TFileFormatType {